@@ -0,0 +1,13 @@
+#!/usr/bin/env bash
+# Executa os benchmarks (todos ou os filtros/opções do JMH recebidos) e grava o resultado em JSON em
+# resultados/<data>-<commit>.json, para comparar execuções e acompanhar regressões.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+mkdir -p resultados
+arquivo="resultados/$(date +%Y%m%d-%H%M%S)-$(git rev-parse --short HEAD).json"
+
+java -jar target/benchmarks.jar -rf json -rff "$arquivo" "$@"
+
+echo "Resultado gravado em $arquivo"
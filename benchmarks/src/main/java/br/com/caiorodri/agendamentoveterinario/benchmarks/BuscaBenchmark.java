@@ -0,0 +1,128 @@
+package br.com.caiorodri.agendamentoveterinario.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.caiorodri.agendamentoveterinario.service.BuscaIndice;
+import br.com.caiorodri.agendamentoveterinario.service.BuscaIndice.AnimalIndexado;
+import br.com.caiorodri.agendamentoveterinario.service.BuscaIndice.ClienteIndexado;
+
+/**
+ * Tempo de resposta da busca de clientes (BuscaIndice) com o índice em memória. Os clientes são
+ * gerados com semente fixa a partir de nomes e sobrenomes comuns, então consultas como "maria"
+ * encontram dezenas de milhares de clientes, que é o pior caso da busca enquanto se digita.
+ *
+ * A indexação acontece uma vez por fork e leva alguns segundos por 100 mil clientes.
+ *
+ * Execução: java -jar target/benchmarks.jar BuscaBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BuscaBenchmark {
+
+    private static final String[] NOMES = {"Maria", "José", "Ana", "João", "Antônio", "Francisca", "Carlos", "Paulo",
+            "Adriana", "Lucas", "Juliana", "Márcia", "Fernanda", "Luís", "Patrícia", "Aline", "Sebastião", "Conceição",
+            "Gabriel", "Letícia", "Rafael", "Camila", "Vitória", "Caio", "Otávio", "Beatriz", "Inês", "Raimundo"};
+
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves",
+            "Pereira", "Lima", "Gomes", "Ribeiro", "Carvalho", "Araújo", "Gonçalves", "Conceição", "Magalhães", "Simões",
+            "Brandão", "Falcão", "Assunção", "Damásio", "Müller", "Câmara", "Nóbrega"};
+
+    private static final String[] ANIMAIS = {"Thor", "Mel", "Luna", "Bob", "Nina", "Fred", "Pipoca", "Paçoca", "Bidu",
+            "Amora", "Simba", "Lola", "Chico", "Pretinha", "Belinha", "Zeus", "Tobias", "Mingau", "Jabuticaba"};
+
+    private static final Long ID_CLINICA = 1L;
+
+    @Param({"1000000"})
+    public int clientes;
+
+    @Param({"ma", "maria", "maria sil", "jose souza", "joão conceição", "paçoca", "119876", "123.456", "maria.silva1"})
+    public String consulta;
+
+    @Param({"10"})
+    public int limite;
+
+    /** Clientes distribuídos entre as clínicas; a busca filtra pela clínica 1. */
+    @Param({"1", "10"})
+    public int clinicas;
+
+    private BuscaIndice indice;
+
+    @Setup
+    public void setup() throws IOException {
+
+        indice = new BuscaIndice("");
+
+        Random random = new Random(42);
+
+        for (long id = 1; id <= clientes; id++) {
+            indice.indexar(cliente(id, 1 + id % clinicas, random));
+        }
+
+        indice.publicar();
+
+        System.out.println("Clientes indexados: " + indice.tamanho() + ", encontrados para '" + consulta + "': " + indice.buscar(ID_CLINICA, consulta, limite).size());
+
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+
+        indice.fechar();
+
+    }
+
+    @Benchmark
+    public List<ClienteIndexado> buscar() throws IOException {
+
+        return indice.buscar(ID_CLINICA, consulta, limite);
+
+    }
+
+    private static ClienteIndexado cliente(long id, long idClinica, Random random) {
+
+        String nome = NOMES[random.nextInt(NOMES.length)];
+        String sobrenome = SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+        String nomeCompleto = nome + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " " + sobrenome;
+
+        String cpf = String.format("%011d", Math.floorMod(random.nextLong(), 100_000_000_000L));
+        String email = (nome + "." + sobrenome + id).toLowerCase() + "@email.com";
+
+        List<String> telefones = new ArrayList<>();
+        telefones.add(String.format("11%09d", random.nextInt(1_000_000_000)));
+
+        if (random.nextBoolean()) {
+            telefones.add(String.format("11%08d", random.nextInt(100_000_000)));
+        }
+
+        List<AnimalIndexado> animais = new ArrayList<>();
+
+        for (int i = random.nextInt(3); i > 0; i--) {
+            animais.add(new AnimalIndexado(id * 10 + i, ANIMAIS[random.nextInt(ANIMAIS.length)]));
+        }
+
+        return new ClienteIndexado(id, idClinica, nomeCompleto, cpf, email, telefones, animais);
+
+    }
+
+}
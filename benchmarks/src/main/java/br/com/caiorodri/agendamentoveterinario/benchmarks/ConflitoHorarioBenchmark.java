@@ -0,0 +1,97 @@
+package br.com.caiorodri.agendamentoveterinario.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.caiorodri.agendamentoveterinario.model.ReservaHorario;
+import br.com.caiorodri.agendamentoveterinario.service.ReservasHorario;
+
+/**
+ * Verificação de conflito de horário com as reservas temporárias (ReservasHorario), feita em todo
+ * cadastro de agendamento e em toda reserva. Cada veterinário tem reservas de 30 minutos em horários
+ * alternados ao longo de vários dias; as consultas caem em intervalos aleatórios desse período,
+ * metade livres e metade ocupados.
+ *
+ * A checagem no banco (AgendamentoRepository.existeConflitoDeHorario) não entra aqui: o custo dela é o
+ * da consulta indexada, medido com o banco real.
+ *
+ * Execução: java -jar target/benchmarks.jar ConflitoHorarioBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConflitoHorarioBenchmark {
+
+    private static final int VETERINARIOS = 50;
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 3, 10, 8, 0);
+
+    /** Reservas por veterinário. */
+    @Param({"10", "1000"})
+    public int reservas;
+
+    private ReservasHorario reservasHorario;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup
+    public void setup() {
+
+        reservasHorario = new ReservasHorario(1000, 512);
+
+        LocalDateTime expiracao = LocalDateTime.now().plusYears(1);
+
+        for (long idVeterinario = 1; idVeterinario <= VETERINARIOS; idVeterinario++) {
+            for (int i = 0; i < reservas; i++) {
+
+                LocalDateTime inicio = INICIO.plusHours(i);
+
+                reservasHorario.reservar(idVeterinario, 1000L + i, 1, inicio, inicio.plusMinutes(30), expiracao);
+
+            }
+        }
+
+    }
+
+    @Benchmark
+    public boolean reservadoPorOutro() {
+
+        LocalDateTime inicio = INICIO.plusMinutes(30L * random.nextInt(reservas * 2));
+
+        return reservasHorario.reservadoPorOutro(1L + random.nextInt(VETERINARIOS), 1L, inicio, inicio.plusMinutes(30));
+
+    }
+
+    @Benchmark
+    public Optional<ReservaHorario> reservarELiberar() {
+
+        // Horário livre (meia hora depois de uma reserva existente), liberado em seguida para manter o tamanho da agenda.
+        LocalDateTime inicio = INICIO.plusHours(random.nextInt(reservas)).plusMinutes(30);
+
+        Optional<ReservaHorario> reserva = reservasHorario.reservar(1L + random.nextInt(VETERINARIOS), 1L, 1, inicio, inicio.plusMinutes(30),
+                LocalDateTime.now().plusMinutes(5));
+
+        reserva.ifPresent(reservasHorario::liberar);
+
+        return reserva;
+
+    }
+
+}
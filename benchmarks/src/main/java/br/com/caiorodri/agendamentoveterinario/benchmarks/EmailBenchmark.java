@@ -0,0 +1,97 @@
+package br.com.caiorodri.agendamentoveterinario.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.caiorodri.agendamentoveterinario.email.ModelosEmail;
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.Animal;
+import br.com.caiorodri.agendamentoveterinario.model.Clinica;
+import br.com.caiorodri.agendamentoveterinario.model.Especie;
+import br.com.caiorodri.agendamentoveterinario.model.Raca;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+
+/**
+ * Montagem do HTML dos e-mails mais enviados (ModelosEmail): confirmação de agendamento, lembrete
+ * de agendamento e cadastro de animal. Mede só a renderização; o envio pelo servidor SMTP fica de
+ * fora. O tamanho de cada HTML é impresso no início de cada fork.
+ *
+ * Execução: java -jar target/benchmarks.jar EmailBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailBenchmark {
+
+    @Param({"cadastroAgendamento", "lembreteAgendamento", "cadastroAnimal"})
+    public String modelo;
+
+    private Usuario cliente;
+
+    private Animal animal;
+
+    private Agendamento agendamento;
+
+    private Clinica clinica;
+
+    @Setup
+    public void setup() {
+
+        cliente = new Usuario();
+        cliente.setNome("Maria Souza");
+
+        Usuario veterinario = new Usuario();
+        veterinario.setNome("Dr. Paulo Lima");
+
+        Usuario recepcionista = new Usuario();
+        recepcionista.setNome("Ana Recepção");
+
+        animal = new Animal(1L);
+        animal.setNome("Thor");
+        animal.setRaca(new Raca(3, new Especie(1, "Cachorro"), "Labrador"));
+        animal.setDataNascimento(new Date(1_600_000_000_000L));
+        animal.setPeso(28.5f);
+        animal.setAltura(0.6f);
+
+        agendamento = new Agendamento();
+        agendamento.setAnimal(animal);
+        agendamento.setCliente(cliente);
+        agendamento.setVeterinario(veterinario);
+        agendamento.setRecepcionista(recepcionista);
+        agendamento.setDataAgendamentoInicio(LocalDateTime.of(2025, 3, 10, 9, 30));
+
+        clinica = new Clinica(1L, "AgenPet", "Rua das Flores, 123 - São Paulo/SP", "(11) 3333-4444", null);
+
+        System.out.println("Tamanho do HTML de " + modelo + ": " + renderizar().length() + " caracteres");
+
+    }
+
+    @Benchmark
+    public String renderizar() {
+
+        return switch (modelo) {
+            case "cadastroAgendamento" -> ModelosEmail.cadastroAgendamento("Agendamento Confirmado com Sucesso!", cliente, agendamento, false, clinica);
+            case "lembreteAgendamento" -> ModelosEmail.lembreteAgendamento("Seu agendamento é daqui a 2 horas!", cliente, agendamento, clinica);
+            case "cadastroAnimal" -> ModelosEmail.cadastroAnimal("Animal Cadastrado com Sucesso!", cliente, animal, false, clinica);
+            default -> throw new IllegalArgumentException("Modelo desconhecido: " + modelo);
+        };
+
+    }
+
+}
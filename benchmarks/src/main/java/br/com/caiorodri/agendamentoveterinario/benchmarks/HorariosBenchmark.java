@@ -0,0 +1,108 @@
+package br.com.caiorodri.agendamentoveterinario.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.ReservaHorario;
+import br.com.caiorodri.agendamentoveterinario.model.VeterinarioHorario;
+import br.com.caiorodri.agendamentoveterinario.service.GeradorHorarios;
+
+/**
+ * Geração dos horários livres de um veterinário em um dia (GeradorHorarios, a parte em memória de
+ * UsuarioService.listarHorariosDisponiveis), com jornada de 08:00 às 12:00 e de 13:00 às 18:00. Os
+ * agendamentos e reservas do dia ocupam horários alternados, então cada horário é comparado com a
+ * lista inteira no pior caso.
+ *
+ * Execução: java -jar target/benchmarks.jar HorariosBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HorariosBenchmark {
+
+    private static final LocalDate DATA = LocalDate.of(2025, 3, 10);
+
+    @Param({"30", "60"})
+    public int duracaoMinutos;
+
+    @Param({"0", "8"})
+    public int agendamentos;
+
+    @Param({"0", "4"})
+    public int reservas;
+
+    private List<VeterinarioHorario> blocos;
+
+    private List<Agendamento> ocupados;
+
+    private List<ReservaHorario> reservasDoDia;
+
+    private final LocalDateTime agora = DATA.minusDays(1).atTime(12, 0);
+
+    @Setup
+    public void setup() {
+
+        blocos = List.of(bloco(LocalTime.of(8, 0), LocalTime.of(12, 0)), bloco(LocalTime.of(13, 0), LocalTime.of(18, 0)));
+
+        ocupados = new ArrayList<>();
+
+        for (int i = 0; i < agendamentos; i++) {
+
+            Agendamento agendamento = new Agendamento();
+            agendamento.setDataAgendamentoInicio(DATA.atTime(8, 0).plusHours(i));
+            agendamento.setDataAgendamentoFinal(DATA.atTime(8, 30).plusHours(i));
+
+            ocupados.add(agendamento);
+
+        }
+
+        reservasDoDia = new ArrayList<>();
+
+        for (int i = 0; i < reservas; i++) {
+
+            LocalDateTime inicio = DATA.atTime(13, 30).plusHours(i);
+
+            reservasDoDia.add(new ReservaHorario("reserva-" + i, 1L, 100L + i, 1, inicio, inicio.plusMinutes(30), agora.plusMinutes(5)));
+
+        }
+
+    }
+
+    @Benchmark
+    public List<String> gerar() {
+
+        return GeradorHorarios.gerar(DATA, blocos, duracaoMinutos, ocupados, reservasDoDia, agora);
+
+    }
+
+    private static VeterinarioHorario bloco(LocalTime inicio, LocalTime fim) {
+
+        VeterinarioHorario bloco = new VeterinarioHorario();
+        bloco.setHoraInicio(inicio);
+        bloco.setHoraFim(fim);
+
+        return bloco;
+
+    }
+
+}
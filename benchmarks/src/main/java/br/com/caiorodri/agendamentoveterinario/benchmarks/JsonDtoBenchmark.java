@@ -0,0 +1,245 @@
+package br.com.caiorodri.agendamentoveterinario.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoStatusDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoTipoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.AnimalDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.AnimalSimplesDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.EnderecoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.EspecieDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.PerfilDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.RacaDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.SexoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.StatusDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.UsuarioDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.UsuarioSimplesDTO;
+import br.com.caiorodri.agendamentoveterinario.model.Estado;
+
+/**
+ * Mede a serialização dos DTOs de resposta com o Jackson padrão (reflexão, nulls incluídos e um
+ * writer novo por chamada, como o conversor do Spring fazia) e com a configuração da aplicação
+ * (Blackbird, sem nulls, writer pré-resolvido por tipo e pool limitado de buffers). O JSON é escrito
+ * em um stream que só conta bytes, como a resposta HTTP.
+ *
+ * ns/op vem do próprio benchmark; bytes alocados por operação vêm do profiler de GC
+ * (gc.alloc.rate.norm). O tamanho do JSON de cada DTO é impresso no início de cada fork.
+ *
+ * Execução: java -jar target/benchmarks.jar JsonDtoBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class JsonDtoBenchmark {
+
+    @Param({"padrao", "otimizado"})
+    public String configuracao;
+
+    @Param({"agendamento", "usuario", "animal"})
+    public String dto;
+
+    /** Quantidade de agendamentos aninhados no usuário e no animal. */
+    @Param({"20"})
+    public int agendamentos;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter writer;
+
+    private Object valor;
+
+    private final ContadorBytes saida = new ContadorBytes();
+
+    @Setup
+    public void setup() throws IOException {
+
+        valor = switch (dto) {
+            case "agendamento" -> agendamento(1L);
+            case "usuario" -> usuario();
+            case "animal" -> animal(1L);
+            default -> throw new IllegalArgumentException("DTO desconhecido: " + dto);
+        };
+
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        if ("otimizado".equals(configuracao)) {
+
+            builder.addModule(new BlackbirdModule())
+                    .serializationInclusion(JsonInclude.Include.NON_NULL);
+
+            objectMapper = builder.build();
+            objectMapper.getFactory().setRecyclerPool(JsonRecyclerPools.newBoundedPool(256));
+            writer = objectMapper.writerFor(valor.getClass());
+
+        } else {
+
+            objectMapper = builder.build();
+
+        }
+
+        serializar();
+
+        System.out.println("Tamanho do JSON de " + dto + " (" + configuracao + "): " + saida.bytes + " bytes");
+
+    }
+
+    @Benchmark
+    public long serializar() throws IOException {
+
+        saida.bytes = 0;
+
+        if (writer != null) {
+            writer.writeValue(saida, valor);
+        } else {
+            objectMapper.writer().writeValue(saida, valor);
+        }
+
+        return saida.bytes;
+
+    }
+
+    private static AgendamentoDTO agendamento(long id) {
+
+        LocalDateTime inicio = LocalDateTime.of(2025, 3, 10, 9, 0).plusHours(id);
+
+        AgendamentoDTO agendamento = new AgendamentoDTO();
+        agendamento.setId(id);
+        agendamento.setAnimal(animalSimples(id));
+        agendamento.setCliente(usuarioSimples(100L, "Maria Souza"));
+        agendamento.setVeterinario(usuarioSimples(200L, "Dr. Paulo Lima"));
+        agendamento.setStatus(new AgendamentoStatusDTO(1, "Aberto"));
+        agendamento.setTipo(new AgendamentoTipoDTO(1, "Consulta", 30));
+        agendamento.setDescricao("Retorno para avaliação do tratamento");
+        agendamento.setDataCriacao(inicio.minusDays(7));
+        agendamento.setDataAgendamentoInicio(inicio);
+        agendamento.setDataAgendamentoFinal(inicio.plusMinutes(30));
+
+        return agendamento;
+
+    }
+
+    private AnimalDTO animal(long id) {
+
+        AnimalDTO animal = new AnimalDTO();
+        animal.setId(id);
+        animal.setNome("Thor");
+        animal.setRaca(new RacaDTO(3, new EspecieDTO(1, "Cachorro"), "Labrador"));
+        animal.setSexo(new SexoDTO(1, "Macho"));
+        animal.setCastrado(true);
+        animal.setDataNascimento(new Date(1_600_000_000_000L));
+        animal.setPeso(28.5f);
+        animal.setAltura(0.6f);
+        animal.setDono(usuarioSimples(100L, "Maria Souza"));
+        animal.setAgendamentos(agendamentos(id, agendamentos));
+
+        return animal;
+
+    }
+
+    private UsuarioDTO usuario() {
+
+        UsuarioDTO usuario = new UsuarioDTO();
+        usuario.setId(100L);
+        usuario.setNome("Maria Souza");
+        usuario.setEmail("maria.souza@email.com");
+        usuario.setCpf("12345678909");
+        usuario.setEndereco(new EnderecoDTO("Rua das Flores", "123", null, "São Paulo", new Estado("SP", "São Paulo"), "01001000"));
+        usuario.setStatus(new StatusDTO(1, "Ativo"));
+        usuario.setPerfil(new PerfilDTO(1, "Cliente"));
+        usuario.setDataNascimento(new Date(600_000_000_000L));
+        usuario.setTelefones(List.of("11999990000", "1133334444"));
+        usuario.setReceberEmail(true);
+        usuario.setAgendamentos(agendamentos(1L, agendamentos));
+        usuario.setAnimais(List.of(animal(1L), animal(2L)));
+
+        return usuario;
+
+    }
+
+    private static List<AgendamentoDTO> agendamentos(long primeiroId, int quantidade) {
+
+        List<AgendamentoDTO> lista = new ArrayList<>(quantidade);
+
+        for (long id = primeiroId; id < primeiroId + quantidade; id++) {
+            lista.add(agendamento(id));
+        }
+
+        return lista;
+
+    }
+
+    private static AnimalSimplesDTO animalSimples(long id) {
+
+        AnimalSimplesDTO animal = new AnimalSimplesDTO();
+        animal.setId(id);
+        animal.setNome("Thor");
+
+        return animal;
+
+    }
+
+    private static UsuarioSimplesDTO usuarioSimples(Long id, String nome) {
+
+        UsuarioSimplesDTO usuario = new UsuarioSimplesDTO();
+        usuario.setId(id);
+        usuario.setNome(nome);
+
+        return usuario;
+
+    }
+
+    /**
+     * Stream que descarta o conteúdo e só conta os bytes escritos.
+     */
+    private static class ContadorBytes extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+    }
+
+}
@@ -0,0 +1,161 @@
+package br.com.caiorodri.agendamentoveterinario.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.caiorodri.agendamentoveterinario.mapper.Mapper;
+import br.com.caiorodri.agendamentoveterinario.mapper.MapperImpl;
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoStatus;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoTipo;
+import br.com.caiorodri.agendamentoveterinario.model.Animal;
+import br.com.caiorodri.agendamentoveterinario.model.Especie;
+import br.com.caiorodri.agendamentoveterinario.model.Estado;
+import br.com.caiorodri.agendamentoveterinario.model.Perfil;
+import br.com.caiorodri.agendamentoveterinario.model.Raca;
+import br.com.caiorodri.agendamentoveterinario.model.Sexo;
+import br.com.caiorodri.agendamentoveterinario.model.Status;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+
+/**
+ * Conversão de páginas de entidades em DTOs pelo Mapper gerado pelo MapStruct, como nas listagens
+ * de agendamentos e de usuários. As entidades já vêm carregadas, então só a cópia é medida; cada
+ * usuário tem dois animais e nenhum agendamento, como na listagem.
+ *
+ * Execução: java -jar target/benchmarks.jar MapperBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tamanhoPagina;
+
+    private final Mapper mapper = new MapperImpl();
+
+    private final Status ativo = new Status(1, "Ativo");
+
+    private final Estado estado = new Estado("SP", "São Paulo");
+
+    private final Raca raca = new Raca(3, new Especie(1, "Cachorro"), "Labrador");
+
+    private final Sexo sexo = new Sexo(1, "Macho");
+
+    private List<Agendamento> agendamentos;
+
+    private List<Usuario> usuarios;
+
+    @Setup
+    public void setup() {
+
+        Usuario veterinario = usuario(1L, "Dr. Paulo Lima", new Perfil(3, "Veterinario"));
+        Usuario recepcionista = usuario(2L, "Ana Recepção", new Perfil(2, "Recepcionista"));
+        AgendamentoStatus aberto = new AgendamentoStatus(1, "Aberto");
+        AgendamentoTipo consulta = new AgendamentoTipo(1, "Consulta", 30, null);
+
+        agendamentos = new ArrayList<>(tamanhoPagina);
+        usuarios = new ArrayList<>(tamanhoPagina);
+
+        for (long i = 0; i < tamanhoPagina; i++) {
+
+            Usuario cliente = usuario(100L + i, "Cliente " + i, new Perfil(1, "Cliente"));
+            Animal animal = animal(i * 2, cliente);
+            cliente.getAnimais().add(animal);
+            cliente.getAnimais().add(animal(i * 2 + 1, cliente));
+
+            LocalDateTime inicio = LocalDateTime.of(2025, 3, 10, 8, 0).plusMinutes(30 * i);
+
+            Agendamento agendamento = new Agendamento();
+            agendamento.setId(i);
+            agendamento.setAnimal(animal);
+            agendamento.setCliente(cliente);
+            agendamento.setVeterinario(veterinario);
+            agendamento.setRecepcionista(recepcionista);
+            agendamento.setStatus(aberto);
+            agendamento.setTipo(consulta);
+            agendamento.setDescricao("Retorno para avaliação do tratamento");
+            agendamento.setDataCriacao(inicio.minusDays(7));
+            agendamento.setDataAgendamentoInicio(inicio);
+            agendamento.setDataAgendamentoFinal(inicio.plusMinutes(30));
+
+            agendamentos.add(agendamento);
+            usuarios.add(cliente);
+
+        }
+
+    }
+
+    @Benchmark
+    public Object agendamentos() {
+
+        return mapper.agendamentoListToDtoList(agendamentos);
+
+    }
+
+    @Benchmark
+    public Object usuarios() {
+
+        return mapper.usuarioListToDtoList(usuarios);
+
+    }
+
+    private Usuario usuario(Long id, String nome, Perfil perfil) {
+
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setIdClinica(1L);
+        usuario.setNome(nome);
+        usuario.setEmail("usuario" + id + "@email.com");
+        usuario.setCpf(String.format("%011d", id));
+        usuario.setPerfil(perfil);
+        usuario.setStatus(ativo);
+        usuario.setDataNascimento(new Date(600_000_000_000L));
+        usuario.getEndereco().setLogradouro("Rua das Flores");
+        usuario.getEndereco().setNumero("123");
+        usuario.getEndereco().setCidade("São Paulo");
+        usuario.getEndereco().setEstado(estado);
+        usuario.getEndereco().setCep("01001000");
+        usuario.getTelefones().add("11999990000");
+        usuario.setReceberEmail(true);
+
+        return usuario;
+
+    }
+
+    private Animal animal(long id, Usuario dono) {
+
+        Animal animal = new Animal(id);
+        animal.setNome("Thor");
+        animal.setRaca(raca);
+        animal.setSexo(sexo);
+        animal.setCastrado(true);
+        animal.setDataNascimento(new Date(1_600_000_000_000L));
+        animal.setPeso(28.5f);
+        animal.setAltura(0.6f);
+        animal.setDono(dono);
+        animal.setAgendamentos(new ArrayList<>());
+
+        return animal;
+
+    }
+
+}
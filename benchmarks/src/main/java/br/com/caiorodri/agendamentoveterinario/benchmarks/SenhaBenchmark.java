@@ -0,0 +1,74 @@
+package br.com.caiorodri.agendamentoveterinario.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Mede quantos logins por segundo um núcleo consegue validar para cada custo do BCrypt, usando o
+ * mesmo DelegatingPasswordEncoder configurado na aplicação. Como o hash é CPU-bound, o total da
+ * máquina é aproximadamente esse valor multiplicado pelo número de threads do executor de senhas.
+ *
+ * Execução: java -jar target/benchmarks.jar SenhaBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(1)
+public class SenhaBenchmark {
+
+    @Param({"10", "11", "12"})
+    public int custo;
+
+    private PasswordEncoder encoder;
+
+    private String senhaCriptografada;
+
+    private final String senha = "senha-de-teste-123";
+
+    @Setup
+    public void setup() {
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(custo);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        encoder = delegating;
+        senhaCriptografada = encoder.encode(senha);
+
+    }
+
+    @Benchmark
+    public boolean loginPorNucleo() {
+
+        return encoder.matches(senha, senhaCriptografada);
+
+    }
+
+    @Benchmark
+    public String cadastroPorNucleo() {
+
+        return encoder.encode(senha);
+
+    }
+
+}
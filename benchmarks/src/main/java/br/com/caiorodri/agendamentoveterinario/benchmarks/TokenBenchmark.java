@@ -0,0 +1,71 @@
+package br.com.caiorodri.agendamentoveterinario.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+import br.com.caiorodri.agendamentoveterinario.security.TokenService;
+
+/**
+ * Validação do token JWT (TokenService.validateToken), feita pelo SecurityFilter em toda requisição
+ * autenticada. O serviço é o mesmo da aplicação, com segredo e validade preenchidos como faria o
+ * Spring.
+ *
+ * Execução: java -jar target/benchmarks.jar TokenBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBenchmark {
+
+    private TokenService tokenService;
+
+    private String token;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+
+        tokenService = new TokenService();
+        atribuir("secret", "segredo-do-benchmark-com-32-caracteres");
+        atribuir("expiration", 3_600_000L);
+
+        Usuario usuario = new Usuario();
+        usuario.setEmail("maria.souza@email.com");
+        usuario.setIdClinica(1L);
+
+        token = tokenService.generateToken(usuario);
+
+    }
+
+    @Benchmark
+    public DecodedJWT validateToken() {
+
+        return tokenService.validateToken(token);
+
+    }
+
+    private void atribuir(String campo, Object valor) throws ReflectiveOperationException {
+
+        Field field = TokenService.class.getDeclaredField(campo);
+        field.setAccessible(true);
+        field.set(tokenService, valor);
+
+    }
+
+}
@@ -0,0 +1,164 @@
+package br.com.caiorodri.agendamentoveterinario.benchmarks.carga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latências dos cenários e das requisições de um teste de carga. Cada medição guarda todas as
+ * durações das operações bem-sucedidas, para que os percentis sejam exatos; com alguns minutos de
+ * teste são poucos milhões de longs.
+ *
+ * Respostas 4xx contam como recusadas (regra de negócio, ex.: horário já ocupado) e não entram nos
+ * percentis; respostas 5xx e falhas de conexão contam como erros.
+ */
+class Medicoes {
+
+    private final Map<String, Medicao> medicoes = new ConcurrentHashMap<>();
+
+    private volatile boolean registrando;
+
+    /** Descarta o aquecimento: só registra a partir daqui. */
+    void iniciar() {
+
+        registrando = true;
+
+    }
+
+    void sucesso(String nome, long nanos) {
+
+        if (registrando) {
+            medicao(nome).adicionar(nanos);
+        }
+
+    }
+
+    void recusada(String nome) {
+
+        if (registrando) {
+            medicao(nome).recusadas.incrementAndGet();
+        }
+
+    }
+
+    void erro(String nome) {
+
+        if (registrando) {
+            medicao(nome).erros.incrementAndGet();
+        }
+
+    }
+
+    /**
+     * @param segundos Duração da fase medida.
+     * @return Resumo por nome, em ordem alfabética (cenários antes das suas requisições).
+     */
+    List<Resumo> resumir(double segundos) {
+
+        return medicoes.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> e.getValue().resumir(e.getKey(), segundos))
+                .toList();
+
+    }
+
+    private Medicao medicao(String nome) {
+
+        return medicoes.computeIfAbsent(nome, n -> new Medicao());
+
+    }
+
+    /**
+     * @param porSegundo Operações bem-sucedidas por segundo.
+     * @param percentisMs p50, p90, p99, p99.9 e máximo, em milissegundos.
+     */
+    record Resumo(String nome, long sucessos, long recusadas, long erros, double porSegundo, Map<String, Double> percentisMs) {
+
+        String formatar() {
+
+            return String.format("%-34s %9d %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f", nome, sucessos, recusadas, erros, porSegundo,
+                    percentisMs.get("p50"), percentisMs.get("p90"), percentisMs.get("p99"), percentisMs.get("p99.9"), percentisMs.get("max"));
+
+        }
+
+        static String cabecalho() {
+
+            return String.format("%-34s %9s %9s %7s %9s %9s %9s %9s %9s %9s", "operacao", "sucessos", "recusadas", "erros", "por seg",
+                    "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        }
+
+    }
+
+    private static class Medicao {
+
+        private final List<long[]> blocos = new ArrayList<>();
+
+        private long[] atual = new long[4096];
+
+        private int posicao;
+
+        private final AtomicLong recusadas = new AtomicLong();
+
+        private final AtomicLong erros = new AtomicLong();
+
+        synchronized void adicionar(long nanos) {
+
+            if (posicao == atual.length) {
+
+                blocos.add(atual);
+                atual = new long[atual.length * 2];
+                posicao = 0;
+
+            }
+
+            atual[posicao++] = nanos;
+
+        }
+
+        synchronized Resumo resumir(String nome, double segundos) {
+
+            int total = posicao + blocos.stream().mapToInt(b -> b.length).sum();
+            long[] valores = new long[total];
+            int destino = 0;
+
+            for (long[] bloco : blocos) {
+
+                System.arraycopy(bloco, 0, valores, destino, bloco.length);
+                destino += bloco.length;
+
+            }
+
+            System.arraycopy(atual, 0, valores, destino, posicao);
+            Arrays.sort(valores);
+
+            Map<String, Double> percentis = new LinkedHashMap<>();
+            percentis.put("p50", percentil(valores, 0.50));
+            percentis.put("p90", percentil(valores, 0.90));
+            percentis.put("p99", percentil(valores, 0.99));
+            percentis.put("p99.9", percentil(valores, 0.999));
+            percentis.put("max", total == 0 ? 0 : valores[total - 1] / 1e6);
+
+            return new Resumo(nome, total, recusadas.get(), erros.get(), total / segundos, percentis);
+
+        }
+
+        private static double percentil(long[] ordenados, double fracao) {
+
+            if (ordenados.length == 0) {
+                return 0;
+            }
+
+            int indice = (int) Math.ceil(fracao * ordenados.length) - 1;
+
+            return ordenados[Math.max(0, indice)] / 1e6;
+
+        }
+
+    }
+
+}
@@ -0,0 +1,453 @@
+package br.com.caiorodri.agendamentoveterinario.benchmarks.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Teste de carga de ponta a ponta contra a aplicação no perfil carga (mvn -Pcarga spring-boot:run),
+ * que gera os usuários cliente{n}@carga.local, recepcionista{n}@carga.local e admin@carga.local.
+ *
+ * Cada usuário virtual é uma thread virtual que entra como um cliente sorteado e executa cenários
+ * sorteados pelo peso até o fim do teste, sem pausa entre eles:
+ *
+ * - login: autenticação do cliente (BCrypt e carga do usuário).
+ * - listar: uma página da agenda geral, como recepcionista, e os agendamentos do cliente.
+ * - disponibilidade: horários livres de um veterinário em um dia e próximos horários de qualquer um.
+ * - agendar: horários livres, reserva de um deles e confirmação da reserva com um animal do cliente.
+ *
+ * O resultado traz vazão e percentis de latência por cenário e por requisição (cenario/requisicao),
+ * os e-mails recebidos pelo SMTP falso durante a medição e é gravado em JSON. Requisições sem
+ * resposta em --timeout segundos contam como erro, para que o teste termine mesmo com o servidor
+ * saturado.
+ *
+ * Execução: java -cp target/benchmarks.jar br.com.caiorodri.agendamentoveterinario.benchmarks.carga.TesteCarga
+ *   --usuarios=64 --duracao=120 --cenarios=login:1,listar:4,disponibilidade:4,agendar:1
+ */
+public class TesteCarga {
+
+    private static final Map<String, String> PADROES = Map.ofEntries(
+            Map.entry("url", "http://localhost:8080/agendamento-veterinario"),
+            Map.entry("usuarios", "32"),
+            Map.entry("aquecimento", "15"),
+            Map.entry("duracao", "60"),
+            Map.entry("clientes", "100000"),
+            Map.entry("senha", "carga123"),
+            Map.entry("horizonte-dias", "30"),
+            Map.entry("semente", "42"),
+            Map.entry("timeout", "30"),
+            Map.entry("cenarios", "login:1,listar:4,disponibilidade:4,agendar:1"),
+            Map.entry("saida", "resultados/carga-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json"));
+
+    private static final String DOMINIO_EMAIL = "@carga.local";
+
+    private static final int ID_TIPO_CONSULTA = 1;
+
+    private final Map<String, String> opcoes;
+
+    private final String url;
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Medicoes medicoes = new Medicoes();
+
+    private final List<String> cenarios = new ArrayList<>();
+
+    private final Duration timeout;
+
+    private String tokenRecepcionista;
+
+    private List<Long> veterinarios;
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, String> opcoes = new LinkedHashMap<>(PADROES);
+
+        for (String arg : args) {
+
+            String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+
+            if (!PADROES.containsKey(partes[0]) || partes.length != 2) {
+                throw new IllegalArgumentException("Opção inválida: " + arg + ". Opções: " + PADROES.keySet());
+            }
+
+            opcoes.put(partes[0], partes[1]);
+        }
+
+        new TesteCarga(opcoes).executar();
+
+    }
+
+    TesteCarga(Map<String, String> opcoes) {
+
+        this.opcoes = opcoes;
+        this.url = opcoes.get("url");
+        this.timeout = Duration.ofSeconds(Long.parseLong(opcoes.get("timeout")));
+
+        for (String cenario : opcoes.get("cenarios").split(",")) {
+
+            String[] partes = cenario.split(":");
+
+            for (int i = 0; i < Integer.parseInt(partes[1]); i++) {
+                cenarios.add(partes[0]);
+            }
+        }
+
+    }
+
+    void executar() throws Exception {
+
+        String tokenAdministrador = entrar("admin" + DOMINIO_EMAIL).token();
+        tokenRecepcionista = entrar("recepcionista1" + DOMINIO_EMAIL).token();
+
+        veterinarios = new ArrayList<>();
+        json.readTree(enviar(get("/usuarios/veterinarios", tokenAdministrador)).body()).forEach(v -> veterinarios.add(v.get("id").asLong()));
+
+        int usuarios = inteiro("usuarios");
+        long aquecimento = Duration.ofSeconds(inteiro("aquecimento")).toNanos();
+        long duracao = Duration.ofSeconds(inteiro("duracao")).toNanos();
+
+        System.out.printf("%d usuários virtuais, %d veterinários, aquecimento de %s s e medição de %s s%n",
+                usuarios, veterinarios.size(), opcoes.get("aquecimento"), opcoes.get("duracao"));
+
+        long inicio = System.nanoTime();
+        long fim = inicio + aquecimento + duracao;
+        long emailsAntes;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            for (int i = 0; i < usuarios; i++) {
+
+                Random random = new Random(Long.parseLong(opcoes.get("semente")) + i);
+                executor.execute(() -> usuarioVirtual(random, fim));
+
+            }
+
+            Thread.sleep(Duration.ofNanos(aquecimento));
+
+            emailsAntes = emailsRecebidos(tokenAdministrador);
+            medicoes.iniciar();
+
+        }
+
+        double segundos = duracao / 1e9;
+
+        long emails = emailsRecebidos(tokenAdministrador) - emailsAntes;
+
+        List<Medicoes.Resumo> resumos = medicoes.resumir(segundos);
+
+        System.out.println();
+        System.out.println(Medicoes.Resumo.cabecalho());
+        resumos.forEach(r -> System.out.println(r.formatar()));
+        System.out.printf("%nE-mails recebidos pelo SMTP falso durante a medição: %d%n", emails);
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("opcoes", opcoes);
+        resultado.put("veterinarios", veterinarios.size());
+        resultado.put("emails", emails);
+        resultado.put("operacoes", resumos);
+
+        Path saida = Path.of(opcoes.get("saida"));
+
+        if (saida.getParent() != null) {
+            Files.createDirectories(saida.getParent());
+        }
+
+        json.writeValue(saida.toFile(), resultado);
+
+        System.out.println("Resultado gravado em " + saida);
+
+    }
+
+    private void usuarioVirtual(Random random, long fim) {
+
+        Sessao sessao = null;
+
+        while (System.nanoTime() < fim) {
+
+            String cenario = cenarios.get(random.nextInt(cenarios.size()));
+
+            try {
+
+                if (sessao == null) {
+                    sessao = entrar(cliente(random));
+                }
+
+                long inicio = System.nanoTime();
+
+                boolean concluido = switch (cenario) {
+                    case "login" -> {
+
+                        Sessao nova = login(cliente(random));
+                        sessao = nova != null ? nova : sessao;
+                        yield nova != null;
+
+                    }
+                    case "listar" -> listar(sessao, random);
+                    case "disponibilidade" -> disponibilidade(sessao, random);
+                    case "agendar" -> agendar(sessao, random);
+                    default -> throw new IllegalArgumentException("Cenário desconhecido: " + cenario);
+                };
+
+                if (concluido) {
+                    medicoes.sucesso(cenario, System.nanoTime() - inicio);
+                } else {
+                    medicoes.recusada(cenario);
+                }
+
+            } catch (RuntimeException | IOException e) {
+
+                medicoes.erro(cenario);
+
+            } catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+                return;
+
+            }
+        }
+
+    }
+
+    private Sessao login(String email) throws IOException, InterruptedException {
+
+        HttpRequest request = post("/usuarios/autenticar", null, "{\"email\":\"" + email + "\",\"senha\":\"" + opcoes.get("senha") + "\"}");
+
+        Resposta resposta = requisitar("login/autenticar", request);
+
+        return resposta.ok() ? sessao(resposta) : null;
+
+    }
+
+    private boolean listar(Sessao sessao, Random random) throws IOException, InterruptedException {
+
+        Resposta geral = requisitar("listar/agendamentos", get("/agendamentos?pagina=" + random.nextInt(100) + "&quantidadeItens=20", tokenRecepcionista));
+        Resposta cliente = requisitar("listar/agendamentos-cliente", get("/agendamentos/usuario/" + sessao.id() + "?pagina=0&quantidadeItens=10", sessao.token()));
+
+        return geral.ok() && cliente.ok();
+
+    }
+
+    private boolean disponibilidade(Sessao sessao, Random random) throws IOException, InterruptedException {
+
+        Resposta horarios = requisitar("disponibilidade/horarios-veterinario", horarios(sessao, veterinario(random), dia(random)));
+        Resposta proximos = requisitar("disponibilidade/proximos-horarios", get("/agendamentos/proximos-horarios?tipo=" + ID_TIPO_CONSULTA + "&limite=10", sessao.token()));
+
+        return horarios.ok() && proximos.ok();
+
+    }
+
+    private boolean agendar(Sessao sessao, Random random) throws IOException, InterruptedException {
+
+        long veterinario = veterinario(random);
+        LocalDate dia = dia(random);
+
+        Resposta horarios = requisitar("agendar/horarios-veterinario", horarios(sessao, veterinario, dia));
+
+        if (!horarios.ok()) {
+            return false;
+        }
+
+        JsonNode livres = json.readTree(horarios.body());
+
+        if (livres.isEmpty()) {
+            return false;
+        }
+
+        String horario = livres.get(random.nextInt(livres.size())).asText();
+
+        Resposta reserva = requisitar("agendar/reservar", post("/agendamentos/reservas", sessao.token(),
+                "{\"idVeterinario\":" + veterinario + ",\"idTipo\":" + ID_TIPO_CONSULTA + ",\"inicio\":\"" + dia + "T" + horario + ":00\"}"));
+
+        if (!reserva.ok()) {
+            return false;
+        }
+
+        String idReserva = json.readTree(reserva.body()).get("id").asText();
+        long animal = sessao.animais().get(random.nextInt(sessao.animais().size()));
+
+        Resposta confirmacao = requisitar("agendar/confirmar", post("/agendamentos/reservas/" + idReserva + "/confirmar", sessao.token(),
+                "{\"animal\":{\"id\":" + animal + "},\"descricao\":\"Teste de carga\"}"));
+
+        return confirmacao.ok();
+
+    }
+
+    private HttpRequest horarios(Sessao sessao, long veterinario, LocalDate dia) {
+
+        return get("/usuarios/veterinarios/" + veterinario + "/horarios-disponiveis?data=" + dia + "&idTipo=" + ID_TIPO_CONSULTA, sessao.token());
+
+    }
+
+    /** Autenticação fora da medição, para a preparação e para o primeiro cenário de cada usuário. */
+    private Sessao entrar(String email) throws IOException, InterruptedException {
+
+        Resposta resposta = enviar(post("/usuarios/autenticar", null, "{\"email\":\"" + email + "\",\"senha\":\"" + opcoes.get("senha") + "\"}"));
+
+        if (!resposta.ok()) {
+            throw new IllegalStateException("Não foi possível entrar como " + email + " (HTTP " + resposta.status() + "). A aplicação está no perfil carga?");
+        }
+
+        return sessao(resposta);
+
+    }
+
+    private Sessao sessao(Resposta resposta) throws IOException {
+
+        JsonNode login = json.readTree(resposta.body());
+        JsonNode usuario = login.get("usuario");
+
+        List<Long> animais = new ArrayList<>();
+
+        if (usuario.has("animais")) {
+            usuario.get("animais").forEach(a -> animais.add(a.get("id").asLong()));
+        }
+
+        return new Sessao(login.get("token").asText(), usuario.get("id").asLong(), animais);
+
+    }
+
+    private long emailsRecebidos(String token) throws IOException, InterruptedException {
+
+        Resposta resposta = enviar(get("/actuator/metrics/carga.smtp.mensagens", token));
+
+        return resposta.ok() ? json.readTree(resposta.body()).get("measurements").get(0).get("value").asLong() : -1;
+
+    }
+
+    /**
+     * Envia a requisição e registra a latência com o nome informado.
+     *
+     * @throws FalhaRequisicao em resposta 5xx; o cenário conta como erro.
+     */
+    private Resposta requisitar(String nome, HttpRequest request) throws IOException, InterruptedException {
+
+        long inicio = System.nanoTime();
+
+        Resposta resposta;
+
+        try {
+
+            resposta = enviar(request);
+
+        } catch (IOException e) {
+
+            medicoes.erro(nome);
+            throw e;
+
+        }
+
+        if (resposta.status() >= 500) {
+
+            medicoes.erro(nome);
+            throw new FalhaRequisicao();
+
+        }
+
+        if (resposta.ok()) {
+            medicoes.sucesso(nome, System.nanoTime() - inicio);
+        } else {
+            medicoes.recusada(nome);
+        }
+
+        return resposta;
+
+    }
+
+    private Resposta enviar(HttpRequest request) throws IOException, InterruptedException {
+
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+
+        return new Resposta(response.statusCode(), response.body());
+
+    }
+
+    private HttpRequest get(String caminho, String token) {
+
+        return HttpRequest.newBuilder(URI.create(url + caminho)).timeout(timeout).header("Authorization", "Bearer " + token).GET().build();
+
+    }
+
+    private HttpRequest post(String caminho, String token, String corpo) {
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + caminho))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo));
+
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+
+        return builder.build();
+
+    }
+
+    private String cliente(Random random) {
+
+        return "cliente" + (1 + random.nextInt(inteiro("clientes"))) + DOMINIO_EMAIL;
+
+    }
+
+    private long veterinario(Random random) {
+
+        return veterinarios.get(random.nextInt(veterinarios.size()));
+
+    }
+
+    /** Dia útil sorteado entre amanhã e o horizonte. */
+    private LocalDate dia(Random random) {
+
+        LocalDate dia = LocalDate.now().plusDays(1 + random.nextInt(inteiro("horizonte-dias")));
+
+        while (dia.getDayOfWeek() == DayOfWeek.SATURDAY || dia.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            dia = dia.plusDays(1);
+        }
+
+        return dia;
+
+    }
+
+    private int inteiro(String opcao) {
+
+        return Integer.parseInt(opcoes.get(opcao));
+
+    }
+
+    private record Sessao(String token, long id, List<Long> animais) {
+    }
+
+    private record Resposta(int status, String body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+    }
+
+    private static class FalhaRequisicao extends RuntimeException {
+    }
+
+}
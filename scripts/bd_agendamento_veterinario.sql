@@ -256,4 +256,154 @@ CREATE TABLE veterinario_horario (
     hora_fim TIME NOT NULL,
     FOREIGN KEY (id_veterinario) REFERENCES usuario(id),
     FOREIGN KEY (dia_semana) REFERENCES dia_semana(id)
-);
\ No newline at end of file
+);
+CREATE TABLE agendamento_estatistica_diaria (
+    data DATE NOT NULL,
+    id_veterinario BIGINT NOT NULL,
+    id_agendamento_tipo INT NOT NULL,
+    id_agendamento_status INT NOT NULL,
+    total BIGINT NOT NULL DEFAULT 0,
+    soma_antecedencia_minutos BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (data, id_veterinario, id_agendamento_tipo, id_agendamento_status)
+);
+
+CREATE TABLE lista_espera (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id_cliente BIGINT NOT NULL,
+    id_animal BIGINT NOT NULL,
+    id_veterinario BIGINT,
+    id_agendamento_tipo INT NOT NULL,
+    data_inicio DATE NOT NULL,
+    data_fim DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    data_criacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    id_oferta_veterinario BIGINT,
+    oferta_inicio TIMESTAMP NULL,
+    oferta_fim TIMESTAMP NULL,
+    oferta_expiracao TIMESTAMP NULL,
+    id_agendamento BIGINT,
+    CONSTRAINT lista_espera_cliente_fk FOREIGN KEY (id_cliente) REFERENCES usuario(id) ON DELETE CASCADE,
+    CONSTRAINT lista_espera_animal_fk FOREIGN KEY (id_animal) REFERENCES animal(id) ON DELETE CASCADE,
+    CONSTRAINT lista_espera_veterinario_fk FOREIGN KEY (id_veterinario) REFERENCES usuario(id) ON DELETE SET NULL,
+    CONSTRAINT lista_espera_agendamento_tipo_fk FOREIGN KEY (id_agendamento_tipo) REFERENCES agendamento_tipo(id),
+    CONSTRAINT lista_espera_oferta_veterinario_fk FOREIGN KEY (id_oferta_veterinario) REFERENCES usuario(id) ON DELETE SET NULL,
+    CONSTRAINT lista_espera_agendamento_fk FOREIGN KEY (id_agendamento) REFERENCES agendamento(id) ON DELETE SET NULL,
+    INDEX lista_espera_status_idx (status, oferta_expiracao)
+);
+
+ALTER TABLE usuario ADD COLUMN data_atualizacao TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+ALTER TABLE animal ADD COLUMN data_atualizacao TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+ALTER TABLE agendamento ADD COLUMN data_atualizacao TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+CREATE INDEX usuario_data_atualizacao_idx ON usuario (data_atualizacao);
+CREATE INDEX animal_data_atualizacao_idx ON animal (data_atualizacao);
+CREATE INDEX agendamento_data_atualizacao_idx ON agendamento (data_atualizacao);
+
+CREATE TABLE clinica (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    nome VARCHAR(80) NOT NULL,
+    endereco VARCHAR(255),
+    contato VARCHAR(80),
+    nome_recepcionista_auto_atendimento VARCHAR(30)
+);
+
+INSERT INTO clinica (id, nome) VALUES (1, 'AgenPet');
+
+ALTER TABLE usuario ADD COLUMN id_clinica BIGINT NOT NULL DEFAULT 1, ADD CONSTRAINT usuario_clinica_fk FOREIGN KEY (id_clinica) REFERENCES clinica(id);
+ALTER TABLE animal ADD COLUMN id_clinica BIGINT NOT NULL DEFAULT 1, ADD CONSTRAINT animal_clinica_fk FOREIGN KEY (id_clinica) REFERENCES clinica(id);
+ALTER TABLE agendamento ADD COLUMN id_clinica BIGINT NOT NULL DEFAULT 1, ADD CONSTRAINT agendamento_clinica_fk FOREIGN KEY (id_clinica) REFERENCES clinica(id);
+ALTER TABLE veterinario_horario ADD COLUMN id_clinica BIGINT NOT NULL DEFAULT 1, ADD CONSTRAINT veterinario_horario_clinica_fk FOREIGN KEY (id_clinica) REFERENCES clinica(id);
+ALTER TABLE lista_espera ADD COLUMN id_clinica BIGINT NOT NULL DEFAULT 1, ADD CONSTRAINT lista_espera_clinica_fk FOREIGN KEY (id_clinica) REFERENCES clinica(id);
+
+CREATE INDEX usuario_clinica_perfil_idx ON usuario (id_clinica, id_perfil);
+CREATE INDEX animal_clinica_idx ON animal (id_clinica, id);
+CREATE INDEX agendamento_clinica_inicio_idx ON agendamento (id_clinica, data_agendamento_inicio);
+
+CREATE TABLE trava_tarefa (
+    nome VARCHAR(64) PRIMARY KEY,
+    travado_ate TIMESTAMP NOT NULL,
+    travado_em TIMESTAMP NOT NULL,
+    travado_por VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE evento_cluster (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tipo VARCHAR(30) NOT NULL,
+    ids TEXT,
+    origem VARCHAR(255) NOT NULL,
+    data_criacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX evento_cluster_data_criacao_idx (data_criacao)
+);
+
+CREATE TABLE tarefa_execucao (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    nome VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_itens BIGINT NOT NULL,
+    iniciado_por VARCHAR(255),
+    data_inicio TIMESTAMP NOT NULL,
+    data_fim TIMESTAMP NULL,
+    INDEX tarefa_execucao_nome_status_idx (nome, status)
+);
+
+CREATE TABLE tarefa_particao (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id_execucao BIGINT NOT NULL,
+    indice INT NOT NULL,
+    id_inicio BIGINT NOT NULL,
+    id_fim BIGINT NOT NULL,
+    ultimo_id BIGINT NULL,
+    status VARCHAR(20) NOT NULL,
+    itens_processados BIGINT NOT NULL DEFAULT 0,
+    itens_com_erro BIGINT NOT NULL DEFAULT 0,
+    instancia VARCHAR(255),
+    data_atualizacao TIMESTAMP NULL,
+    mensagem_erro VARCHAR(500),
+    CONSTRAINT tarefa_particao_execucao_fk FOREIGN KEY (id_execucao) REFERENCES tarefa_execucao(id),
+    INDEX tarefa_particao_execucao_idx (id_execucao, indice),
+    INDEX tarefa_particao_status_idx (status, data_atualizacao)
+);
+
+ALTER TABLE agendamento_tipo ADD COLUMN antecedencias_lembrete VARCHAR(50) NULL;
+
+CREATE INDEX agendamento_status_inicio_idx ON agendamento (id_agendamento_status, data_agendamento_inicio);
+
+CREATE TABLE lembrete_agendamento (
+    id_agendamento BIGINT NOT NULL,
+    antecedencia_minutos INT NOT NULL,
+    data_agendamento_inicio DATETIME NOT NULL,
+    data_envio TIMESTAMP NOT NULL,
+    PRIMARY KEY (id_agendamento, antecedencia_minutos, data_agendamento_inicio),
+    CONSTRAINT lembrete_agendamento_agendamento_fk FOREIGN KEY (id_agendamento) REFERENCES agendamento(id) ON DELETE CASCADE,
+    INDEX lembrete_agendamento_inicio_idx (data_agendamento_inicio)
+);
+
+ALTER TABLE usuario ADD COLUMN versao INT NOT NULL DEFAULT 0;
+ALTER TABLE agendamento ADD COLUMN versao INT NOT NULL DEFAULT 0;
+
+CREATE TABLE codigo_recuperacao (
+    id_usuario BIGINT PRIMARY KEY,
+    hash_codigo CHAR(64) NOT NULL,
+    expiracao TIMESTAMP NOT NULL,
+    tentativas INT NOT NULL DEFAULT 0,
+    CONSTRAINT codigo_recuperacao_usuario_fk FOREIGN KEY (id_usuario) REFERENCES usuario(id) ON DELETE CASCADE,
+    INDEX codigo_recuperacao_expiracao_idx (expiracao)
+);
+
+ALTER TABLE usuario DROP COLUMN codigo_recuperacao, DROP COLUMN expiracao_codigo;
+
+CREATE TABLE reserva_horario (
+    id CHAR(36) PRIMARY KEY,
+    id_veterinario BIGINT NOT NULL,
+    id_cliente BIGINT NOT NULL,
+    id_tipo INT NOT NULL,
+    inicio DATETIME NOT NULL,
+    fim DATETIME NOT NULL,
+    expiracao DATETIME NOT NULL,
+    INDEX reserva_horario_veterinario_idx (id_veterinario, inicio),
+    INDEX reserva_horario_cliente_idx (id_cliente),
+    INDEX reserva_horario_expiracao_idx (expiracao)
+);
+
+ALTER TABLE tarefa_execucao ADD COLUMN id_clinica BIGINT NOT NULL DEFAULT -1;
+ALTER TABLE tarefa_particao ADD COLUMN id_clinica BIGINT NOT NULL DEFAULT -1;
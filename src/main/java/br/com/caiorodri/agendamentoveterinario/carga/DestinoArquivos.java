@@ -0,0 +1,137 @@
+package br.com.caiorodri.agendamentoveterinario.carga;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Grava cada partição em um arquivo {tabela}-{particao}.tsv no formato padrão do LOAD DATA do MySQL
+ * (campos separados por tabulação, \N para nulo) e, ao final, o script carregar.sql com um
+ * LOAD DATA LOCAL INFILE por arquivo, com as checagens de chave estrangeira e de unicidade desligadas
+ * durante a carga.
+ *
+ * Os IDs começam em 1: os arquivos são para uma base só com os dados de referência de
+ * scripts/bd_agendamento_veterinario.sql. Carga: mysql --local-infile=1 agendamento_veterinario < carregar.sql,
+ * executado no diretório dos arquivos.
+ */
+public class DestinoArquivos implements DestinoCarga {
+
+    public static final String SCRIPT = "carregar.sql";
+
+    private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final Path diretorio;
+
+    /** Partições gravadas de cada tabela, na ordem em que as tabelas foram abertas. */
+    private final Map<Tabela, TreeSet<Integer>> particoes = new LinkedHashMap<>();
+
+    public DestinoArquivos(Path diretorio) throws IOException {
+
+        this.diretorio = Files.createDirectories(diretorio);
+
+    }
+
+    @Override
+    public long proximoId(String tabela) {
+
+        return 1;
+
+    }
+
+    @Override
+    public Escrita abrir(Tabela tabela, int particao) throws IOException {
+
+        synchronized (particoes) {
+            particoes.computeIfAbsent(tabela, t -> new TreeSet<>()).add(particao);
+        }
+
+        BufferedWriter arquivo = Files.newBufferedWriter(diretorio.resolve(arquivo(tabela, particao)), StandardCharsets.UTF_8);
+
+        return new Escrita() {
+
+            @Override
+            public void adicionar(Object... linha) throws IOException {
+
+                for (int i = 0; i < linha.length; i++) {
+
+                    if (i > 0) {
+                        arquivo.write('\t');
+                    }
+
+                    escrever(arquivo, linha[i]);
+
+                }
+
+                arquivo.write('\n');
+
+            }
+
+            @Override
+            public void close() throws IOException {
+
+                arquivo.close();
+
+            }
+
+        };
+
+    }
+
+    @Override
+    public void finalizar() throws IOException {
+
+        List<String> linhas = new ArrayList<>();
+
+        linhas.add("-- Gerado por GeradorDadosCarga. Execute no diretório dos arquivos:");
+        linhas.add("-- mysql --local-infile=1 agendamento_veterinario < " + SCRIPT);
+        linhas.add("SET foreign_key_checks = 0;");
+        linhas.add("SET unique_checks = 0;");
+
+        synchronized (particoes) {
+
+            particoes.forEach((tabela, numeros) -> numeros.forEach(particao -> linhas.add(
+                    "LOAD DATA LOCAL INFILE '" + arquivo(tabela, particao) + "' INTO TABLE " + tabela.nome() +
+                    " CHARACTER SET utf8mb4 (" + String.join(", ", tabela.colunas()) + ");")));
+
+        }
+
+        linhas.add("SET unique_checks = 1;");
+        linhas.add("SET foreign_key_checks = 1;");
+
+        Files.write(diretorio.resolve(SCRIPT), linhas, StandardCharsets.UTF_8);
+
+    }
+
+    private static String arquivo(Tabela tabela, int particao) {
+
+        return String.format("%s-%05d.tsv", tabela.nome(), particao);
+
+    }
+
+    private static void escrever(Writer arquivo, Object valor) throws IOException {
+
+        switch (valor) {
+            case null -> arquivo.write("\\N");
+            case Boolean b -> arquivo.write(b ? '1' : '0');
+            case LocalDateTime dataHora -> arquivo.write(DATA_HORA.format(dataHora));
+            case LocalTime hora -> arquivo.write(HORA.format(hora));
+            case String texto -> arquivo.write(texto.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n"));
+            default -> arquivo.write(valor.toString());
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package br.com.caiorodri.agendamentoveterinario.carga;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Grava as linhas com INSERTs de várias linhas (INSERT ... VALUES (...), (...), ...), linhasPorInsert
+ * por comando. Cada comando é uma única ida ao banco e um único parse, ao contrário do batchUpdate, que
+ * só junta as linhas quando o driver reescreve o lote (rewriteBatchedStatements no MySQL).
+ *
+ * Cada escrita usa uma conexão do pool por comando, então as partições gravam em paralelo até o
+ * tamanho do pool.
+ */
+public class DestinoBanco implements DestinoCarga {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int linhasPorInsert;
+
+    public DestinoBanco(JdbcTemplate jdbcTemplate, int linhasPorInsert) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.linhasPorInsert = linhasPorInsert;
+
+    }
+
+    @Override
+    public long proximoId(String tabela) {
+
+        Long maior = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + tabela, Long.class);
+
+        return maior == null ? 1 : maior + 1;
+
+    }
+
+    @Override
+    public Escrita abrir(Tabela tabela, int particao) {
+
+        return new EscritaBanco(tabela);
+
+    }
+
+    private String insert(Tabela tabela, int linhas) {
+
+        String valores = "(" + String.join(", ", Collections.nCopies(tabela.colunas().length, "?")) + ")";
+
+        return "INSERT INTO " + tabela.nome() + " (" + String.join(", ", tabela.colunas()) + ") VALUES " +
+                String.join(", ", Collections.nCopies(linhas, valores));
+
+    }
+
+    private class EscritaBanco implements Escrita {
+
+        private final Tabela tabela;
+
+        private final String insertCompleto;
+
+        private final Object[] parametros;
+
+        private int linhas;
+
+        EscritaBanco(Tabela tabela) {
+
+            this.tabela = tabela;
+            this.insertCompleto = insert(tabela, linhasPorInsert);
+            this.parametros = new Object[linhasPorInsert * tabela.colunas().length];
+
+        }
+
+        @Override
+        public void adicionar(Object... linha) {
+
+            System.arraycopy(linha, 0, parametros, linhas * linha.length, linha.length);
+
+            if (++linhas == linhasPorInsert) {
+
+                jdbcTemplate.update(insertCompleto, parametros);
+                linhas = 0;
+
+            }
+
+        }
+
+        @Override
+        public void close() {
+
+            if (linhas > 0) {
+
+                jdbcTemplate.update(insert(tabela, linhas), Arrays.copyOf(parametros, linhas * tabela.colunas().length));
+                linhas = 0;
+
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+package br.com.caiorodri.agendamentoveterinario.carga;
+
+import java.io.IOException;
+
+/**
+ * Para onde vão as linhas do {@link GeradorDadosCarga}: direto para o banco ({@link DestinoBanco})
+ * ou para arquivos de LOAD DATA ({@link DestinoArquivos}).
+ *
+ * Cada partição do gerador abre a sua própria {@link Escrita}, em paralelo com as demais.
+ */
+public interface DestinoCarga {
+
+    Tabela USUARIO = new Tabela("usuario", "id", "nome", "senha", "cpf", "email", "logradouro", "numero", "complemento",
+            "cidade", "sigla_estado", "cep", "data_nascimento", "id_status", "id_perfil", "email_realizar_consulta_recebido",
+            "receber_email", "id_clinica");
+
+    Tabela USUARIO_TELEFONE = new Tabela("usuario_telefone", "id_usuario", "telefone");
+
+    Tabela ANIMAL = new Tabela("animal", "id", "id_raca", "id_sexo", "id_dono", "nome", "data_nascimento", "descricao",
+            "castrado", "peso", "altura", "id_clinica");
+
+    Tabela VETERINARIO_HORARIO = new Tabela("veterinario_horario", "id_veterinario", "dia_semana", "hora_inicio", "hora_fim",
+            "id_clinica");
+
+    Tabela AGENDAMENTO = new Tabela("agendamento", "id", "id_animal", "id_cliente", "id_veterinario", "id_recepcionista",
+            "id_agendamento_status", "id_agendamento_tipo", "data_criacao", "data_agendamento_inicio", "data_agendamento_final",
+            "descricao", "id_clinica");
+
+    /**
+     * @return Primeiro ID livre da tabela, a partir do qual o gerador atribui os IDs.
+     */
+    long proximoId(String tabela);
+
+    /**
+     * @param particao Número da partição, único por tabela; a mesma partição recebe sempre as mesmas linhas.
+     */
+    Escrita abrir(Tabela tabela, int particao) throws IOException;
+
+    /** Chamado depois que todas as escritas foram fechadas. */
+    default void finalizar() throws IOException {
+    }
+
+    record Tabela(String nome, String... colunas) {
+    }
+
+    /** Linhas de uma partição, na ordem das colunas da tabela. */
+    interface Escrita extends AutoCloseable {
+
+        void adicionar(Object... linha) throws IOException;
+
+        @Override
+        void close() throws IOException;
+
+    }
+
+}
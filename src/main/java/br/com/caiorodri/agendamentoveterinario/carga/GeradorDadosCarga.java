@@ -0,0 +1,497 @@
+package br.com.caiorodri.agendamentoveterinario.carga;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.com.caiorodri.agendamentoveterinario.enums.DiaSemanaEnum;
+
+/**
+ * Gera dados com volumes próximos aos de produção: clientes com telefone, animais, veterinários com
+ * horário de atendimento, recepcionistas e o histórico de agendamentos, gravados no banco ou em
+ * arquivos de LOAD DATA conforme o {@link DestinoCarga}.
+ *
+ * Os IDs são atribuídos aqui, a partir do primeiro livre no destino, para que as chaves estrangeiras
+ * sejam conhecidas sem ler as chaves geradas. Os agendamentos de cada veterinário ocupam horários
+ * livres da sua agenda, sem sobreposição: os futuros a partir do dia seguinte a dataReferencia e o
+ * histórico do dia anterior para trás.
+ *
+ * Clientes e animais são divididos em partições de TAMANHO_PARTICAO linhas e os agendamentos em uma
+ * partição por veterinário; as partições rodam em paralelo, cada uma com o seu gerador aleatório e a
+ * sua faixa de IDs, então a mesma semente e a mesma dataReferencia geram os mesmos dados com qualquer
+ * quantidade de threads.
+ *
+ * Os e-mails seguem o padrão cliente{n}@carga.local, veterinario{n}@carga.local,
+ * recepcionista{n}@carga.local e admin@carga.local, todos com a mesma senha, para que os cenários
+ * de carga saibam com quem entrar.
+ */
+public class GeradorDadosCarga {
+
+    public static final String DOMINIO_EMAIL = "@carga.local";
+
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Henrique",
+            "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael", "Sofia", "Thiago", "Vanessa", "Lucas"};
+
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves",
+            "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes"};
+
+    private static final String[] NOMES_ANIMAIS = {"Rex", "Luna", "Thor", "Mel", "Bob", "Nina", "Max", "Lola", "Fred",
+            "Amora", "Simba", "Pipoca", "Zeus", "Bela", "Toby", "Maya"};
+
+    private static final String[] CIDADES = {"São Paulo", "Campinas", "Santos", "Rio de Janeiro", "Belo Horizonte", "Curitiba"};
+
+    private static final String[] ESTADOS = {"SP", "SP", "SP", "RJ", "MG", "PR"};
+
+    private static final int QUANTIDADE_RACAS = 15;
+
+    /** Blocos de atendimento de segunda a sexta, em casas de 30 minutos. */
+    private static final LocalTime[][] BLOCOS = {
+            {LocalTime.of(8, 0), LocalTime.of(12, 0)},
+            {LocalTime.of(13, 0), LocalTime.of(18, 0)}
+    };
+
+    private static final int DURACAO_CASA_MINUTOS = 30;
+
+    private static final int ID_STATUS_USUARIO_ATIVO = 1;
+
+    private static final int ID_PERFIL_CLIENTE = 1;
+
+    private static final int ID_PERFIL_RECEPCIONISTA = 2;
+
+    private static final int ID_PERFIL_VETERINARIO = 3;
+
+    private static final int ID_PERFIL_ADMINISTRADOR = 4;
+
+    private static final int ID_STATUS_ABERTO = 1;
+
+    private static final int ID_STATUS_CANCELADO = 2;
+
+    private static final int ID_STATUS_CONCLUIDO = 3;
+
+    private static final int ID_STATUS_PERDIDO = 4;
+
+    private static final int ID_TIPO_CONSULTA = 1;
+
+    private static final int ID_TIPO_CIRURGIA = 2;
+
+
+    /** Linhas de clientes e de animais por partição. */
+    private static final int TAMANHO_PARTICAO = 10_000;
+
+    private static final int ETAPA_FUNCIONARIOS = 1;
+
+    private static final int ETAPA_CLIENTES = 2;
+
+    private static final int ETAPA_ANIMAIS = 3;
+
+    private static final int ETAPA_AGENDAMENTOS = 4;
+
+    private final DestinoCarga destino;
+
+    private final Parametros parametros;
+
+    private long idAdministrador;
+
+    private long idPrimeiroRecepcionista;
+
+    private long idPrimeiroVeterinario;
+
+    private long idPrimeiroCliente;
+
+    private long idPrimeiroAnimal;
+
+    private long[] donos;
+
+    final static Logger logger = LoggerFactory.getLogger(GeradorDadosCarga.class);
+
+    /**
+     * @param senhaCodificada Hash da senha de todos os usuários gerados.
+     * @param semente Semente do gerador de números aleatórios.
+     * @param clientes Quantidade de clientes.
+     * @param animais Quantidade de animais; cada cliente recebe ao menos um.
+     * @param agendamentos Quantidade de agendamentos.
+     * @param veterinarios Quantidade de veterinários.
+     * @param recepcionistas Quantidade de recepcionistas.
+     * @param percentualFuturos Percentual dos agendamentos depois de dataReferencia.
+     * @param dataReferencia Dia que separa os agendamentos futuros do histórico.
+     * @param threads Partições geradas ao mesmo tempo; não muda os dados gerados.
+     * @param idClinica Clínica dos registros gerados.
+     */
+    public record Parametros(String senhaCodificada, long semente, int clientes, int animais, int agendamentos,
+                             int veterinarios, int recepcionistas, int percentualFuturos, LocalDate dataReferencia,
+                             int threads, long idClinica) {
+    }
+
+    public GeradorDadosCarga(DestinoCarga destino, Parametros parametros) {
+
+        this.destino = destino;
+        this.parametros = parametros;
+
+    }
+
+    /**
+     * Gera todos os dados. Deve ser chamado com o banco sem usuários gerados por uma execução anterior.
+     */
+    public void gerar() throws IOException, InterruptedException {
+
+        logger.info("[gerar] - Inicio - {} clientes, {} animais, {} agendamentos, {} veterinários, semente {}, {} threads",
+                parametros.clientes(), parametros.animais(), parametros.agendamentos(), parametros.veterinarios(),
+                parametros.semente(), parametros.threads());
+
+        long inicio = System.currentTimeMillis();
+
+        idAdministrador = destino.proximoId("usuario");
+        idPrimeiroRecepcionista = idAdministrador + 1;
+        idPrimeiroVeterinario = idPrimeiroRecepcionista + parametros.recepcionistas();
+        idPrimeiroCliente = idPrimeiroVeterinario + parametros.veterinarios();
+
+        int quantidadeAnimais = Math.max(parametros.animais(), parametros.clientes());
+        donos = new long[quantidadeAnimais];
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(parametros.threads())) {
+
+            executar(executor, "funcionários", 1, p -> gerarFuncionarios());
+            executar(executor, "clientes", particoes(parametros.clientes()), this::gerarClientes);
+
+            idPrimeiroAnimal = destino.proximoId("animal");
+
+            executar(executor, "animais", particoes(quantidadeAnimais), this::gerarAnimais);
+            executar(executor, "horários", 1, p -> gerarHorarios());
+
+            long[] idsIniciais = idsIniciaisAgendamentos(destino.proximoId("agendamento"));
+
+            executar(executor, "agendamentos", parametros.veterinarios(), v -> gerarAgendamentos(v, idsIniciais[v]));
+
+        }
+
+        destino.finalizar();
+
+        logger.info("[gerar] - Fim - Dados gerados em {} s", (System.currentTimeMillis() - inicio) / 1000);
+
+    }
+
+    /**
+     * Gera as partições no executor e espera todas. Na primeira falha cancela as demais e a propaga.
+     */
+    private void executar(ExecutorService executor, String etapa, int particoes, Particao particao) throws IOException, InterruptedException {
+
+        long inicio = System.currentTimeMillis();
+
+        List<Future<Void>> tarefas = new ArrayList<>();
+
+        for (int p = 0; p < particoes; p++) {
+
+            int numero = p;
+
+            tarefas.add(executor.submit(() -> {
+                particao.gerar(numero);
+                return null;
+            }));
+
+        }
+
+        try {
+
+            for (Future<Void> tarefa : tarefas) {
+                tarefa.get();
+            }
+
+        } catch (ExecutionException e) {
+
+            tarefas.forEach(t -> t.cancel(true));
+
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+
+            throw new IllegalStateException("Falha ao gerar " + etapa, e.getCause());
+
+        }
+
+        logger.info("[executar] - {} gerados em {} partições em {} ms", etapa, particoes, System.currentTimeMillis() - inicio);
+
+    }
+
+    private void gerarFuncionarios() throws IOException {
+
+        Random random = random(ETAPA_FUNCIONARIOS, 0);
+
+        try (DestinoCarga.Escrita usuarios = destino.abrir(DestinoCarga.USUARIO, 0)) {
+
+            usuarios.adicionar(usuario(random, idAdministrador, "admin", ID_PERFIL_ADMINISTRADOR, false));
+
+            for (int i = 0; i < parametros.recepcionistas(); i++) {
+                usuarios.adicionar(usuario(random, idPrimeiroRecepcionista + i, "recepcionista" + (i + 1), ID_PERFIL_RECEPCIONISTA, false));
+            }
+
+            for (int i = 0; i < parametros.veterinarios(); i++) {
+                usuarios.adicionar(usuario(random, idPrimeiroVeterinario + i, "veterinario" + (i + 1), ID_PERFIL_VETERINARIO, false));
+            }
+        }
+
+    }
+
+    /** A partição 0 da tabela usuario é a dos funcionários; a partição p de clientes grava na p + 1. */
+    private void gerarClientes(int particao) throws IOException {
+
+        Random random = random(ETAPA_CLIENTES, particao);
+
+        // Os recursos são fechados na ordem inversa: os clientes pendentes no lote são gravados antes dos
+        // telefones que apontam para eles.
+        try (DestinoCarga.Escrita telefones = destino.abrir(DestinoCarga.USUARIO_TELEFONE, particao);
+             DestinoCarga.Escrita usuarios = destino.abrir(DestinoCarga.USUARIO, particao + 1)) {
+
+            for (int i = particao * TAMANHO_PARTICAO; i < fimParticao(particao, parametros.clientes()); i++) {
+
+                long id = idPrimeiroCliente + i;
+
+                usuarios.adicionar(usuario(random, id, "cliente" + (i + 1), ID_PERFIL_CLIENTE, random.nextInt(100) < 30));
+                telefones.adicionar(id, String.format("119%08d", random.nextInt(100_000_000)));
+
+            }
+        }
+
+    }
+
+    private void gerarAnimais(int particao) throws IOException {
+
+        Random random = random(ETAPA_ANIMAIS, particao);
+
+        try (DestinoCarga.Escrita animais = destino.abrir(DestinoCarga.ANIMAL, particao)) {
+
+            for (int i = particao * TAMANHO_PARTICAO; i < fimParticao(particao, donos.length); i++) {
+
+                donos[i] = idPrimeiroCliente + (i < parametros.clientes() ? i : random.nextInt(parametros.clientes()));
+
+                animais.adicionar(
+                        idPrimeiroAnimal + i,
+                        1 + random.nextInt(QUANTIDADE_RACAS),
+                        1 + random.nextInt(2),
+                        donos[i],
+                        NOMES_ANIMAIS[random.nextInt(NOMES_ANIMAIS.length)],
+                        parametros.dataReferencia().minusDays(60 + random.nextInt(15 * 365)),
+                        "Gerado para o teste de carga",
+                        random.nextBoolean(),
+                        1 + random.nextInt(40),
+                        10 + random.nextInt(70),
+                        parametros.idClinica());
+            }
+        }
+
+    }
+
+    private void gerarHorarios() throws IOException {
+
+        try (DestinoCarga.Escrita horarios = destino.abrir(DestinoCarga.VETERINARIO_HORARIO, 0)) {
+
+            for (int v = 0; v < parametros.veterinarios(); v++) {
+                for (DayOfWeek dia = DayOfWeek.MONDAY; dia.compareTo(DayOfWeek.FRIDAY) <= 0; dia = dia.plus(1)) {
+                    for (LocalTime[] bloco : BLOCOS) {
+                        horarios.adicionar(idPrimeiroVeterinario + v, DiaSemanaEnum.from(dia), bloco[0], bloco[1], parametros.idClinica());
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Cada veterinário é uma partição com a sua faixa de IDs, calculada antes a partir da quantidade de
+     * agendamentos de cada um, para que os IDs não dependam da ordem em que as partições terminam.
+     */
+    private long[] idsIniciaisAgendamentos(long primeiroId) {
+
+        long[] ids = new long[parametros.veterinarios()];
+
+        for (int v = 0; v < ids.length; v++) {
+            ids[v] = v == 0 ? primeiroId : ids[v - 1] + futuros(v - 1) + passados(v - 1);
+        }
+
+        return ids;
+
+    }
+
+    private void gerarAgendamentos(int veterinario, long primeiroId) throws IOException {
+
+        Random random = random(ETAPA_AGENDAMENTOS, veterinario);
+
+        try (DestinoCarga.Escrita agendamentos = destino.abrir(DestinoCarga.AGENDAMENTO, veterinario)) {
+
+            long proximoId = agendar(agendamentos, random, primeiroId, idPrimeiroVeterinario + veterinario,
+                    parametros.dataReferencia().plusDays(1), 1, futuros(veterinario), 60);
+
+            agendar(agendamentos, random, proximoId, idPrimeiroVeterinario + veterinario,
+                    parametros.dataReferencia().minusDays(1), -1, passados(veterinario), 75);
+
+        }
+
+    }
+
+    /**
+     * Percorre a agenda do veterinário casa a casa, ocupando parte delas: a partir de amanhã até
+     * completar os agendamentos futuros e de ontem para trás até completar o histórico. Cirurgias
+     * ocupam duas casas seguidas do mesmo bloco.
+     */
+    private long agendar(DestinoCarga.Escrita agendamentos, Random random, long proximoId, long veterinario,
+                         LocalDate primeiroDia, int passo, int quantidade, int percentualOcupacao) throws IOException {
+
+        int gerados = 0;
+
+        for (LocalDate dia = primeiroDia; gerados < quantidade; dia = dia.plusDays(passo)) {
+
+            if (dia.getDayOfWeek() == DayOfWeek.SATURDAY || dia.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+
+            for (LocalTime[] bloco : BLOCOS) {
+
+                LocalDateTime casa = dia.atTime(bloco[0]);
+                LocalDateTime fimBloco = dia.atTime(bloco[1]);
+
+                while (casa.isBefore(fimBloco) && gerados < quantidade) {
+
+                    if (random.nextInt(100) >= percentualOcupacao) {
+
+                        casa = casa.plusMinutes(DURACAO_CASA_MINUTOS);
+                        continue;
+
+                    }
+
+                    boolean cirurgia = random.nextInt(100) < 10 && !casa.plusMinutes(2 * DURACAO_CASA_MINUTOS).isAfter(fimBloco);
+                    LocalDateTime fim = casa.plusMinutes(cirurgia ? 2 * DURACAO_CASA_MINUTOS : DURACAO_CASA_MINUTOS);
+
+                    int indiceAnimal = random.nextInt(donos.length);
+
+                    agendamentos.adicionar(
+                            proximoId++,
+                            idPrimeiroAnimal + indiceAnimal,
+                            donos[indiceAnimal],
+                            veterinario,
+                            idPrimeiroRecepcionista + random.nextInt(parametros.recepcionistas()),
+                            passo > 0 ? statusFuturo(random) : statusPassado(random),
+                            cirurgia ? ID_TIPO_CIRURGIA : ID_TIPO_CONSULTA,
+                            casa.minusDays(1 + random.nextInt(30)).minusMinutes(random.nextInt(600)),
+                            casa,
+                            fim,
+                            "Gerado para o teste de carga",
+                            parametros.idClinica());
+
+                    gerados++;
+                    casa = fim;
+
+                }
+            }
+        }
+
+        return proximoId;
+
+    }
+
+    private static int statusFuturo(Random random) {
+
+        return random.nextInt(100) < 90 ? ID_STATUS_ABERTO : ID_STATUS_CANCELADO;
+
+    }
+
+    private static int statusPassado(Random random) {
+
+        int sorteio = random.nextInt(100);
+
+        return sorteio < 80 ? ID_STATUS_CONCLUIDO : sorteio < 92 ? ID_STATUS_CANCELADO : ID_STATUS_PERDIDO;
+
+    }
+
+    private Object[] usuario(Random random, long id, String apelido, int idPerfil, boolean receberEmail) {
+
+        int cidade = random.nextInt(CIDADES.length);
+
+        return new Object[] {
+                id,
+                NOMES[random.nextInt(NOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)],
+                parametros.senhaCodificada(),
+                String.format("%011d", id),
+                apelido + DOMINIO_EMAIL,
+                "Rua " + SOBRENOMES[random.nextInt(SOBRENOMES.length)],
+                String.valueOf(1 + random.nextInt(3000)),
+                null,
+                CIDADES[cidade],
+                ESTADOS[cidade],
+                String.format("%08d", random.nextInt(100_000_000)),
+                LocalDate.of(1950, 1, 1).plusDays(random.nextInt(50 * 365)),
+                ID_STATUS_USUARIO_ATIVO,
+                idPerfil,
+                false,
+                receberEmail,
+                parametros.idClinica()
+        };
+
+    }
+
+    private int futuros(int veterinario) {
+
+        return dividir(totalFuturos(), parametros.veterinarios(), veterinario);
+
+    }
+
+    private int passados(int veterinario) {
+
+        return dividir(parametros.agendamentos() - totalFuturos(), parametros.veterinarios(), veterinario);
+
+    }
+
+    private int totalFuturos() {
+
+        return (int) ((long) parametros.agendamentos() * parametros.percentualFuturos() / 100);
+
+    }
+
+    /**
+     * Gerador de uma partição. Depende só da semente, da etapa e do número da partição, e não da
+     * thread nem da ordem em que as partições rodam; o SplittableRandom espalha as sementes vizinhas.
+     */
+    private Random random(int etapa, int particao) {
+
+        return new Random(new SplittableRandom(parametros.semente() ^ ((long) etapa << 32 | particao)).nextLong());
+
+    }
+
+    private static int particoes(int linhas) {
+
+        return (linhas + TAMANHO_PARTICAO - 1) / TAMANHO_PARTICAO;
+
+    }
+
+    private static int fimParticao(int particao, int linhas) {
+
+        return Math.min(linhas, (particao + 1) * TAMANHO_PARTICAO);
+
+    }
+
+    /** Parte i de total dividido em partes quase iguais. */
+    private static int dividir(int total, int partes, int i) {
+
+        return total / partes + (i < total % partes ? 1 : 0);
+
+    }
+
+    @FunctionalInterface
+    private interface Particao {
+
+        void gerar(int numero) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,166 @@
+package br.com.caiorodri.agendamentoveterinario.carga;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Servidor SMTP do perfil carga. Aceita qualquer remetente e destinatário, descarta as mensagens e
+ * só conta quantas chegaram, para que os e-mails enviados pelos cenários de carga passem pelo
+ * JavaMailSender de verdade (conexão, MIME, envio) sem sair da máquina.
+ *
+ * Implementa só os comandos usados pelo JavaMail sem autenticação e sem STARTTLS. Escuta apenas no
+ * endereço de loopback e atende cada conexão em uma thread virtual.
+ */
+public class ServidorSmtpFalso {
+
+    private final int porta;
+
+    private final AtomicLong mensagens = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final ExecutorService conexoes = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile ServerSocket servidor;
+
+    final static Logger logger = LoggerFactory.getLogger(ServidorSmtpFalso.class);
+
+    /**
+     * @param porta Porta local; 0 escolhe uma porta livre, informada por {@link #getPorta()}.
+     */
+    public ServidorSmtpFalso(int porta) {
+
+        this.porta = porta;
+
+    }
+
+    public void iniciar() throws IOException {
+
+        servidor = new ServerSocket(porta, 200, InetAddress.getLoopbackAddress());
+
+        Thread.ofPlatform().name("smtp-falso").daemon().start(this::aceitar);
+
+        logger.info("[iniciar] - Servidor SMTP falso escutando na porta {}", servidor.getLocalPort());
+
+    }
+
+    public void parar() throws IOException {
+
+        logger.info("[parar] - {} mensagens recebidas ({} bytes)", mensagens.get(), bytes.get());
+
+        servidor.close();
+        conexoes.shutdownNow();
+
+    }
+
+    public int getPorta() {
+
+        return servidor.getLocalPort();
+
+    }
+
+    public long getMensagensRecebidas() {
+
+        return mensagens.get();
+
+    }
+
+    private void aceitar() {
+
+        while (!servidor.isClosed()) {
+
+            try {
+
+                Socket socket = servidor.accept();
+                conexoes.execute(() -> atender(socket));
+
+            } catch (SocketException e) {
+
+                return;
+
+            } catch (IOException e) {
+
+                logger.warn("[aceitar] - Erro ao aceitar conexão: {}", e.getMessage());
+
+            }
+        }
+
+    }
+
+    private void atender(Socket socket) {
+
+        try (socket;
+             BufferedReader entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+             OutputStream saida = socket.getOutputStream()) {
+
+            responder(saida, "220 localhost SMTP falso");
+
+            String linha;
+
+            while ((linha = entrada.readLine()) != null) {
+
+                String comando = linha.length() >= 4 ? linha.substring(0, 4).toUpperCase() : linha.toUpperCase();
+
+                switch (comando) {
+                    case "EHLO", "HELO" -> responder(saida, "250 localhost");
+                    case "MAIL", "RCPT", "RSET", "NOOP" -> responder(saida, "250 OK");
+                    case "DATA" -> {
+
+                        responder(saida, "354 Fim com <CRLF>.<CRLF>");
+                        lerMensagem(entrada);
+                        responder(saida, "250 OK");
+
+                    }
+                    case "QUIT" -> {
+
+                        responder(saida, "221 Tchau");
+                        return;
+
+                    }
+                    default -> responder(saida, "502 Comando não implementado");
+                }
+            }
+
+        } catch (IOException e) {
+
+            logger.debug("[atender] - Conexão encerrada: {}", e.getMessage());
+
+        }
+
+    }
+
+    private void lerMensagem(BufferedReader entrada) throws IOException {
+
+        long tamanho = 0;
+        String linha;
+
+        while ((linha = entrada.readLine()) != null && !linha.equals(".")) {
+            tamanho += linha.length() + 2;
+        }
+
+        mensagens.incrementAndGet();
+        bytes.addAndGet(tamanho);
+
+    }
+
+    private static void responder(OutputStream saida, String resposta) throws IOException {
+
+        saida.write((resposta + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        saida.flush();
+
+    }
+
+}
@@ -0,0 +1,193 @@
+package br.com.caiorodri.agendamentoveterinario.cluster;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.caiorodri.agendamentoveterinario.event.ClientesAlteradosEvent;
+import br.com.caiorodri.agendamentoveterinario.event.InvalidacaoRemotaEvent;
+
+/**
+ * Avisa as outras instâncias da aplicação de alterações que tornam desatualizados os dados mantidos
+ * em memória (índice de busca, lista de espera).
+ *
+ * Cada aviso é uma linha em evento_cluster, gravada na mesma transação da alteração, logo antes do
+ * commit: as outras instâncias só o veem se a alteração for confirmada. Cada instância lê
+ * periodicamente os eventos recentes gravados pelas outras ({@link #receber()}) e os publica
+ * localmente como InvalidacaoRemotaEvent.
+ *
+ * A leitura é pela data de gravação (relógio do banco) dentro de uma janela, e não pelo último id lido,
+ * porque ids de transações diferentes não são confirmados em ordem. Os ids já processados dentro da
+ * janela são lembrados para que cada evento seja entregue uma vez.
+ */
+public class BarramentoCluster {
+
+    public static final String CLIENTES = "clientes";
+
+    public static final String LISTA_ESPERA = "lista-espera";
+
+    private static final int IDS_POR_EVENTO = 1000;
+
+    private static final String SQL_INSERIR = "INSERT INTO evento_cluster (tipo, ids, origem, data_criacao) VALUES (?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private static final String SQL_RECENTES =
+            "SELECT id, tipo, ids FROM evento_cluster " +
+            "WHERE data_criacao >= TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP) AND origem <> ? ORDER BY id";
+
+    private static final String SQL_LIMPAR = "DELETE FROM evento_cluster WHERE data_criacao < TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final String instancia;
+
+    private final long janelaSegundos;
+
+    /** Eventos já entregues, com o momento (System.nanoTime) em que foram lidos. */
+    private final Map<Long, Long> processados = new ConcurrentHashMap<>();
+
+    final static Logger logger = LoggerFactory.getLogger(BarramentoCluster.class);
+
+    /**
+     * @param jdbcTemplate Acesso ao banco compartilhado pelas instâncias.
+     * @param eventPublisher Publica localmente os eventos recebidos.
+     * @param instancia Identificação desta instância, única entre as que usam o banco.
+     * @param janelaSegundos Idade máxima dos eventos lidos; deve ser maior que a transação mais longa.
+     */
+    public BarramentoCluster(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher, String instancia, long janelaSegundos) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.instancia = instancia;
+        this.janelaSegundos = janelaSegundos;
+
+    }
+
+    /**
+     * Avisa as outras instâncias de uma alteração. Dentro de uma transação, o aviso é gravado logo
+     * antes do commit; fora, imediatamente.
+     *
+     * @param tipo Tipo da alteração (CLIENTES, LISTA_ESPERA).
+     * @param ids IDs dos registros alterados.
+     */
+    public void publicar(String tipo, Collection<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        List<Long> copia = List.copyOf(ids);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    gravar(tipo, copia);
+                }
+            });
+
+        } else {
+
+            gravar(tipo, copia);
+
+        }
+
+    }
+
+    /**
+     * Repassa às outras instâncias as alterações de clientes publicadas pelos services.
+     *
+     * @param evento Clientes alterados.
+     */
+    @EventListener
+    public void onClientesAlterados(ClientesAlteradosEvent evento) {
+
+        publicar(CLIENTES, evento.idsClientes());
+
+    }
+
+    /**
+     * Lê os eventos gravados pelas outras instâncias que ainda não foram entregues e os publica
+     * localmente.
+     *
+     * @return Quantidade de eventos entregues.
+     */
+    public int receber() {
+
+        long agora = System.nanoTime();
+
+        processados.values().removeIf(lidoEm -> agora - lidoEm > TimeUnit.SECONDS.toNanos(2 * janelaSegundos));
+
+        int entregues = 0;
+
+        List<Map<String, Object>> eventos = jdbcTemplate.queryForList(SQL_RECENTES, -janelaSegundos, instancia);
+
+        for (Map<String, Object> evento : eventos) {
+
+            Long id = ((Number) evento.get("id")).longValue();
+
+            if (processados.putIfAbsent(id, agora) != null) {
+                continue;
+            }
+
+            String ids = (String) evento.get("ids");
+            List<Long> idsAlterados = ids == null || ids.isEmpty() ? List.of() : Arrays.stream(ids.split(",")).map(Long::valueOf).toList();
+
+            try {
+
+                eventPublisher.publishEvent(new InvalidacaoRemotaEvent((String) evento.get("tipo"), idsAlterados));
+
+            } catch (Exception e) {
+
+                logger.error("[receber] - Erro ao aplicar o evento {} do tipo {}: {}", id, evento.get("tipo"), e.getMessage(), e);
+
+            }
+
+            entregues++;
+
+        }
+
+        return entregues;
+
+    }
+
+    /**
+     * Apaga os eventos mais antigos que a retenção informada.
+     *
+     * @param retencao Idade a partir da qual os eventos são apagados.
+     * @return Quantidade de eventos apagados.
+     */
+    public int limpar(Duration retencao) {
+
+        return jdbcTemplate.update(SQL_LIMPAR, -retencao.toSeconds());
+
+    }
+
+    private void gravar(String tipo, List<Long> ids) {
+
+        for (int i = 0; i < ids.size(); i += IDS_POR_EVENTO) {
+
+            String lote = ids.subList(i, Math.min(i + IDS_POR_EVENTO, ids.size())).stream().map(String::valueOf).collect(Collectors.joining(","));
+
+            jdbcTemplate.update(SQL_INSERIR, tipo, lote, instancia);
+
+        }
+
+    }
+
+}
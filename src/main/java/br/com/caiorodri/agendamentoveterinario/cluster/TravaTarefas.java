@@ -0,0 +1,115 @@
+package br.com.caiorodri.agendamentoveterinario.cluster;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Garante que uma tarefa agendada rode em uma instância por vez quando a aplicação tem várias
+ * instâncias usando o mesmo banco. Cada tarefa tem uma linha em trava_tarefa; a instância que
+ * consegue atualizar travado_ate (só possível quando a trava anterior já venceu) executa a tarefa,
+ * as demais pulam a execução.
+ *
+ * Todas as datas vêm do relógio do banco, então a diferença entre os relógios das instâncias não
+ * importa. A trava dura no máximo duracaoMaxima, para que uma instância que caia no meio da tarefa
+ * não a bloqueie para sempre, e no mínimo duracaoMinima, para que uma instância que dispare o mesmo
+ * cron alguns segundos depois não execute a tarefa de novo.
+ *
+ * Os comandos são executados fora de transação, então deve ser chamada fora de uma (como nos
+ * schedulers).
+ */
+public class TravaTarefas {
+
+    private static final String SQL_INSERIR =
+            "INSERT INTO trava_tarefa (nome, travado_ate, travado_em, travado_por) " +
+            "VALUES (?, TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP), CURRENT_TIMESTAMP, ?)";
+
+    private static final String SQL_TRAVAR =
+            "UPDATE trava_tarefa SET travado_ate = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP), travado_em = CURRENT_TIMESTAMP, travado_por = ? " +
+            "WHERE nome = ? AND travado_ate <= CURRENT_TIMESTAMP";
+
+    private static final String SQL_LIBERAR =
+            "UPDATE trava_tarefa SET travado_ate = GREATEST(CURRENT_TIMESTAMP, TIMESTAMPADD(SECOND, ?, travado_em)) " +
+            "WHERE nome = ? AND travado_por = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String instancia;
+
+    final static Logger logger = LoggerFactory.getLogger(TravaTarefas.class);
+
+    /**
+     * @param jdbcTemplate Acesso ao banco compartilhado pelas instâncias.
+     * @param instancia Identificação desta instância, única entre as que usam o banco.
+     */
+    public TravaTarefas(JdbcTemplate jdbcTemplate, String instancia) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.instancia = instancia;
+
+    }
+
+    /**
+     * Executa a tarefa se nenhuma outra instância estiver com a trava.
+     *
+     * @param nome Nome da tarefa, o mesmo em todas as instâncias.
+     * @param duracaoMaxima Tempo máximo em que a trava fica com esta instância, mesmo que ela caia.
+     * @param duracaoMinima Tempo mínimo da trava, contado do início da execução.
+     * @param tarefa Tarefa a executar.
+     * @return true se a tarefa foi executada por esta instância.
+     */
+    public boolean executar(String nome, Duration duracaoMaxima, Duration duracaoMinima, Runnable tarefa) {
+
+        if (!travar(nome, duracaoMaxima)) {
+
+            logger.debug("[executar] - Tarefa {} em execução ou executada recentemente por outra instância", nome);
+
+            return false;
+
+        }
+
+        try {
+
+            tarefa.run();
+
+            return true;
+
+        } finally {
+
+            jdbcTemplate.update(SQL_LIBERAR, duracaoMinima.toSeconds(), nome, instancia);
+
+        }
+
+    }
+
+    /**
+     * @return Identificação desta instância.
+     */
+    public String getInstancia() {
+
+        return instancia;
+
+    }
+
+    private boolean travar(String nome, Duration duracaoMaxima) {
+
+        if (jdbcTemplate.update(SQL_TRAVAR, duracaoMaxima.toSeconds(), instancia, nome) == 1) {
+            return true;
+        }
+
+        try {
+
+            return jdbcTemplate.update(SQL_INSERIR, nome, duracaoMaxima.toSeconds(), instancia) == 1;
+
+        } catch (DuplicateKeyException e) {
+
+            return false;
+
+        }
+
+    }
+
+}
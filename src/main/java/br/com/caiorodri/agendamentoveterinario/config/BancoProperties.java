@@ -0,0 +1,45 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "banco")
+public class BancoProperties {
+
+    /**
+     * Réplicas de leitura. Sem réplicas, todas as conexões vão para o spring.datasource.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Por quanto tempo, depois de uma escrita, as leituras do mesmo usuário continuam indo para o
+     * primário (para ele ver o que acabou de gravar mesmo com atraso de replicação). 0 desliga.
+     */
+    private long leituraAposEscritaMs = 2000;
+
+    private long intervaloVerificacaoMs = 10000;
+
+    private int timeoutVerificacaoSegundos = 2;
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        /** Usuário e senha; quando vazios, são os mesmos do spring.datasource. */
+        private String username;
+
+        private String password;
+
+        private int tamanhoPool = 10;
+
+    }
+
+}
@@ -0,0 +1,46 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Políticas de Cache-Control por classe de endpoint:
+ * dados de referência (status, tipos, espécies, raças, sexos, estados) podem ser reaproveitados pelo
+ * cliente por um tempo; recursos com ETag podem ser guardados, mas são sempre revalidados (o
+ * servidor responde 304 quando nada mudou); o restante não é armazenado.
+ */
+@Configuration
+public class CacheHttpConfig implements WebMvcConfigurer {
+
+    @Value("${cache-http.referencia-segundos:3600}")
+    private long referenciaSegundos;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+
+        CacheHttpInterceptor interceptor = new CacheHttpInterceptor()
+                .adicionar(CacheControl.maxAge(Duration.ofSeconds(referenciaSegundos)).cachePrivate(),
+                        "/agendamentos/status",
+                        "/agendamentos/tipos",
+                        "/animais/especies",
+                        "/animais/racas",
+                        "/animais/racas/especie/{idEspecie}",
+                        "/animais/sexos",
+                        "/usuarios/status",
+                        "/usuarios/estados")
+                .adicionar(CacheControl.noCache().cachePrivate(),
+                        "/agendamentos",
+                        "/agendamentos/{id}",
+                        "/usuarios/clientes",
+                        "/usuarios/{id}");
+
+        registry.addInterceptor(interceptor);
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Define o Cache-Control das respostas de leitura conforme a classe do endpoint. Vale apenas para
+ * GET e HEAD; as demais requisições, e os GETs sem política, recebem no-store.
+ * Quando mais de um padrão casa com o caminho, vence o mais específico.
+ */
+public class CacheHttpInterceptor implements HandlerInterceptor {
+
+    private final Map<PathPattern, CacheControl> politicas = new LinkedHashMap<>();
+
+    private final String padrao = CacheControl.noStore().getHeaderValue();
+
+    /**
+     * Associa uma política de cache aos caminhos informados (relativos ao context-path).
+     *
+     * @param cacheControl Política aplicada.
+     * @param caminhos Padrões de caminho, no formato do PathPattern.
+     * @return O próprio interceptor.
+     */
+    public CacheHttpInterceptor adicionar(CacheControl cacheControl, String... caminhos) {
+
+        for (String caminho : caminhos) {
+            politicas.put(PathPatternParser.defaultInstance.parse(caminho), cacheControl);
+        }
+
+        return this;
+
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        String valor = padrao;
+
+        if ("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())) {
+
+            PathContainer caminho = ServletRequestPathUtils.hasParsedRequestPath(request)
+                    ? ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication()
+                    : PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+
+            PathPattern melhor = null;
+
+            for (PathPattern padraoCaminho : politicas.keySet()) {
+
+                if (padraoCaminho.matches(caminho) && (melhor == null || PathPattern.SPECIFICITY_COMPARATOR.compare(padraoCaminho, melhor) < 0)) {
+                    melhor = padraoCaminho;
+                }
+            }
+
+            if (melhor != null) {
+                valor = politicas.get(melhor).getHeaderValue();
+            }
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, valor);
+
+        return true;
+
+    }
+
+}
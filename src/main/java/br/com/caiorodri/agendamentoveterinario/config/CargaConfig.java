@@ -0,0 +1,119 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.caiorodri.agendamentoveterinario.carga.DestinoArquivos;
+import br.com.caiorodri.agendamentoveterinario.carga.DestinoBanco;
+import br.com.caiorodri.agendamentoveterinario.carga.DestinoCarga;
+import br.com.caiorodri.agendamentoveterinario.carga.GeradorDadosCarga;
+import br.com.caiorodri.agendamentoveterinario.carga.ServidorSmtpFalso;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Perfil de teste de carga local (application-carga.yml): SMTP falso e geração dos dados na
+ * inicialização, antes de o índice de busca e os demais caches serem carregados.
+ */
+@Configuration
+@Profile("carga")
+public class CargaConfig {
+
+    @Value("${carga.smtp.porta:2525}")
+    private int portaSmtp;
+
+    @Value("${carga.dados.gerar:true}")
+    private boolean gerarDados;
+
+    @Value("${carga.dados.semente:42}")
+    private long semente;
+
+    @Value("${carga.dados.senha:carga123}")
+    private String senha;
+
+    @Value("${carga.dados.clientes:100000}")
+    private int clientes;
+
+    @Value("${carga.dados.animais:300000}")
+    private int animais;
+
+    @Value("${carga.dados.agendamentos:2000000}")
+    private int agendamentos;
+
+    @Value("${carga.dados.veterinarios:200}")
+    private int veterinarios;
+
+    @Value("${carga.dados.recepcionistas:10}")
+    private int recepcionistas;
+
+    @Value("${carga.dados.percentual-futuros:5}")
+    private int percentualFuturos;
+
+    @Value("${carga.dados.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    @Value("${carga.dados.data-referencia:}")
+    private String dataReferencia;
+
+    @Value("${carga.dados.threads:0}")
+    private int threads;
+
+    @Value("${carga.dados.destino:banco}")
+    private String destino;
+
+    @Value("${carga.dados.diretorio:target/carga}")
+    private String diretorio;
+
+    @Value("${clinicas.padrao:1}")
+    private long idClinica;
+
+    @Bean(destroyMethod = "parar")
+    public ServidorSmtpFalso servidorSmtpFalso(MeterRegistry meterRegistry) throws IOException {
+
+        ServidorSmtpFalso servidor = new ServidorSmtpFalso(portaSmtp);
+        servidor.iniciar();
+
+        // Lido pelos cenários de carga em /actuator/metrics/carga.smtp.mensagens.
+        Gauge.builder("carga.smtp.mensagens", servidor, ServidorSmtpFalso::getMensagensRecebidas).register(meterRegistry);
+
+        return servidor;
+
+    }
+
+    @Bean
+    public ApplicationRunner geradorDadosCarga(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+
+        return args -> {
+
+            Integer existentes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuario WHERE email LIKE ?", Integer.class,
+                    "%" + GeradorDadosCarga.DOMINIO_EMAIL);
+
+            if (!gerarDados || existentes > 0) {
+                return;
+            }
+
+            GeradorDadosCarga.Parametros parametros = new GeradorDadosCarga.Parametros(passwordEncoder.encode(senha), semente,
+                    clientes, animais, agendamentos, veterinarios, recepcionistas, percentualFuturos,
+                    dataReferencia.isBlank() ? LocalDate.now() : LocalDate.parse(dataReferencia),
+                    threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), idClinica);
+
+            DestinoCarga destinoCarga = "arquivos".equals(destino)
+                    ? new DestinoArquivos(Path.of(diretorio))
+                    : new DestinoBanco(jdbcTemplate, tamanhoLote);
+
+            new GeradorDadosCarga(destinoCarga, parametros).gerar();
+
+        };
+
+    }
+
+}
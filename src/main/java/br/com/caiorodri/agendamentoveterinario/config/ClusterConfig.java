@@ -0,0 +1,48 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import java.lang.management.ManagementFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import br.com.caiorodri.agendamentoveterinario.cluster.BarramentoCluster;
+import br.com.caiorodri.agendamentoveterinario.cluster.TravaTarefas;
+
+/**
+ * Coordenação entre as instâncias da aplicação que usam o mesmo banco: travas das tarefas agendadas
+ * e avisos de alteração dos dados mantidos em memória.
+ */
+@Configuration
+public class ClusterConfig {
+
+    @Value("${cluster.instancia:}")
+    private String instancia;
+
+    @Value("${cluster.janela-eventos-segundos:30}")
+    private long janelaEventosSegundos;
+
+    @Bean
+    public TravaTarefas travaTarefas(JdbcTemplate jdbcTemplate) {
+
+        return new TravaTarefas(jdbcTemplate, identificarInstancia());
+
+    }
+
+    @Bean
+    public BarramentoCluster barramentoCluster(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+
+        return new BarramentoCluster(jdbcTemplate, eventPublisher, identificarInstancia(), janelaEventosSegundos);
+
+    }
+
+    private String identificarInstancia() {
+
+        return StringUtils.hasText(instancia) ? instancia : ManagementFactory.getRuntimeMXBean().getName();
+
+    }
+
+}
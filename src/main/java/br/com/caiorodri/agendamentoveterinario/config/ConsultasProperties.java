@@ -0,0 +1,40 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "consultas")
+public class ConsultasProperties {
+
+    private boolean habilitado = true;
+
+    /**
+     * Comandos SQL por requisição acima dos quais a requisição é registrada no log, para os endpoints
+     * sem limite próprio.
+     */
+    private int limitePadrao = 20;
+
+    /**
+     * Limites por endpoint, com a chave no formato "MÉTODO padrão", ex.: "GET /usuarios/{id}".
+     */
+    private Map<String, Integer> limites = new HashMap<>();
+
+    /**
+     * Lança uma exceção nas requisições acima do limite, para que os testes falhem. Não deve ser
+     * ligado em produção: a resposta já foi gerada quando a contagem é verificada.
+     */
+    private boolean falharAcimaDoLimite = false;
+
+    /**
+     * Quantidade máxima de consultas no relatório de consultas lentas.
+     */
+    private int maximoRelatorio = 50;
+
+}
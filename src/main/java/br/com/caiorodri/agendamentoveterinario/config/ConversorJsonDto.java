@@ -0,0 +1,78 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoDTO;
+
+/**
+ * Conversor JSON das respostas que reaproveita um {@link ObjectWriter} por tipo de DTO, com o
+ * serializador da raiz já resolvido, em vez de montar um writer novo a cada resposta. Só os DTOs da
+ * aplicação (e listas deles) passam pelo cache; respostas com view, filtros ou outros tipos seguem o
+ * caminho padrão do Spring.
+ */
+public class ConversorJsonDto extends MappingJackson2HttpMessageConverter {
+
+    private static final String PACOTE_DTO = AgendamentoDTO.class.getPackageName();
+
+    private final Map<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public ConversorJsonDto(ObjectMapper objectMapper) {
+
+        super(objectMapper);
+
+    }
+
+    /**
+     * Resolve antecipadamente os writers dos DTOs e de suas listas, para que a primeira resposta não
+     * pague a montagem dos serializadores.
+     *
+     * @param tipos Classes dos DTOs.
+     */
+    public void preResolver(Class<?>... tipos) {
+
+        TypeFactory typeFactory = getObjectMapper().getTypeFactory();
+
+        for (Class<?> tipo : tipos) {
+            writer(typeFactory.constructType(tipo));
+            writer(typeFactory.constructCollectionType(List.class, tipo));
+        }
+
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+
+        // Writers com view, filtros ou indentação têm configuração própria e não podem ser trocados.
+        if (javaType == null || writer.getConfig() != getObjectMapper().getSerializationConfig() || !isDto(javaType)) {
+            return writer;
+        }
+
+        return writer(javaType);
+
+    }
+
+    private ObjectWriter writer(JavaType javaType) {
+
+        return writers.computeIfAbsent(javaType, tipo -> getObjectMapper().writerFor(tipo));
+
+    }
+
+    private boolean isDto(JavaType javaType) {
+
+        JavaType tipo = javaType.isCollectionLikeType() ? javaType.getContentType() : javaType;
+
+        return tipo != null && PACOTE_DTO.equals(tipo.getRawClass().getPackageName());
+
+    }
+
+}
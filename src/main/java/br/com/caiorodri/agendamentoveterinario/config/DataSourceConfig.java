@@ -0,0 +1,96 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Só entra em ação quando há ao menos uma réplica em banco.replicas; sem réplicas, o DataSource
+ * continua sendo o criado pelo Spring Boot a partir do spring.datasource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banco.replicas[0].url")
+public class DataSourceConfig {
+
+    /**
+     * Pool do primário, configurado pelo spring.datasource e spring.datasource.hikari como o do Spring Boot.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties dataSourceProperties) {
+
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+
+        return dataSource;
+
+    }
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(HikariDataSource dataSourcePrimario, DataSourceProperties dataSourceProperties,
+                                                     BancoProperties bancoProperties, MeterRegistry meterRegistry) {
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+
+        for (int i = 0; i < bancoProperties.getReplicas().size(); i++) {
+
+            BancoProperties.Replica replica = bancoProperties.getReplicas().get(i);
+            String nome = "replica-" + (i + 1);
+
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(nome);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(StringUtils.hasText(replica.getUsername()) ? replica.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(StringUtils.hasText(replica.getPassword()) ? replica.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setMaximumPoolSize(replica.getTamanhoPool());
+            dataSource.setReadOnly(true);
+            // Réplica fora do ar na subida não impede a aplicação de iniciar; ela só fica fora do rodízio.
+            dataSource.setInitializationFailTimeout(-1);
+
+            replicas.put(nome, dataSource);
+
+        }
+
+        return new RoteamentoDataSource(dataSourcePrimario, replicas, bancoProperties.getLeituraAposEscritaMs(),
+                DataSourceConfig::usuarioAtual, meterRegistry);
+
+    }
+
+    /**
+     * DataSource usado pelo JPA. O proxy só pede a conexão física no primeiro comando, quando a
+     * transação já foi marcada (ou não) como somente leitura, e é isso que permite o roteamento.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+
+    }
+
+    private static String usuarioAtual() {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+
+    }
+
+}
@@ -0,0 +1,148 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${executores.emails.threads:2}")
+    private int threadsEmails;
+
+    @Value("${executores.emails.capacidade-fila:10000}")
+    private int capacidadeFilaEmails;
+
+    @Value("${disponibilidade.threads:0}")
+    private int threadsDisponibilidade;
+
+    @Value("${tarefas.threads:4}")
+    private int threadsTarefas;
+
+    @Value("${seguranca.senha.threads:0}")
+    private int threadsSenhas;
+
+    @Value("${seguranca.senha.maximo-pendentes:64}")
+    private int maximoPendentesSenhas;
+
+    @Value("${importacao.threads-senha:0}")
+    private int threadsSenhasImportacao;
+
+    /**
+     * Faz as tarefas rodarem na clínica de quem as submeteu. Aplicado só aos executores abaixo: como a
+     * aplicação define os próprios executores, o Spring Boot não cria o applicationTaskExecutor, e as
+     * requisições assíncronas (exportações com StreamingResponseBody) rodam sem a clínica; quem as usa
+     * precisa capturar a clínica antes (ver ExportacaoController).
+     */
+    @Bean
+    public TaskDecorator decoradorClinica() {
+
+        return ContextoClinica::propagar;
+
+    }
+
+    /**
+     * Executor usado para envios de e-mail que não precisam acontecer dentro da requisição,
+     * como as boas-vindas dos cadastros feitos por importação.
+     */
+    @Bean(name = "executorEmails")
+    public ThreadPoolTaskExecutor executorEmails() {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threadsEmails);
+        executor.setMaxPoolSize(threadsEmails);
+        executor.setQueueCapacity(capacidadeFilaEmails);
+        executor.setTaskDecorator(decoradorClinica());
+        executor.setThreadNamePrefix("emails-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+
+        return executor;
+
+    }
+
+    /**
+     * Executor exclusivo para hash de senhas. O padrão (0) usa uma thread por núcleo, que é o máximo
+     * de hashes BCrypt que a máquina consegue calcular ao mesmo tempo.
+     */
+    @Bean(name = "executorSenhas")
+    public ThreadPoolTaskExecutor executorSenhas() {
+
+        int threads = threadsSenhas > 0 ? threadsSenhas : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(maximoPendentesSenhas);
+        executor.setTaskDecorator(decoradorClinica());
+        executor.setThreadNamePrefix("senhas-");
+        executor.initialize();
+
+        return executor;
+
+    }
+
+    /**
+     * Executor dos hashes de senha da importação de clientes, separado do executorSenhas para que um
+     * arquivo grande não tome as vagas do login. O padrão (0) usa metade dos núcleos, deixando a outra
+     * metade para os logins; a fila não tem limite porque o arquivo já é limitado por
+     * importacao.maximo-linhas.
+     */
+    @Bean(name = "executorSenhasImportacao")
+    public ThreadPoolTaskExecutor executorSenhasImportacao() {
+
+        int threads = threadsSenhasImportacao > 0 ? threadsSenhasImportacao : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("senhas-importacao-");
+        executor.initialize();
+
+        return executor;
+
+    }
+
+    /**
+     * Executor da busca de próximos horários, que gera a agenda livre de cada veterinário em paralelo.
+     * O padrão (0) usa uma thread por núcleo.
+     */
+    @Bean(name = "executorDisponibilidade")
+    public ThreadPoolTaskExecutor executorDisponibilidade() {
+
+        int threads = threadsDisponibilidade > 0 ? threadsDisponibilidade : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setTaskDecorator(decoradorClinica());
+        executor.setThreadNamePrefix("disponibilidade-");
+        executor.initialize();
+
+        return executor;
+
+    }
+
+    /**
+     * Executor das partições das tarefas em lote (TarefaService). Não usa o decorador de clínica: a
+     * partição pode ser assumida por uma thread de outra requisição ou pelo agendador, então o
+     * TarefaService define em cada uma a clínica gravada na própria partição.
+     */
+    @Bean(name = "executorTarefas")
+    public ThreadPoolTaskExecutor executorTarefas() {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threadsTarefas);
+        executor.setMaxPoolSize(threadsTarefas);
+        executor.setThreadNamePrefix("tarefas-");
+        executor.initialize();
+
+        return executor;
+
+    }
+
+}
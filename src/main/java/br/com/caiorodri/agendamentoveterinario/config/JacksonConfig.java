@@ -0,0 +1,57 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.AnimalDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.ListaEsperaDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.UsuarioDTO;
+
+@Configuration
+public class JacksonConfig {
+
+    @Value("${json.tamanho-pool-buffers:256}")
+    private int tamanhoPoolBuffers;
+
+    /**
+     * Troca o acesso reflexivo aos getters e setters dos DTOs por lambdas geradas com MethodHandles.
+     * O Spring Boot registra qualquer bean Module no ObjectMapper da aplicação.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+
+        return new BlackbirdModule();
+
+    }
+
+    /**
+     * Os buffers de escrita do Jackson ficam em um pool compartilhado e limitado, em vez de um por
+     * thread, de modo que a memória retida não cresce com o pool de threads do servidor.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer poolBuffersJson() {
+
+        return builder -> builder.postConfigurer(objectMapper ->
+                objectMapper.getFactory().setRecyclerPool(JsonRecyclerPools.newBoundedPool(tamanhoPoolBuffers)));
+
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+
+        ConversorJsonDto conversor = new ConversorJsonDto(objectMapper);
+        conversor.preResolver(AgendamentoDTO.class, UsuarioDTO.class, AnimalDTO.class, ListaEsperaDTO.class);
+
+        return conversor;
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "limite-requisicoes")
+public class LimiteRequisicoesProperties {
+
+    private boolean habilitado = true;
+
+    /**
+     * Quantidade máxima de baldes mantidos em memória por política.
+     */
+    private int maximoChaves = 100000;
+
+    /**
+     * Usa o primeiro IP do cabeçalho X-Forwarded-For. Só deve ser ligado atrás de um proxy confiável.
+     */
+    private boolean usarXForwardedFor = false;
+
+    private Map<String, Politica> politicas = new HashMap<>();
+
+    @Data
+    public static class Politica {
+
+        private int capacidade = 10;
+
+        private int reposicaoPorMinuto = 10;
+
+    }
+
+}
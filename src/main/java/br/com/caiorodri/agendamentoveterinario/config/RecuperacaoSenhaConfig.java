@@ -0,0 +1,55 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.caiorodri.agendamentoveterinario.security.ArmazenamentoCodigos;
+import br.com.caiorodri.agendamentoveterinario.security.ArmazenamentoCodigosBanco;
+import br.com.caiorodri.agendamentoveterinario.security.ArmazenamentoCodigosMemoria;
+import br.com.caiorodri.agendamentoveterinario.security.CodigosRecuperacao;
+
+/**
+ * Códigos de recuperação de senha. Com uma instância, ficam em memória; com várias usando o mesmo banco,
+ * recuperacao-senha.armazenamento deve ser "banco", para que qualquer instância valide o código.
+ */
+@Configuration
+public class RecuperacaoSenhaConfig {
+
+    @Value("${recuperacao-senha.armazenamento:memoria}")
+    private String armazenamento;
+
+    @Value("${recuperacao-senha.validade-minutos:15}")
+    private long validadeMinutos;
+
+    @Value("${recuperacao-senha.maximo-tentativas:5}")
+    private int maximoTentativas;
+
+    @Value("${recuperacao-senha.maximo-codigos:100000}")
+    private int maximoCodigos;
+
+    @Value("${jwt.secret}")
+    private String segredo;
+
+    @Bean
+    public CodigosRecuperacao codigosRecuperacao(JdbcTemplate jdbcTemplate) {
+
+        return new CodigosRecuperacao(criarArmazenamento(jdbcTemplate), segredo, Duration.ofMinutes(validadeMinutos), maximoTentativas);
+
+    }
+
+    private ArmazenamentoCodigos criarArmazenamento(JdbcTemplate jdbcTemplate) {
+
+        return switch (armazenamento) {
+            case "memoria" -> new ArmazenamentoCodigosMemoria(maximoCodigos, Clock.systemUTC());
+            case "banco" -> new ArmazenamentoCodigosBanco(jdbcTemplate);
+            default -> throw new IllegalArgumentException("recuperacao-senha.armazenamento deve ser memoria ou banco: " + armazenamento);
+        };
+
+    }
+
+}
@@ -0,0 +1,40 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.caiorodri.agendamentoveterinario.service.ReservasHorario;
+import br.com.caiorodri.agendamentoveterinario.service.ReservasHorarioBanco;
+import br.com.caiorodri.agendamentoveterinario.service.ReservasHorarioMemoria;
+
+/**
+ * Reservas temporárias de horário. Em memória, só bloqueiam o horário na instância que as criou; com
+ * várias instâncias, reservas.armazenamento deve ser "banco", para que a reserva valha em todas.
+ */
+@Configuration
+public class ReservasHorarioConfig {
+
+    @Value("${reservas.armazenamento:memoria}")
+    private String armazenamento;
+
+    @Value("${reservas.duracao-casa-ms:1000}")
+    private long duracaoCasaMillis;
+
+    @Value("${reservas.quantidade-casas:512}")
+    private int quantidadeCasas;
+
+    @Bean
+    public ReservasHorario reservasHorario(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+
+        return switch (armazenamento) {
+            case "memoria" -> new ReservasHorarioMemoria(duracaoCasaMillis, quantidadeCasas);
+            case "banco" -> new ReservasHorarioBanco(jdbcTemplate, transactionManager);
+            default -> throw new IllegalArgumentException("reservas.armazenamento deve ser memoria ou banco: " + armazenamento);
+        };
+
+    }
+
+}
@@ -0,0 +1,251 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Envia as conexões de transações somente leitura (@Transactional(readOnly = true)) para as réplicas,
+ * em rodízio, e as demais para o primário.
+ *
+ * A decisão usa o estado da transação no momento em que a conexão é pedida, então este DataSource
+ * precisa ficar atrás de um {@link LazyConnectionDataSourceProxy}: sem ele, o JPA pede a conexão ao
+ * abrir a transação, antes de o Spring marcá-la como somente leitura.
+ *
+ * Réplica que falha ao entregar conexão sai do rodízio até a próxima verificação bem-sucedida
+ * ({@link #verificarReplicas(int)}), e a leitura é atendida pela próxima réplica ou pelo primário.
+ * Depois de uma escrita, as leituras do mesmo usuário vão para o primário por um tempo, para que ele
+ * veja o que acabou de gravar mesmo com atraso de replicação.
+ *
+ * Cada decisão é contada na métrica banco.conexoes (destino, motivo) e a quantidade de réplicas
+ * disponíveis fica em banco.replicas.disponiveis.
+ */
+public class RoteamentoDataSource extends AbstractDataSource {
+
+    static final String PRIMARIO = "primario";
+
+    private final DataSource primario;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final long leituraAposEscritaMillis;
+
+    private final Supplier<String> usuarioAtual;
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    /** Momento da última escrita de cada usuário, enquanto as leituras dele ainda vão para o primário. */
+    private final Map<String, Long> ultimaEscrita = new ConcurrentHashMap<>();
+
+    final static Logger logger = LoggerFactory.getLogger(RoteamentoDataSource.class);
+
+    /**
+     * @param primario DataSource do primário.
+     * @param replicas DataSources das réplicas, por nome (o nome aparece nas métricas e nos logs).
+     * @param leituraAposEscritaMillis Tempo em que as leituras de um usuário ficam no primário depois de uma escrita; 0 desliga.
+     * @param usuarioAtual Identifica o usuário da requisição atual, ou null quando não há.
+     * @param meterRegistry Registro das métricas.
+     */
+    public RoteamentoDataSource(DataSource primario, Map<String, DataSource> replicas, long leituraAposEscritaMillis,
+                                Supplier<String> usuarioAtual, MeterRegistry meterRegistry) {
+
+        this.primario = primario;
+        this.leituraAposEscritaMillis = leituraAposEscritaMillis;
+        this.usuarioAtual = usuarioAtual;
+        this.meterRegistry = meterRegistry;
+
+        replicas.forEach((nome, dataSource) -> this.replicas.add(new Replica(nome, dataSource)));
+
+        Gauge.builder("banco.replicas.disponiveis", this, r -> r.replicas.stream().filter(Replica::isDisponivel).count())
+                .description("Réplicas de leitura no rodízio")
+                .register(meterRegistry);
+
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+
+            boolean escrita = TransactionSynchronizationManager.isActualTransactionActive();
+
+            if (escrita) {
+                registrarEscrita();
+            }
+
+            return conectarPrimario(escrita ? "escrita" : "sem-transacao");
+
+        }
+
+        if (replicas.isEmpty()) {
+            return conectarPrimario("sem-replica");
+        }
+
+        if (lendoAposEscrita()) {
+            return conectarPrimario("leitura-apos-escrita");
+        }
+
+        int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+
+        for (int i = 0; i < replicas.size(); i++) {
+
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+
+            if (!replica.isDisponivel()) {
+                continue;
+            }
+
+            try {
+
+                Connection conexao = replica.dataSource.getConnection();
+                contar(replica.nome, "leitura");
+
+                return conexao;
+
+            } catch (SQLException e) {
+
+                replica.disponivel = false;
+                logger.warn("[getConnection] - Réplica {} retirada do rodízio: {}", replica.nome, e.getMessage());
+
+            }
+        }
+
+        return conectarPrimario("failover");
+
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+
+        throw new UnsupportedOperationException("Conexões com usuário e senha próprios não são roteadas.");
+
+    }
+
+    /**
+     * Testa cada réplica e atualiza o rodízio: réplicas que voltaram a responder entram de novo, as que
+     * não respondem saem. Também descarta os registros de escrita que já não afetam o roteamento.
+     *
+     * @param timeoutSegundos Tempo máximo de espera pela validação de cada réplica.
+     */
+    public void verificarReplicas(int timeoutSegundos) {
+
+        for (Replica replica : replicas) {
+
+            boolean disponivel;
+
+            try (Connection conexao = replica.dataSource.getConnection()) {
+                disponivel = conexao.isValid(timeoutSegundos);
+            } catch (SQLException e) {
+                disponivel = false;
+            }
+
+            if (disponivel != replica.disponivel) {
+
+                if (disponivel) {
+                    logger.info("[verificarReplicas] - Réplica {} de volta ao rodízio", replica.nome);
+                } else {
+                    logger.warn("[verificarReplicas] - Réplica {} retirada do rodízio", replica.nome);
+                }
+
+                replica.disponivel = disponivel;
+
+            }
+        }
+
+        long limite = System.currentTimeMillis() - leituraAposEscritaMillis;
+        ultimaEscrita.values().removeIf(momento -> momento < limite);
+
+    }
+
+    /**
+     * @return Nomes das réplicas que estão no rodízio.
+     */
+    public List<String> listarReplicasDisponiveis() {
+
+        return replicas.stream().filter(Replica::isDisponivel).map(r -> r.nome).toList();
+
+    }
+
+    private Connection conectarPrimario(String motivo) throws SQLException {
+
+        contar(PRIMARIO, motivo);
+
+        return primario.getConnection();
+
+    }
+
+    private void registrarEscrita() {
+
+        if (leituraAposEscritaMillis <= 0 || replicas.isEmpty()) {
+            return;
+        }
+
+        String usuario = usuarioAtual.get();
+
+        if (usuario != null) {
+            ultimaEscrita.put(usuario, System.currentTimeMillis());
+        }
+
+    }
+
+    private boolean lendoAposEscrita() {
+
+        if (leituraAposEscritaMillis <= 0) {
+            return false;
+        }
+
+        String usuario = usuarioAtual.get();
+        Long momento = usuario != null ? ultimaEscrita.get(usuario) : null;
+
+        return momento != null && System.currentTimeMillis() - momento < leituraAposEscritaMillis;
+
+    }
+
+    private void contar(String destino, String motivo) {
+
+        meterRegistry.counter("banco.conexoes", "destino", destino, "motivo", motivo).increment();
+
+    }
+
+    private static class Replica {
+
+        private final String nome;
+
+        private final DataSource dataSource;
+
+        private volatile boolean disponivel = true;
+
+        private Replica(String nome, DataSource dataSource) {
+
+            this.nome = nome;
+            this.dataSource = dataSource;
+
+        }
+
+        private boolean isDisponivel() {
+
+            return disponivel;
+
+        }
+
+    }
+
+}
@@ -20,8 +20,10 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -29,16 +31,26 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoAtualizacaoDTO;
 import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.HorarioDisponivelDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.ReservaHorarioDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.ReservaHorarioRequestDTO;
 import br.com.caiorodri.agendamentoveterinario.mapper.Mapper;
 import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
 import br.com.caiorodri.agendamentoveterinario.service.AgendamentoService;
+import br.com.caiorodri.agendamentoveterinario.service.DisponibilidadeService;
+import br.com.caiorodri.agendamentoveterinario.service.ReservaHorarioService;
+import br.com.caiorodri.agendamentoveterinario.service.VersaoRecursoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 
 @RestController
@@ -49,6 +61,15 @@ public class AgendamentoController {
     @Autowired
     private AgendamentoService agendamentoService;
 
+    @Autowired
+    private DisponibilidadeService disponibilidadeService;
+
+    @Autowired
+    private ReservaHorarioService reservaHorarioService;
+
+    @Autowired
+    private VersaoRecursoService versaoRecursoService;
+
     @Autowired
     private Mapper mapper;
 
@@ -59,6 +80,8 @@ public class AgendamentoController {
             description = "Retorna uma lista paginada de todos os agendamentos cadastrados. (Requer perfil: ADMINISTRADOR, VETERINARIO ou RECEPCIONISTA)",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Agendamentos listados com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Campo inválido no parâmetro fields"),
+                    @ApiResponse(responseCode = "304", description = "Conteúdo não modificado desde o ETag informado em If-None-Match"),
                     @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
                     @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
                     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
@@ -66,14 +89,33 @@ public class AgendamentoController {
     )
     @GetMapping("")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'VETERINARIO', 'RECEPCIONISTA')")
-    public ResponseEntity<Page<AgendamentoDTO>> listar(
+    public ResponseEntity<Page<?>> listar(
             @Parameter(description = "Número da página (inicia em 0)", required = true, example = "0") @RequestParam("pagina") int pagina,
-            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens) {
+            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens,
+            @Parameter(description = "Campos a retornar, separados por vírgula, com os nomes do AgendamentoDTO (ex.: id,dataAgendamentoInicio,animal.nome,veterinario.nome). Sem o parâmetro, retorna o AgendamentoDTO completo.") @RequestParam(value = "fields", required = false) String fields,
+            @Parameter(hidden = true) WebRequest webRequest) {
 
         logger.info("[listar] - Início");
 
+        if (webRequest.checkNotModified(versaoRecursoService.etagColecao("agendamentos", pagina, quantidadeItens, fields))) {
+
+            logger.info("[listar] - Fim - Não modificado");
+            return null;
+
+        }
+
         Pageable pageable = PageRequest.of(pagina, quantidadeItens);
 
+        if (fields != null) {
+
+            Page<Map<String, Object>> projecao = agendamentoService.listarProjecao(fields, pageable);
+
+            logger.info("[listar] - Fim");
+
+            return new ResponseEntity<>(projecao, HttpStatus.OK);
+
+        }
+
         Page<Agendamento> agendamentos = agendamentoService.listar(pageable);
 
         Page<AgendamentoDTO> agendamentosDto = new PageImpl<>(mapper.agendamentoListToDtoList(agendamentos.getContent()), pageable, agendamentos.getTotalElements());
@@ -89,6 +131,7 @@ public class AgendamentoController {
             description = "Recupera um agendamento com base no ID informado.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Agendamento encontrado com sucesso"),
+                    @ApiResponse(responseCode = "304", description = "Conteúdo não modificado desde o ETag informado em If-None-Match"),
                     @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
                     @ApiResponse(responseCode = "404", description = "Agendamento não encontrado"),
                     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
@@ -96,10 +139,20 @@ public class AgendamentoController {
     )
     @GetMapping("/{id}")
     public ResponseEntity<AgendamentoDTO> recuperar(
-            @Parameter(description = "ID do agendamento a ser buscado", required = true, example = "1") @PathVariable(name = "id") Long id) {
+            @Parameter(description = "ID do agendamento a ser buscado", required = true, example = "1") @PathVariable(name = "id") Long id,
+            @Parameter(hidden = true) WebRequest webRequest) {
 
         logger.info("[recuperar] - Início");
 
+        String etag = versaoRecursoService.etagAgendamento(id);
+
+        if (etag != null && webRequest.checkNotModified(etag)) {
+
+            logger.info("[recuperar] - Fim - Não modificado");
+            return null;
+
+        }
+
         Agendamento agendamento = agendamentoService.recuperar(id);
 
         AgendamentoDTO agendamentoDto = mapper.agendamentoToDto(agendamento);
@@ -115,21 +168,33 @@ public class AgendamentoController {
             description = "Retorna uma lista paginada de agendamentos associados ao animal informado.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Agendamentos listados com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Campo inválido no parâmetro fields"),
                     @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
                     @ApiResponse(responseCode = "404", description = "Animal não encontrado"),
                     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
             }
     )
     @GetMapping("/animal/{idAnimal}")
-    public ResponseEntity<Page<AgendamentoDTO>> listarByAnimal(
+    public ResponseEntity<Page<?>> listarByAnimal(
             @Parameter(description = "ID do animal para filtrar os agendamentos", required = true, example = "1") @PathVariable Long idAnimal,
             @Parameter(description = "Número da página (inicia em 0)", required = true, example = "0") @RequestParam("pagina") int pagina,
-            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens) {
+            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens,
+            @Parameter(description = "Campos a retornar, separados por vírgula, com os nomes do AgendamentoDTO (ex.: id,dataAgendamentoInicio,animal.nome,veterinario.nome). Sem o parâmetro, retorna o AgendamentoDTO completo.") @RequestParam(value = "fields", required = false) String fields) {
 
         logger.info("[listarByAnimal] - Início");
 
         Pageable pageable = PageRequest.of(pagina, quantidadeItens);
 
+        if (fields != null) {
+
+            Page<Map<String, Object>> projecao = agendamentoService.listarByAnimalIdProjecao(idAnimal, fields, pageable);
+
+            logger.info("[listarByAnimal] - Fim");
+
+            return new ResponseEntity<>(projecao, HttpStatus.OK);
+
+        }
+
         Page<Agendamento> agendamentos = agendamentoService.listarByAnimalId(idAnimal, pageable);
 
         Page<AgendamentoDTO> agendamentosDto = new PageImpl<>(mapper.agendamentoListToDtoList(agendamentos.getContent()), pageable, agendamentos.getTotalElements());
@@ -145,21 +210,33 @@ public class AgendamentoController {
             description = "Retorna uma lista paginada de agendamentos associados ao usuário informado.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Agendamentos listados com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Campo inválido no parâmetro fields"),
                     @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
                     @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
                     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
             }
     )
     @GetMapping("/usuario/{idUsuario}")
-    public ResponseEntity<Page<AgendamentoDTO>> listarByUsuario(
+    public ResponseEntity<Page<?>> listarByUsuario(
             @Parameter(description = "ID do usuário (cliente) para filtrar os agendamentos", required = true, example = "1") @PathVariable Long idUsuario,
             @Parameter(description = "Número da página (inicia em 0)", required = true, example = "0") @RequestParam("pagina") int pagina,
-            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens) {
+            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens,
+            @Parameter(description = "Campos a retornar, separados por vírgula, com os nomes do AgendamentoDTO (ex.: id,dataAgendamentoInicio,animal.nome,veterinario.nome). Sem o parâmetro, retorna o AgendamentoDTO completo.") @RequestParam(value = "fields", required = false) String fields) {
 
         logger.info("[listarByUsuario] - Início");
 
         Pageable pageable = PageRequest.of(pagina, quantidadeItens);
 
+        if (fields != null) {
+
+            Page<Map<String, Object>> projecao = agendamentoService.listarByUsuarioIdProjecao(idUsuario, fields, pageable);
+
+            logger.info("[listarByUsuario] - Fim");
+
+            return new ResponseEntity<>(projecao, HttpStatus.OK);
+
+        }
+
         Page<Agendamento> agendamentos = agendamentoService.listarByUsuarioId(idUsuario, pageable);
 
         Page<AgendamentoDTO> agendamentosDto = new PageImpl<>(mapper.agendamentoListToDtoList(agendamentos.getContent()), pageable, agendamentos.getTotalElements());
@@ -222,6 +299,147 @@ public class AgendamentoController {
         return new ResponseEntity<>(agendamentosDto, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Listar próximos horários disponíveis",
+            description = "Retorna os próximos horários livres de qualquer veterinário para o tipo de agendamento, em ordem cronológica, "
+                    + "dentro do horizonte de busca configurado. (Acessível por qualquer usuário autenticado)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Horários listados com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Limite inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "404", description = "Tipo de agendamento não encontrado"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @GetMapping("/proximos-horarios")
+    public ResponseEntity<List<HorarioDisponivelDTO>> listarProximosHorarios(
+            @Parameter(description = "ID do tipo de agendamento", required = true, example = "1") @RequestParam("tipo") Integer idTipo,
+            @Parameter(description = "Data inicial da busca (formato ISO: yyyy-MM-dd). Padrão: agora", example = "2025-11-10")
+            @RequestParam(name = "a-partir-de", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate aPartirDe,
+            @Parameter(description = "Quantidade máxima de horários", example = "10") @RequestParam(name = "limite", defaultValue = "10") int limite) {
+
+        logger.info("[listarProximosHorarios] - Início");
+
+        List<HorarioDisponivelDTO> horarios = disponibilidadeService.listarProximosHorarios(idTipo, aPartirDe, limite);
+
+        logger.info("[listarProximosHorarios] - Fim");
+
+        return new ResponseEntity<>(horarios, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Reservar horário",
+            description = "Reserva temporariamente um horário de um veterinário enquanto o agendamento é concluído. "
+                    + "A reserva vence automaticamente após alguns minutos e o horário deixa de aparecer como disponível para outros clientes. "
+                    + "Clientes sempre reservam em seu próprio nome; funcionários devem informar o cliente.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Veterinário, tipo de agendamento, início do horário e cliente (apenas para funcionários).",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = ReservaHorarioRequestDTO.class))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Reserva criada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Dados inválidos ou horário já ocupado/reservado"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "404", description = "Veterinário, cliente ou tipo de agendamento não encontrado"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @PostMapping("/reservas")
+    public ResponseEntity<ReservaHorarioDTO> reservar(
+            @RequestBody ReservaHorarioRequestDTO request,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[reservar] - Início");
+
+        ReservaHorarioDTO reservaDto = mapper.reservaHorarioToDto(reservaHorarioService.reservar(request, usuarioLogado));
+
+        logger.info("[reservar] - Fim");
+
+        return new ResponseEntity<>(reservaDto, HttpStatus.CREATED);
+    }
+
+    @Operation(
+            summary = "Buscar reserva de horário",
+            description = "Recupera uma reserva de horário ainda válida. Clientes só enxergam as próprias reservas.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Reserva encontrada com sucesso"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "404", description = "Reserva não encontrada ou vencida"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @GetMapping("/reservas/{id}")
+    public ResponseEntity<ReservaHorarioDTO> recuperarReserva(
+            @Parameter(description = "ID da reserva", required = true) @PathVariable String id,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[recuperarReserva] - Início");
+
+        ReservaHorarioDTO reservaDto = mapper.reservaHorarioToDto(reservaHorarioService.recuperar(id, usuarioLogado));
+
+        logger.info("[recuperarReserva] - Fim");
+
+        return new ResponseEntity<>(reservaDto, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Confirmar reserva de horário",
+            description = "Converte a reserva em agendamento. Veterinário, tipo, cliente e horário vêm da reserva; o corpo informa o animal e a descrição.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Objeto JSON com o animal e a descrição do agendamento.",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = Agendamento.class))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Agendamento criado com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Dados inválidos para o agendamento"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "404", description = "Reserva não encontrada ou vencida"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @PostMapping("/reservas/{id}/confirmar")
+    public ResponseEntity<AgendamentoDTO> confirmarReserva(
+            @Parameter(description = "ID da reserva", required = true) @PathVariable String id,
+            @RequestBody Agendamento agendamento,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[confirmarReserva] - Início");
+
+        Agendamento agendamentoSalvo = reservaHorarioService.confirmar(id, agendamento, usuarioLogado);
+
+        AgendamentoDTO agendamentoDto = mapper.agendamentoToDto(agendamentoSalvo);
+
+        logger.info("[confirmarReserva] - Fim");
+
+        return new ResponseEntity<>(agendamentoDto, HttpStatus.CREATED);
+    }
+
+    @Operation(
+            summary = "Liberar reserva de horário",
+            description = "Libera uma reserva antes do vencimento, devolvendo o horário para os demais clientes.",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Reserva liberada com sucesso"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "404", description = "Reserva não encontrada ou vencida"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @DeleteMapping("/reservas/{id}")
+    public ResponseEntity<Void> liberarReserva(
+            @Parameter(description = "ID da reserva", required = true) @PathVariable String id,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[liberarReserva] - Início");
+
+        reservaHorarioService.liberar(id, usuarioLogado);
+
+        logger.info("[liberarReserva] - Fim");
+
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
     @Operation(
             summary = "Cadastrar novo agendamento",
             description = "Cria um novo agendamento no sistema com base nos dados informados.",
@@ -282,6 +500,40 @@ public class AgendamentoController {
 
     }
 
+    @Operation(
+            summary = "Atualizar campos do agendamento",
+            description = "Altera só os campos enviados (veterinário, tipo, status, descrição e horário, com início e fim juntos). "
+                    + "A versão lida no AgendamentoDTO é obrigatória: se o agendamento mudou depois dela, nada é gravado. "
+                    + "A resposta traz o ID, a nova versão e os campos alterados.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Objeto JSON com a versão e os campos a alterar.",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = AgendamentoAtualizacaoDTO.class))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Agendamento atualizado com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Erro ao atualizar o agendamento (ex: conflito de horário, campo inválido, versão ausente)"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "404", description = "Agendamento não encontrado"),
+                    @ApiResponse(responseCode = "409", description = "Agendamento alterado depois da versão informada"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @PatchMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> atualizarParcial(
+            @Parameter(description = "ID do agendamento a ser atualizado", required = true, example = "1") @PathVariable Long id,
+            @RequestBody AgendamentoAtualizacaoDTO atualizacao) {
+
+        logger.info("[atualizarParcial] - Início");
+
+        Map<String, Object> agendamentoAtualizado = agendamentoService.atualizarParcial(id, atualizacao);
+
+        logger.info("[atualizarParcial] - Fim");
+
+        return new ResponseEntity<>(agendamentoAtualizado, HttpStatus.OK);
+
+    }
+
     @Operation(
             summary = "Excluir agendamento",
             description = "Remove um agendamento existente do sistema. (Requer perfil: ADMINISTRADOR)",
@@ -31,6 +31,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 
 import java.util.List;
+import java.util.Map;
 
 
 @RestController
@@ -52,18 +53,30 @@ public class AnimalController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Animais listados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo inválido no parâmetro fields"),
             @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
             @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
     })
     @GetMapping
-    public ResponseEntity<Page<AnimalDTO>> listar(
+    public ResponseEntity<Page<?>> listar(
             @Parameter(description = "Número da página (inicia em 0)", required = true, example = "0") @RequestParam("pagina") int pagina,
-            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens) {
+            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens,
+            @Parameter(description = "Campos a retornar, separados por vírgula, com os nomes do AnimalDTO (ex.: id,nome,raca.nome). Sem o parâmetro, retorna o AnimalDTO completo.") @RequestParam(value = "fields", required = false) String fields) {
 
         logger.info("[listar] - Início");
 
         Pageable pageable = PageRequest.of(pagina, quantidadeItens);
 
+        if (fields != null) {
+
+            Page<Map<String, Object>> projecao = animalService.listarProjecao(fields, pageable);
+
+            logger.info("[listar] - Fim");
+
+            return new ResponseEntity<>(projecao, HttpStatus.OK);
+
+        }
+
         Page<Animal> animais = animalService.listar(pageable);
 
         Page<AnimalDTO> animaisDto = new PageImpl<>(mapper.animalListToDtoList(animais.getContent()), pageable, animais.getTotalElements());
@@ -104,20 +117,32 @@ public class AnimalController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Animais listados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo inválido no parâmetro fields"),
             @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
             @ApiResponse(responseCode = "404", description = "Dono não encontrado"),
             @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
     })
     @GetMapping("/dono/{idDono}")
-    public ResponseEntity<Page<AnimalDTO>> listarByDono(
+    public ResponseEntity<Page<?>> listarByDono(
             @Parameter(description = "ID do dono (usuário) dos animais", required = true, example = "1") @PathVariable Long idDono,
             @Parameter(description = "Número da página (inicia em 0)", required = true, example = "0") @RequestParam("pagina") int pagina,
-            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens) {
+            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens,
+            @Parameter(description = "Campos a retornar, separados por vírgula, com os nomes do AnimalDTO (ex.: id,nome,raca.nome). Sem o parâmetro, retorna o AnimalDTO completo.") @RequestParam(value = "fields", required = false) String fields) {
 
         logger.info("[listarByDono] - Início");
 
         Pageable pageable = PageRequest.of(pagina, quantidadeItens);
 
+        if (fields != null) {
+
+            Page<Map<String, Object>> projecao = animalService.listarByDonoIdProjecao(idDono, fields, pageable);
+
+            logger.info("[listarByDono] - Fim");
+
+            return new ResponseEntity<>(projecao, HttpStatus.OK);
+
+        }
+
         Page<Animal> animais = animalService.listarByDonoId(idDono, pageable);
 
         Page<AnimalDTO> animaisDto = new PageImpl<>(mapper.animalListToDtoList(animais.getContent()), pageable, animais.getTotalElements());
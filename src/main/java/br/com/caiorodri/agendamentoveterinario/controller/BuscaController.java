@@ -0,0 +1,61 @@
+package br.com.caiorodri.agendamentoveterinario.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.caiorodri.agendamentoveterinario.dto.BuscaClientesDTO;
+import br.com.caiorodri.agendamentoveterinario.service.BuscaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/busca")
+@Tag(name = "Busca", description = "Endpoints de busca rápida de clientes e animais")
+public class BuscaController {
+
+    @Autowired
+    private BuscaService buscaService;
+
+    final static Logger logger = LoggerFactory.getLogger(BuscaController.class);
+
+    @Operation(
+            summary = "Buscar clientes",
+            description = "Busca clientes pelo início do nome, do nome de um animal, do CPF, de um telefone ou do e-mail, sem diferenciar maiúsculas nem acentos. " +
+                    "Com mais de uma palavra, todas precisam ser encontradas (ex.: \"maria sil\"). Pensado para buscas enquanto o usuário digita. " +
+                    "(Requer perfil: ADMINISTRADOR, RECEPCIONISTA ou VETERINARIO)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Busca realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Texto curto demais ou limite inválido"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @GetMapping("/clientes")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA', 'VETERINARIO')")
+    public ResponseEntity<BuscaClientesDTO> buscarClientes(
+            @Parameter(description = "Texto digitado (nome, nome do animal, CPF, telefone ou e-mail)", required = true, example = "joao sil") @RequestParam("q") String q,
+            @Parameter(description = "Quantidade máxima de clientes retornados", example = "10") @RequestParam(value = "limite", required = false) Integer limite) {
+
+        logger.info("[buscarClientes] - Início");
+
+        BuscaClientesDTO resultado = buscaService.buscarClientes(q, limite);
+
+        logger.info("[buscarClientes] - Fim");
+
+        return new ResponseEntity<>(resultado, HttpStatus.OK);
+
+    }
+
+}
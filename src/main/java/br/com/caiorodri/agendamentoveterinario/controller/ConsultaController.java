@@ -0,0 +1,86 @@
+package br.com.caiorodri.agendamentoveterinario.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.caiorodri.agendamentoveterinario.dto.ConsultaLentaDTO;
+import br.com.caiorodri.agendamentoveterinario.service.ConsultasLentasService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/consultas")
+@Tag(name = "Consultas SQL", description = "Endpoints para acompanhar as consultas ao banco mais demoradas")
+public class ConsultaController {
+
+    @Autowired
+    private ConsultasLentasService consultasLentasService;
+
+    final static Logger logger = LoggerFactory.getLogger(ConsultaController.class);
+
+    @Operation(
+            summary = "Listar consultas lentas",
+            description = "Retorna as consultas com o maior tempo total no banco desde o início da aplicação ou a última limpeza, com " +
+                    "execuções, tempo médio, tempo máximo e linhas retornadas. (Requer perfil: ADMINISTRADOR)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consultas listadas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Limite inválido ou estatísticas desligadas"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @GetMapping("/lentas")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<List<ConsultaLentaDTO>> listarLentas(
+            @Parameter(description = "Quantidade de consultas", example = "10") @RequestParam(value = "limite", defaultValue = "10") int limite) {
+
+        logger.info("[listarLentas] - Início");
+
+        List<ConsultaLentaDTO> consultas = consultasLentasService.listar(limite);
+
+        logger.info("[listarLentas] - Fim");
+
+        return new ResponseEntity<>(consultas, HttpStatus.OK);
+
+    }
+
+    @Operation(
+            summary = "Limpar estatísticas",
+            description = "Zera as estatísticas das consultas, para medir a partir de agora. (Requer perfil: ADMINISTRADOR)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Estatísticas zeradas com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @DeleteMapping("/lentas")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Void> limparLentas() {
+
+        logger.info("[limparLentas] - Início");
+
+        consultasLentasService.limpar();
+
+        logger.info("[limparLentas] - Fim");
+
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+
+    }
+
+}
@@ -0,0 +1,155 @@
+package br.com.caiorodri.agendamentoveterinario.controller;
+
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import br.com.caiorodri.agendamentoveterinario.enums.FormatoExportacaoEnum;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+import br.com.caiorodri.agendamentoveterinario.service.ExportacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * O corpo das exportações é escrito depois que o método retorna, na thread de requisições assíncronas
+ * do Spring MVC, que não recebe a clínica da requisição. A clínica é lida aqui e passada ao serviço.
+ */
+@RestController
+@RequestMapping("/exportacoes")
+@Tag(name = "Exportações", description = "Endpoints para exportação de dados em massa")
+public class ExportacaoController {
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    final static Logger logger = LoggerFactory.getLogger(ExportacaoController.class);
+
+    @Operation(
+            summary = "Exportar agendamentos",
+            description = "Gera um arquivo CSV ou NDJSON com os agendamentos do período informado. As linhas são enviadas à medida que são lidas do banco, sem paginação. (Requer perfil: ADMINISTRADOR)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Período ou formato inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @GetMapping("/agendamentos")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<StreamingResponseBody> exportarAgendamentos(
+            @Parameter(description = "Data inicial (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-01")
+            @RequestParam("de") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @Parameter(description = "Data final, inclusiva (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-31")
+            @RequestParam("ate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @Parameter(description = "Formato do arquivo: csv ou ndjson", example = "csv") @RequestParam(value = "formato", defaultValue = "csv") String formato,
+            @Parameter(description = "Compactar a saída com gzip", example = "false") @RequestParam(value = "compactar", defaultValue = "false") boolean compactar) {
+
+        logger.info("[exportarAgendamentos] - Início");
+
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final não pode ser anterior à data inicial.");
+        }
+
+        FormatoExportacaoEnum formatoExportacao = FormatoExportacaoEnum.from(formato);
+
+        Long idClinica = ContextoClinica.exigir();
+
+        StreamingResponseBody corpo = saida -> exportacaoService.exportarAgendamentos(idClinica, de, ate, formatoExportacao, compactar, saida);
+
+        logger.info("[exportarAgendamentos] - Fim");
+
+        return montarResposta("agendamentos_" + de + "_" + ate, formatoExportacao, compactar, corpo);
+
+    }
+
+    @Operation(
+            summary = "Exportar animais",
+            description = "Gera um arquivo CSV ou NDJSON com todos os animais cadastrados. (Requer perfil: ADMINISTRADOR)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Formato inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @GetMapping("/animais")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<StreamingResponseBody> exportarAnimais(
+            @Parameter(description = "Formato do arquivo: csv ou ndjson", example = "csv") @RequestParam(value = "formato", defaultValue = "csv") String formato,
+            @Parameter(description = "Compactar a saída com gzip", example = "false") @RequestParam(value = "compactar", defaultValue = "false") boolean compactar) {
+
+        logger.info("[exportarAnimais] - Início");
+
+        FormatoExportacaoEnum formatoExportacao = FormatoExportacaoEnum.from(formato);
+
+        Long idClinica = ContextoClinica.exigir();
+
+        StreamingResponseBody corpo = saida -> exportacaoService.exportarAnimais(idClinica, formatoExportacao, compactar, saida);
+
+        logger.info("[exportarAnimais] - Fim");
+
+        return montarResposta("animais", formatoExportacao, compactar, corpo);
+
+    }
+
+    @Operation(
+            summary = "Exportar clientes",
+            description = "Gera um arquivo CSV ou NDJSON com todos os clientes cadastrados, sem dados de senha. (Requer perfil: ADMINISTRADOR)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Formato inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @GetMapping("/clientes")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<StreamingResponseBody> exportarClientes(
+            @Parameter(description = "Formato do arquivo: csv ou ndjson", example = "csv") @RequestParam(value = "formato", defaultValue = "csv") String formato,
+            @Parameter(description = "Compactar a saída com gzip", example = "false") @RequestParam(value = "compactar", defaultValue = "false") boolean compactar) {
+
+        logger.info("[exportarClientes] - Início");
+
+        FormatoExportacaoEnum formatoExportacao = FormatoExportacaoEnum.from(formato);
+
+        Long idClinica = ContextoClinica.exigir();
+
+        StreamingResponseBody corpo = saida -> exportacaoService.exportarClientes(idClinica, formatoExportacao, compactar, saida);
+
+        logger.info("[exportarClientes] - Fim");
+
+        return montarResposta("clientes", formatoExportacao, compactar, corpo);
+
+    }
+
+    private ResponseEntity<StreamingResponseBody> montarResposta(String nomeArquivo, FormatoExportacaoEnum formato, boolean compactar, StreamingResponseBody corpo) {
+
+        String arquivo = nomeArquivo + "." + formato.getExtensao() + (compactar ? ".gz" : "");
+        MediaType tipo = compactar ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(formato.getContentType() + ";charset=UTF-8");
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(arquivo).build().toString())
+                .contentType(tipo)
+                .body(corpo);
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package br.com.caiorodri.agendamentoveterinario.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import br.com.caiorodri.agendamentoveterinario.dto.ImportacaoRelatorioDTO;
+import br.com.caiorodri.agendamentoveterinario.enums.FormatoExportacaoEnum;
+import br.com.caiorodri.agendamentoveterinario.service.ImportacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/importacoes")
+@Tag(name = "Importações", description = "Endpoints para importação de dados em massa")
+public class ImportacaoController {
+
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    final static Logger logger = LoggerFactory.getLogger(ImportacaoController.class);
+
+    @Operation(
+            summary = "Importar clientes",
+            description = "Cadastra clientes a partir de um arquivo CSV (com cabeçalho) ou NDJSON. Cada linha é validada individualmente e o relatório indica o resultado de cada uma. Telefones são separados por '|'. (Requer perfil: ADMINISTRADOR ou RECEPCIONISTA)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Importação processada; consulte o relatório para as linhas rejeitadas"),
+                    @ApiResponse(responseCode = "400", description = "Arquivo ou formato inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @PostMapping(value = "/usuarios", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA')")
+    public ResponseEntity<ImportacaoRelatorioDTO> importarUsuarios(
+            @Parameter(description = "Arquivo a ser importado", required = true) @RequestParam("arquivo") MultipartFile arquivo,
+            @Parameter(description = "Formato do arquivo: csv ou ndjson", example = "csv") @RequestParam(value = "formato", defaultValue = "csv") String formato,
+            @Parameter(description = "Enviar o e-mail de boas-vindas aos clientes importados", example = "false") @RequestParam(value = "enviarEmails", defaultValue = "false") boolean enviarEmails) {
+
+        logger.info("[importarUsuarios] - Início");
+
+        FormatoExportacaoEnum formatoImportacao = FormatoExportacaoEnum.from(formato);
+
+        try (InputStream conteudo = abrir(arquivo)) {
+
+            ImportacaoRelatorioDTO relatorio = importacaoService.importarUsuarios(conteudo, formatoImportacao, enviarEmails);
+
+            logger.info("[importarUsuarios] - Fim");
+
+            return new ResponseEntity<>(relatorio, HttpStatus.OK);
+
+        } catch (IOException e) {
+
+            throw new IllegalArgumentException("Não foi possível ler o arquivo enviado.");
+
+        }
+
+    }
+
+    @Operation(
+            summary = "Importar animais",
+            description = "Cadastra animais a partir de um arquivo CSV (com cabeçalho) ou NDJSON. O dono pode ser informado por id_dono ou cpf_dono. (Requer perfil: ADMINISTRADOR ou RECEPCIONISTA)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Importação processada; consulte o relatório para as linhas rejeitadas"),
+                    @ApiResponse(responseCode = "400", description = "Arquivo ou formato inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @PostMapping(value = "/animais", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA')")
+    public ResponseEntity<ImportacaoRelatorioDTO> importarAnimais(
+            @Parameter(description = "Arquivo a ser importado", required = true) @RequestParam("arquivo") MultipartFile arquivo,
+            @Parameter(description = "Formato do arquivo: csv ou ndjson", example = "csv") @RequestParam(value = "formato", defaultValue = "csv") String formato,
+            @Parameter(description = "Enviar o e-mail de cadastro aos donos dos animais importados", example = "false") @RequestParam(value = "enviarEmails", defaultValue = "false") boolean enviarEmails) {
+
+        logger.info("[importarAnimais] - Início");
+
+        FormatoExportacaoEnum formatoImportacao = FormatoExportacaoEnum.from(formato);
+
+        try (InputStream conteudo = abrir(arquivo)) {
+
+            ImportacaoRelatorioDTO relatorio = importacaoService.importarAnimais(conteudo, formatoImportacao, enviarEmails);
+
+            logger.info("[importarAnimais] - Fim");
+
+            return new ResponseEntity<>(relatorio, HttpStatus.OK);
+
+        } catch (IOException e) {
+
+            throw new IllegalArgumentException("Não foi possível ler o arquivo enviado.");
+
+        }
+
+    }
+
+    private InputStream abrir(MultipartFile arquivo) throws IOException {
+
+        if (arquivo == null || arquivo.isEmpty()) {
+            throw new IllegalArgumentException("O arquivo de importação é obrigatório.");
+        }
+
+        return arquivo.getInputStream();
+
+    }
+
+}
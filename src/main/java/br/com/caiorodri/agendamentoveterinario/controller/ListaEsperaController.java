@@ -0,0 +1,234 @@
+package br.com.caiorodri.agendamentoveterinario.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.ListaEsperaDTO;
+import br.com.caiorodri.agendamentoveterinario.mapper.Mapper;
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.ListaEspera;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+import br.com.caiorodri.agendamentoveterinario.service.ListaEsperaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/lista-espera")
+@Tag(name = "Lista de espera", description = "Endpoints para a lista de espera de horários")
+public class ListaEsperaController {
+
+    @Autowired
+    private ListaEsperaService listaEsperaService;
+
+    @Autowired
+    private Mapper mapper;
+
+    final static Logger logger = LoggerFactory.getLogger(ListaEsperaController.class);
+
+    @Operation(
+            summary = "Entrar na lista de espera",
+            description = "Registra o interesse em um horário para o animal, em um período de datas e, opcionalmente, com um veterinário específico. "
+                    + "Quando um agendamento compatível é cancelado, o horário é ofertado automaticamente para a entrada mais antiga.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Objeto JSON contendo animal, tipo, período e veterinário (opcional).",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = ListaEspera.class))
+            )
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Entrada criada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos (ex: período inválido ou animal de outro cliente)"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @PostMapping
+    public ResponseEntity<ListaEsperaDTO> salvar(
+            @RequestBody ListaEspera listaEspera,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[salvar] - Início");
+
+        ListaEspera listaEsperaSalva = listaEsperaService.salvar(listaEspera, usuarioLogado);
+
+        ListaEsperaDTO listaEsperaDto = mapper.listaEsperaToDto(listaEsperaSalva);
+
+        logger.info("[salvar] - Fim");
+
+        return new ResponseEntity<>(listaEsperaDto, HttpStatus.CREATED);
+    }
+
+    @Operation(
+            summary = "Listar minhas entradas",
+            description = "Retorna as entradas da lista de espera do usuário autenticado, das mais recentes para as mais antigas."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Entradas listadas com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @GetMapping("/minhas")
+    public ResponseEntity<Page<ListaEsperaDTO>> listarMinhas(
+            @Parameter(description = "Número da página (inicia em 0)", required = true, example = "0") @RequestParam("pagina") int pagina,
+            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[listarMinhas] - Início");
+
+        Pageable pageable = PageRequest.of(pagina, quantidadeItens);
+
+        Page<ListaEspera> entradas = listaEsperaService.listarByCliente(usuarioLogado.getId(), pageable);
+
+        Page<ListaEsperaDTO> entradasDto = new PageImpl<>(mapper.listaEsperaListToDtoList(entradas.getContent()), pageable, entradas.getTotalElements());
+
+        logger.info("[listarMinhas] - Fim");
+
+        return new ResponseEntity<>(entradasDto, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Listar entradas ativas",
+            description = "Retorna as entradas aguardando ou com oferta em aberto. (Requer perfil: ADMINISTRADOR, RECEPCIONISTA ou VETERINARIO)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Entradas listadas com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA', 'VETERINARIO')")
+    public ResponseEntity<Page<ListaEsperaDTO>> listarAtivas(
+            @Parameter(description = "Número da página (inicia em 0)", required = true, example = "0") @RequestParam("pagina") int pagina,
+            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens) {
+
+        logger.info("[listarAtivas] - Início");
+
+        Pageable pageable = PageRequest.of(pagina, quantidadeItens);
+
+        Page<ListaEspera> entradas = listaEsperaService.listarAtivas(pageable);
+
+        Page<ListaEsperaDTO> entradasDto = new PageImpl<>(mapper.listaEsperaListToDtoList(entradas.getContent()), pageable, entradas.getTotalElements());
+
+        logger.info("[listarAtivas] - Fim");
+
+        return new ResponseEntity<>(entradasDto, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Buscar entrada por ID",
+            description = "Recupera uma entrada da lista de espera. Clientes só enxergam as próprias entradas."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Entrada encontrada com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "404", description = "Entrada não encontrada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ListaEsperaDTO> recuperar(
+            @Parameter(description = "ID da entrada", required = true, example = "1") @PathVariable Long id,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[recuperar] - Início");
+
+        ListaEsperaDTO listaEsperaDto = mapper.listaEsperaToDto(listaEsperaService.recuperar(id, usuarioLogado));
+
+        logger.info("[recuperar] - Fim");
+
+        return new ResponseEntity<>(listaEsperaDto, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Sair da lista de espera",
+            description = "Cancela uma entrada aguardando ou com oferta em aberto. Uma oferta em aberto é repassada para a próxima entrada da fila."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Entrada cancelada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "A entrada já foi encerrada"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "404", description = "Entrada não encontrada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelar(
+            @Parameter(description = "ID da entrada", required = true, example = "1") @PathVariable Long id,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[cancelar] - Início");
+
+        listaEsperaService.cancelar(id, usuarioLogado);
+
+        logger.info("[cancelar] - Fim");
+
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @Operation(
+            summary = "Aceitar oferta",
+            description = "Confirma o horário ofertado para a entrada, criando o agendamento."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Agendamento criado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Não há oferta válida ou o horário não está mais livre"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "404", description = "Entrada não encontrada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @PostMapping("/{id}/aceitar")
+    public ResponseEntity<AgendamentoDTO> aceitar(
+            @Parameter(description = "ID da entrada", required = true, example = "1") @PathVariable Long id,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[aceitar] - Início");
+
+        Agendamento agendamento = listaEsperaService.aceitar(id, usuarioLogado);
+
+        AgendamentoDTO agendamentoDto = mapper.agendamentoToDto(agendamento);
+
+        logger.info("[aceitar] - Fim");
+
+        return new ResponseEntity<>(agendamentoDto, HttpStatus.CREATED);
+    }
+
+    @Operation(
+            summary = "Recusar oferta",
+            description = "Recusa o horário ofertado. A entrada volta para a fila e o horário é ofertado para a próxima entrada compatível."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Oferta recusada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Não há oferta em aberto"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "404", description = "Entrada não encontrada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @PostMapping("/{id}/recusar")
+    public ResponseEntity<Void> recusar(
+            @Parameter(description = "ID da entrada", required = true, example = "1") @PathVariable Long id,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[recusar] - Início");
+
+        listaEsperaService.recusar(id, usuarioLogado);
+
+        logger.info("[recusar] - Fim");
+
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+}
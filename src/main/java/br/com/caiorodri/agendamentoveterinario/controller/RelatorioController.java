@@ -0,0 +1,212 @@
+package br.com.caiorodri.agendamentoveterinario.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.caiorodri.agendamentoveterinario.dto.RelatorioAgrupamentoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.RelatorioDiaDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.RelatorioResumoDTO;
+import br.com.caiorodri.agendamentoveterinario.service.RelatorioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/relatorios")
+@Tag(name = "Relatórios", description = "Endpoints de relatórios gerenciais calculados a partir do consolidado diário")
+public class RelatorioController {
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    final static Logger logger = LoggerFactory.getLogger(RelatorioController.class);
+
+    @Operation(
+            summary = "Resumo dos agendamentos",
+            description = "Retorna o total de agendamentos, a taxa de cancelamento e a antecedência média (em minutos) do período. (Requer perfil: ADMINISTRADOR)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resumo retornado com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Período inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @GetMapping("/agendamentos/resumo")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<RelatorioResumoDTO> recuperarResumo(
+            @Parameter(description = "Data inicial (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-01")
+            @RequestParam("de") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @Parameter(description = "Data final, inclusiva (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-31")
+            @RequestParam("ate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+
+        logger.info("[recuperarResumo] - Início");
+
+        RelatorioResumoDTO resumo = relatorioService.recuperarResumo(de, ate);
+
+        logger.info("[recuperarResumo] - Fim");
+
+        return new ResponseEntity<>(resumo, HttpStatus.OK);
+
+    }
+
+    @Operation(
+            summary = "Agendamentos por dia",
+            description = "Retorna os totais do período agrupados por dia. (Requer perfil: ADMINISTRADOR)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Relatório retornado com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Período inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @GetMapping("/agendamentos/por-dia")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<List<RelatorioDiaDTO>> listarPorDia(
+            @Parameter(description = "Data inicial (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-01")
+            @RequestParam("de") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @Parameter(description = "Data final, inclusiva (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-31")
+            @RequestParam("ate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+
+        logger.info("[listarPorDia] - Início");
+
+        List<RelatorioDiaDTO> dias = relatorioService.listarPorDia(de, ate);
+
+        logger.info("[listarPorDia] - Fim");
+
+        return new ResponseEntity<>(dias, HttpStatus.OK);
+
+    }
+
+    @Operation(
+            summary = "Agendamentos por veterinário",
+            description = "Retorna os totais do período agrupados por veterinário, com taxa de cancelamento e antecedência média. (Requer perfil: ADMINISTRADOR)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Relatório retornado com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Período inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @GetMapping("/agendamentos/por-veterinario")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<List<RelatorioAgrupamentoDTO>> listarPorVeterinario(
+            @Parameter(description = "Data inicial (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-01")
+            @RequestParam("de") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @Parameter(description = "Data final, inclusiva (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-31")
+            @RequestParam("ate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+
+        logger.info("[listarPorVeterinario] - Início");
+
+        List<RelatorioAgrupamentoDTO> agrupamentos = relatorioService.listarPorVeterinario(de, ate);
+
+        logger.info("[listarPorVeterinario] - Fim");
+
+        return new ResponseEntity<>(agrupamentos, HttpStatus.OK);
+
+    }
+
+    @Operation(
+            summary = "Agendamentos por tipo",
+            description = "Retorna os totais do período agrupados por tipo de agendamento. (Requer perfil: ADMINISTRADOR)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Relatório retornado com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Período inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @GetMapping("/agendamentos/por-tipo")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<List<RelatorioAgrupamentoDTO>> listarPorTipo(
+            @Parameter(description = "Data inicial (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-01")
+            @RequestParam("de") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @Parameter(description = "Data final, inclusiva (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-31")
+            @RequestParam("ate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+
+        logger.info("[listarPorTipo] - Início");
+
+        List<RelatorioAgrupamentoDTO> agrupamentos = relatorioService.listarPorTipo(de, ate);
+
+        logger.info("[listarPorTipo] - Fim");
+
+        return new ResponseEntity<>(agrupamentos, HttpStatus.OK);
+
+    }
+
+    @Operation(
+            summary = "Agendamentos por status",
+            description = "Retorna os totais do período agrupados por status de agendamento. (Requer perfil: ADMINISTRADOR)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Relatório retornado com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Período inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @GetMapping("/agendamentos/por-status")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<List<RelatorioAgrupamentoDTO>> listarPorStatus(
+            @Parameter(description = "Data inicial (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-01")
+            @RequestParam("de") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @Parameter(description = "Data final, inclusiva (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-31")
+            @RequestParam("ate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+
+        logger.info("[listarPorStatus] - Início");
+
+        List<RelatorioAgrupamentoDTO> agrupamentos = relatorioService.listarPorStatus(de, ate);
+
+        logger.info("[listarPorStatus] - Fim");
+
+        return new ResponseEntity<>(agrupamentos, HttpStatus.OK);
+
+    }
+
+    @Operation(
+            summary = "Recalcular consolidado",
+            description = "Recalcula o consolidado diário do período a partir dos agendamentos. Útil após cargas de dados feitas fora da aplicação. (Requer perfil: ADMINISTRADOR)",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Consolidado recalculado com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Período inválido"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @PostMapping("/agendamentos/recalcular")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Void> recalcular(
+            @Parameter(description = "Data inicial (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-01")
+            @RequestParam("de") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @Parameter(description = "Data final, inclusiva (formato ISO: yyyy-MM-dd)", required = true, example = "2025-01-31")
+            @RequestParam("ate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+
+        logger.info("[recalcular] - Início");
+
+        relatorioService.compactar(de, ate);
+
+        logger.info("[recalcular] - Fim");
+
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+
+    }
+
+}
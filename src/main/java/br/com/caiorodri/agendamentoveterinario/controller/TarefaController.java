@@ -0,0 +1,204 @@
+package br.com.caiorodri.agendamentoveterinario.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.caiorodri.agendamentoveterinario.dto.TarefaDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.TarefaExecucaoDTO;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+import br.com.caiorodri.agendamentoveterinario.service.TarefaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/tarefas")
+@Tag(name = "Tarefas", description = "Endpoints para disparar e acompanhar as tarefas em lote")
+public class TarefaController {
+
+    @Autowired
+    private TarefaService tarefaService;
+
+    final static Logger logger = LoggerFactory.getLogger(TarefaController.class);
+
+    @Operation(
+            summary = "Listar tarefas",
+            description = "Retorna as tarefas em lote que podem ser disparadas. (Requer perfil: ADMINISTRADOR)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tarefas listadas com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @GetMapping
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<List<TarefaDTO>> listarTarefas() {
+
+        logger.info("[listarTarefas] - Início");
+
+        List<TarefaDTO> tarefas = tarefaService.listarTarefas();
+
+        logger.info("[listarTarefas] - Fim");
+
+        return new ResponseEntity<>(tarefas, HttpStatus.OK);
+
+    }
+
+    @Operation(
+            summary = "Disparar tarefa",
+            description = "Cria uma execução da tarefa, dividida em partições processadas em paralelo pelas instâncias da aplicação. " +
+                    "(Requer perfil: ADMINISTRADOR)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Execução criada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Já existe uma execução da tarefa em andamento ou pausada"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado"),
+            @ApiResponse(responseCode = "404", description = "Tarefa não encontrada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @PostMapping("/{nome}/execucoes")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<TarefaExecucaoDTO> disparar(
+            @Parameter(description = "Nome da tarefa", required = true, example = "notificacao-consultas") @PathVariable("nome") String nome,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[disparar] - Início");
+
+        TarefaExecucaoDTO execucao = tarefaService.disparar(nome, usuarioLogado.getEmail());
+
+        logger.info("[disparar] - Fim");
+
+        return new ResponseEntity<>(execucao, HttpStatus.CREATED);
+
+    }
+
+    @Operation(
+            summary = "Listar execuções",
+            description = "Retorna as execuções das tarefas, das mais recentes para as mais antigas, com a quantidade de itens processados " +
+                    "e a vazão (itens por segundo). (Requer perfil: ADMINISTRADOR)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Execuções listadas com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @GetMapping("/execucoes")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Page<TarefaExecucaoDTO>> listarExecucoes(
+            @Parameter(description = "Número da página (inicia em 0)", required = true, example = "0") @RequestParam("pagina") int pagina,
+            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens) {
+
+        logger.info("[listarExecucoes] - Início");
+
+        Page<TarefaExecucaoDTO> execucoes = tarefaService.listarExecucoes(PageRequest.of(pagina, quantidadeItens));
+
+        logger.info("[listarExecucoes] - Fim");
+
+        return new ResponseEntity<>(execucoes, HttpStatus.OK);
+
+    }
+
+    @Operation(
+            summary = "Buscar execução por ID",
+            description = "Retorna a execução com o andamento de cada partição (último ID processado, itens, erros e instância). " +
+                    "(Requer perfil: ADMINISTRADOR)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Execução encontrada com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado"),
+            @ApiResponse(responseCode = "404", description = "Execução não encontrada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @GetMapping("/execucoes/{id}")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<TarefaExecucaoDTO> recuperar(
+            @Parameter(description = "ID da execução", required = true, example = "1") @PathVariable("id") Long id) {
+
+        logger.info("[recuperar] - Início");
+
+        TarefaExecucaoDTO execucao = tarefaService.recuperar(id);
+
+        logger.info("[recuperar] - Fim");
+
+        return new ResponseEntity<>(execucao, HttpStatus.OK);
+
+    }
+
+    @Operation(
+            summary = "Pausar execução",
+            description = "Pausa a execução; cada partição para ao fim do lote em andamento e guarda o ponto de retomada. " +
+                    "(Requer perfil: ADMINISTRADOR)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Execução pausada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "A execução não está em andamento"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado"),
+            @ApiResponse(responseCode = "404", description = "Execução não encontrada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @PostMapping("/execucoes/{id}/pausar")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<TarefaExecucaoDTO> pausar(
+            @Parameter(description = "ID da execução", required = true, example = "1") @PathVariable("id") Long id) {
+
+        logger.info("[pausar] - Início");
+
+        TarefaExecucaoDTO execucao = tarefaService.pausar(id);
+
+        logger.info("[pausar] - Fim");
+
+        return new ResponseEntity<>(execucao, HttpStatus.OK);
+
+    }
+
+    @Operation(
+            summary = "Retomar execução",
+            description = "Retoma uma execução pausada ou que falhou, a partir do último ID processado de cada partição. " +
+                    "(Requer perfil: ADMINISTRADOR)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Execução retomada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "A execução não está pausada nem falhou"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado"),
+            @ApiResponse(responseCode = "404", description = "Execução não encontrada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @PostMapping("/execucoes/{id}/retomar")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<TarefaExecucaoDTO> retomar(
+            @Parameter(description = "ID da execução", required = true, example = "1") @PathVariable("id") Long id) {
+
+        logger.info("[retomar] - Início");
+
+        TarefaExecucaoDTO execucao = tarefaService.retomar(id);
+
+        logger.info("[retomar] - Fim");
+
+        return new ResponseEntity<>(execucao, HttpStatus.OK);
+
+    }
+
+}
@@ -2,6 +2,7 @@ package br.com.caiorodri.agendamentoveterinario.controller;
 
 import br.com.caiorodri.agendamentoveterinario.dto.*;
 import br.com.caiorodri.agendamentoveterinario.model.*;
+import br.com.caiorodri.agendamentoveterinario.security.LimitadorRequisicoes;
 import br.com.caiorodri.agendamentoveterinario.security.TokenService;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -24,6 +25,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -31,16 +33,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 
 import br.com.caiorodri.agendamentoveterinario.mapper.Mapper;
 import br.com.caiorodri.agendamentoveterinario.service.UsuarioService;
+import br.com.caiorodri.agendamentoveterinario.service.VersaoRecursoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/usuarios")
@@ -53,12 +58,18 @@ public class UsuarioController {
     @Autowired
     private Mapper mapper;
 
+    @Autowired
+    private VersaoRecursoService versaoRecursoService;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private LimitadorRequisicoes limitadorRequisicoes;
+
     final static Logger logger = LoggerFactory.getLogger(UsuarioController.class);
 
     @Operation(
@@ -66,6 +77,7 @@ public class UsuarioController {
             description = "Retorna uma lista paginada de usuários cadastrados no sistema. (Requer perfil: ADMINISTRADOR, RECEPCIONISTA ou VETERINARIO)",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Operação realizada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Campo inválido no parâmetro fields"),
                     @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
                     @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
                     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
@@ -73,14 +85,25 @@ public class UsuarioController {
     )
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA', 'VETERINARIO')")
-    public ResponseEntity<Page<UsuarioDTO>> listar(
+    public ResponseEntity<Page<?>> listar(
             @Parameter(description = "Número da página (inicia em 0)", required = true, example = "0") @RequestParam("pagina") int pagina,
-            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens) {
+            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens,
+            @Parameter(description = "Campos a retornar, separados por vírgula, com os nomes do UsuarioDTO (ex.: id,nome,email). Sem o parâmetro, retorna o UsuarioDTO completo.") @RequestParam(value = "fields", required = false) String fields) {
 
         logger.info("[listar] - Início");
 
         Pageable pageable = PageRequest.of(pagina, quantidadeItens);
 
+        if (fields != null) {
+
+            Page<Map<String, Object>> projecao = usuarioService.listarProjecao(fields, pageable);
+
+            logger.info("[listar] - Fim");
+
+            return new ResponseEntity<>(projecao, HttpStatus.OK);
+
+        }
+
         Page<Usuario> usuarios = usuarioService.listar(pageable);
 
         Page<UsuarioDTO> usuariosDto = new PageImpl<>(mapper.usuarioListToDtoList(usuarios.getContent()), usuarios.getPageable(), usuarios.getTotalElements());
@@ -95,6 +118,7 @@ public class UsuarioController {
             description = "Recupera um usuário específico com base no seu ID.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Usuário encontrado com sucesso"),
+                    @ApiResponse(responseCode = "304", description = "Conteúdo não modificado desde o ETag informado em If-None-Match"),
                     @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
                     @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
                     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
@@ -102,10 +126,20 @@ public class UsuarioController {
     )
     @GetMapping("/{id}")
     public ResponseEntity<UsuarioDTO> recuperar(
-            @Parameter(description = "ID do usuário a ser buscado", required = true, example = "1") @PathVariable Long id) {
+            @Parameter(description = "ID do usuário a ser buscado", required = true, example = "1") @PathVariable Long id,
+            @Parameter(hidden = true) WebRequest webRequest) {
 
         logger.info("[recuperar] - Início");
 
+        String etag = versaoRecursoService.etagUsuario(id);
+
+        if (etag != null && webRequest.checkNotModified(etag)) {
+
+            logger.info("[recuperar] - Fim - Não modificado");
+            return null;
+
+        }
+
         Usuario usuario = usuarioService.recuperar(id);
 
         UsuarioDTO usuarioDto = mapper.usuarioToDto(usuario);
@@ -151,6 +185,7 @@ public class UsuarioController {
             responses = {
                     @ApiResponse(responseCode = "200", description = "Usuário autenticado com sucesso"),
                     @ApiResponse(responseCode = "401", description = "Credenciais inválidas"),
+                    @ApiResponse(responseCode = "429", description = "Muitas tentativas de login"),
                     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
             }
     )
@@ -159,6 +194,10 @@ public class UsuarioController {
 
         logger.info("[autenticar] - Início");
 
+        if (usuarioRequest.getEmail() != null) {
+            limitadorRequisicoes.verificar("autenticar-email", usuarioRequest.getEmail().toLowerCase());
+        }
+
         UsernamePasswordAuthenticationToken usernamePassword = new UsernamePasswordAuthenticationToken(usuarioRequest.getEmail(), usuarioRequest.getSenha());
         Authentication auth = this.authenticationManager.authenticate(usernamePassword);
 
@@ -239,6 +278,52 @@ public class UsuarioController {
         return new ResponseEntity<>(new LoginResponseDTO(novoToken, usuarioDto), HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Atualizar campos do usuário",
+            description = "Altera só os campos enviados (nome, e-mail, data de nascimento, endereço, status, perfil, recebimento de e-mails e imagem). "
+                    + "A versão lida no UsuarioDTO é obrigatória: se o usuário mudou depois dela, nada é gravado. Telefones são alterados pelo PUT. "
+                    + "Só administradores alteram outros usuários ou o status e o perfil. "
+                    + "A resposta traz o ID, a nova versão e os campos alterados e, quando o usuário logado altera o próprio e-mail, um novo token.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Objeto JSON com a versão e os campos a alterar.",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = UsuarioAtualizacaoDTO.class))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Usuário atualizado com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Dados inválidos para atualização ou alteração não permitida ao usuário logado"),
+                    @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
+                    @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+                    @ApiResponse(responseCode = "409", description = "Usuário alterado depois da versão informada"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+            }
+    )
+    @PatchMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> atualizarParcial(
+            @Parameter(description = "ID do usuário a ser atualizado", required = true, example = "1") @PathVariable Long id,
+            @RequestBody UsuarioAtualizacaoDTO atualizacao,
+            @Parameter(hidden = true) @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        logger.info("[atualizarParcial] - Início");
+
+        Map<String, Object> usuarioAtualizado = usuarioService.atualizarParcial(id, atualizacao, usuarioLogado);
+
+        // O token é emitido para o e-mail; sem um novo, o próprio usuário perderia o acesso.
+        if (atualizacao.getAlteracoes().containsKey("email") && usuarioLogado != null && id.equals(usuarioLogado.getId())) {
+
+            Usuario usuarioToken = new Usuario(id);
+            usuarioToken.setEmail(atualizacao.getEmail());
+            usuarioToken.setIdClinica(usuarioLogado.getIdClinica());
+
+            usuarioAtualizado.put("token", tokenService.generateToken(usuarioToken));
+
+        }
+
+        logger.info("[atualizarParcial] - Fim");
+
+        return new ResponseEntity<>(usuarioAtualizado, HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Alterar senha",
             description = "Permite que um usuário autenticado altere sua própria senha fornecendo a senha antiga e a nova senha. O usuário só pode alterar a própria senha.",
@@ -416,6 +501,8 @@ public class UsuarioController {
             description = "Retorna uma lista paginada de usuários com perfil de CLIENTE. (Requer perfil: ADMINISTRADOR, RECEPCIONISTA ou VETERINARIO)",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Operação realizada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Campo inválido no parâmetro fields"),
+                    @ApiResponse(responseCode = "304", description = "Conteúdo não modificado desde o ETag informado em If-None-Match"),
                     @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
                     @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
                     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
@@ -423,14 +510,33 @@ public class UsuarioController {
     )
     @GetMapping("/clientes")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA', 'VETERINARIO')")
-    public ResponseEntity<Page<UsuarioDTO>> listarClientes(
+    public ResponseEntity<Page<?>> listarClientes(
             @Parameter(description = "Número da página (inicia em 0)", required = true, example = "0") @RequestParam("pagina") int pagina,
-            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens) {
+            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens,
+            @Parameter(description = "Campos a retornar, separados por vírgula, com os nomes do UsuarioDTO (ex.: id,nome,email). Sem o parâmetro, retorna o UsuarioDTO completo.") @RequestParam(value = "fields", required = false) String fields,
+            @Parameter(hidden = true) WebRequest webRequest) {
 
         logger.info("[listarClientes] - Início");
 
+        if (webRequest.checkNotModified(versaoRecursoService.etagColecao("clientes", pagina, quantidadeItens, fields))) {
+
+            logger.info("[listarClientes] - Fim - Não modificado");
+            return null;
+
+        }
+
         Pageable pageable = PageRequest.of(pagina, quantidadeItens);
 
+        if (fields != null) {
+
+            Page<Map<String, Object>> projecao = usuarioService.listarClientesProjecao(fields, pageable);
+
+            logger.info("[listarClientes] - Fim");
+
+            return new ResponseEntity<>(projecao, HttpStatus.OK);
+
+        }
+
         Page<Usuario> clientes = usuarioService.listarClientes(pageable);
 
         Page<UsuarioDTO> clientesDto = new PageImpl<>(mapper.usuarioListToDtoList(clientes.getContent()), clientes.getPageable(), clientes.getTotalElements());
@@ -523,6 +629,7 @@ public class UsuarioController {
             description = "Retorna uma lista paginada de VETERINARIOS e RECEPCIONISTAS. (Requer perfil: ADMINISTRADOR ou RECEPCIONISTA)",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Operação realizada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Campo inválido no parâmetro fields"),
                     @ApiResponse(responseCode = "401", description = "Usuário não autenticado"),
                     @ApiResponse(responseCode = "403", description = "Usuário não tem permissão para esta ação"),
                     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
@@ -530,14 +637,25 @@ public class UsuarioController {
     )
     @GetMapping("/funcionarios")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA')")
-    public ResponseEntity<Page<UsuarioDTO>> listarFuncionarios(
+    public ResponseEntity<Page<?>> listarFuncionarios(
             @Parameter(description = "Número da página (inicia em 0)", required = true, example = "0") @RequestParam("pagina") int pagina,
-            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens) {
+            @Parameter(description = "Quantidade de itens por página", required = true, example = "10") @RequestParam("quantidadeItens") int quantidadeItens,
+            @Parameter(description = "Campos a retornar, separados por vírgula, com os nomes do UsuarioDTO (ex.: id,nome,email). Sem o parâmetro, retorna o UsuarioDTO completo.") @RequestParam(value = "fields", required = false) String fields) {
 
         logger.info("[listarFuncionarios] - Início");
 
         Pageable pageable = PageRequest.of(pagina, quantidadeItens);
 
+        if (fields != null) {
+
+            Page<Map<String, Object>> projecao = usuarioService.listarFuncionariosProjecao(fields, pageable);
+
+            logger.info("[listarFuncionarios] - Fim");
+
+            return new ResponseEntity<>(projecao, HttpStatus.OK);
+
+        }
+
         Page<Usuario> funcionarios = usuarioService.listarFuncionarios(pageable);
 
         Page<UsuarioDTO> funcionariosDto = new PageImpl<>(mapper.usuarioListToDtoList(funcionarios.getContent()), funcionarios.getPageable(), funcionarios.getTotalElements());
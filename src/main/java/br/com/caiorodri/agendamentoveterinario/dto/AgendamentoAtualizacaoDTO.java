@@ -0,0 +1,87 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Corpo do PATCH de agendamento. Só os campos presentes no JSON são alterados: cada setter chamado
+ * pelo Jackson registra o novo valor em alteracoes, com o nome do atributo em Agendamento, inclusive
+ * quando o valor enviado é null.
+ */
+@Getter
+@NoArgsConstructor
+public class AgendamentoAtualizacaoDTO {
+
+	/** Versão lida pelo cliente (AgendamentoDTO.versao). */
+	private Integer versao;
+
+	private Long idVeterinario;
+
+	private Integer idStatus;
+
+	private Integer idTipo;
+
+	private String descricao;
+
+	private LocalDateTime dataAgendamentoInicio;
+
+	private LocalDateTime dataAgendamentoFinal;
+
+	@JsonIgnore
+	private final Map<String, Object> alteracoes = new LinkedHashMap<>();
+
+	public void setVersao(Integer versao) {
+
+		this.versao = versao;
+
+	}
+
+	public void setIdVeterinario(Long idVeterinario) {
+
+		this.idVeterinario = idVeterinario;
+		alteracoes.put("veterinario", idVeterinario);
+
+	}
+
+	public void setIdStatus(Integer idStatus) {
+
+		this.idStatus = idStatus;
+		alteracoes.put("status", idStatus);
+
+	}
+
+	public void setIdTipo(Integer idTipo) {
+
+		this.idTipo = idTipo;
+		alteracoes.put("tipo", idTipo);
+
+	}
+
+	public void setDescricao(String descricao) {
+
+		this.descricao = descricao;
+		alteracoes.put("descricao", descricao);
+
+	}
+
+	public void setDataAgendamentoInicio(LocalDateTime dataAgendamentoInicio) {
+
+		this.dataAgendamentoInicio = dataAgendamentoInicio;
+		alteracoes.put("dataAgendamentoInicio", dataAgendamentoInicio);
+
+	}
+
+	public void setDataAgendamentoFinal(LocalDateTime dataAgendamentoFinal) {
+
+		this.dataAgendamentoFinal = dataAgendamentoFinal;
+		alteracoes.put("dataAgendamentoFinal", dataAgendamentoFinal);
+
+	}
+
+}
@@ -5,8 +5,10 @@ import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode
 public class AgendamentoDTO {
@@ -32,17 +34,8 @@ public class AgendamentoDTO {
 	private LocalDateTime dataAgendamentoInicio;
 
 	private LocalDateTime dataAgendamentoFinal;
-	
-	public AgendamentoDTO() {
-		
-		this.animal = new AnimalSimplesDTO();
-		this.cliente = new UsuarioSimplesDTO();
-		this.veterinario = new UsuarioSimplesDTO();
-		this.recepcionista = new UsuarioSimplesDTO();
-		this.status = new AgendamentoStatusDTO();
-		this.tipo = new AgendamentoTipoDTO();
-	
-	}
+
+	private Integer versao;
 	
 	public AgendamentoDTO(Long id) {
 		
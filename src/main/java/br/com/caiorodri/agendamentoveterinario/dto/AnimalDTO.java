@@ -5,11 +5,13 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
 
 import java.util.Date;
 import java.util.List;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode
 public class AnimalDTO {
@@ -40,14 +42,6 @@ public class AnimalDTO {
 
     private String urlImagem;
 	
-	public AnimalDTO() {
-		
-		this.raca = new RacaDTO();
-		this.sexo = new SexoDTO();
-		this.dono = new UsuarioSimplesDTO();
-		
-	}
-	
 	public AnimalDTO(Long id) {
 		
 		this.id = id;
@@ -0,0 +1,19 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BuscaClientesDTO {
+
+	private List<ClienteBuscaDTO> clientes;
+
+	/** false enquanto o índice ainda está sendo carregado na inicialização; o resultado pode estar incompleto. */
+	private boolean indiceCompleto;
+
+}
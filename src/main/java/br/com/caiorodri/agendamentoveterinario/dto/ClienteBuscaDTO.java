@@ -0,0 +1,26 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClienteBuscaDTO {
+
+	private Long id;
+
+	private String nome;
+
+	private String cpf;
+
+	private String email;
+
+	private List<String> telefones;
+
+	private List<AnimalSimplesDTO> animais;
+
+}
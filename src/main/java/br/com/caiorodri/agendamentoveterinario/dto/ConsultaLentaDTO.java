@@ -0,0 +1,24 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsultaLentaDTO {
+
+	private String consulta;
+
+	private long execucoes;
+
+	private long tempoTotalMs;
+
+	private double tempoMedioMs;
+
+	private long tempoMaximoMs;
+
+	private long linhas;
+
+}
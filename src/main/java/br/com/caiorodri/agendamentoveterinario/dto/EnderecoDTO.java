@@ -3,8 +3,10 @@ package br.com.caiorodri.agendamentoveterinario.dto;
 import br.com.caiorodri.agendamentoveterinario.model.Estado;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class EnderecoDTO {
 
@@ -20,10 +22,4 @@ public class EnderecoDTO {
 	
 	private String cep;
 	
-	public EnderecoDTO() {
-		
-		this.estado = new Estado();
-		
-	}
-	
 }
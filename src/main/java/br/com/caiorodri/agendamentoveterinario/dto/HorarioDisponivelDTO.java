@@ -0,0 +1,20 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HorarioDisponivelDTO {
+
+	private UsuarioSimplesDTO veterinario;
+
+	private LocalDateTime inicio;
+
+	private LocalDateTime fim;
+
+}
@@ -0,0 +1,20 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoLinhaDTO {
+
+	private int linha;
+
+	private boolean sucesso;
+
+	private Long id;
+
+	private String mensagem;
+
+}
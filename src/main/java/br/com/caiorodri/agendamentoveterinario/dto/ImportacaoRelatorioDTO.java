@@ -0,0 +1,27 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImportacaoRelatorioDTO {
+
+	private int totalLinhas;
+
+	private int importadas;
+
+	private int rejeitadas;
+
+	private List<ImportacaoLinhaDTO> linhas;
+
+	public ImportacaoRelatorioDTO() {
+
+		this.linhas = new ArrayList<>();
+
+	}
+
+}
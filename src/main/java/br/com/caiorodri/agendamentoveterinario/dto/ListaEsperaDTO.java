@@ -0,0 +1,40 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import br.com.caiorodri.agendamentoveterinario.enums.ListaEsperaStatusEnum;
+import lombok.Data;
+
+@Data
+public class ListaEsperaDTO {
+
+	private Long id;
+
+	private UsuarioSimplesDTO cliente;
+
+	private AnimalSimplesDTO animal;
+
+	private UsuarioSimplesDTO veterinario;
+
+	private AgendamentoTipoDTO tipo;
+
+	private LocalDate dataInicio;
+
+	private LocalDate dataFim;
+
+	private ListaEsperaStatusEnum status;
+
+	private LocalDateTime dataCriacao;
+
+	private UsuarioSimplesDTO ofertaVeterinario;
+
+	private LocalDateTime ofertaInicio;
+
+	private LocalDateTime ofertaFim;
+
+	private LocalDateTime ofertaExpiracao;
+
+	private Long idAgendamento;
+
+}
@@ -3,8 +3,10 @@ package br.com.caiorodri.agendamentoveterinario.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode
 public class RacaDTO {
@@ -15,12 +17,6 @@ public class RacaDTO {
 	
 	private String nome;
 	
-	public RacaDTO() {
-		
-		this.especie = new EspecieDTO();
-		
-	}
-	
 	public RacaDTO(Integer id) {
 		
 		this.id = id;
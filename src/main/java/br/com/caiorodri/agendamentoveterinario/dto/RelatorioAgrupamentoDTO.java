@@ -0,0 +1,24 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RelatorioAgrupamentoDTO {
+
+	private Long id;
+
+	private String nome;
+
+	private long total;
+
+	private long cancelados;
+
+	private double taxaCancelamento;
+
+	private double antecedenciaMediaMinutos;
+
+}
@@ -0,0 +1,24 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RelatorioDiaDTO {
+
+	private LocalDate data;
+
+	private long total;
+
+	private long cancelados;
+
+	private double taxaCancelamento;
+
+	private double antecedenciaMediaMinutos;
+
+}
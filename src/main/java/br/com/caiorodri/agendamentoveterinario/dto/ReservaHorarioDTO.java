@@ -0,0 +1,24 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+@Data
+public class ReservaHorarioDTO {
+
+	private String id;
+
+	private Long idVeterinario;
+
+	private Long idCliente;
+
+	private Integer idTipo;
+
+	private LocalDateTime inicio;
+
+	private LocalDateTime fim;
+
+	private LocalDateTime expiracao;
+
+}
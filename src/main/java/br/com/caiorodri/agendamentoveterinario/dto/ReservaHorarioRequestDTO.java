@@ -0,0 +1,22 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaHorarioRequestDTO {
+
+	private Long idVeterinario;
+
+	private Integer idTipo;
+
+	private LocalDateTime inicio;
+
+	private Long idCliente;
+
+}
@@ -0,0 +1,16 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TarefaDTO {
+
+	private String nome;
+
+	private String descricao;
+
+}
@@ -0,0 +1,42 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TarefaExecucaoDTO {
+
+	private Long id;
+
+	private String nome;
+
+	private TarefaStatusEnum status;
+
+	private String iniciadoPor;
+
+	private LocalDateTime dataInicio;
+
+	private LocalDateTime dataFim;
+
+	private long totalItens;
+
+	private long itensProcessados;
+
+	private long itensComErro;
+
+	private double percentualConcluido;
+
+	private long duracaoSegundos;
+
+	private double itensPorSegundo;
+
+	private List<TarefaParticaoDTO> particoes;
+
+}
@@ -0,0 +1,35 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.time.LocalDateTime;
+
+import br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TarefaParticaoDTO {
+
+	private int indice;
+
+	private long idInicio;
+
+	private long idFim;
+
+	private Long ultimoId;
+
+	private TarefaStatusEnum status;
+
+	private long itensProcessados;
+
+	private long itensComErro;
+
+	private String instancia;
+
+	private LocalDateTime dataAtualizacao;
+
+	private String mensagemErro;
+
+}
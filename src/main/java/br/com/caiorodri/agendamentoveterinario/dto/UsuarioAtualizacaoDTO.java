@@ -0,0 +1,116 @@
+package br.com.caiorodri.agendamentoveterinario.dto;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.Email;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Corpo do PATCH de usuário. Só os campos presentes no JSON são alterados: cada setter chamado pelo
+ * Jackson registra o novo valor em alteracoes, com o nome do atributo em Usuario. O endereço é
+ * substituído por inteiro, um campo de alteração por coluna. Telefones ficam de fora, por estarem
+ * em outra tabela; continuam sendo alterados pelo PUT.
+ */
+@Getter
+@NoArgsConstructor
+public class UsuarioAtualizacaoDTO {
+
+    /** Versão lida pelo cliente (UsuarioDTO.versao). */
+    private Integer versao;
+
+    private String nome;
+
+    @Email(message = "Formato de e-mail inválido.")
+    private String email;
+
+    private Date dataNascimento;
+
+    private EnderecoDTO endereco;
+
+    private Integer idStatus;
+
+    private Integer idPerfil;
+
+    private Boolean receberEmail;
+
+    private String urlImagem;
+
+    @JsonIgnore
+    private final Map<String, Object> alteracoes = new LinkedHashMap<>();
+
+    public void setVersao(Integer versao) {
+
+        this.versao = versao;
+
+    }
+
+    public void setNome(String nome) {
+
+        this.nome = nome;
+        alteracoes.put("nome", nome);
+
+    }
+
+    public void setEmail(String email) {
+
+        this.email = email;
+        alteracoes.put("email", email);
+
+    }
+
+    public void setDataNascimento(Date dataNascimento) {
+
+        this.dataNascimento = dataNascimento;
+        alteracoes.put("dataNascimento", dataNascimento);
+
+    }
+
+    public void setEndereco(EnderecoDTO endereco) {
+
+        this.endereco = endereco;
+
+        EnderecoDTO novo = endereco != null ? endereco : new EnderecoDTO();
+
+        alteracoes.put("endereco.logradouro", novo.getLogradouro());
+        alteracoes.put("endereco.numero", novo.getNumero());
+        alteracoes.put("endereco.complemento", novo.getComplemento());
+        alteracoes.put("endereco.cidade", novo.getCidade());
+        alteracoes.put("endereco.cep", novo.getCep());
+        alteracoes.put("endereco.estado", novo.getEstado() != null ? novo.getEstado().getSigla() : null);
+
+    }
+
+    public void setIdStatus(Integer idStatus) {
+
+        this.idStatus = idStatus;
+        alteracoes.put("status", idStatus);
+
+    }
+
+    public void setIdPerfil(Integer idPerfil) {
+
+        this.idPerfil = idPerfil;
+        alteracoes.put("perfil", idPerfil);
+
+    }
+
+    public void setReceberEmail(Boolean receberEmail) {
+
+        this.receberEmail = receberEmail;
+        alteracoes.put("receberEmail", receberEmail);
+
+    }
+
+    public void setUrlImagem(String urlImagem) {
+
+        this.urlImagem = urlImagem;
+        alteracoes.put("urlImagem", urlImagem);
+
+    }
+
+}
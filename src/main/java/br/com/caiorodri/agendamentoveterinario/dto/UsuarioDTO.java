@@ -42,13 +42,12 @@ public class UsuarioDTO {
     private List<AnimalDTO> animais;
 
     private String urlImagem;
+
+    private Integer versao;
 	
 	public UsuarioDTO() {
 		
-		this.endereco = new EnderecoDTO();
 		this.telefones = new ArrayList<>();
-		this.perfil = new PerfilDTO();
-		this.status = new StatusDTO();
         this.agendamentos = new ArrayList<>();
         this.animais = new ArrayList<>();
 		
@@ -0,0 +1,745 @@
+package br.com.caiorodri.agendamentoveterinario.email;
+
+import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.Animal;
+import br.com.caiorodri.agendamentoveterinario.model.Clinica;
+import br.com.caiorodri.agendamentoveterinario.model.ListaEspera;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+
+/**
+ * HTML dos e-mails enviados pelo {@link EmailSender}. Os modelos dependem só dos dados recebidos, sem
+ * banco nem servidor de e-mail, e podem ser medidos isoladamente (ver benchmarks/).
+ */
+public final class ModelosEmail {
+
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private ModelosEmail() {
+    }
+
+    /**
+     * Código de verificação para recuperar a senha.
+     */
+    public static String codigoVerificacao(String nome, String codigo) {
+
+        return """
+	            <!DOCTYPE html>
+	            <html lang="pt-BR">
+	            <head>
+	                <meta charset="UTF-8">
+	                <title>Código de Verificação</title>
+	                <style>
+	                    body {
+	                        font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+	                        background-color: #f4f4f4;
+	                        color: #333;
+	                        padding: 30px;
+	                    }
+	                    .container {
+	                        background-color: #fff;
+	                        max-width: 500px;
+	                        margin: auto;
+	                        padding: 30px;
+	                        border-radius: 10px;
+	                        box-shadow: 0 0 12px rgba(0,0,0,0.1);
+	                        text-align: center;
+	                    }
+	                    h2 {
+	                        color: #2a9d8f;
+	                    }
+	                    .codigo {
+	                        font-size: 32px;
+	                        font-weight: bold;
+	                        color: #264653;
+	                        background-color: #e0f7fa;
+	                        padding: 10px 20px;
+	                        display: inline-block;
+	                        border-radius: 8px;
+	                        margin: 20px 0;
+	                        letter-spacing: 4px;
+	                    }
+	                    p {
+	                        font-size: 16px;
+	                    }
+	                    .footer {
+	                        margin-top: 30px;
+	                        font-size: 14px;
+	                        color: #888;
+	                    }
+	                </style>
+	            </head>
+	            <body>
+	                <div class="container">
+	                    <h2>Seu código de verificação</h2>
+	                    <p>Olá <strong>%s</strong>,</p>
+	                    <p>Use o código abaixo para continuar com sua solicitação. Ele é válido por <strong>15 minutos</strong>:</p>
+	                    <div class="codigo">%s</div>
+	                    <p>Se você não solicitou este código, ignore este e-mail.</p>
+	                    <div class="footer">
+	                        Equipe AgenPet<br/>
+	                        Atendimento ao Cliente
+	                    </div>
+	                </div>
+	            </body>
+	            </html>
+	        """.formatted(nome, codigo);
+
+    }
+
+    /**
+     * Boas-vindas ao usuário cadastrado.
+     */
+    public static String cadastroUsuario(String titulo, Usuario usuario, Clinica clinica) {
+
+        return """
+	            <!DOCTYPE html>
+	            <html lang="pt-BR">
+	            <head>
+	                <meta charset="UTF-8">
+	                <title>%s</title>
+	                <style>
+	                    body {
+	                        font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+	                        background-color: #f4f4f4;
+	                        color: #333;
+	                        padding: 30px;
+	                    }
+	                    .container {
+	                        background-color: #ffffff;
+	                        max-width: 600px;
+	                        margin: auto;
+	                        padding: 30px;
+	                        border-radius: 10px;
+	                        box-shadow: 0 0 12px rgba(0, 0, 0, 0.1);
+	                        text-align: center;
+	                    }
+	                    h2 {
+	                        color: #2a9d8f;
+	                    }
+	                    p {
+	                        font-size: 16px;
+	                        line-height: 1.6;
+	                    }
+	                    .footer {
+	                        margin-top: 30px;
+	                        font-size: 14px;
+	                        color: #777;
+	                    }
+	                    .highlight {
+	                        background-color: #e0f7fa;
+	                        padding: 10px;
+	                        border-radius: 8px;
+	                        display: inline-block;
+	                        font-weight: bold;
+	                    }
+	                </style>
+	            </head>
+	            <body>
+	                <div class="container">
+	                    <h2>%s</h2>
+	                    <p>Olá <strong>%s</strong>,</p>
+	                    <p>Seja muito bem-vindo(a) à <strong>AgenPet</strong>, o sistema de agendamento que cuida do seu pet com carinho e praticidade.</p>
+	                    <p>Seu cadastro foi realizado com sucesso em nossa plataforma. Agora você pode agendar consultas, acompanhar seus atendimentos e receber lembretes diretamente pelo seu e-mail.</p>
+	                    <p class="highlight">Estamos felizes em ter você com a gente! 🐾</p>
+	                    <p>Caso precise de ajuda, entre em contato com nosso suporte:</p>
+	                    <p><strong>📍 %s</strong><br><strong>📞 %s</strong></p>
+	                    <div class="footer">
+	                        Atenciosamente,<br>
+	                        <strong>Equipe AgenPet</strong>
+	                    </div>
+	                </div>
+	            </body>
+	            </html>
+	        """.formatted(
+            titulo,
+            titulo,
+            usuario.getNome(),
+            clinica.getEndereco(),
+            clinica.getContato()
+        );
+
+    }
+
+    /**
+     * Confirmação do cadastro ou da atualização de um animal.
+     */
+    public static String cadastroAnimal(String titulo, Usuario dono, Animal animal, boolean atualizar, Clinica clinica) {
+
+        String dataNascimentoFormatada = (animal.getDataNascimento() != null)
+                ? new SimpleDateFormat("dd/MM/yyyy").format(animal.getDataNascimento())
+                : "Não informada";
+
+        return """
+	            <!DOCTYPE html>
+	            <html lang="pt-BR">
+	            <head>
+	                <meta charset="UTF-8">
+	                <title>%s</title>
+	                <style>
+	                    body {
+	                        font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+	                        background-color: #f4f4f4;
+	                        color: #333;
+	                        padding: 30px;
+	                    }
+	                    .container {
+	                        background-color: #ffffff;
+	                        max-width: 600px;
+	                        margin: auto;
+	                        padding: 30px;
+	                        border-radius: 10px;
+	                        box-shadow: 0 0 12px rgba(0, 0, 0, 0.1);
+	                        text-align: center;
+	                    }
+	                    h2 {
+	                        color: #2a9d8f;
+	                    }
+	                    p {
+	                        font-size: 16px;
+	                        line-height: 1.6;
+	                    }
+	                    table {
+	                        width: 100%%;
+	                        margin-top: 20px;
+	                        border-collapse: collapse;
+	                    }
+	                    td {
+	                        padding: 10px;
+	                        border: 1px solid #e0e0e0;
+	                        background-color: #f9f9f9;
+	                    }
+	                    td:first-child {
+	                        font-weight: bold;
+	                        background-color: #f1f1f1;
+	                        width: 40%%;
+	                    }
+	                    .footer {
+	                        margin-top: 30px;
+	                        font-size: 14px;
+	                        color: #777;
+	                    }
+	                </style>
+	            </head>
+	            <body>
+	                <div class="container">
+	                    <h2>%s</h2>
+	                    <p>Olá <strong>%s</strong>,</p>
+	                    <p>As informações do seu pet <strong>%s</strong> %s com sucesso em nosso sistema.</p>
+	                    <table>
+	                        <tr>
+	                            <td>🐾 Nome do Animal</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>📅 Data de Nascimento</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>📘 Espécie</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>⚖️ Peso</td>
+	                            <td>%.2f kg</td>
+	                        </tr>
+	                        <tr>
+	                            <td>⚖️ Altura</td>
+	                            <td>%.1f cm</td>
+	                        </tr>
+	                    </table>
+	                    <p class="footer">
+	                        Caso tenha dúvidas ou precise de suporte, entre em contato conosco:<br>
+	                        <strong>📍 %s</strong><br>
+	                        <strong>📞 %s</strong><br><br>
+	                        Atenciosamente,<br>
+	                        <strong>Equipe AgenPet</strong>
+	                    </p>
+	                </div>
+	            </body>
+	            </html>
+	        """.formatted(
+            titulo,
+            titulo,
+            dono.getNome(),
+            animal.getNome(),
+            atualizar ? "foram atualizadas" : "foi cadastrado",
+            animal.getNome(),
+            dataNascimentoFormatada,
+            animal.getRaca() != null && animal.getRaca().getEspecie() != null ? animal.getRaca().getEspecie().getNome() : "Não informada",
+            animal.getPeso(),
+            animal.getAltura(),
+            clinica.getEndereco(),
+            clinica.getContato()
+        );
+
+    }
+
+    /**
+     * Confirmação do cadastro ou da atualização de um agendamento.
+     */
+    public static String cadastroAgendamento(String titulo, Usuario cliente, Agendamento agendamento, boolean atualizacao, Clinica clinica) {
+
+        return """
+	            <!DOCTYPE html>
+	            <html lang="pt-BR">
+	            <head>
+	                <meta charset="UTF-8">
+	                <title>%s</title>
+	                <style>
+	                    body {
+	                        font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+	                        background-color: #f4f4f4;
+	                        color: #333;
+	                        margin: 0;
+	                        padding: 20px;
+	                    }
+	                    .container {
+	                        background-color: #ffffff;
+	                        max-width: 600px;
+	                        margin: auto;
+	                        border-radius: 10px;
+	                        padding: 30px;
+	                        box-shadow: 0 4px 12px rgba(0, 0, 0, 0.1);
+	                        border: 1px solid #e0e0e0;
+	                    }
+	                    h2 {
+	                        color: #2a9d8f;
+	                        margin-bottom: 20px;
+	                    }
+	                    p {
+	                        line-height: 1.6;
+	                    }
+	                    table {
+	                        width: 100%%;
+	                        border-collapse: collapse;
+	                        margin-top: 15px;
+	                    }
+	                    td {
+	                        padding: 10px;
+	                        border: 1px solid #e0e0e0;
+	                        background-color: #f9f9f9;
+	                    }
+	                    td:first-child {
+	                        font-weight: bold;
+	                        background-color: #f1f1f1;
+	                        width: 40%%;
+	                    }
+	                    .footer {
+	                        margin-top: 30px;
+	                        font-size: 14px;
+	                        color: #777;
+	                    }
+	                </style>
+	            </head>
+	            <body>
+	                <div class="container">
+	                    <h2>%s</h2>
+	                    <p>Olá <strong>%s</strong>,</p>
+	                    <p>Seu agendamento %s:</p>
+	                    <table>
+	                        <tr>
+	                            <td>🐾 Animal</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>📅 Data</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>⏰ Horário</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>👨‍⚕️ Veterinário</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>🧑‍ Recepcionista</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>📍 Endereço</td>
+	                            <td>%s</td>
+	                        </tr>
+	                    </table>
+	                    <p class="footer">
+	                        Caso tenha dúvidas ou precise remarcar, entre em contato com nossa equipe.<br><strong>%s</strong><br><br>
+	                        Atenciosamente,<br>
+	                        <strong>Equipe AgenPet</strong>
+	                    </p>
+	                </div>
+	            </body>
+	            </html>
+	            """.formatted(
+            titulo,
+            titulo,
+            cliente.getNome(),
+            atualizacao ? "foi atualizado" : "foi realizado",
+            agendamento.getAnimal().getNome(),
+            agendamento.getDataAgendamentoInicio().toLocalDate().format(DATA),
+            agendamento.getDataAgendamentoInicio().toLocalTime().format(HORA),
+            agendamento.getVeterinario().getNome(),
+            agendamento.getRecepcionista().getNome(),
+            clinica.getEndereco(),
+            clinica.getContato()
+        );
+
+    }
+
+    /**
+     * Lembrete para o dono de um animal sem consulta recente.
+     */
+    public static String realizarConsulta(String titulo, Usuario dono, Animal animal, Agendamento ultimaConsulta, Clinica clinica) {
+
+        return """
+	            <!DOCTYPE html>
+	            <html lang="pt-BR">
+	            <head>
+	                <meta charset="UTF-8">
+	                <title>%s</title>
+	                <style>
+	                    body {
+	                        font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+	                        background-color: #f4f4f4;
+	                        color: #333;
+	                        padding: 30px;
+	                    }
+	                    .container {
+	                        background-color: #ffffff;
+	                        max-width: 600px;
+	                        margin: auto;
+	                        padding: 30px;
+	                        border-radius: 10px;
+	                        box-shadow: 0 0 12px rgba(0, 0, 0, 0.1);
+	                        text-align: center;
+	                    }
+	                    h2 {
+	                        color: #e76f51;
+	                    }
+	                    p {
+	                        font-size: 16px;
+	                        line-height: 1.6;
+	                    }
+	                    .footer {
+	                        margin-top: 30px;
+	                        font-size: 14px;
+	                        color: #777;
+	                    }
+	                </style>
+	            </head>
+	            <body>
+	                <div class="container">
+	                    <h2>%s</h2>
+	                    <p>Olá <strong>%s</strong>,</p>
+	                    <p>Percebemos que já se passaram mais de <strong>6 meses</strong> desde a última consulta do seu pet <strong>%s</strong>.</p>
+	                    <p>A última consulta foi em <strong>%s</strong>.</p>
+	                    <p>Que tal agendar uma nova visita e garantir o bem-estar dele?</p>
+	                    <p class="footer">
+	                        Caso tenha dúvidas ou precise de suporte, entre em contato conosco:<br>
+	                        <strong>📍 %s</strong><br>
+	                        <strong>📞 %s</strong><br><br>
+	                        Atenciosamente,<br>
+	                        <strong>Equipe AgenPet</strong>
+	                    </p>
+	                </div>
+	            </body>
+	            </html>
+	        """.formatted(
+            titulo,
+            titulo,
+            dono.getNome(),
+            animal.getNome(),
+            ultimaConsulta.getDataAgendamentoInicio().toLocalDate().format(DATA),
+            clinica.getEndereco(),
+            clinica.getContato()
+        );
+
+    }
+
+    /**
+     * Divulgação da campanha de vacinação.
+     */
+    public static String campanhaVacina(String titulo, Usuario usuario, Clinica clinica) {
+
+        return """
+	            <!DOCTYPE html>
+	            <html lang="pt-BR">
+	            <head>
+	                <meta charset="UTF-8">
+	                <title>%s</title>
+	                <style>
+	                    body {
+	                        font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+	                        background-color: #f4f4f4;
+	                        color: #333;
+	                        padding: 30px;
+	                    }
+	                    .container {
+	                        background-color: #ffffff;
+	                        max-width: 600px;
+	                        margin: auto;
+	                        padding: 30px;
+	                        border-radius: 10px;
+	                        box-shadow: 0 0 12px rgba(0, 0, 0, 0.1);
+	                        text-align: center;
+	                    }
+	                    h2 {
+	                        color: #2a9d8f;
+	                    }
+	                    p {
+	                        font-size: 16px;
+	                        line-height: 1.6;
+	                    }
+	                    .footer {
+	                        margin-top: 30px;
+	                        font-size: 14px;
+	                        color: #777;
+	                    }
+	                </style>
+	            </head>
+	            <body>
+	                <div class="container">
+	                    <h2>%s</h2>
+	                    <p>Olá <strong>%s</strong>,</p>
+	                    <p>Estamos realizando uma <strong>campanha especial de vacinação</strong> para cães e gatos!</p>
+	                    <p>Essa é a oportunidade ideal para proteger a saúde do seu pet contra diversas doenças.</p>
+	                    <p>As vacinas estão com condições especiais e o atendimento está sendo feito com agendamento prévio para seu conforto e segurança.</p>
+	                    <p>Entre em contato conosco para mais informações ou agendar um horário.</p>
+	                    <p class="footer">
+	                        📍 <strong>%s</strong><br>
+	                        📞 <strong>%s</strong><br><br>
+	                        Atenciosamente,<br>
+	                        <strong>Equipe AgenPet</strong>
+	                    </p>
+	                </div>
+	            </body>
+	            </html>
+	        """.formatted(
+            titulo,
+            titulo,
+            usuario.getNome(),
+            clinica.getEndereco(),
+            clinica.getContato()
+        );
+
+    }
+
+    /**
+     * Lembrete enviado antes de um agendamento.
+     */
+    public static String lembreteAgendamento(String titulo, Usuario cliente, Agendamento agendamento, Clinica clinica) {
+
+        return """
+	            <!DOCTYPE html>
+	            <html lang="pt-BR">
+	            <head>
+	                <meta charset="UTF-8">
+	                <title>%s</title>
+	                <style>
+	                    body {
+	                        font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+	                        background-color: #f4f4f4;
+	                        color: #333;
+	                        margin: 0;
+	                        padding: 20px;
+	                    }
+	                    .container {
+	                        background-color: #ffffff;
+	                        max-width: 600px;
+	                        margin: auto;
+	                        border-radius: 10px;
+	                        padding: 30px;
+	                        box-shadow: 0 4px 12px rgba(0, 0, 0, 0.1);
+	                        border: 1px solid #e0e0e0;
+	                    }
+	                    h2 {
+	                        color: #2a9d8f;
+	                        margin-bottom: 20px;
+	                    }
+	                    p {
+	                        line-height: 1.6;
+	                    }
+	                    table {
+	                        width: 100%%;
+	                        border-collapse: collapse;
+	                        margin-top: 15px;
+	                    }
+	                    td {
+	                        padding: 10px;
+	                        border: 1px solid #e0e0e0;
+	                        background-color: #f9f9f9;
+	                    }
+	                    td:first-child {
+	                        font-weight: bold;
+	                        background-color: #f1f1f1;
+	                        width: 40%%;
+	                    }
+	                    .footer {
+	                        margin-top: 30px;
+	                        font-size: 14px;
+	                        color: #777;
+	                    }
+	                </style>
+	            </head>
+	            <body>
+	                <div class="container">
+	                    <h2>%s</h2>
+	                    <p>Olá <strong>%s</strong>,</p>
+	                    <p>Este é um lembrete do seu agendamento:</p>
+	                    <table>
+	                        <tr>
+	                            <td>🐾 Animal</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>📅 Data</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>⏰ Horário</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>👨‍⚕️ Veterinário</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>📍 Endereço</td>
+	                            <td>%s</td>
+	                        </tr>
+	                    </table>
+	                    <p class="footer">
+	                        Caso não possa comparecer, entre em contato com nossa equipe para remarcar.<br><strong>%s</strong><br><br>
+	                        Atenciosamente,<br>
+	                        <strong>Equipe AgenPet</strong>
+	                    </p>
+	                </div>
+	            </body>
+	            </html>
+	            """.formatted(
+            titulo,
+            titulo,
+            cliente.getNome(),
+            agendamento.getAnimal().getNome(),
+            agendamento.getDataAgendamentoInicio().toLocalDate().format(DATA),
+            agendamento.getDataAgendamentoInicio().toLocalTime().format(HORA),
+            agendamento.getVeterinario().getNome(),
+            clinica.getEndereco(),
+            clinica.getContato()
+        );
+
+    }
+
+    /**
+     * Oferta de um horário liberado para uma entrada da lista de espera.
+     */
+    public static String ofertaListaEspera(String titulo, Usuario cliente, ListaEspera listaEspera, Clinica clinica) {
+
+        return """
+	            <!DOCTYPE html>
+	            <html lang="pt-BR">
+	            <head>
+	                <meta charset="UTF-8">
+	                <title>%s</title>
+	                <style>
+	                    body {
+	                        font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+	                        background-color: #f4f4f4;
+	                        color: #333;
+	                        margin: 0;
+	                        padding: 20px;
+	                    }
+	                    .container {
+	                        background-color: #ffffff;
+	                        max-width: 600px;
+	                        margin: auto;
+	                        border-radius: 10px;
+	                        padding: 30px;
+	                        box-shadow: 0 4px 12px rgba(0, 0, 0, 0.1);
+	                        border: 1px solid #e0e0e0;
+	                    }
+	                    h2 {
+	                        color: #2a9d8f;
+	                        margin-bottom: 20px;
+	                    }
+	                    p {
+	                        line-height: 1.6;
+	                    }
+	                    table {
+	                        width: 100%%;
+	                        border-collapse: collapse;
+	                        margin-top: 15px;
+	                    }
+	                    td {
+	                        padding: 10px;
+	                        border: 1px solid #e0e0e0;
+	                        background-color: #f9f9f9;
+	                    }
+	                    td:first-child {
+	                        font-weight: bold;
+	                        background-color: #f1f1f1;
+	                        width: 40%%;
+	                    }
+	                    .footer {
+	                        margin-top: 30px;
+	                        font-size: 14px;
+	                        color: #777;
+	                    }
+	                </style>
+	            </head>
+	            <body>
+	                <div class="container">
+	                    <h2>%s</h2>
+	                    <p>Olá <strong>%s</strong>,</p>
+	                    <p>Um horário compatível com a sua lista de espera foi liberado e está reservado para você:</p>
+	                    <table>
+	                        <tr>
+	                            <td>🐾 Animal</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>📅 Data</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>⏰ Horário</td>
+	                            <td>%s</td>
+	                        </tr>
+	                        <tr>
+	                            <td>👨‍⚕️ Veterinário</td>
+	                            <td>%s</td>
+	                        </tr>
+	                    </table>
+	                    <p>A reserva vale até <strong>%s</strong>. Acesse o aplicativo para confirmar ou recusar o horário.</p>
+	                    <p class="footer">
+	                        📍 <strong>%s</strong><br>
+	                        📞 <strong>%s</strong><br><br>
+	                        Atenciosamente,<br>
+	                        <strong>Equipe AgenPet</strong>
+	                    </p>
+	                </div>
+	            </body>
+	            </html>
+	            """.formatted(
+            titulo,
+            titulo,
+            cliente.getNome(),
+            listaEspera.getAnimal().getNome(),
+            listaEspera.getOfertaInicio().toLocalDate().format(DATA),
+            listaEspera.getOfertaInicio().toLocalTime().format(HORA),
+            listaEspera.getOfertaVeterinario().getNome(),
+            listaEspera.getOfertaExpiracao().format(DATA_HORA),
+            clinica.getEndereco(),
+            clinica.getContato()
+        );
+
+    }
+
+}
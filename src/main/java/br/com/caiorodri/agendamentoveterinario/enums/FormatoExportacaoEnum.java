@@ -0,0 +1,31 @@
+package br.com.caiorodri.agendamentoveterinario.enums;
+
+public enum FormatoExportacaoEnum {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extensao;
+
+    FormatoExportacaoEnum(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    public static FormatoExportacaoEnum from(String formato) {
+        for (FormatoExportacaoEnum valor : values()) {
+            if (valor.extensao.equalsIgnoreCase(formato)) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Formato de exportação inválido: " + formato + ". Utilize csv ou ndjson.");
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.caiorodri.agendamentoveterinario.enums;
+
+public enum ListaEsperaStatusEnum {
+    AGUARDANDO,
+    OFERTADA,
+    ATENDIDA,
+    CANCELADA,
+    EXPIRADA
+}
@@ -0,0 +1,9 @@
+package br.com.caiorodri.agendamentoveterinario.enums;
+
+public enum TarefaStatusEnum {
+    PENDENTE,
+    EXECUTANDO,
+    PAUSADA,
+    CONCLUIDA,
+    FALHOU
+}
@@ -0,0 +1,10 @@
+package br.com.caiorodri.agendamentoveterinario.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publicado quando um agendamento passa para o status cancelado, liberando o horário. O horário só é
+ * ofertado para a lista de espera da mesma clínica.
+ */
+public record AgendamentoCanceladoEvent(Long idAgendamento, Long idClinica, Long idVeterinario, Integer idTipo, LocalDateTime inicio, LocalDateTime fim) {
+}
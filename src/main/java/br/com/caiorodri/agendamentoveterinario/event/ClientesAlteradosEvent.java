@@ -0,0 +1,18 @@
+package br.com.caiorodri.agendamentoveterinario.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Publicado quando o cadastro de clientes muda (dados, telefones ou animais), para que a busca
+ * reindexe esses clientes depois do commit.
+ */
+public record ClientesAlteradosEvent(Collection<Long> idsClientes) {
+
+    public static ClientesAlteradosEvent de(Long... idsClientes) {
+
+        return new ClientesAlteradosEvent(List.of(idsClientes));
+
+    }
+
+}
@@ -0,0 +1,10 @@
+package br.com.caiorodri.agendamentoveterinario.event;
+
+import java.util.List;
+
+/**
+ * Publicado quando outra instância da aplicação avisa que alterou registros mantidos em memória
+ * (ver BarramentoCluster), para que esta instância os recarregue do banco.
+ */
+public record InvalidacaoRemotaEvent(String tipo, List<Long> ids) {
+}
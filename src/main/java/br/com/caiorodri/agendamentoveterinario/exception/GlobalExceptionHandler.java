@@ -1,5 +1,7 @@
 package br.com.caiorodri.agendamentoveterinario.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -24,6 +26,13 @@ public class GlobalExceptionHandler {
     
     }
 	
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+
+    	return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+
+    }
+
     @ExceptionHandler(SecurityException.class)
     public ResponseEntity<String> handleSecurityException(SecurityException e) {
         
@@ -31,6 +40,15 @@ public class GlobalExceptionHandler {
     
     }
 	
+    @ExceptionHandler(LimiteRequisicoesExcedidoException.class)
+    public ResponseEntity<String> handleLimiteRequisicoesExcedidoException(LimiteRequisicoesExcedidoException e) {
+
+    	return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+    			.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosParaNovaTentativa()))
+    			.body(e.getMessage());
+
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleException(Exception e) {
 
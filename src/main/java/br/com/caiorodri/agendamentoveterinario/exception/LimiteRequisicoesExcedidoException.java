@@ -0,0 +1,17 @@
+package br.com.caiorodri.agendamentoveterinario.exception;
+
+import lombok.Getter;
+
+@Getter
+public class LimiteRequisicoesExcedidoException extends RuntimeException {
+
+    private final long segundosParaNovaTentativa;
+
+    public LimiteRequisicoesExcedidoException(String mensagem, long segundosParaNovaTentativa) {
+
+        super(mensagem);
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+
+    }
+
+}
@@ -12,19 +12,34 @@ public interface Mapper {
     UsuarioSimplesDTO usuarioToUsuarioSimplesDto(Usuario usuario);
     AnimalSimplesDTO animalToAnimalSimplesDto(Animal animal);
 
+    @Mapping(target = "dataAtualizacao", ignore = true)
+    @Mapping(target = "idClinica", ignore = true)
+    @Mapping(target = "versao", ignore = true)
+    Usuario usuarioSimplesDtoToUsuario(UsuarioSimplesDTO usuarioSimplesDTO);
+
+    @Mapping(target = "dataAtualizacao", ignore = true)
+    @Mapping(target = "idClinica", ignore = true)
+    Animal animalSimplesDtoToAnimal(AnimalSimplesDTO animalSimplesDTO);
+
     UsuarioDTO usuarioToDto(Usuario usuario);
+    @Mapping(target = "dataAtualizacao", ignore = true)
+    @Mapping(target = "idClinica", ignore = true)
     Usuario dtoToUsuario(UsuarioDTO usuarioDTO);
 
     List<UsuarioDTO> usuarioListToDtoList(List<Usuario> usuarios);
     List<Usuario> dtoListToUsuarioList(List<UsuarioDTO> usuariosDTO);
     
     AnimalDTO animalToDto(Animal animal);
+    @Mapping(target = "dataAtualizacao", ignore = true)
+    @Mapping(target = "idClinica", ignore = true)
     Animal dtoToAnimal(AnimalDTO animalDTO);
 
     List<AnimalDTO> animalListToDtoList(List<Animal> animais);
     List<Animal> dtoListToAnimalList(List<AnimalDTO> animaisDTO);
 
     AgendamentoDTO agendamentoToDto(Agendamento agendamento);
+    @Mapping(target = "dataAtualizacao", ignore = true)
+    @Mapping(target = "idClinica", ignore = true)
     Agendamento dtoToAgendamento(AgendamentoDTO agendamentoDTO);
 
     List<AgendamentoDTO> agendamentoListToDtoList(List<Agendamento> agendamentos);
@@ -37,6 +52,7 @@ public interface Mapper {
     List<AgendamentoStatus> dtoListToAgendamentoStatusList(List<AgendamentoStatusDTO> dtos);
 
     AgendamentoTipoDTO agendamentoTipoToDto(AgendamentoTipo model);
+    @Mapping(target = "antecedenciasLembrete", ignore = true)
     AgendamentoTipo dtoToAgendamentoTipo(AgendamentoTipoDTO dto);
 
     List<AgendamentoTipoDTO> agendamentoTipoListToDtoList(List<AgendamentoTipo> models);
@@ -82,9 +98,17 @@ public interface Mapper {
     VeterinarioHorarioDTO veterinarioHorarioToDto(VeterinarioHorario model);
 
     @Mapping(source = "idDiaSemana", target = "diaSemana.id")
+    @Mapping(target = "idClinica", ignore = true)
     VeterinarioHorario dtoToVeterinarioHorario(VeterinarioHorarioDTO dto);
 
     List<VeterinarioHorarioDTO> veterinarioHorarioListToDtoList(List<VeterinarioHorario> models);
     List<VeterinarioHorario> dtoListToVeterinarioHorarioList(List<VeterinarioHorarioDTO> dtos);
 
+    @Mapping(source = "agendamento.id", target = "idAgendamento")
+    ListaEsperaDTO listaEsperaToDto(ListaEspera model);
+
+    List<ListaEsperaDTO> listaEsperaListToDtoList(List<ListaEspera> models);
+
+    ReservaHorarioDTO reservaHorarioToDto(ReservaHorario model);
+
 }
@@ -11,8 +11,10 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.Version;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 
 @Entity
@@ -27,6 +29,12 @@ public class Agendamento {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
+	@TenantId
+	@Column(name = "id_clinica", updatable = false)
+	private Long idClinica;
+
+	// As associações LAZY são inicializadas em lote (hibernate.default_batch_fetch_size): ao mapear uma
+	// página, os usuários e animais pendentes vêm em um SELECT ... IN por entidade, não um por agendamento.
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "id_animal")
     @JsonBackReference("animal-agendamento")
@@ -45,11 +53,11 @@ public class Agendamento {
 	@JoinColumn(name = "id_recepcionista")
 	private Usuario recepcionista;
 
-	@OneToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.EAGER)
 	@JoinColumn(name = "id_agendamento_status")
 	private AgendamentoStatus status;
 	
-	@OneToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.EAGER)
 	@JoinColumn(name = "id_agendamento_tipo")
 	private AgendamentoTipo tipo;
 	
@@ -63,6 +71,17 @@ public class Agendamento {
 	private LocalDateTime dataAgendamentoFinal;
 	
 	private String descricao;
+
+	@Column(name = "data_atualizacao", insertable = false, updatable = false,
+			columnDefinition = "TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+	private LocalDateTime dataAtualizacao;
+
+	// Conferida nos UPDATEs do Hibernate e na atualização parcial (PATCH), que falham se o agendamento
+	// foi alterado depois de lido.
+	@Version
+	@Column(name = "versao", nullable = false)
+	@ColumnDefault("0")
+	private Integer versao;
 	
 	public Agendamento(Long id) {
 		
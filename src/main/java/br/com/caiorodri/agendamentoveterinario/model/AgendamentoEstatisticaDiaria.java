@@ -0,0 +1,26 @@
+package br.com.caiorodri.agendamentoveterinario.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "agendamento_estatistica_diaria")
+public class AgendamentoEstatisticaDiaria {
+
+	@EmbeddedId
+	private AgendamentoEstatisticaDiariaId id;
+
+	private long total;
+
+	@Column(name = "soma_antecedencia_minutos")
+	private long somaAntecedenciaMinutos;
+
+}
@@ -0,0 +1,29 @@
+package br.com.caiorodri.agendamentoveterinario.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AgendamentoEstatisticaDiariaId implements Serializable {
+
+	private LocalDate data;
+
+	@Column(name = "id_veterinario")
+	private Long idVeterinario;
+
+	@Column(name = "id_agendamento_tipo")
+	private Integer idTipo;
+
+	@Column(name = "id_agendamento_status")
+	private Integer idStatus;
+
+}
@@ -24,6 +24,11 @@ public class AgendamentoTipo {
 
     @Column(name = "duracao_minutos")
     private Integer duracaoMinutos;
+
+    // Minutos antes do início em que os lembretes são enviados, separados por vírgula (ex.: 1440,120).
+    // Nulo usa lembretes.antecedencias-minutos; vazio desliga os lembretes do tipo.
+    @Column(name = "antecedencias_lembrete")
+    private String antecedenciasLembrete;
 	
 	public AgendamentoTipo(Integer id) {
 		
@@ -1,5 +1,6 @@
 package br.com.caiorodri.agendamentoveterinario.model;
 
+import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
 
@@ -7,6 +8,7 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.TenantId;
 import org.springframework.format.annotation.DateTimeFormat;
 
 @Table
@@ -21,14 +23,18 @@ public class Animal {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
+
+	@TenantId
+	@Column(name = "id_clinica", updatable = false)
+	private Long idClinica;
 	
 	private String nome;
 
-	@OneToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.EAGER)
 	@JoinColumn(name = "id_raca")
 	private Raca raca;
 	
-	@OneToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.EAGER)
 	@JoinColumn(name = "id_sexo")
 	private Sexo sexo;
 	
@@ -55,6 +61,10 @@ public class Animal {
 	private Usuario dono;
 
     private String urlImagem;
+
+	@Column(name = "data_atualizacao", insertable = false, updatable = false,
+			columnDefinition = "TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+	private LocalDateTime dataAtualizacao;
 	
 	public Animal(Long id) {
 		
@@ -0,0 +1,33 @@
+package br.com.caiorodri.agendamentoveterinario.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "clinica")
+public class Clinica {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	private String nome;
+
+	private String endereco;
+
+	private String contato;
+
+	@Column(name = "nome_recepcionista_auto_atendimento")
+	private String nomeRecepcionistaAutoAtendimento;
+
+}
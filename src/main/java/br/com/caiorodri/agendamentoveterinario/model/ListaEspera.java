@@ -0,0 +1,102 @@
+package br.com.caiorodri.agendamentoveterinario.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import br.com.caiorodri.agendamentoveterinario.enums.ListaEsperaStatusEnum;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Entrada da lista de espera. As entradas são excluídas junto com o cliente ou o animal; a exclusão do
+ * veterinário ou do agendamento só limpa a referência. O ListaEsperaIndice pode manter por algum tempo
+ * entradas já excluídas, que são descartadas quando escolhidas para uma oferta.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "lista_espera")
+@ToString(exclude = {"cliente", "animal", "veterinario", "ofertaVeterinario", "agendamento"})
+public class ListaEspera {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@TenantId
+	@Column(name = "id_clinica", updatable = false)
+	private Long idClinica;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "id_cliente", nullable = false)
+	@OnDelete(action = OnDeleteAction.CASCADE)
+	private Usuario cliente;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "id_animal", nullable = false)
+	@OnDelete(action = OnDeleteAction.CASCADE)
+	private Animal animal;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "id_veterinario")
+	@OnDelete(action = OnDeleteAction.SET_NULL)
+	private Usuario veterinario;
+
+	@ManyToOne(fetch = FetchType.EAGER)
+	@JoinColumn(name = "id_agendamento_tipo", nullable = false)
+	private AgendamentoTipo tipo;
+
+	@Column(name = "data_inicio", nullable = false)
+	private LocalDate dataInicio;
+
+	@Column(name = "data_fim", nullable = false)
+	private LocalDate dataFim;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 20, nullable = false)
+	private ListaEsperaStatusEnum status;
+
+	@Column(name = "data_criacao", columnDefinition = "TIMESTAMP")
+	private LocalDateTime dataCriacao;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "id_oferta_veterinario")
+	@OnDelete(action = OnDeleteAction.SET_NULL)
+	private Usuario ofertaVeterinario;
+
+	@Column(name = "oferta_inicio", columnDefinition = "TIMESTAMP")
+	private LocalDateTime ofertaInicio;
+
+	@Column(name = "oferta_fim", columnDefinition = "TIMESTAMP")
+	private LocalDateTime ofertaFim;
+
+	@Column(name = "oferta_expiracao", columnDefinition = "TIMESTAMP")
+	private LocalDateTime ofertaExpiracao;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "id_agendamento")
+	@OnDelete(action = OnDeleteAction.SET_NULL)
+	private Agendamento agendamento;
+
+	public ListaEspera(Long id) {
+
+		this.id = id;
+
+	}
+
+}
@@ -0,0 +1,42 @@
+package br.com.caiorodri.agendamentoveterinario.model;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Reserva temporária de um horário de um veterinário para um cliente, mantida enquanto o cliente
+ * conclui o agendamento (ver ReservasHorarioConfig).
+ */
+@Data
+@AllArgsConstructor
+public class ReservaHorario {
+
+	private String id;
+
+	private Long idVeterinario;
+
+	private Long idCliente;
+
+	private Integer idTipo;
+
+	private LocalDateTime inicio;
+
+	private LocalDateTime fim;
+
+	private LocalDateTime expiracao;
+
+	public boolean isExpirada(LocalDateTime agora) {
+
+		return !expiracao.isAfter(agora);
+
+	}
+
+	public boolean sobrepoe(LocalDateTime inicio, LocalDateTime fim) {
+
+		return this.inicio.isBefore(fim) && this.fim.isAfter(inicio);
+
+	}
+
+}
@@ -0,0 +1,54 @@
+package br.com.caiorodri.agendamentoveterinario.model;
+
+import java.time.LocalDateTime;
+
+import br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "tarefa_execucao")
+public class TarefaExecucao {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	/** Clínica de quem disparou; -1 (todas as clínicas) quando disparada pelo agendador. */
+	@TenantId
+	@Column(name = "id_clinica", updatable = false)
+	private Long idClinica;
+
+	@Column(length = 64, nullable = false)
+	private String nome;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 20, nullable = false)
+	private TarefaStatusEnum status;
+
+	@Column(name = "total_itens", nullable = false)
+	private long totalItens;
+
+	@Column(name = "iniciado_por")
+	private String iniciadoPor;
+
+	@Column(name = "data_inicio", columnDefinition = "TIMESTAMP", nullable = false)
+	private LocalDateTime dataInicio;
+
+	@Column(name = "data_fim", columnDefinition = "TIMESTAMP")
+	private LocalDateTime dataFim;
+
+}
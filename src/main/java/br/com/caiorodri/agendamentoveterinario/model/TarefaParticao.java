@@ -0,0 +1,72 @@
+package br.com.caiorodri.agendamentoveterinario.model;
+
+import java.time.LocalDateTime;
+
+import br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Faixa de IDs de uma execução de tarefa, processada por uma thread de cada vez. ultimoId é o ponto
+ * de retomada: a faixa continua do item seguinte depois de uma pausa ou da queda da instância.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "tarefa_particao")
+public class TarefaParticao {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	/** Clínica da execução, em que a partição é processada. */
+	@TenantId
+	@Column(name = "id_clinica", updatable = false)
+	private Long idClinica;
+
+	@Column(name = "id_execucao", nullable = false)
+	private Long idExecucao;
+
+	@Column(nullable = false)
+	private int indice;
+
+	@Column(name = "id_inicio", nullable = false)
+	private long idInicio;
+
+	@Column(name = "id_fim", nullable = false)
+	private long idFim;
+
+	@Column(name = "ultimo_id")
+	private Long ultimoId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 20, nullable = false)
+	private TarefaStatusEnum status;
+
+	@Column(name = "itens_processados", nullable = false)
+	private long itensProcessados;
+
+	@Column(name = "itens_com_erro", nullable = false)
+	private long itensComErro;
+
+	private String instancia;
+
+	@Column(name = "data_atualizacao", columnDefinition = "TIMESTAMP")
+	private LocalDateTime dataAtualizacao;
+
+	@Column(name = "mensagem_erro", length = 500)
+	private String mensagemErro;
+
+}
@@ -5,6 +5,8 @@ import java.util.*;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import jakarta.persistence.*;
@@ -23,6 +25,10 @@ public class Usuario implements UserDetails {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
+
+	@TenantId
+	@Column(name = "id_clinica", updatable = false)
+	private Long idClinica;
 	
 	private String nome;
 
@@ -37,12 +43,6 @@ public class Usuario implements UserDetails {
 	@Embedded
 	private Endereco endereco;
 	
-	@Column(name = "codigo_recuperacao")
-	private String codigoRecuperacao;
-	
-	@Column(name = "expiracao_codigo", columnDefinition = "DATETIME")
-	private LocalDateTime expiracaoCodigo;
-	
 	@Column(name = "data_nascimento")
 	@DateTimeFormat(pattern = "yyyy-MM-dd")
 	private Date dataNascimento;
@@ -81,6 +81,16 @@ public class Usuario implements UserDetails {
 
     private String urlImagem;
 
+	@Column(name = "data_atualizacao", insertable = false, updatable = false,
+			columnDefinition = "TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+	private LocalDateTime dataAtualizacao;
+
+	// Incrementada a cada UPDATE; o PATCH /usuarios/{id} só grava se ela não mudou desde a leitura.
+	@Version
+	@Column(name = "versao", nullable = false)
+	@ColumnDefault("0")
+	private Integer versao;
+
 	public Usuario() {
 		
 		this.endereco = new Endereco();
@@ -0,0 +1,94 @@
+package br.com.caiorodri.agendamentoveterinario.monitoramento;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import br.com.caiorodri.agendamentoveterinario.config.ConsultasProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Conta os comandos SQL de cada requisição, inclusive os do SecurityFilter (por isso roda antes da
+ * cadeia do Spring Security), e compara com o limite do endpoint em consultas.limites. As requisições
+ * acima do limite vão para o log com o comando mais repetido, e a contagem de todas é publicada na
+ * métrica consultas.por_requisicao, por endpoint.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConsultasFilter extends OncePerRequestFilter {
+
+    private static final String ENDPOINT_DESCONHECIDO = "desconhecido";
+
+    @Autowired
+    private ConsultasProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    final static Logger logger = LoggerFactory.getLogger(ConsultasFilter.class);
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+
+        return !properties.isHabilitado();
+
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        InspetorConsultas.Consultas consultas = InspetorConsultas.iniciar();
+
+        try {
+
+            filterChain.doFilter(request, response);
+
+        } finally {
+
+            InspetorConsultas.encerrar();
+
+        }
+
+        verificar(request, consultas);
+
+    }
+
+    private void verificar(HttpServletRequest request, InspetorConsultas.Consultas consultas) {
+
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = padrao != null ? request.getMethod() + " " + padrao : ENDPOINT_DESCONHECIDO;
+
+        meterRegistry.summary("consultas.por_requisicao", "endpoint", endpoint).record(consultas.getTotal());
+
+        int limite = properties.getLimites().getOrDefault(endpoint, properties.getLimitePadrao());
+
+        if (consultas.getTotal() <= limite) {
+            return;
+        }
+
+        meterRegistry.counter("consultas.acima_do_limite", "endpoint", endpoint).increment();
+
+        Map.Entry<String, Integer> maisRepetido = consultas.maisRepetido();
+
+        logger.warn("[verificar] - {} executou {} comandos SQL (limite {}); mais repetido {} vezes: {}",
+                endpoint, consultas.getTotal(), limite, maisRepetido.getValue(), maisRepetido.getKey());
+
+        if (properties.isFalharAcimaDoLimite()) {
+            throw new IllegalStateException(endpoint + " executou " + consultas.getTotal() + " comandos SQL, acima do limite de " + limite);
+        }
+
+    }
+
+}
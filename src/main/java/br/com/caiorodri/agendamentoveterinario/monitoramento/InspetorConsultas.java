@@ -0,0 +1,79 @@
+package br.com.caiorodri.agendamentoveterinario.monitoramento;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na requisição em andamento na thread atual
+ * (configurado em hibernate.session_factory.statement_inspector). Fora de uma requisição, ou em outras
+ * threads disparadas por ela, os comandos não são contados; consultas feitas direto pelo JdbcTemplate
+ * também não passam por aqui.
+ */
+public class InspetorConsultas implements StatementInspector {
+
+    private static final ThreadLocal<Consultas> ATUAL = new ThreadLocal<>();
+
+    /** Passa a contar os comandos da thread atual até {@link #encerrar()}. */
+    public static Consultas iniciar() {
+
+        Consultas consultas = new Consultas();
+        ATUAL.set(consultas);
+
+        return consultas;
+
+    }
+
+    public static void encerrar() {
+
+        ATUAL.remove();
+
+    }
+
+    @Override
+    public String inspect(String sql) {
+
+        Consultas consultas = ATUAL.get();
+
+        if (consultas != null) {
+            consultas.registrar(sql);
+        }
+
+        return sql;
+
+    }
+
+    /** Comandos de uma requisição. Usado só pela thread da requisição. */
+    public static class Consultas {
+
+        private int total;
+
+        private final Map<String, Integer> repeticoes = new HashMap<>();
+
+        void registrar(String sql) {
+
+            total++;
+            repeticoes.merge(sql, 1, Integer::sum);
+
+        }
+
+        public int getTotal() {
+
+            return total;
+
+        }
+
+        /**
+         * @return O comando executado mais vezes e quantas; um mesmo SELECT repetido muitas vezes na
+         * requisição costuma ser uma associação carregada item a item (N+1).
+         */
+        public Map.Entry<String, Integer> maisRepetido() {
+
+            return repeticoes.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package br.com.caiorodri.agendamentoveterinario.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoEstatisticaDiaria;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoEstatisticaDiariaId;
+
+@Repository
+public interface AgendamentoEstatisticaDiariaRepository extends JpaRepository<AgendamentoEstatisticaDiaria, AgendamentoEstatisticaDiariaId> {
+
+	// Cada linha é de um veterinário, então a clínica vem do veterinário (usuario.id_clinica).
+
+	@Query(value = "SELECT e.id_veterinario, u.nome, SUM(e.total), " +
+			"SUM(CASE WHEN e.id_agendamento_status = ?3 THEN e.total ELSE 0 END), SUM(e.soma_antecedencia_minutos) " +
+			"FROM agendamento_estatistica_diaria e " +
+			"JOIN usuario u ON u.id = e.id_veterinario " +
+			"WHERE e.data BETWEEN ?1 AND ?2 AND u.id_clinica = ?4 " +
+			"GROUP BY e.id_veterinario, u.nome " +
+			"ORDER BY SUM(e.total) DESC", nativeQuery = true)
+	public List<Object[]> somarPorVeterinario(LocalDate de, LocalDate ate, Integer idStatusCancelado, Long idClinica);
+
+	@Query(value = "SELECT e.id_agendamento_tipo, t.nome, SUM(e.total), " +
+			"SUM(CASE WHEN e.id_agendamento_status = ?3 THEN e.total ELSE 0 END), SUM(e.soma_antecedencia_minutos) " +
+			"FROM agendamento_estatistica_diaria e " +
+			"JOIN usuario u ON u.id = e.id_veterinario " +
+			"LEFT JOIN agendamento_tipo t ON t.id = e.id_agendamento_tipo " +
+			"WHERE e.data BETWEEN ?1 AND ?2 AND u.id_clinica = ?4 " +
+			"GROUP BY e.id_agendamento_tipo, t.nome " +
+			"ORDER BY SUM(e.total) DESC", nativeQuery = true)
+	public List<Object[]> somarPorTipo(LocalDate de, LocalDate ate, Integer idStatusCancelado, Long idClinica);
+
+	@Query(value = "SELECT e.id_agendamento_status, s.nome, SUM(e.total), " +
+			"SUM(CASE WHEN e.id_agendamento_status = ?3 THEN e.total ELSE 0 END), SUM(e.soma_antecedencia_minutos) " +
+			"FROM agendamento_estatistica_diaria e " +
+			"JOIN usuario u ON u.id = e.id_veterinario " +
+			"LEFT JOIN agendamento_status s ON s.id = e.id_agendamento_status " +
+			"WHERE e.data BETWEEN ?1 AND ?2 AND u.id_clinica = ?4 " +
+			"GROUP BY e.id_agendamento_status, s.nome " +
+			"ORDER BY SUM(e.total) DESC", nativeQuery = true)
+	public List<Object[]> somarPorStatus(LocalDate de, LocalDate ate, Integer idStatusCancelado, Long idClinica);
+
+	@Query(value = "SELECT e.data, SUM(e.total), " +
+			"SUM(CASE WHEN e.id_agendamento_status = ?3 THEN e.total ELSE 0 END), SUM(e.soma_antecedencia_minutos) " +
+			"FROM agendamento_estatistica_diaria e " +
+			"JOIN usuario u ON u.id = e.id_veterinario " +
+			"WHERE e.data BETWEEN ?1 AND ?2 AND u.id_clinica = ?4 " +
+			"GROUP BY e.data " +
+			"ORDER BY e.data", nativeQuery = true)
+	public List<Object[]> somarPorDia(LocalDate de, LocalDate ate, Integer idStatusCancelado, Long idClinica);
+
+	@Modifying
+	@Query(value = "DELETE FROM agendamento_estatistica_diaria WHERE data BETWEEN ?1 AND ?2", nativeQuery = true)
+	public int deleteByPeriodo(LocalDate de, LocalDate ate);
+
+	@Modifying
+	@Query(value = "INSERT INTO agendamento_estatistica_diaria " +
+			"(data, id_veterinario, id_agendamento_tipo, id_agendamento_status, total, soma_antecedencia_minutos) " +
+			"SELECT DATE(a.data_agendamento_inicio), a.id_veterinario, a.id_agendamento_tipo, a.id_agendamento_status, COUNT(*), " +
+			"COALESCE(SUM(GREATEST(TIMESTAMPDIFF(MINUTE, a.data_criacao, a.data_agendamento_inicio), 0)), 0) " +
+			"FROM agendamento a " +
+			"WHERE a.data_agendamento_inicio >= ?1 AND a.data_agendamento_inicio < ?2 " +
+			"GROUP BY DATE(a.data_agendamento_inicio), a.id_veterinario, a.id_agendamento_tipo, a.id_agendamento_status", nativeQuery = true)
+	public int recalcularPeriodo(LocalDateTime inicio, LocalDateTime fim);
+
+	@Modifying
+	@Query(value = "DELETE FROM agendamento_estatistica_diaria WHERE total <= 0", nativeQuery = true)
+	public int deleteVazias();
+
+}
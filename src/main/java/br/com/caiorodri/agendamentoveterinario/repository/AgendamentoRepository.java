@@ -7,6 +7,7 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -18,22 +19,27 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>{
 	
 	@Query("SELECT COUNT(a) > 0 " +
 		    "FROM Agendamento a " +
-		    "WHERE (a.dataAgendamentoInicio <= ?1 " +
+		    "WHERE ((a.dataAgendamentoInicio <= ?1 " +
 		    "AND a.dataAgendamentoFinal >= ?2) " +
 		    "OR (a.dataAgendamentoInicio <= ?1 " +
 		    "AND a.dataAgendamentoFinal > ?1) " +
 		    "OR (a.dataAgendamentoInicio < ?2 " +
-		    "AND a.dataAgendamentoFinal >= ?2)")
-	boolean existeConflitoDeHorario(LocalDateTime inicio, LocalDateTime fim);
+		    "AND a.dataAgendamentoFinal >= ?2)) " +
+		    "AND a.status.id != ?3")
+	boolean existeConflitoDeHorario(LocalDateTime inicio, LocalDateTime fim, Integer idStatusCancelado);
 
-	@Query("SELECT a FROM Agendamento a " +
-		    "WHERE (a.dataAgendamentoInicio < ?1 " +
-		    "AND a.dataAgendamentoFinal > ?2) " +
-		    "OR (a.dataAgendamentoInicio < ?1 " +
+	@Query("SELECT COUNT(a) > 0 " +
+		    "FROM Agendamento a " +
+		    "WHERE ((a.dataAgendamentoInicio <= ?1 " +
+		    "AND a.dataAgendamentoFinal >= ?2) " +
+		    "OR (a.dataAgendamentoInicio <= ?1 " +
 		    "AND a.dataAgendamentoFinal > ?1) " +
 		    "OR (a.dataAgendamentoInicio < ?2 " +
-		    "AND a.dataAgendamentoFinal > ?1)")
-	List<Agendamento> findByHorario(LocalDateTime inicio, LocalDateTime fim);
+		    "AND a.dataAgendamentoFinal >= ?2)) " +
+		    "AND a.status.id != ?3 " +
+		    "AND a.id != ?4")
+	boolean existeConflitoDeHorarioExceto(LocalDateTime inicio, LocalDateTime fim, Integer idStatusCancelado, Long idAgendamento);
+
 	
 	@Query("SELECT DISTINCT a FROM Agendamento a " +
             "INNER JOIN FETCH a.animal animal " +
@@ -93,6 +99,43 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>{
 			"WHERE a.id = ?1")
 	public Optional<Agendamento> findById(Long id);
 
+    @Query("SELECT a.dataAgendamentoInicio, a.dataCriacao, a.veterinario.id, a.tipo.id, a.status.id " +
+            "FROM Agendamento a " +
+            "WHERE a.id = ?1")
+    List<Object[]> findResumoEstatisticaById(Long id);
+
+    /**
+     * Estado do agendamento lido pelo PATCH, sem joins: início, fim, criação, veterinário, tipo,
+     * status, versão e cliente.
+     */
+    @Query("SELECT a.dataAgendamentoInicio, a.dataAgendamentoFinal, a.dataCriacao, a.veterinario.id, a.tipo.id, a.status.id, a.versao, a.cliente.id " +
+            "FROM Agendamento a " +
+            "WHERE a.id = ?1")
+    List<Object[]> findEstadoById(Long id);
+
+    /**
+     * Igual a {@link #findEstadoById}, com a quantidade de outros agendamentos em conflito na última
+     * coluna, para verificar o horário com um único SELECT. Sem início e fim, conta os conflitos do
+     * horário atual do agendamento (PATCH que só troca o veterinário ou o status).
+     */
+    @Query("SELECT a.dataAgendamentoInicio, a.dataAgendamentoFinal, a.dataCriacao, a.veterinario.id, a.tipo.id, a.status.id, a.versao, a.cliente.id, " +
+            "(SELECT COUNT(c) FROM Agendamento c " +
+            "WHERE ((c.dataAgendamentoInicio <= COALESCE(?2, a.dataAgendamentoInicio) " +
+            "AND c.dataAgendamentoFinal >= COALESCE(?3, a.dataAgendamentoFinal)) " +
+            "OR (c.dataAgendamentoInicio <= COALESCE(?2, a.dataAgendamentoInicio) " +
+            "AND c.dataAgendamentoFinal > COALESCE(?2, a.dataAgendamentoInicio)) " +
+            "OR (c.dataAgendamentoInicio < COALESCE(?3, a.dataAgendamentoFinal) " +
+            "AND c.dataAgendamentoFinal >= COALESCE(?3, a.dataAgendamentoFinal))) " +
+            "AND c.status.id != ?4 " +
+            "AND c.id != a.id) " +
+            "FROM Agendamento a " +
+            "WHERE a.id = ?1")
+    List<Object[]> findEstadoComConflitosById(Long id, LocalDateTime inicio, LocalDateTime fim, Integer idStatusCancelado);
+
+    @Modifying
+    @Query("DELETE FROM Agendamento a WHERE a.id = ?1")
+    public int deleteSemCarregar(Long id);
+
     @Query("SELECT a FROM Agendamento a " +
             "WHERE a.veterinario.id = ?1 " +
             "AND a.dataAgendamentoInicio >= ?2 " +
@@ -115,4 +158,53 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>{
             Integer idStatusCancelado
     );
 
+    @Query("SELECT a.veterinario.id, a.dataAgendamentoInicio, a.dataAgendamentoFinal FROM Agendamento a " +
+            "WHERE a.dataAgendamentoFinal > ?1 " +
+            "AND a.dataAgendamentoInicio < ?2 " +
+            "AND a.status.id != ?3 " +
+            "ORDER BY a.veterinario.id, a.dataAgendamentoInicio")
+    List<Object[]> findOcupacaoNoPeriodo(
+            LocalDateTime inicio,
+            LocalDateTime fim,
+            Integer idStatusCancelado
+    );
+
+    @Query("SELECT a.id, a.dataAgendamentoInicio, a.tipo.id FROM Agendamento a " +
+            "WHERE a.status.id = ?3 " +
+            "AND a.dataAgendamentoInicio >= ?1 " +
+            "AND a.dataAgendamentoInicio < ?2")
+    List<Object[]> findLembretesNoPeriodo(
+            LocalDateTime inicio,
+            LocalDateTime fim,
+            Integer idStatus
+    );
+
+    @Query("SELECT a FROM Agendamento a " +
+            "INNER JOIN FETCH a.cliente " +
+            "INNER JOIN FETCH a.veterinario " +
+            "INNER JOIN FETCH a.recepcionista " +
+            "INNER JOIN FETCH a.animal " +
+            "WHERE a.id IN ?1")
+    List<Agendamento> findByIdInComParticipantes(List<Long> ids);
+
+    @Query("SELECT COUNT(a), MAX(a.dataAtualizacao) FROM Agendamento a")
+    List<Object[]> findVersao();
+
+    @Query("SELECT a.dataAtualizacao, an.dataAtualizacao, c.dataAtualizacao, v.dataAtualizacao, r.dataAtualizacao " +
+            "FROM Agendamento a " +
+            "LEFT JOIN a.animal an " +
+            "LEFT JOIN a.cliente c " +
+            "LEFT JOIN a.veterinario v " +
+            "LEFT JOIN a.recepcionista r " +
+            "WHERE a.id = ?1")
+    List<Object[]> findVersaoById(Long id);
+
+    @Query("SELECT COUNT(a), MAX(a.dataAtualizacao), MAX(an.dataAtualizacao), MAX(v.dataAtualizacao), MAX(r.dataAtualizacao) " +
+            "FROM Agendamento a " +
+            "LEFT JOIN a.animal an " +
+            "LEFT JOIN a.veterinario v " +
+            "LEFT JOIN a.recepcionista r " +
+            "WHERE a.cliente.id = ?1")
+    List<Object[]> findVersaoByCliente(Long idCliente);
+
 }
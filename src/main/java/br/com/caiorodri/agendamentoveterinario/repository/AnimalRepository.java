@@ -3,9 +3,11 @@ package br.com.caiorodri.agendamentoveterinario.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -31,5 +33,31 @@ public interface AnimalRepository extends JpaRepository<Animal, Long>{
 			"LEFT JOIN FETCH a.raca.especie e " +
 			"WHERE d.id = ?1")
 	public Page<Animal> findByUsuarioId(Long id, Pageable pageable);
-	
+
+	public boolean existsByIdAndDonoId(Long id, Long idDono);
+
+	@Query("SELECT a.dono.id FROM Animal a WHERE a.id = ?1")
+	public Optional<Long> findIdDonoById(Long id);
+
+	/**
+	 * Exclui o animal só se ele não tiver agendamentos, em um único comando.
+	 *
+	 * @return 1 se excluiu; 0 se o animal não existe ou tem agendamentos.
+	 */
+	@Modifying
+	@Query("DELETE FROM Animal a WHERE a.id = ?1 AND NOT EXISTS (SELECT 1 FROM Agendamento ag WHERE ag.animal.id = ?1)")
+	public int deleteSemAgendamentos(Long id);
+
+	@Query("SELECT COUNT(a), MAX(a.dataAtualizacao) FROM Animal a")
+	public List<Object[]> findVersao();
+
+	@Query("SELECT COUNT(a), MAX(a.dataAtualizacao) FROM Animal a WHERE a.dono.id = ?1")
+	public List<Object[]> findVersaoByDono(Long idDono);
+
+	@Query("SELECT MIN(a.id), MAX(a.id), COUNT(a) FROM Animal a")
+	public List<Object[]> findIntervaloIds();
+
+	@Query("SELECT a.id FROM Animal a WHERE a.id > ?1 AND a.id <= ?2 ORDER BY a.id")
+	public List<Long> findIdsNoIntervalo(Long depoisDe, Long ate, Limit limite);
+
 }
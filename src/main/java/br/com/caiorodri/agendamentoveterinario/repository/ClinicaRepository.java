@@ -0,0 +1,11 @@
+package br.com.caiorodri.agendamentoveterinario.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import br.com.caiorodri.agendamentoveterinario.model.Clinica;
+
+@Repository
+public interface ClinicaRepository extends JpaRepository<Clinica, Long> {
+
+}
@@ -0,0 +1,68 @@
+package br.com.caiorodri.agendamentoveterinario.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import br.com.caiorodri.agendamentoveterinario.enums.ListaEsperaStatusEnum;
+import br.com.caiorodri.agendamentoveterinario.model.ListaEspera;
+
+@Repository
+public interface ListaEsperaRepository extends JpaRepository<ListaEspera, Long> {
+
+	@Query("SELECT l FROM ListaEspera l " +
+			"INNER JOIN FETCH l.cliente " +
+			"INNER JOIN FETCH l.animal " +
+			"LEFT JOIN FETCH l.veterinario " +
+			"LEFT JOIN FETCH l.ofertaVeterinario " +
+			"WHERE l.id = ?1")
+	public Optional<ListaEspera> findById(Long id);
+
+	@Query(value = "SELECT l FROM ListaEspera l " +
+			"INNER JOIN FETCH l.cliente " +
+			"INNER JOIN FETCH l.animal " +
+			"LEFT JOIN FETCH l.veterinario " +
+			"LEFT JOIN FETCH l.ofertaVeterinario " +
+			"WHERE l.cliente.id = ?1 " +
+			"ORDER BY l.dataCriacao DESC",
+			countQuery = "SELECT COUNT(l) FROM ListaEspera l WHERE l.cliente.id = ?1")
+	public Page<ListaEspera> findByCliente(Long idCliente, Pageable pageable);
+
+	@Query(value = "SELECT l FROM ListaEspera l " +
+			"INNER JOIN FETCH l.cliente " +
+			"INNER JOIN FETCH l.animal " +
+			"LEFT JOIN FETCH l.veterinario " +
+			"LEFT JOIN FETCH l.ofertaVeterinario " +
+			"WHERE l.status IN ?1 " +
+			"ORDER BY l.dataCriacao",
+			countQuery = "SELECT COUNT(l) FROM ListaEspera l WHERE l.status IN ?1")
+	public Page<ListaEspera> findByStatus(List<ListaEsperaStatusEnum> status, Pageable pageable);
+
+	@Query("SELECT l FROM ListaEspera l " +
+			"WHERE l.status = ?1 " +
+			"AND l.dataFim >= ?2")
+	public List<ListaEspera> findVigentes(ListaEsperaStatusEnum status, LocalDate hoje);
+
+	@Query("SELECT l.id FROM ListaEspera l " +
+			"WHERE l.status = ?1 " +
+			"AND l.ofertaExpiracao < ?2")
+	public List<Long> findIdsOfertasExpiradas(ListaEsperaStatusEnum status, LocalDateTime agora);
+
+	@Query("SELECT l.id FROM ListaEspera l " +
+			"WHERE l.status = ?1 " +
+			"AND l.dataFim < ?2")
+	public List<Long> findIdsJanelaEncerrada(ListaEsperaStatusEnum status, LocalDate hoje);
+
+	@Modifying
+	@Query("UPDATE ListaEspera l SET l.status = ?2 WHERE l.id IN ?1")
+	public int updateStatus(List<Long> ids, ListaEsperaStatusEnum status);
+
+}
@@ -0,0 +1,27 @@
+package br.com.caiorodri.agendamentoveterinario.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum;
+import br.com.caiorodri.agendamentoveterinario.model.TarefaExecucao;
+
+@Repository
+public interface TarefaExecucaoRepository extends JpaRepository<TarefaExecucao, Long> {
+
+	public boolean existsByNomeAndStatusIn(String nome, List<TarefaStatusEnum> status);
+
+	public Page<TarefaExecucao> findAllByOrderByIdDesc(Pageable pageable);
+
+	@Modifying
+	@Query("UPDATE TarefaExecucao e SET e.status = ?3, e.dataFim = ?4 WHERE e.id = ?1 AND e.status IN ?2")
+	public int updateStatus(Long id, List<TarefaStatusEnum> statusAtuais, TarefaStatusEnum status, LocalDateTime dataFim);
+
+}
@@ -0,0 +1,68 @@
+package br.com.caiorodri.agendamentoveterinario.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum;
+import br.com.caiorodri.agendamentoveterinario.model.TarefaParticao;
+
+@Repository
+public interface TarefaParticaoRepository extends JpaRepository<TarefaParticao, Long> {
+
+	public List<TarefaParticao> findByIdExecucaoOrderByIndice(Long idExecucao);
+
+	public long countByIdExecucaoAndStatusNot(Long idExecucao, TarefaStatusEnum status);
+
+	@Query("SELECT p.idExecucao, SUM(p.itensProcessados), SUM(p.itensComErro) FROM TarefaParticao p " +
+			"WHERE p.idExecucao IN ?1 GROUP BY p.idExecucao")
+	public List<Object[]> somarPorExecucao(List<Long> idsExecucoes);
+
+	/**
+	 * Partições de execuções em andamento que estão pendentes ou cuja instância parou de registrar
+	 * progresso desde a data informada.
+	 */
+	@Query("SELECT p.id FROM TarefaParticao p, TarefaExecucao e " +
+			"WHERE e.id = p.idExecucao " +
+			"AND e.status = br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum.EXECUTANDO " +
+			"AND (p.status = br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum.PENDENTE " +
+			"OR (p.status = br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum.EXECUTANDO AND p.dataAtualizacao < ?1)) " +
+			"ORDER BY p.idExecucao, p.indice")
+	public List<Long> findIdsDisponiveis(LocalDateTime inativaDesde, Limit limite);
+
+	/**
+	 * Assume a partição para a instância, se ela continuar disponível.
+	 *
+	 * @return 1 se a partição foi assumida, 0 se outra instância chegou antes.
+	 */
+	@Modifying
+	@Query("UPDATE TarefaParticao p SET p.status = br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum.EXECUTANDO, " +
+			"p.instancia = ?2, p.dataAtualizacao = ?3, p.mensagemErro = NULL " +
+			"WHERE p.id = ?1 " +
+			"AND (p.status = br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum.PENDENTE " +
+			"OR (p.status = br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum.EXECUTANDO AND p.dataAtualizacao < ?4))")
+	public int reservar(Long id, String instancia, LocalDateTime agora, LocalDateTime inativaDesde);
+
+	@Modifying
+	@Query("UPDATE TarefaParticao p SET p.ultimoId = ?3, p.itensProcessados = p.itensProcessados + ?4, " +
+			"p.itensComErro = p.itensComErro + ?5, p.dataAtualizacao = ?6 " +
+			"WHERE p.id = ?1 AND p.instancia = ?2 " +
+			"AND p.status = br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum.EXECUTANDO")
+	public int registrarProgresso(Long id, String instancia, Long ultimoId, long processados, long comErro, LocalDateTime agora);
+
+	@Modifying
+	@Query("UPDATE TarefaParticao p SET p.status = ?3, p.dataAtualizacao = ?4, p.mensagemErro = ?5 " +
+			"WHERE p.id = ?1 AND p.instancia = ?2 " +
+			"AND p.status = br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum.EXECUTANDO")
+	public int liberar(Long id, String instancia, TarefaStatusEnum status, LocalDateTime agora, String mensagemErro);
+
+	@Modifying
+	@Query("UPDATE TarefaParticao p SET p.status = ?3 WHERE p.idExecucao = ?1 AND p.status = ?2")
+	public int updateStatus(Long idExecucao, TarefaStatusEnum statusAtual, TarefaStatusEnum status);
+
+}
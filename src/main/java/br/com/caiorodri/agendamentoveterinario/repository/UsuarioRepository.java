@@ -1,11 +1,14 @@
 package br.com.caiorodri.agendamentoveterinario.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -21,6 +24,29 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long>{
 
 	public boolean existsByEmail(String email);
 
+	// CPF e e-mail são únicos entre todas as clínicas (o login é pelo e-mail), então as verificações de
+	// unicidade usam SQL nativo, que não passa pelo filtro de clínica do Hibernate.
+	@Query(value = "SELECT COUNT(*) FROM usuario WHERE cpf = ?1", nativeQuery = true)
+	public long countByCpfTodasClinicas(String cpf);
+
+	@Query(value = "SELECT id FROM usuario WHERE email = ?1", nativeQuery = true)
+	public Optional<Long> findIdByEmailTodasClinicas(String email);
+
+	@Query(value = "SELECT id_clinica FROM usuario WHERE email = ?1", nativeQuery = true)
+	public Optional<Long> findIdClinicaByEmailTodasClinicas(String email);
+
+	@Query(value = "SELECT cpf FROM usuario", nativeQuery = true)
+	public List<String> findAllCpfs();
+
+	@Query(value = "SELECT LOWER(email) FROM usuario", nativeQuery = true)
+	public List<String> findAllEmails();
+
+	@Query("SELECT u.id FROM Usuario u WHERE u.id IN ?1")
+	public List<Long> findIdsExistentes(Collection<Long> ids);
+
+	@Query("SELECT u.cpf, u.id FROM Usuario u WHERE u.cpf IN ?1")
+	public List<Object[]> findIdsByCpfs(Collection<String> cpfs);
+
     @Query("SELECT u FROM Usuario u " +
             "LEFT JOIN FETCH u.perfil perfil " +
             "LEFT JOIN FETCH u.status status " +
@@ -28,6 +54,13 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long>{
             "WHERE u.email = ?1")
     public Optional<Usuario> findByEmail(String email);
 
+	@Query("SELECT u.id, u.nome FROM Usuario u WHERE u.email = ?1")
+	public List<Object[]> findIdENomeByEmail(String email);
+
+	@Modifying
+	@Query("UPDATE Usuario u SET u.senha = ?2 WHERE u.id = ?1")
+	public int updateSenha(Long id, String senha);
+
 	@Query("SELECT u FROM Usuario u " +
 			"LEFT JOIN FETCH u.perfil perfil " +
             "LEFT JOIN FETCH u.status status " +
@@ -86,5 +119,24 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long>{
 		   "LEFT JOIN FETCH u.status s " +
 		   "WHERE p.id IN (2,3)")
 	public List<Usuario> findFuncionarios();
-	
+
+	@Query("SELECT COUNT(u), MAX(u.dataAtualizacao) FROM Usuario u")
+	public List<Object[]> findVersao();
+
+	@Query("SELECT u.dataAtualizacao FROM Usuario u WHERE u.id = ?1")
+	public List<LocalDateTime> findDataAtualizacaoById(Long id);
+
+	@Modifying
+	@Query(value = "UPDATE usuario SET data_atualizacao = CURRENT_TIMESTAMP(6) WHERE id = ?1", nativeQuery = true)
+	public int updateDataAtualizacao(Long id);
+
+	/**
+	 * Marca que o usuário recebeu o lembrete de consulta, se ainda não tinha recebido.
+	 *
+	 * @return 1 se a marcação foi feita agora, 0 se o usuário já estava marcado.
+	 */
+	@Modifying
+	@Query("UPDATE Usuario u SET u.emailRealizarConsultaRecebido = true WHERE u.id = ?1 AND u.emailRealizarConsultaRecebido = false")
+	public int marcarEmailRealizarConsultaRecebido(Long id);
+
 }
@@ -15,4 +15,10 @@ public interface VeterinarioHorarioRepository extends JpaRepository<VeterinarioH
     @Query("SELECT vh FROM VeterinarioHorario vh " +
             "WHERE vh.veterinario.id = ?1 AND vh.diaSemana.id = ?2")
     List<VeterinarioHorario> findByVeterinarioIdAndDiaDaSemanaId(Long idVeterinario, Integer idDiaSemana);
-}
\ No newline at end of file
+
+    @Query("SELECT vh.veterinario.id, vh.veterinario.nome, vh.veterinario.email, vh.diaSemana.id, vh.horaInicio, vh.horaFim " +
+            "FROM VeterinarioHorario vh " +
+            "WHERE vh.veterinario.perfil.id = ?1 AND vh.veterinario.status.id = ?2 " +
+            "ORDER BY vh.veterinario.id, vh.diaSemana.id, vh.horaInicio")
+    List<Object[]> findAgendasVeterinarios(Integer idPerfilVeterinario, Integer idStatusAtivo);
+}
@@ -0,0 +1,68 @@
+package br.com.caiorodri.agendamentoveterinario.scheduler;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.caiorodri.agendamentoveterinario.cluster.BarramentoCluster;
+import br.com.caiorodri.agendamentoveterinario.cluster.TravaTarefas;
+
+@Service
+public class EventosClusterScheduler {
+
+    @Autowired
+    private BarramentoCluster barramentoCluster;
+
+    @Autowired
+    private TravaTarefas travaTarefas;
+
+    @Value("${cluster.retencao-eventos-horas:24}")
+    private long retencaoEventosHoras;
+
+    final static Logger logger = LoggerFactory.getLogger(EventosClusterScheduler.class);
+
+    @Scheduled(fixedDelayString = "${cluster.intervalo-eventos-ms:1000}")
+    public void receberEventos() {
+
+        try {
+
+            barramentoCluster.receber();
+
+        } catch (Exception e) {
+
+            logger.error("[receberEventos] - Erro ao ler os eventos das outras instâncias: {}", e.getMessage(), e);
+
+        }
+
+    }
+
+    /**
+     * Apaga os eventos antigos uma vez por hora, em uma só instância.
+     */
+    @Scheduled(cron = "0 15 * * * *")
+    public void limparEventos() {
+
+        try {
+
+            travaTarefas.executar("limpeza-eventos-cluster", Duration.ofMinutes(10), Duration.ofMinutes(1), () -> {
+
+                int apagados = barramentoCluster.limpar(Duration.ofHours(retencaoEventosHoras));
+
+                logger.info("[limparEventos] - {} eventos apagados", apagados);
+
+            });
+
+        } catch (Exception e) {
+
+            logger.error("[limparEventos] - Erro ao apagar os eventos antigos: {}", e.getMessage(), e);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,74 @@
+package br.com.caiorodri.agendamentoveterinario.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.caiorodri.agendamentoveterinario.service.LembreteService;
+
+@Service
+public class LembretesScheduler {
+
+    @Autowired
+    private LembreteService lembreteService;
+
+    final static Logger logger = LoggerFactory.getLogger(LembretesScheduler.class);
+
+    /**
+     * Carrega na roda os lembretes que entraram na janela, inclusive os agendamentos criados ou
+     * alterados em outras instâncias. Roda também na inicialização.
+     */
+    @Scheduled(fixedDelayString = "${lembretes.intervalo-recarga-ms:600000}")
+    public void recarregar() {
+
+        try {
+
+            lembreteService.recarregar();
+
+        } catch (Exception e) {
+
+            logger.error("[recarregar] - Erro ao carregar os lembretes de agendamento: {}", e.getMessage(), e);
+
+        }
+
+    }
+
+    /**
+     * Avança a roda uma casa por vez e envia os lembretes vencidos.
+     */
+    @Scheduled(fixedDelayString = "${lembretes.duracao-casa-ms:60000}")
+    public void disparar() {
+
+        try {
+
+            lembreteService.disparar();
+
+        } catch (Exception e) {
+
+            logger.error("[disparar] - Erro ao enviar os lembretes de agendamento: {}", e.getMessage(), e);
+
+        }
+
+    }
+
+    /**
+     * Remove os registros de envio dos lembretes de agendamentos que já começaram.
+     */
+    @Scheduled(fixedDelayString = "${lembretes.intervalo-limpeza-ms:3600000}")
+    public void limpar() {
+
+        try {
+
+            lembreteService.limpar();
+
+        } catch (Exception e) {
+
+            logger.error("[limpar] - Erro ao limpar os lembretes enviados: {}", e.getMessage(), e);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package br.com.caiorodri.agendamentoveterinario.scheduler;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.caiorodri.agendamentoveterinario.cluster.TravaTarefas;
+import br.com.caiorodri.agendamentoveterinario.service.ListaEsperaService;
+
+@Service
+public class ListaEsperaScheduler {
+
+    @Autowired
+    private ListaEsperaService listaEsperaService;
+
+    @Autowired
+    private TravaTarefas travaTarefas;
+
+    final static Logger logger = LoggerFactory.getLogger(ListaEsperaScheduler.class);
+
+    @Scheduled(fixedDelayString = "${lista-espera.intervalo-expiracao-ms:60000}")
+    public void expirarOfertas() {
+
+        try {
+
+            // Duas instâncias expirando ao mesmo tempo repassariam a mesma vaga duas vezes.
+            travaTarefas.executar("expiracao-lista-espera", Duration.ofMinutes(10), Duration.ZERO, listaEsperaService::expirarOfertas);
+
+        } catch (Exception e) {
+
+            logger.error("[expirarOfertas] - Erro ao expirar ofertas da lista de espera: {}", e.getMessage(), e);
+
+        }
+
+    }
+
+}
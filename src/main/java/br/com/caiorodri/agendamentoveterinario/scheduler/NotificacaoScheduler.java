@@ -1,67 +1,46 @@
 package br.com.caiorodri.agendamentoveterinario.scheduler;
 
-import java.time.LocalDate;
-import java.util.List;
+import java.time.Duration;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import br.com.caiorodri.agendamentoveterinario.email.EmailSender;
-import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
-import br.com.caiorodri.agendamentoveterinario.model.Animal;
-import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoRepository;
-import br.com.caiorodri.agendamentoveterinario.repository.AnimalRepository;
-import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
+import br.com.caiorodri.agendamentoveterinario.cluster.TravaTarefas;
+import br.com.caiorodri.agendamentoveterinario.service.TarefaService;
+import br.com.caiorodri.agendamentoveterinario.tarefa.NotificacaoConsultaTarefa;
 
 @Service
 public class NotificacaoScheduler {
 
     @Autowired
-    private AnimalRepository animalRepository;
+    private TarefaService tarefaService;
 
     @Autowired
-    private AgendamentoRepository agendamentoRepository;
+    private TravaTarefas travaTarefas;
 
-    @Autowired
-    private UsuarioRepository usuarioRepository;
-
-    @Autowired
-    private EmailSender emailService;
+    final static Logger logger = LoggerFactory.getLogger(NotificacaoScheduler.class);
 
+    /**
+     * Dispara a tarefa em lote que lembra os donos de animais sem consulta recente. Com várias
+     * instâncias, só a que obtiver a trava dispara; as partições são processadas por todas.
+     */
     @Scheduled(cron = "0 0 10 * * MON")
-    private void verificarAnimaisSemConsultaRecente() {
-
-        List<Animal> animais = animalRepository.findAll();
-
-        for(Animal animal : animais) {
-
-            Agendamento ultimaConsulta = agendamentoRepository.findUltimaConsultaByAnimal(animal.getId());
-
-            if(ultimaConsulta != null) {
-
-                if(!animal.getDono().isEmailRealizarConsultaRecebido() && animal.getDono().isReceberEmail()) {
-
-                    LocalDate dataUltimaConsulta = ultimaConsulta.getDataAgendamentoInicio().toLocalDate();
-                    LocalDate hoje = LocalDate.now();
-
-                    if (dataUltimaConsulta.isBefore(hoje.minusMonths(6))) {
-
-                        emailService.enviarInformacaoRealizarConsultaEmail(animal, ultimaConsulta);
-
-                        animal.getDono().setEmailRealizarConsultaRecebido(true);
-
-                        usuarioRepository.save(animal.getDono());
+    public void verificarAnimaisSemConsultaRecente() {
 
-                    }
+        try {
 
+            travaTarefas.executar(NotificacaoConsultaTarefa.NOME, Duration.ofMinutes(10), Duration.ofMinutes(10),
+                    () -> tarefaService.disparar(NotificacaoConsultaTarefa.NOME, "agendador"));
 
-                }
+        } catch (Exception e) {
 
-            }
+            logger.error("[verificarAnimaisSemConsultaRecente] - Erro ao disparar a notificação de consultas: {}", e.getMessage(), e);
 
         }
 
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package br.com.caiorodri.agendamentoveterinario.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.caiorodri.agendamentoveterinario.cluster.TravaTarefas;
+import br.com.caiorodri.agendamentoveterinario.service.RelatorioService;
+
+@Service
+public class RelatorioScheduler {
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private TravaTarefas travaTarefas;
+
+    @Value("${relatorios.compactacao.dias-anteriores:7}")
+    private int diasAnteriores;
+
+    @Value("${relatorios.compactacao.dias-posteriores:90}")
+    private int diasPosteriores;
+
+    final static Logger logger = LoggerFactory.getLogger(RelatorioScheduler.class);
+
+    /**
+     * Recalcula todas as noites o consolidado diário da janela em que os agendamentos ainda mudam,
+     * corrigindo eventuais diferenças das atualizações incrementais e descartando linhas zeradas.
+     * Com várias instâncias, roda só na que obtiver a trava.
+     */
+    @Scheduled(cron = "${relatorios.compactacao.cron:0 30 2 * * *}")
+    public void compactarConsolidado() {
+
+        LocalDate hoje = LocalDate.now();
+
+        try {
+
+            travaTarefas.executar("compactacao-relatorios", Duration.ofHours(1), Duration.ofMinutes(5),
+                    () -> relatorioService.compactar(hoje.minusDays(diasAnteriores), hoje.plusDays(diasPosteriores)));
+
+        } catch (Exception e) {
+
+            logger.error("[compactarConsolidado] - Erro ao compactar o consolidado diário: {}", e.getMessage(), e);
+
+        }
+
+    }
+
+}
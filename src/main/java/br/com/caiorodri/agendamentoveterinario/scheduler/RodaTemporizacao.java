@@ -0,0 +1,111 @@
+package br.com.caiorodri.agendamentoveterinario.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Roda de temporização (hashed timing wheel) para vencimentos curtos e numerosos. Cada casa da roda
+ * cobre um intervalo fixo de tempo; agendar e vencer custam O(1) por item, sem fila de prioridade
+ * nem uma tarefa agendada por item. Itens com vencimento além de uma volta completa ficam na casa
+ * e são reavaliados a cada volta.
+ *
+ * A roda não tem thread própria: quem a usa chama {@link #avancar(long)} periodicamente.
+ * Um item pode vencer com até uma casa de atraso, então o dono deve tratar como vencido qualquer
+ * valor cujo prazo já passou, mesmo que a roda ainda não o tenha devolvido.
+ *
+ * @param <T> Tipo do valor agendado.
+ */
+public class RodaTemporizacao<T> {
+
+    private final long duracaoCasaMillis;
+
+    private final Queue<Item<T>>[] casas;
+
+    private volatile long ultimaCasaProcessada;
+
+    /**
+     * @param duracaoCasaMillis Intervalo de tempo coberto por cada casa.
+     * @param quantidadeCasas Quantidade de casas da roda.
+     * @param agoraMillis Instante inicial, em milissegundos.
+     */
+    @SuppressWarnings("unchecked")
+    public RodaTemporizacao(long duracaoCasaMillis, int quantidadeCasas, long agoraMillis) {
+
+        if (duracaoCasaMillis <= 0 || quantidadeCasas <= 0) {
+            throw new IllegalArgumentException("A duração e a quantidade de casas devem ser positivas.");
+        }
+
+        this.duracaoCasaMillis = duracaoCasaMillis;
+        this.casas = new Queue[quantidadeCasas];
+
+        for (int i = 0; i < quantidadeCasas; i++) {
+            casas[i] = new ConcurrentLinkedQueue<>();
+        }
+
+        this.ultimaCasaProcessada = agoraMillis / duracaoCasaMillis;
+
+    }
+
+    /**
+     * Agenda um valor para vencer no instante informado.
+     *
+     * @param valor Valor agendado.
+     * @param vencimentoMillis Instante de vencimento, em milissegundos.
+     */
+    public void agendar(T valor, long vencimentoMillis) {
+
+        long casa = Math.max(vencimentoMillis / duracaoCasaMillis, ultimaCasaProcessada + 1);
+
+        casas[indice(casa)].add(new Item<>(valor, vencimentoMillis));
+
+    }
+
+    /**
+     * Percorre as casas entre a última processada e o instante atual e devolve os valores vencidos.
+     *
+     * @param agoraMillis Instante atual, em milissegundos.
+     * @return List com os valores vencidos, na ordem das casas.
+     */
+    public synchronized List<T> avancar(long agoraMillis) {
+
+        long casaAtual = agoraMillis / duracaoCasaMillis;
+        long primeiraCasa = Math.max(ultimaCasaProcessada + 1, casaAtual - casas.length + 1);
+
+        List<T> vencidos = new ArrayList<>();
+
+        for (long casa = primeiraCasa; casa <= casaAtual; casa++) {
+
+            Queue<Item<T>> fila = casas[indice(casa)];
+            List<Item<T>> pendentes = new ArrayList<>();
+
+            for (Item<T> item = fila.poll(); item != null; item = fila.poll()) {
+
+                if (item.vencimentoMillis() <= agoraMillis) {
+                    vencidos.add(item.valor());
+                } else {
+                    pendentes.add(item);
+                }
+            }
+
+            fila.addAll(pendentes);
+
+        }
+
+        ultimaCasaProcessada = Math.max(ultimaCasaProcessada, casaAtual);
+
+        return vencidos;
+
+    }
+
+    private int indice(long casa) {
+
+        return (int) Math.floorMod(casa, (long) casas.length);
+
+    }
+
+    private record Item<T>(T valor, long vencimentoMillis) {
+    }
+
+}
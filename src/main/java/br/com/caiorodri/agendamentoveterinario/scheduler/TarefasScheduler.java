@@ -0,0 +1,38 @@
+package br.com.caiorodri.agendamentoveterinario.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.caiorodri.agendamentoveterinario.service.TarefaService;
+
+@Service
+public class TarefasScheduler {
+
+    @Autowired
+    private TarefaService tarefaService;
+
+    final static Logger logger = LoggerFactory.getLogger(TarefasScheduler.class);
+
+    /**
+     * Assume as partições pendentes e as abandonadas por instâncias que pararam, inclusive as desta
+     * instância antes de reiniciar.
+     */
+    @Scheduled(fixedDelayString = "${tarefas.intervalo-verificacao-ms:5000}")
+    public void iniciarParticoes() {
+
+        try {
+
+            tarefaService.iniciarParticoes();
+
+        } catch (Exception e) {
+
+            logger.error("[iniciarParticoes] - Erro ao iniciar as partições das tarefas: {}", e.getMessage(), e);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,40 @@
+package br.com.caiorodri.agendamentoveterinario.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.caiorodri.agendamentoveterinario.config.BancoProperties;
+import br.com.caiorodri.agendamentoveterinario.config.RoteamentoDataSource;
+
+@Service
+@ConditionalOnProperty(name = "banco.replicas[0].url")
+public class VerificacaoReplicasScheduler {
+
+    @Autowired
+    private RoteamentoDataSource roteamentoDataSource;
+
+    @Autowired
+    private BancoProperties bancoProperties;
+
+    final static Logger logger = LoggerFactory.getLogger(VerificacaoReplicasScheduler.class);
+
+    @Scheduled(fixedDelayString = "${banco.intervalo-verificacao-ms:10000}")
+    public void verificarReplicas() {
+
+        try {
+
+            roteamentoDataSource.verificarReplicas(bancoProperties.getTimeoutVerificacaoSegundos());
+
+        } catch (Exception e) {
+
+            logger.error("[verificarReplicas] - Erro ao verificar as réplicas de leitura: {}", e.getMessage(), e);
+
+        }
+
+    }
+
+}
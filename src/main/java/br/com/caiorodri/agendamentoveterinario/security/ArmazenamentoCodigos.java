@@ -0,0 +1,46 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Códigos de recuperação de senha pendentes, no máximo um por usuário. Recebe só o hash do código,
+ * nunca o código enviado por e-mail (ver {@link CodigosRecuperacao}).
+ */
+public interface ArmazenamentoCodigos {
+
+    /**
+     * Guarda o código do usuário, substituindo o anterior e zerando as tentativas.
+     *
+     * @param idUsuario ID do usuário.
+     * @param hash Hash do código.
+     * @param validade Tempo até o código vencer.
+     * @return false se não houver espaço para mais um código.
+     */
+    boolean guardar(Long idUsuario, String hash, Duration validade);
+
+    /**
+     * Conta uma tentativa de validação do código do usuário.
+     *
+     * @param idUsuario ID do usuário.
+     * @param maximoTentativas Tentativas permitidas por código.
+     * @return Hash do código, ou vazio se o usuário não tiver código, se ele tiver vencido ou se as
+     *         tentativas já tiverem se esgotado.
+     */
+    Optional<String> registrarTentativa(Long idUsuario, int maximoTentativas);
+
+    /**
+     * Remove o código do usuário se ele ainda for o do hash informado, para que um código novo pedido
+     * nesse meio tempo continue valendo.
+     *
+     * @param idUsuario ID do usuário.
+     * @param hash Hash do código a remover.
+     */
+    void remover(Long idUsuario, String hash);
+
+    /**
+     * @return Quantidade de códigos vencidos removidos.
+     */
+    int removerVencidos();
+
+}
@@ -0,0 +1,96 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Códigos pendentes na tabela codigo_recuperacao, uma linha por usuário, para quando a aplicação tem
+ * várias instâncias e a validação pode chegar a uma instância diferente da que enviou o código.
+ *
+ * Como em TravaTarefas, o vencimento usa o relógio do banco e os comandos são executados fora de
+ * transação. A tentativa é contada por um UPDATE condicionado ao limite antes de o hash ser lido, então
+ * tentativas simultâneas não passam do limite.
+ */
+public class ArmazenamentoCodigosBanco implements ArmazenamentoCodigos {
+
+    private static final String SQL_SUBSTITUIR =
+            "UPDATE codigo_recuperacao SET hash_codigo = ?, expiracao = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP), tentativas = 0 " +
+            "WHERE id_usuario = ?";
+
+    private static final String SQL_INSERIR =
+            "INSERT INTO codigo_recuperacao (id_usuario, hash_codigo, expiracao, tentativas) " +
+            "VALUES (?, ?, TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP), 0)";
+
+    private static final String SQL_CONTAR_TENTATIVA =
+            "UPDATE codigo_recuperacao SET tentativas = tentativas + 1 " +
+            "WHERE id_usuario = ? AND tentativas < ? AND expiracao > CURRENT_TIMESTAMP";
+
+    private static final String SQL_HASH = "SELECT hash_codigo FROM codigo_recuperacao WHERE id_usuario = ?";
+
+    private static final String SQL_REMOVER = "DELETE FROM codigo_recuperacao WHERE id_usuario = ? AND hash_codigo = ?";
+
+    private static final String SQL_REMOVER_VENCIDOS = "DELETE FROM codigo_recuperacao WHERE expiracao <= CURRENT_TIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param jdbcTemplate Acesso ao banco compartilhado pelas instâncias.
+     */
+    public ArmazenamentoCodigosBanco(JdbcTemplate jdbcTemplate) {
+
+        this.jdbcTemplate = jdbcTemplate;
+
+    }
+
+    @Override
+    public boolean guardar(Long idUsuario, String hash, Duration validade) {
+
+        if (jdbcTemplate.update(SQL_SUBSTITUIR, hash, validade.toSeconds(), idUsuario) == 1) {
+            return true;
+        }
+
+        try {
+
+            return jdbcTemplate.update(SQL_INSERIR, idUsuario, hash, validade.toSeconds()) == 1;
+
+        } catch (DuplicateKeyException e) {
+
+            // Outro pedido do mesmo usuário inseriu a linha entre o UPDATE e o INSERT.
+            return jdbcTemplate.update(SQL_SUBSTITUIR, hash, validade.toSeconds(), idUsuario) == 1;
+
+        }
+
+    }
+
+    @Override
+    public Optional<String> registrarTentativa(Long idUsuario, int maximoTentativas) {
+
+        if (jdbcTemplate.update(SQL_CONTAR_TENTATIVA, idUsuario, maximoTentativas) == 0) {
+            return Optional.empty();
+        }
+
+        List<String> hashes = jdbcTemplate.queryForList(SQL_HASH, String.class, idUsuario);
+
+        return hashes.stream().findFirst();
+
+    }
+
+    @Override
+    public void remover(Long idUsuario, String hash) {
+
+        jdbcTemplate.update(SQL_REMOVER, idUsuario, hash);
+
+    }
+
+    @Override
+    public int removerVencidos() {
+
+        return jdbcTemplate.update(SQL_REMOVER_VENCIDOS);
+
+    }
+
+}
@@ -0,0 +1,94 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Códigos pendentes em memória, válidos só na instância que os gerou. A quantidade de códigos é
+ * limitada: quando o limite é atingido, os vencidos são descartados na hora e, se ainda assim não
+ * houver espaço, códigos de novos usuários são recusados até que algum vença ou seja usado.
+ * Códigos com as tentativas esgotadas são descartados na tentativa seguinte.
+ */
+public class ArmazenamentoCodigosMemoria implements ArmazenamentoCodigos {
+
+    private final Map<Long, Registro> codigos = new ConcurrentHashMap<>();
+
+    private final int maximoCodigos;
+
+    private final Clock relogio;
+
+    /**
+     * @param maximoCodigos Quantidade máxima de códigos pendentes.
+     * @param relogio Relógio usado para o vencimento.
+     */
+    public ArmazenamentoCodigosMemoria(int maximoCodigos, Clock relogio) {
+
+        this.maximoCodigos = maximoCodigos;
+        this.relogio = relogio;
+
+    }
+
+    @Override
+    public boolean guardar(Long idUsuario, String hash, Duration validade) {
+
+        if (!codigos.containsKey(idUsuario) && codigos.size() >= maximoCodigos) {
+
+            removerVencidos();
+
+            if (codigos.size() >= maximoCodigos) {
+                return false;
+            }
+        }
+
+        codigos.put(idUsuario, new Registro(hash, relogio.instant().plus(validade), 0));
+
+        return true;
+
+    }
+
+    @Override
+    public Optional<String> registrarTentativa(Long idUsuario, int maximoTentativas) {
+
+        Instant agora = relogio.instant();
+
+        Registro registro = codigos.computeIfPresent(idUsuario, (id, atual) ->
+                atual.expiracao().isAfter(agora) && atual.tentativas() < maximoTentativas ? atual.comTentativa() : null);
+
+        return Optional.ofNullable(registro).map(Registro::hash);
+
+    }
+
+    @Override
+    public void remover(Long idUsuario, String hash) {
+
+        codigos.computeIfPresent(idUsuario, (id, atual) -> atual.hash().equals(hash) ? null : atual);
+
+    }
+
+    @Override
+    public int removerVencidos() {
+
+        Instant agora = relogio.instant();
+        int antes = codigos.size();
+
+        codigos.values().removeIf(registro -> !registro.expiracao().isAfter(agora));
+
+        return Math.max(0, antes - codigos.size());
+
+    }
+
+    private record Registro(String hash, Instant expiracao, int tentativas) {
+
+        Registro comTentativa() {
+
+            return new Registro(hash, expiracao, tentativas + 1);
+
+        }
+
+    }
+
+}
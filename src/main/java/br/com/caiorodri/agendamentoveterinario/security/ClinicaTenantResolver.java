@@ -0,0 +1,39 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Informa ao Hibernate a clínica das sessões abertas na thread atual. Registrado pela propriedade
+ * hibernate.tenant_identifier_resolver, então funciona também nos testes de repositório.
+ *
+ * Sem clínica definida, a sessão usa TODAS, que o Hibernate trata como raiz: as consultas não são
+ * filtradas e as inserções mantêm o id_clinica preenchido na entidade.
+ */
+public class ClinicaTenantResolver implements CurrentTenantIdentifierResolver<Long> {
+
+    public static final Long TODAS = -1L;
+
+    @Override
+    public Long resolveCurrentTenantIdentifier() {
+
+        Long idClinica = ContextoClinica.atual();
+
+        return idClinica != null ? idClinica : TODAS;
+
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+
+        return false;
+
+    }
+
+    @Override
+    public boolean isRoot(Long idClinica) {
+
+        return TODAS.equals(idClinica);
+
+    }
+
+}
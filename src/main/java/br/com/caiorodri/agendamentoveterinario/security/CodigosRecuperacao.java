@@ -0,0 +1,155 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Códigos de recuperação de senha, sem passar pelo cadastro do usuário. O código de 5 dígitos é
+ * sorteado com SecureRandom e só o seu HMAC-SHA256 (chave secreta da aplicação, ID do usuário e código)
+ * é guardado, então quem ler o armazenamento não consegue testar os códigos por força bruta sem a chave.
+ * Cada código tem validade e um número máximo de tentativas e vale uma única vez.
+ */
+public class CodigosRecuperacao {
+
+    private static final int MENOR_CODIGO = 10000;
+
+    private static final int MAIOR_CODIGO = 100000;
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final ArmazenamentoCodigos armazenamento;
+
+    private final SecretKeySpec chave;
+
+    private final Duration validade;
+
+    private final int maximoTentativas;
+
+    final static Logger logger = LoggerFactory.getLogger(CodigosRecuperacao.class);
+
+    /**
+     * @param armazenamento Onde ficam os códigos pendentes.
+     * @param segredo Chave do HMAC; precisa ser a mesma em todas as instâncias que dividem o armazenamento.
+     * @param validade Tempo até o código vencer.
+     * @param maximoTentativas Tentativas de validação permitidas por código.
+     */
+    public CodigosRecuperacao(ArmazenamentoCodigos armazenamento, String segredo, Duration validade, int maximoTentativas) {
+
+        this.armazenamento = armazenamento;
+        this.chave = new SecretKeySpec(segredo.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+        this.validade = validade;
+        this.maximoTentativas = maximoTentativas;
+
+    }
+
+    /**
+     * Gera um código para o usuário, invalidando o anterior.
+     *
+     * @param idUsuario ID do usuário.
+     * @return Código a enviar, ou vazio se o armazenamento estiver cheio.
+     */
+    public Optional<String> gerar(Long idUsuario) {
+
+        String codigo = String.valueOf(random.nextInt(MENOR_CODIGO, MAIOR_CODIGO));
+
+        if (!armazenamento.guardar(idUsuario, hash(idUsuario, codigo), validade)) {
+
+            logger.warn("[gerar] - Limite de códigos de recuperação pendentes atingido");
+
+            return Optional.empty();
+
+        }
+
+        return Optional.of(codigo);
+
+    }
+
+    /**
+     * Valida o código do usuário. Um código correto é descartado, e cada chamada conta como tentativa.
+     *
+     * @param idUsuario ID do usuário.
+     * @param codigo Código informado.
+     * @return true se o código for o último gerado para o usuário, não tiver vencido nem esgotado as tentativas.
+     */
+    public boolean validar(Long idUsuario, String codigo) {
+
+        if (idUsuario == null || codigo == null) {
+            return false;
+        }
+
+        Optional<String> esperado = armazenamento.registrarTentativa(idUsuario, maximoTentativas);
+
+        if (esperado.isEmpty()) {
+            return false;
+        }
+
+        String informado = hash(idUsuario, codigo);
+
+        if (!MessageDigest.isEqual(informado.getBytes(StandardCharsets.US_ASCII), esperado.get().getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+
+        armazenamento.remover(idUsuario, informado);
+
+        return true;
+
+    }
+
+    /**
+     * Descarta um código gerado que não chegou ao usuário.
+     *
+     * @param idUsuario ID do usuário.
+     * @param codigo Código gerado.
+     */
+    public void descartar(Long idUsuario, String codigo) {
+
+        armazenamento.remover(idUsuario, hash(idUsuario, codigo));
+
+    }
+
+    /**
+     * Remove os códigos vencidos.
+     */
+    @Scheduled(fixedDelayString = "${recuperacao-senha.intervalo-limpeza-ms:60000}")
+    public void removerVencidos() {
+
+        int removidos = armazenamento.removerVencidos();
+
+        if (removidos > 0) {
+            logger.debug("[removerVencidos] - {} códigos de recuperação vencidos", removidos);
+        }
+
+    }
+
+    private String hash(Long idUsuario, String codigo) {
+
+        try {
+
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+
+            return HexFormat.of().formatHex(mac.doFinal((idUsuario + ":" + codigo).getBytes(StandardCharsets.UTF_8)));
+
+        } catch (GeneralSecurityException e) {
+
+            throw new IllegalStateException("HmacSHA256 indisponível", e);
+
+        }
+
+    }
+
+}
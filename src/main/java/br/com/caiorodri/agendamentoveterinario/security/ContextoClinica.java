@@ -0,0 +1,84 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+/**
+ * Clínica da requisição em andamento, definida pelo SecurityFilter a partir do token (ou do cabeçalho
+ * X-Clinica nas rotas públicas) e usada pelo Hibernate para filtrar as entidades com @TenantId.
+ *
+ * Fora de uma requisição (tarefas agendadas, carga dos índices na inicialização) não há clínica
+ * definida e as consultas enxergam todas as clínicas. Os executores copiam a clínica da thread que
+ * submeteu a tarefa (ver ExecutorConfig).
+ */
+public final class ContextoClinica {
+
+    private static final ThreadLocal<Long> CLINICA = new ThreadLocal<>();
+
+    private ContextoClinica() {
+    }
+
+    /**
+     * @return ID da clínica atual ou null fora de uma requisição.
+     */
+    public static Long atual() {
+
+        return CLINICA.get();
+
+    }
+
+    /**
+     * @return ID da clínica atual.
+     * @throws IllegalStateException se não houver clínica definida.
+     */
+    public static Long exigir() {
+
+        Long idClinica = CLINICA.get();
+
+        if (idClinica == null) {
+            throw new IllegalStateException("Nenhuma clínica definida para a operação.");
+        }
+
+        return idClinica;
+
+    }
+
+    public static void definir(Long idClinica) {
+
+        if (idClinica == null) {
+            CLINICA.remove();
+        } else {
+            CLINICA.set(idClinica);
+        }
+
+    }
+
+    public static void limpar() {
+
+        CLINICA.remove();
+
+    }
+
+    /**
+     * Envolve a tarefa para que ela rode, em outra thread, na clínica da thread atual.
+     *
+     * @param tarefa Tarefa a ser executada.
+     * @return Tarefa que define e depois restaura a clínica da thread que a executar.
+     */
+    public static Runnable propagar(Runnable tarefa) {
+
+        Long idClinica = CLINICA.get();
+
+        return () -> {
+
+            Long anterior = CLINICA.get();
+            definir(idClinica);
+
+            try {
+                tarefa.run();
+            } finally {
+                definir(anterior);
+            }
+
+        };
+
+    }
+
+}
@@ -0,0 +1,108 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.caiorodri.agendamentoveterinario.exception.LimiteRequisicoesExcedidoException;
+
+/**
+ * PasswordEncoder que executa o hash das senhas em um pool de threads próprio e limita quantas
+ * operações podem aguardar por ele. Assim um pico de logins ocupa no máximo as threads desse pool,
+ * em vez de todas as threads do Tomcat, e quem passa do limite recebe 429 imediatamente.
+ */
+public class LimitadorPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final ExecutorService executor;
+
+    private final Semaphore permissoes;
+
+    private final long esperaMaximaMillis;
+
+    final static Logger logger = LoggerFactory.getLogger(LimitadorPasswordEncoder.class);
+
+    /**
+     * @param delegate Encoder que faz o hash de fato.
+     * @param executor Pool dedicado, com número fixo de threads.
+     * @param maximoPendentes Máximo de operações em execução ou aguardando o pool.
+     * @param esperaMaximaMillis Tempo máximo de espera por uma vaga antes de recusar com 429.
+     */
+    public LimitadorPasswordEncoder(PasswordEncoder delegate, ExecutorService executor, int maximoPendentes, long esperaMaximaMillis) {
+
+        this.delegate = delegate;
+        this.executor = executor;
+        this.permissoes = new Semaphore(maximoPendentes);
+        this.esperaMaximaMillis = esperaMaximaMillis;
+
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+
+        return executar(() -> delegate.encode(senha));
+
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String senhaCriptografada) {
+
+        return executar(() -> delegate.matches(senha, senhaCriptografada));
+
+    }
+
+    @Override
+    public boolean upgradeEncoding(String senhaCriptografada) {
+
+        return delegate.upgradeEncoding(senhaCriptografada);
+
+    }
+
+    private <T> T executar(Callable<T> operacao) {
+
+        boolean adquirida = false;
+
+        try {
+
+            adquirida = permissoes.tryAcquire(esperaMaximaMillis, TimeUnit.MILLISECONDS);
+
+            if (!adquirida) {
+
+                logger.warn("[executar] - Limite de operações de senha simultâneas atingido");
+                throw new LimiteRequisicoesExcedidoException("Muitas requisições de autenticação no momento. Tente novamente em instantes.", 1);
+
+            }
+
+            return executor.submit(operacao).get();
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Operação de senha interrompida.", e);
+
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+
+            throw new IllegalStateException("Erro ao processar a senha.", e.getCause());
+
+        } finally {
+
+            if (adquirida) {
+                permissoes.release();
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,143 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.caiorodri.agendamentoveterinario.config.LimiteRequisicoesProperties;
+import br.com.caiorodri.agendamentoveterinario.exception.LimiteRequisicoesExcedidoException;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Mantém um token bucket por (política, chave) e decide se uma requisição pode seguir.
+ * A memória é limitada por política: quando o limite de chaves é atingido, os baldes já cheios são
+ * descartados (equivalem a baldes novos); se ainda assim não houver espaço, as chaves novas passam a
+ * dividir um balde de excedente da política até a próxima limpeza.
+ */
+@Component
+public class LimitadorRequisicoes {
+
+    @Autowired
+    private LimiteRequisicoesProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Map<String, TokenBucket>> baldes = new ConcurrentHashMap<>();
+
+    private final Map<String, TokenBucket> baldesExcedentes = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean limpando = new AtomicBoolean(false);
+
+    final static Logger logger = LoggerFactory.getLogger(LimitadorRequisicoes.class);
+
+    /**
+     * Consome uma ficha do balde da chave na política informada.
+     *
+     * @param politica Nome da política configurada em limite-requisicoes.politicas.
+     * @param chave Chave limitada (IP, e-mail, id do usuário).
+     * @throws LimiteRequisicoesExcedidoException se o balde estiver vazio.
+     */
+    public void verificar(String politica, String chave) {
+
+        LimiteRequisicoesProperties.Politica configuracao = properties.getPoliticas().get(politica);
+
+        if (!properties.isHabilitado() || configuracao == null || chave == null) {
+            return;
+        }
+
+        long agora = System.nanoTime();
+        long espera = recuperarBalde(politica, chave, configuracao, agora).consumir(agora);
+
+        if (espera > 0) {
+
+            meterRegistry.counter("limite_requisicoes.rejeitadas", "politica", politica).increment();
+
+            logger.warn("[verificar] - Requisição recusada pela política {}", politica);
+
+            throw new LimiteRequisicoesExcedidoException("Muitas tentativas. Tente novamente mais tarde.", Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera) + 1));
+
+        }
+
+    }
+
+    private TokenBucket recuperarBalde(String politica, String chave, LimiteRequisicoesProperties.Politica configuracao, long agora) {
+
+        Map<String, TokenBucket> baldesPolitica = baldes.computeIfAbsent(politica, p -> new ConcurrentHashMap<>());
+
+        TokenBucket balde = baldesPolitica.get(chave);
+
+        if (balde != null) {
+            return balde;
+        }
+
+        if (baldesPolitica.size() >= properties.getMaximoChaves()) {
+
+            limpar(agora);
+
+            if (baldesPolitica.size() >= properties.getMaximoChaves()) {
+                return baldesExcedentes.computeIfAbsent(politica, p -> novoBalde(configuracao, agora));
+            }
+        }
+
+        return baldesPolitica.computeIfAbsent(chave, c -> novoBalde(configuracao, agora));
+
+    }
+
+    private TokenBucket novoBalde(LimiteRequisicoesProperties.Politica configuracao, long agora) {
+
+        long intervalo = TimeUnit.MINUTES.toNanos(1) / Math.max(1, configuracao.getReposicaoPorMinuto());
+
+        return new TokenBucket(configuracao.getCapacidade(), intervalo, agora);
+
+    }
+
+    /**
+     * Remove os baldes que já se reabasteceram por completo. Roda periodicamente e também sob demanda
+     * quando alguma política atinge o limite de chaves.
+     */
+    @Scheduled(fixedDelayString = "${limite-requisicoes.intervalo-limpeza-ms:60000}")
+    public void limparBaldesCheios() {
+
+        limpar(System.nanoTime());
+
+    }
+
+    private void limpar(long agora) {
+
+        if (!limpando.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+
+            int removidos = 0;
+
+            for (Map<String, TokenBucket> baldesPolitica : baldes.values()) {
+
+                int antes = baldesPolitica.size();
+                baldesPolitica.values().removeIf(balde -> balde.cheio(agora));
+                removidos += antes - baldesPolitica.size();
+
+            }
+
+            if (removidos > 0) {
+                logger.info("[limpar] - {} baldes cheios descartados", removidos);
+            }
+
+        } finally {
+
+            limpando.set(false);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import br.com.caiorodri.agendamentoveterinario.config.LimiteRequisicoesProperties;
+import br.com.caiorodri.agendamentoveterinario.exception.LimiteRequisicoesExcedidoException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aplica os limites de requisição nos endpoints públicos de autenticação e recuperação de senha,
+ * antes de qualquer consulta ao banco ou envio de e-mail. O limite por e-mail do login é aplicado
+ * no controller, que é onde o corpo da requisição já foi lido.
+ */
+@Component
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+    private static final Pattern RECUPERAR_SENHA = Pattern.compile("^/usuarios/recuperar-senha/([^/]+)/?$");
+
+    private static final Pattern VALIDAR_CODIGO = Pattern.compile("^/usuarios/([^/]+)/validar-codigo/[^/]+/?$");
+
+    @Autowired
+    private LimitadorRequisicoes limitadorRequisicoes;
+
+    @Autowired
+    private LimiteRequisicoesProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        try {
+
+            verificar(request);
+
+        } catch (LimiteRequisicoesExcedidoException e) {
+
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosParaNovaTentativa()));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(e.getMessage());
+            return;
+
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void verificar(HttpServletRequest request) {
+
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        String metodo = request.getMethod();
+
+        if ("POST".equals(metodo) && caminho.matches("^/usuarios/autenticar/?$")) {
+
+            limitadorRequisicoes.verificar("autenticar-ip", recuperarIp(request));
+            return;
+
+        }
+
+        if (!"GET".equals(metodo)) {
+            return;
+        }
+
+        Matcher recuperarSenha = RECUPERAR_SENHA.matcher(caminho);
+
+        if (recuperarSenha.matches()) {
+
+            limitadorRequisicoes.verificar("recuperar-senha-ip", recuperarIp(request));
+            limitadorRequisicoes.verificar("recuperar-senha-email", URLDecoder.decode(recuperarSenha.group(1), StandardCharsets.UTF_8).toLowerCase());
+            return;
+
+        }
+
+        Matcher validarCodigo = VALIDAR_CODIGO.matcher(caminho);
+
+        if (validarCodigo.matches()) {
+
+            limitadorRequisicoes.verificar("validar-codigo-ip", recuperarIp(request));
+            limitadorRequisicoes.verificar("validar-codigo-usuario", validarCodigo.group(1));
+
+        }
+    }
+
+    private String recuperarIp(HttpServletRequest request) {
+
+        if (properties.isUsarXForwardedFor()) {
+
+            String encaminhado = request.getHeader("X-Forwarded-For");
+
+            if (encaminhado != null && !encaminhado.isBlank()) {
+                return encaminhado.split(",")[0].trim();
+            }
+        }
+
+        return request.getRemoteAddr();
+    }
+}
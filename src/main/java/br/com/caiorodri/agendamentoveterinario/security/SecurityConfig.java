@@ -1,8 +1,12 @@
 package br.com.caiorodri.agendamentoveterinario.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -11,10 +15,14 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -23,12 +31,26 @@ public class SecurityConfig {
     @Autowired
     private SecurityFilter securityFilter;
 
+    @Autowired
+    private LimiteRequisicoesFilter limiteRequisicoesFilter;
+
+    @Value("${seguranca.senha.custo:10}")
+    private int custoSenha;
+
+    @Value("${seguranca.senha.maximo-pendentes:64}")
+    private int maximoPendentesSenha;
+
+    @Value("${seguranca.senha.espera-maxima-ms:2000}")
+    private long esperaMaximaSenhaMillis;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .headers(headers -> headers.cacheControl(cacheControl -> cacheControl.disable()))
                 .authorizeHttpRequests(authorize -> authorize
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
@@ -41,6 +63,7 @@ public class SecurityConfig {
                         .requestMatchers("/usuarios/recuperar-senha/**").permitAll()
                         .anyRequest().authenticated()
                 )
+                .addFilterBefore(limiteRequisicoesFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
@@ -50,8 +73,37 @@ public class SecurityConfig {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    /**
+     * Novos hashes são gravados como {bcrypt} com o custo configurado. Hashes antigos, sem prefixo ou
+     * com custo menor, continuam válidos e são regravados no próximo login (ver CustomUserDetailsService).
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Primary
+    public PasswordEncoder passwordEncoder(@Qualifier("executorSenhas") ThreadPoolTaskExecutor executorSenhas) {
+
+        return new LimitadorPasswordEncoder(criarCodificadorSenhas(), executorSenhas.getThreadPoolExecutor(), maximoPendentesSenha, esperaMaximaSenhaMillis);
+
+    }
+
+    /**
+     * Mesmo formato de hash, sem o limitador: para hashes em massa que já rodam em um pool próprio
+     * (importação de clientes) e não devem ocupar as vagas do login nem ser recusados com 429.
+     */
+    @Bean(name = "codificadorSenhasLote")
+    public PasswordEncoder codificadorSenhasLote() {
+
+        return criarCodificadorSenhas();
+
+    }
+
+    private PasswordEncoder criarCodificadorSenhas() {
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(custoSenha);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return delegating;
+
     }
 }
\ No newline at end of file
@@ -2,50 +2,121 @@ package br.com.caiorodri.agendamentoveterinario.security;
 
 import br.com.caiorodri.agendamentoveterinario.model.Usuario;
 import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
+    /** Clínica das requisições sem token (cadastro, login e recuperação de senha). */
+    public static final String CABECALHO_CLINICA = "X-Clinica";
+
+    private static final Pattern AUTENTICAR = Pattern.compile("^/usuarios/autenticar/?$");
+
+    private static final Pattern RECUPERAR_SENHA = Pattern.compile("^/usuarios/recuperar-senha/([^/]+)/?$");
+
     @Autowired
     TokenService tokenService;
 
     @Autowired
     UsuarioRepository usuarioRepository;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${clinicas.padrao:1}")
+    Long idClinicaPadrao;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException
 
     {
-        var token = this.recoverToken(request);
-        if (token != null) {
-            var email = tokenService.validateToken(token);
-            Usuario user = usuarioRepository.findByEmailWithSets(email).orElse(null);
+        try {
+
+            var token = this.recoverToken(request);
+            if (token != null) {
+                DecodedJWT jwt = tokenService.validateToken(token);
+                Long idClinica = jwt.getClaim(TokenService.CLAIM_CLINICA).asLong();
+
+                // O usuário é buscado já dentro da clínica do token.
+                ContextoClinica.definir(idClinica != null ? idClinica : idClinicaPadrao);
+
+                Usuario user = usuarioRepository.findByEmailWithSets(jwt.getSubject()).orElse(null);
+
+                if (user != null) {
+
+                    Optional<Usuario> userWithAgendamentos = usuarioRepository.findByIdWithAgendamentos(user.getId());
+
+                    if (userWithAgendamentos.isPresent()) {
+                        user.setAgendamentos(userWithAgendamentos.get().getAgendamentos());
+                    }
 
-            if (user != null) {
+                    var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+            } else {
+                // Login e recuperação de senha são pelo e-mail, único entre as clínicas: a clínica é a do
+                // dono do e-mail, e não a do cabeçalho. Precisa ser definida aqui, antes de a sessão do
+                // Hibernate da requisição (open-in-view) ser aberta com a clínica fixada.
+                String email = null;
+
+                if ("POST".equals(request.getMethod()) && AUTENTICAR.matcher(caminho(request)).matches()) {
+                    CorpoEmCache corpoEmCache = new CorpoEmCache(request);
+                    request = corpoEmCache;
+                    email = corpoEmCache.lerEmail(objectMapper);
+                } else if ("GET".equals(request.getMethod())) {
+                    Matcher recuperarSenha = RECUPERAR_SENHA.matcher(caminho(request));
+                    if (recuperarSenha.matches()) {
+                        email = URLDecoder.decode(recuperarSenha.group(1), StandardCharsets.UTF_8);
+                    }
+                }
 
-                Optional<Usuario> userWithAgendamentos = usuarioRepository.findByIdWithAgendamentos(user.getId());
+                Long idClinica = email != null ? usuarioRepository.findIdClinicaByEmailTodasClinicas(email).orElse(null) : null;
 
-                if (userWithAgendamentos.isPresent()) {
-                    user.setAgendamentos(userWithAgendamentos.get().getAgendamentos());
+                if (idClinica == null) {
+                    idClinica = this.recoverClinica(request);
                 }
 
-                var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (idClinica == null) {
+                    response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Cabeçalho " + CABECALHO_CLINICA + " inválido.");
+                    return;
+                }
+
+                ContextoClinica.definir(idClinica);
             }
+            filterChain.doFilter(request, response);
+
+        } finally {
+            ContextoClinica.limpar();
         }
-        filterChain.doFilter(request, response);
+    }
+
+    private String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
     }
 
     private String recoverToken(HttpServletRequest request) {
@@ -53,4 +124,76 @@ public class SecurityFilter extends OncePerRequestFilter {
         if (authHeader == null) return null;
         return authHeader.replace("Bearer ", "");
     }
-}
\ No newline at end of file
+
+    private Long recoverClinica(HttpServletRequest request) {
+        var clinicaHeader = request.getHeader(CABECALHO_CLINICA);
+        if (clinicaHeader == null || clinicaHeader.isBlank()) return idClinicaPadrao;
+        try {
+            return Long.valueOf(clinicaHeader.strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Guarda o corpo do login, lido aqui para descobrir o e-mail, e o entrega de novo ao controller.
+     */
+    private static class CorpoEmCache extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        CorpoEmCache(HttpServletRequest request) throws IOException {
+            super(request);
+            this.corpo = request.getInputStream().readAllBytes();
+        }
+
+        String lerEmail(ObjectMapper objectMapper) {
+            try {
+                JsonNode email = objectMapper.readTree(corpo).get("email");
+                return email != null && email.isTextual() ? email.asText() : null;
+            } catch (IOException e) {
+                // Corpo inválido: o controller responde com o erro.
+                return null;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+
+            return new ServletInputStream() {
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
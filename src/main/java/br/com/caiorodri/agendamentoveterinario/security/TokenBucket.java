@@ -0,0 +1,67 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem lock. Em vez de guardar a quantidade de fichas, guarda o instante teórico
+ * (em nanos) em que o balde estaria cheio de novo; consumir uma ficha é empurrar esse instante em
+ * um intervalo de reposição, feito com compareAndSet. Um balde cujo instante já passou está cheio
+ * e é indistinguível de um balde novo, o que permite descartá-lo sem perder informação.
+ */
+public class TokenBucket {
+
+    private final AtomicLong cheioEm;
+
+    private final long intervaloNanos;
+
+    private final long toleranciaNanos;
+
+    /**
+     * @param capacidade Quantidade máxima de fichas (rajada permitida).
+     * @param intervaloNanos Tempo para repor uma ficha.
+     * @param agora Instante atual em nanos.
+     */
+    public TokenBucket(int capacidade, long intervaloNanos, long agora) {
+
+        this.intervaloNanos = intervaloNanos;
+        this.toleranciaNanos = intervaloNanos * capacidade;
+        this.cheioEm = new AtomicLong(agora);
+
+    }
+
+    /**
+     * Tenta consumir uma ficha.
+     *
+     * @param agora Instante atual em nanos.
+     * @return 0 se a ficha foi consumida, ou quantos nanos faltam para a próxima ficha.
+     */
+    public long consumir(long agora) {
+
+        while (true) {
+
+            long atual = cheioEm.get();
+            long novo = Math.max(atual, agora) + intervaloNanos;
+            long excesso = novo - agora - toleranciaNanos;
+
+            if (excesso > 0) {
+                return excesso;
+            }
+
+            if (cheioEm.compareAndSet(atual, novo)) {
+                return 0;
+            }
+        }
+
+    }
+
+    /**
+     * @param agora Instante atual em nanos.
+     * @return true se o balde já se reabasteceu por completo.
+     */
+    public boolean cheio(long agora) {
+
+        return cheioEm.get() <= agora;
+
+    }
+
+}
@@ -6,6 +6,7 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,6 +23,9 @@ public class TokenService {
     @Value("${jwt.expiration}")
     private long  expiration;
 
+    /** Clínica do usuário; define a clínica das requisições feitas com o token. */
+    public static final String CLAIM_CLINICA = "clinica";
+
     final static Logger logger = LoggerFactory.getLogger(TokenService.class);
 
 
@@ -34,6 +38,7 @@ public class TokenService {
             String token = JWT.create()
                     .withIssuer("agendamento-veterinario-api")
                     .withSubject(usuario.getEmail())
+                    .withClaim(CLAIM_CLINICA, usuario.getIdClinica())
                     .withExpiresAt(genExpirationDate())
                     .sign(algorithm);
 
@@ -47,7 +52,7 @@ public class TokenService {
         }
     }
 
-    public String validateToken(String token) {
+    public DecodedJWT validateToken(String token) {
 
         logger.info("[validateToken] - Inicio - Validando Token");
 
@@ -59,8 +64,7 @@ public class TokenService {
             return JWT.require(algorithm)
                     .withIssuer("agendamento-veterinario-api")
                     .build()
-                    .verify(token)
-                    .getSubject();
+                    .verify(token);
         } catch (JWTVerificationException exception) {
 
             logger.warn("[validateToken] - Fim - Token inválido ou expirado: {}", exception.getMessage());
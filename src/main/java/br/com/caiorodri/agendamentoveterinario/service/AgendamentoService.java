@@ -3,19 +3,32 @@ package br.com.caiorodri.agendamentoveterinario.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
+import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoAtualizacaoDTO;
 import br.com.caiorodri.agendamentoveterinario.email.EmailSender;
+import br.com.caiorodri.agendamentoveterinario.event.AgendamentoCanceladoEvent;
 import br.com.caiorodri.agendamentoveterinario.model.AgendamentoStatus;
 import br.com.caiorodri.agendamentoveterinario.model.AgendamentoTipo;
 import br.com.caiorodri.agendamentoveterinario.model.Status;
 import br.com.caiorodri.agendamentoveterinario.repository.*;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
 import jakarta.persistence.EntityNotFoundException;
@@ -41,8 +54,42 @@ public class AgendamentoService {
      @Autowired
      private EmailSender emailSender;
 
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReservasHorario reservasHorario;
+
+    @Autowired
+    private ProjecaoService projecaoService;
+
+    @Autowired
+    private LembreteService lembreteService;
+
+    @Autowired
+    private AtualizacaoParcialService atualizacaoParcialService;
+
+    @Autowired
+    @Qualifier("executorEmails")
+    private Executor executorEmails;
+
     final static Logger logger = LoggerFactory.getLogger(AgendamentoService.class);
 
+    final Integer ID_STATUS_CANCELADO = 2;
+
+    /** Campos do AgendamentoDTO que podem ser pedidos no parâmetro fields das listagens. */
+    final static List<String> CAMPOS_PROJECAO = List.of(
+            "id", "descricao", "dataCriacao", "dataAgendamentoInicio", "dataAgendamentoFinal", "versao",
+            "animal.id", "animal.nome", "animal.urlImagem", "animal.dono.id", "animal.dono.nome", "animal.dono.email",
+            "cliente.id", "cliente.nome", "cliente.email",
+            "veterinario.id", "veterinario.nome", "veterinario.email",
+            "recepcionista.id", "recepcionista.nome", "recepcionista.email",
+            "status.id", "status.nome",
+            "tipo.id", "tipo.nome", "tipo.duracaoMinutos");
+
     /**
      * Recupera um agendamento pelo seu ID.
      *
@@ -139,6 +186,70 @@ public class AgendamentoService {
 
     }
 
+    /**
+     * Lista agendamentos com paginação trazendo só os campos pedidos.
+     *
+     * @param campos Campos separados por vírgula, com os nomes do AgendamentoDTO (ex.: id,dataAgendamentoInicio,animal.nome).
+     * @param pageable Dados de paginação.
+     * @return Page com um Map por agendamento.
+     * @throws IllegalArgumentException se algum campo não puder ser selecionado.
+     */
+    public Page<Map<String, Object>> listarProjecao(String campos, Pageable pageable) {
+
+        return projecaoService.listar(Agendamento.class, CAMPOS_PROJECAO, campos, null, pageable);
+
+    }
+
+    /**
+     * Lista agendamentos do animal, do mais recente para o mais antigo, trazendo só os campos pedidos.
+     *
+     * @param idAnimal ID do animal.
+     * @param campos Campos separados por vírgula, com os nomes do AgendamentoDTO.
+     * @param pageable Dados de paginação.
+     * @return Page com um Map por agendamento.
+     * @throws EntityNotFoundException caso o animal não seja encontrado
+     * @throws IllegalArgumentException se algum campo não puder ser selecionado.
+     */
+    public Page<Map<String, Object>> listarByAnimalIdProjecao(Long idAnimal, String campos, Pageable pageable) {
+
+        if(!animalRepository.existsById(idAnimal)) {
+            throw new EntityNotFoundException("Animal com id " + idAnimal + " não encontrado");
+        }
+
+        Specification<Agendamento> filtro = (root, query, cb) -> cb.equal(root.get("animal").get("id"), idAnimal);
+
+        return projecaoService.listar(Agendamento.class, CAMPOS_PROJECAO, campos, filtro, ordenarPorInicioDesc(pageable));
+
+    }
+
+    /**
+     * Lista agendamentos do cliente, do mais recente para o mais antigo, trazendo só os campos pedidos.
+     *
+     * @param idUsuario ID do usuário.
+     * @param campos Campos separados por vírgula, com os nomes do AgendamentoDTO.
+     * @param pageable Dados de paginação.
+     * @return Page com um Map por agendamento.
+     * @throws EntityNotFoundException caso o usuário não seja encontrado
+     * @throws IllegalArgumentException se algum campo não puder ser selecionado.
+     */
+    public Page<Map<String, Object>> listarByUsuarioIdProjecao(Long idUsuario, String campos, Pageable pageable) {
+
+        if(!usuarioRepository.existsById(idUsuario)) {
+            throw new EntityNotFoundException("Usuário com id " + idUsuario + " não encontrado");
+        }
+
+        Specification<Agendamento> filtro = (root, query, cb) -> cb.equal(root.get("cliente").get("id"), idUsuario);
+
+        return projecaoService.listar(Agendamento.class, CAMPOS_PROJECAO, campos, filtro, ordenarPorInicioDesc(pageable));
+
+    }
+
+    private Pageable ordenarPorInicioDesc(Pageable pageable) {
+
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "dataAgendamentoInicio"));
+
+    }
+
     /**
      * Salva um novo agendamento no banco de dados.
      *
@@ -159,6 +270,15 @@ public class AgendamentoService {
 
             Agendamento agendamentoSalvo = agendamentoRepository.save(agendamento);
 
+            relatorioService.registrar(agendamentoSalvo, 1);
+
+            if (agendamentoSalvo.getVeterinario() != null && agendamentoSalvo.getCliente() != null) {
+                reservasHorario.liberarDoCliente(agendamentoSalvo.getVeterinario().getId(), agendamentoSalvo.getCliente().getId(),
+                        agendamentoSalvo.getDataAgendamentoInicio(), agendamentoSalvo.getDataAgendamentoFinal());
+            }
+
+            lembreteService.agendar(agendamentoSalvo);
+
             emailSender.enviarInformacaoCadastroAgendamentoEmail(agendamento, false);
 
             logger.info("[salvar] - Fim - Agendamento salvo com sucesso com o id = {}", agendamentoSalvo.getId());
@@ -192,7 +312,9 @@ public class AgendamentoService {
 
         logger.info("[atualizar] - Inicio - Tentativa de atualizar o agendamento com id = {}", agendamento.getId());
 
-        if (agendamento.getId() == null || !agendamentoRepository.existsById(agendamento.getId())) {
+        Agendamento agendamentoSalvo = agendamento.getId() == null ? null : agendamentoRepository.findById(agendamento.getId()).orElse(null);
+
+        if (agendamentoSalvo == null) {
 
             logger.error("[atualizar] - Fim - Erro: Agendamento com id {} não encontrado para atualização.", agendamento.getId());
             throw new EntityNotFoundException("Agendamento não encontrado para atualização.");
@@ -203,7 +325,11 @@ public class AgendamentoService {
 
             validarAgendamento(agendamento);
 
-            Agendamento agendamentoSalvo = agendamentoRepository.findById(agendamento.getId()).get();
+            LocalDateTime inicioAnterior = agendamentoSalvo.getDataAgendamentoInicio();
+            LocalDateTime criacaoAnterior = agendamentoSalvo.getDataCriacao();
+            Long idVeterinarioAnterior = agendamentoSalvo.getVeterinario().getId();
+            Integer idTipoAnterior = agendamentoSalvo.getTipo().getId();
+            Integer idStatusAnterior = agendamentoSalvo.getStatus().getId();
 
             agendamentoSalvo.setAnimal(agendamento.getAnimal());
             agendamentoSalvo.setVeterinario(agendamento.getVeterinario());
@@ -212,9 +338,22 @@ public class AgendamentoService {
             agendamentoSalvo.setStatus(agendamento.getStatus());
             agendamentoSalvo.setDataCriacao(LocalDateTime.now());
 
-            agendamentoRepository.saveAndFlush(agendamentoSalvo);
+            // O agendamento já está no contexto de persistência: buscá-lo de novo depois do flush
+            // devolveria a mesma instância, ao custo de mais uma consulta.
+            Agendamento agendamentoAtualizado = agendamentoRepository.saveAndFlush(agendamentoSalvo);
+
+            relatorioService.registrar(inicioAnterior, criacaoAnterior, idVeterinarioAnterior, idTipoAnterior, idStatusAnterior, -1);
+            relatorioService.registrar(agendamentoAtualizado, 1);
+
+            if (!ID_STATUS_CANCELADO.equals(idStatusAnterior) && ID_STATUS_CANCELADO.equals(agendamentoAtualizado.getStatus().getId())) {
 
-            Agendamento agendamentoAtualizado = agendamentoRepository.findById(agendamento.getId()).get();
+                eventPublisher.publishEvent(new AgendamentoCanceladoEvent(agendamentoAtualizado.getId(), ContextoClinica.atual(), agendamentoAtualizado.getVeterinario().getId(),
+                        agendamentoAtualizado.getTipo().getId(), agendamentoAtualizado.getDataAgendamentoInicio(), agendamentoAtualizado.getDataAgendamentoFinal()));
+
+            }
+
+            lembreteService.remover(agendamentoAtualizado.getId());
+            lembreteService.agendar(agendamentoAtualizado);
 
              emailSender.enviarInformacaoCadastroAgendamentoEmail(agendamento, true);
 
@@ -235,26 +374,200 @@ public class AgendamentoService {
         }
     }
 
+    /**
+     * Atualiza só os campos enviados no PATCH. Na requisição são até três comandos: um SELECT sem joins
+     * do estado atual (que também conta os conflitos quando o horário, o veterinário ou o status mudam),
+     * um UPDATE condicionado à versão e, se o agendamento mudar de linha no consolidado diário, um
+     * upsert de duas linhas ({@link RelatorioService#mover}). O horário resultante também não pode
+     * estar reservado por outro cliente. Lembretes e reservas ficam em memória e a resposta é montada
+     * com os campos enviados. O e-mail de atualização precisa do agendamento completo: depois do
+     * commit, o executor de e-mails faz mais um SELECT com joins, fora da thread da requisição.
+     *
+     * @param id ID do agendamento.
+     * @param atualizacao Campos alterados e versão lida pelo cliente.
+     * @return Map com ID, nova versão e campos alterados, nos nomes do AgendamentoDTO.
+     * @throws EntityNotFoundException se o agendamento não existir.
+     * @throws IllegalArgumentException se algum campo for inválido ou o novo horário estiver ocupado.
+     * @throws OptimisticLockingFailureException se o agendamento foi alterado depois da versão informada.
+     */
+    @Transactional
+    public Map<String, Object> atualizarParcial(Long id, AgendamentoAtualizacaoDTO atualizacao) {
+
+        Map<String, Object> alteracoes = atualizacao.getAlteracoes();
+
+        logger.info("[atualizarParcial] - Inicio - Atualizando os campos {} do agendamento com id = {}", alteracoes.keySet(), id);
+
+        validarAtualizacaoParcial(atualizacao);
+
+        boolean reagendado = alteracoes.containsKey("dataAgendamentoInicio");
+
+        // Trocar o horário, o veterinário ou o status (um cancelado reaberto) pode ocupar um horário já usado.
+        boolean verificarHorario = reagendado || alteracoes.containsKey("veterinario") || alteracoes.containsKey("status");
+
+        List<Object[]> estado = verificarHorario
+                ? agendamentoRepository.findEstadoComConflitosById(id, atualizacao.getDataAgendamentoInicio(), atualizacao.getDataAgendamentoFinal(), ID_STATUS_CANCELADO)
+                : agendamentoRepository.findEstadoById(id);
+
+        if (estado.isEmpty()) {
+
+            logger.error("[atualizarParcial] - Fim - Erro: Agendamento com id {} não encontrado para atualização.", id);
+            throw new EntityNotFoundException("Agendamento não encontrado para atualização.");
+
+        }
+
+        Object[] anterior = estado.get(0);
+
+        if (!atualizacao.getVersao().equals(anterior[6])) {
+
+            logger.warn("[atualizarParcial] - Fim - Agendamento com id = {} está na versão {}, não na {}", id, anterior[6], atualizacao.getVersao());
+            throw new OptimisticLockingFailureException("O agendamento foi alterado por outro usuário. Recarregue-o e tente novamente.");
+
+        }
+
+        LocalDateTime inicioAnterior = (LocalDateTime) anterior[0];
+        LocalDateTime criacao = (LocalDateTime) anterior[2];
+        Long idVeterinarioAnterior = (Long) anterior[3];
+        Integer idTipoAnterior = (Integer) anterior[4];
+        Integer idStatusAnterior = (Integer) anterior[5];
+        Long idCliente = (Long) anterior[7];
+
+        LocalDateTime inicio = reagendado ? atualizacao.getDataAgendamentoInicio() : inicioAnterior;
+        LocalDateTime fim = reagendado ? atualizacao.getDataAgendamentoFinal() : (LocalDateTime) anterior[1];
+        Long idVeterinario = alteracoes.containsKey("veterinario") ? atualizacao.getIdVeterinario() : idVeterinarioAnterior;
+        Integer idTipo = alteracoes.containsKey("tipo") ? atualizacao.getIdTipo() : idTipoAnterior;
+        Integer idStatus = alteracoes.containsKey("status") ? atualizacao.getIdStatus() : idStatusAnterior;
+
+        // Um agendamento cancelado não ocupa o horário.
+        if (verificarHorario && !ID_STATUS_CANCELADO.equals(idStatus)) {
+
+            if ((Long) anterior[8] > 0) {
+
+                logger.error("[atualizarParcial] - Fim - Erro: Conflito de horário detectado para o agendamento id = {}", id);
+                throw new IllegalArgumentException("Já existe um agendamento para esse horário");
+
+            }
+
+            if (reservasHorario.reservadoPorOutro(idVeterinario, idCliente, inicio, fim)) {
+
+                logger.error("[atualizarParcial] - Fim - Erro: Horário do agendamento id = {} reservado temporariamente por outro cliente.", id);
+                throw new IllegalArgumentException("Este horário está reservado por outro cliente no momento.");
+
+            }
+
+        }
+
+        if (atualizacaoParcialService.atualizar(Agendamento.class, id, atualizacao.getVersao(), alteracoes) == 0) {
+
+            logger.warn("[atualizarParcial] - Fim - Agendamento com id = {} alterado durante a atualização", id);
+            throw new OptimisticLockingFailureException("O agendamento foi alterado por outro usuário. Recarregue-o e tente novamente.");
+
+        }
+
+        if (reagendado || alteracoes.containsKey("veterinario") || alteracoes.containsKey("tipo") || alteracoes.containsKey("status")) {
+
+            relatorioService.mover(inicioAnterior, idVeterinarioAnterior, idTipoAnterior, idStatusAnterior, inicio, idVeterinario, idTipo, idStatus, criacao);
+
+            Agendamento agendamento = new Agendamento(id);
+            agendamento.setDataAgendamentoInicio(inicio);
+            agendamento.setStatus(new AgendamentoStatus(idStatus, null));
+            agendamento.setTipo(new AgendamentoTipo(idTipo, null, null, null));
+
+            lembreteService.remover(id);
+            lembreteService.agendar(agendamento);
+
+        }
+
+        if (!ID_STATUS_CANCELADO.equals(idStatusAnterior) && ID_STATUS_CANCELADO.equals(idStatus)) {
+            eventPublisher.publishEvent(new AgendamentoCanceladoEvent(id, ContextoClinica.atual(), idVeterinario, idTipo, inicio, fim));
+        }
+
+        enviarEmailAtualizacaoAposCommit(id);
+
+        logger.info("[atualizarParcial] - Fim - Agendamento com id = {} atualizado para a versão {}", id, atualizacao.getVersao() + 1);
+
+        return atualizacaoParcialService.resposta(Agendamento.class, id, atualizacao.getVersao() + 1, alteracoes);
+
+    }
+
+    private void validarAtualizacaoParcial(AgendamentoAtualizacaoDTO atualizacao) {
+
+        Map<String, Object> alteracoes = atualizacao.getAlteracoes();
+
+        if (atualizacao.getVersao() == null) {
+            throw new IllegalArgumentException("Versão do agendamento é obrigatória.");
+        }
+
+        if (alteracoes.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um campo para atualizar.");
+        }
+
+        for (String obrigatorio : List.of("veterinario", "tipo", "status")) {
+
+            if (alteracoes.containsKey(obrigatorio) && alteracoes.get(obrigatorio) == null) {
+                throw new IllegalArgumentException("O campo " + obrigatorio + " do agendamento não pode ser nulo.");
+            }
+
+        }
+
+        if (alteracoes.containsKey("dataAgendamentoInicio") != alteracoes.containsKey("dataAgendamentoFinal")
+                || (alteracoes.containsKey("dataAgendamentoInicio") && (atualizacao.getDataAgendamentoInicio() == null || atualizacao.getDataAgendamentoFinal() == null))) {
+            throw new IllegalArgumentException("Data e hora de início e fim do agendamento devem ser enviadas juntas.");
+        }
+
+        if (alteracoes.containsKey("dataAgendamentoInicio") && !atualizacao.getDataAgendamentoInicio().isBefore(atualizacao.getDataAgendamentoFinal())) {
+            throw new IllegalArgumentException("A data de início do agendamento deve ser anterior à data de fim.");
+        }
+
+    }
+
+    private void enviarEmailAtualizacaoAposCommit(Long id) {
+
+        Runnable enviarEmail = () -> executorEmails.execute(() -> agendamentoRepository.findById(id)
+                .ifPresent(agendamento -> emailSender.enviarInformacaoCadastroAgendamentoEmail(agendamento, true)));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enviarEmail.run();
+                }
+            });
+
+        } else {
+
+            enviarEmail.run();
+
+        }
+
+    }
+
     /**
      * Deleta um agendamento pelo seu ID.
      *
      * @param id ID do agendamento a ser deletado.
      * @throws EntityNotFoundException se o agendamento não existir.
      */
+    @Transactional
     public void deletar(Long id) {
 
         logger.info("[deletar] - Inicio - Tentativa de deletar o agendamento com id = {}", id);
 
         try {
 
-            if (!agendamentoRepository.existsById(id)) {
+            List<Object[]> resumo = agendamentoRepository.findResumoEstatisticaById(id);
+
+            if (resumo.isEmpty() || agendamentoRepository.deleteSemCarregar(id) == 0) {
 
                 logger.error("[deletar] - Fim - Erro: Agendamento com id {} não encontrado para exclusão.", id);
                 throw new EntityNotFoundException("Agendamento não encontrado para exclusão.");
 
             }
 
-            agendamentoRepository.deleteById(id);
+            lembreteService.remover(id);
+
+            Object[] anterior = resumo.get(0);
+            relatorioService.registrar((LocalDateTime) anterior[0], (LocalDateTime) anterior[1], (Long) anterior[2], (Integer) anterior[3], (Integer) anterior[4], -1);
 
             logger.info("[deletar] - Fim - Agendamento com id = {} deletado com sucesso.", id);
 
@@ -313,26 +626,27 @@ public class AgendamentoService {
 
         logger.info("[verificarConflitoHorario] - Inicio - Verificando conflitos de horário.");
 
-        if(agendamentoRepository.existeConflitoDeHorario(agendamento.getDataAgendamentoInicio(), agendamento.getDataAgendamentoFinal())) {
+        boolean novoAgendamento = agendamento.getId() == null || agendamento.getId() <= 0;
 
-            if(agendamento.getId() == null || agendamento.getId() <= 0) {
+        // Na atualização, o próprio agendamento fica fora da consulta, sem carregar os conflitantes.
+        boolean conflito = novoAgendamento
+                ? agendamentoRepository.existeConflitoDeHorario(agendamento.getDataAgendamentoInicio(), agendamento.getDataAgendamentoFinal(), ID_STATUS_CANCELADO)
+                : agendamentoRepository.existeConflitoDeHorarioExceto(agendamento.getDataAgendamentoInicio(), agendamento.getDataAgendamentoFinal(), ID_STATUS_CANCELADO, agendamento.getId());
 
-                logger.error("[verificarConflitoHorario] - Fim - Erro: Conflito de horário detectado para um novo agendamento.");
-                throw new IllegalArgumentException("Já existe um agendamento para esse horário");
+        if (conflito) {
 
-            }
+            logger.error("[verificarConflitoHorario] - Fim - Erro: Conflito de horário detectado para o agendamento id = {}", agendamento.getId());
+            throw new IllegalArgumentException("Já existe um agendamento para esse horário");
 
-            List<Agendamento> agendamentosConflitantes = agendamentoRepository.findByHorario(agendamento.getDataAgendamentoInicio(), agendamento.getDataAgendamentoFinal());
-
-            for(Agendamento agendamentoConflitante : agendamentosConflitantes) {
+        }
 
-                if(!agendamentoConflitante.getId().equals(agendamento.getId())) {
+        if (novoAgendamento && agendamento.getVeterinario() != null && agendamento.getCliente() != null
+                && reservasHorario.reservadoPorOutro(agendamento.getVeterinario().getId(), agendamento.getCliente().getId(),
+                        agendamento.getDataAgendamentoInicio(), agendamento.getDataAgendamentoFinal())) {
 
-                    logger.error("[verificarConflitoHorario] - Fim - Erro: Conflito de horário detectado com o agendamento id = {}", agendamentoConflitante.getId());
-                    throw new IllegalArgumentException("Já existe um agendamento para esse horário");
+            logger.error("[verificarConflitoHorario] - Fim - Erro: Horário reservado temporariamente por outro cliente.");
+            throw new IllegalArgumentException("Este horário está reservado por outro cliente no momento.");
 
-                }
-            }
         }
 
         logger.info("[verificarConflitoHorario] - Fim - Verificação de conflitos concluída, nenhum conflito encontrado.");
@@ -383,9 +697,8 @@ public class AgendamentoService {
 
         LocalDateTime inicioDoDia = data.atStartOfDay();
         LocalDateTime fimDoDia = data.plusDays(1).atStartOfDay();
-        Integer idStatusCancelado = 2;
 
-        List<Agendamento> agendamentos = agendamentoRepository.findAgendamentosNaData(inicioDoDia, fimDoDia, idStatusCancelado);
+        List<Agendamento> agendamentos = agendamentoRepository.findAgendamentosNaData(inicioDoDia, fimDoDia, ID_STATUS_CANCELADO);
 
         logger.info("[listarAgendamentosNaData] - Fim - Encontrados {} agendamentos.", agendamentos.size());
         return agendamentos;
@@ -401,9 +714,8 @@ public class AgendamentoService {
 
         LocalDateTime inicioDoDia = data.atStartOfDay();
         LocalDateTime fimDoDia = data.plusDays(1).atStartOfDay();
-        Integer idStatusCancelado = 2;
 
-        List<Agendamento> agendamentos = agendamentoRepository.findAgendamentosByVeterinarioNaData(idVeterinario, inicioDoDia, fimDoDia, idStatusCancelado);
+        List<Agendamento> agendamentos = agendamentoRepository.findAgendamentosByVeterinarioNaData(idVeterinario, inicioDoDia, fimDoDia, ID_STATUS_CANCELADO);
 
         logger.info("[listarAgendamentosVeterinarioNaData] - Fim - Encontrados {} agendamentos.", agendamentos.size());
         return agendamentos;
@@ -1,6 +1,7 @@
 package br.com.caiorodri.agendamentoveterinario.service;
 
 import br.com.caiorodri.agendamentoveterinario.email.EmailSender;
+import br.com.caiorodri.agendamentoveterinario.event.ClientesAlteradosEvent;
 import br.com.caiorodri.agendamentoveterinario.model.Especie;
 import br.com.caiorodri.agendamentoveterinario.model.Raca;
 import br.com.caiorodri.agendamentoveterinario.model.Sexo;
@@ -8,8 +9,10 @@ import br.com.caiorodri.agendamentoveterinario.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import br.com.caiorodri.agendamentoveterinario.model.Animal;
@@ -17,6 +20,7 @@ import jakarta.persistence.EntityNotFoundException;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -40,8 +44,21 @@ public class AnimalService {
     @Autowired
     private EmailSender emailSender;
 
+    @Autowired
+    private ProjecaoService projecaoService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     final static Logger logger = LoggerFactory.getLogger(AnimalService.class);
 
+    /** Campos do AnimalDTO que podem ser pedidos no parâmetro fields das listagens. */
+    final static List<String> CAMPOS_PROJECAO = List.of(
+            "id", "nome", "descricao", "castrado", "dataNascimento", "peso", "altura", "urlImagem",
+            "raca.id", "raca.nome", "raca.especie.id", "raca.especie.nome",
+            "sexo.id", "sexo.nome",
+            "dono.id", "dono.nome", "dono.email");
+
     /**
      * Recupera um animal pelo seu ID.
      *
@@ -134,6 +151,42 @@ public class AnimalService {
         }
     }
 
+    /**
+     * Lista animais com paginação trazendo só os campos pedidos.
+     *
+     * @param campos Campos separados por vírgula, com os nomes do AnimalDTO (ex.: id,nome,raca.nome).
+     * @param pageable Dados de paginação.
+     * @return Page com um Map por animal.
+     * @throws IllegalArgumentException se algum campo não puder ser selecionado.
+     */
+    public Page<Map<String, Object>> listarProjecao(String campos, Pageable pageable) {
+
+        return projecaoService.listar(Animal.class, CAMPOS_PROJECAO, campos, null, pageable);
+
+    }
+
+    /**
+     * Lista animais do dono com paginação trazendo só os campos pedidos.
+     *
+     * @param idDono ID do dono do animal.
+     * @param campos Campos separados por vírgula, com os nomes do AnimalDTO.
+     * @param pageable Dados de paginação.
+     * @return Page com um Map por animal.
+     * @throws EntityNotFoundException se o dono não for encontrado.
+     * @throws IllegalArgumentException se algum campo não puder ser selecionado.
+     */
+    public Page<Map<String, Object>> listarByDonoIdProjecao(Long idDono, String campos, Pageable pageable) {
+
+        if(!usuarioRepository.existsById(idDono)) {
+            throw new EntityNotFoundException("Dono com id " + idDono + " não encontrado");
+        }
+
+        Specification<Animal> filtro = (root, query, cb) -> cb.equal(root.get("dono").get("id"), idDono);
+
+        return projecaoService.listar(Animal.class, CAMPOS_PROJECAO, campos, filtro, pageable);
+
+    }
+
     /**
      * Salva um novo animal no banco de dados.
      *
@@ -154,6 +207,8 @@ public class AnimalService {
 
             Animal animalSalvo = animalRepository.save(animal);
 
+            eventPublisher.publishEvent(ClientesAlteradosEvent.de(animalSalvo.getDono().getId()));
+
             emailSender.enviarInformacaoCadastroAnimalEmail(animal, false);
 
             logger.info("[salvar] - Fim - Animal salvo com sucesso com o id = {}", animalSalvo.getId());
@@ -189,7 +244,9 @@ public class AnimalService {
 
         try {
 
-            if (animal.getId() == null || !animalRepository.existsById(animal.getId())) {
+            Optional<Long> idDonoAnterior = animal.getId() != null ? animalRepository.findIdDonoById(animal.getId()) : Optional.empty();
+
+            if (idDonoAnterior.isEmpty()) {
 
                 throw new EntityNotFoundException("Animal com id " + animal.getId() + " não encontrado para atualização.");
 
@@ -199,6 +256,9 @@ public class AnimalService {
 
             Animal animalAtualizado = animalRepository.save(animal);
 
+            // O animal pode ter trocado de dono; os dois clientes são reindexados na busca.
+            eventPublisher.publishEvent(ClientesAlteradosEvent.de(idDonoAnterior.get(), animalAtualizado.getDono().getId()));
+
             emailSender.enviarInformacaoCadastroAnimalEmail(animal, true);
 
             logger.info("[atualizar] - Fim - Animal com id = {} atualizado com sucesso.", animalAtualizado.getId());
@@ -232,20 +292,17 @@ public class AnimalService {
 
         try {
 
-            if (!animalRepository.existsById(id)) {
-
-                throw new EntityNotFoundException("Animal com id " + id + " não encontrado para exclusão.");
-            }
-
-            Animal animal = animalRepository.findById(id).get();
+            Long idDono = animalRepository.findIdDonoById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Animal com id " + id + " não encontrado para exclusão."));
 
-            if(animal.getAgendamentos().size() > 0){
+            // A verificação de agendamentos vai no próprio DELETE, sem carregar o animal nem a coleção.
+            if (animalRepository.deleteSemAgendamentos(id) == 0) {
 
                 throw new Exception("Não pode deletar o animal com id " + id + " pois ele possui agendamentos associados");
 
             }
 
-            animalRepository.deleteById(id);
+            eventPublisher.publishEvent(ClientesAlteradosEvent.de(idDono));
 
             logger.info("[deletar] - Fim - Animal com id = {} deletado com sucesso.", id);
 
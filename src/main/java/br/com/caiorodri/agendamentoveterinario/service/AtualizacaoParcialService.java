@@ -0,0 +1,169 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+
+/**
+ * Atualizações parciais (PATCH). Os campos alterados viram um único UPDATE Criteria, sem carregar a
+ * entidade, condicionado ao ID e à versão lida pelo cliente (WHERE id = ? AND versao = ?), que
+ * incrementa a versão. Associações recebem só o ID e são gravadas pela chave estrangeira, sem SELECT;
+ * campos de embutidos usam o caminho com ponto (ex.: endereco.cidade). Como nas consultas, o
+ * Hibernate restringe o comando à clínica da sessão.
+ */
+@Service
+public class AtualizacaoParcialService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    final static Logger logger = LoggerFactory.getLogger(AtualizacaoParcialService.class);
+
+    /**
+     * Atualiza os campos informados se o registro ainda estiver na versão informada.
+     *
+     * @param entidade Classe da entidade, que precisa ter um atributo @Version.
+     * @param id ID do registro.
+     * @param versao Versão lida pelo cliente.
+     * @param campos Novos valores, pelo nome do atributo na entidade; associações recebem o ID do registro associado.
+     * @return 1 se atualizou; 0 se o registro não existe ou já está em outra versão.
+     * @throws IllegalArgumentException se nenhum campo for informado.
+     */
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public <T> int atualizar(Class<T> entidade, Object id, Integer versao, Map<String, Object> campos) {
+
+        if (campos.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um campo para atualizar.");
+        }
+
+        logger.info("[atualizar] - Inicio - Atualizando {} com id = {} na versão {}: {}", entidade.getSimpleName(), id, versao, campos.keySet());
+
+        EntityType<T> tipo = entityManager.getMetamodel().entity(entidade);
+        String atributoId = nomeId(tipo);
+        String atributoVersao = tipo.getVersion(Integer.class).getName();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(entidade);
+        Root<T> root = update.from(entidade);
+
+        campos.forEach((campo, valor) -> {
+
+            Path<?> caminho = root;
+
+            for (String parte : campo.split("\\.")) {
+                caminho = caminho.get(parte);
+            }
+
+            Path<Object> destino = (Path<Object>) caminho;
+
+            Attribute<?, ?> atributo = atributo(tipo, campo);
+
+            Object novoValor = valor != null && atributo.isAssociation() ? entityManager.getReference(atributo.getJavaType(), valor) : valor;
+
+            update.set(destino, novoValor);
+
+        });
+
+        Path<Integer> caminhoVersao = root.get(atributoVersao);
+
+        update.set(caminhoVersao, cb.sum(caminhoVersao, 1));
+        update.where(cb.equal(root.get(atributoId), id), cb.equal(caminhoVersao, versao));
+
+        int atualizados = entityManager.createQuery(update).executeUpdate();
+
+        logger.info("[atualizar] - Fim - {} registro(s) de {} atualizado(s)", atualizados, entidade.getSimpleName());
+
+        return atualizados;
+
+    }
+
+    /**
+     * Monta a resposta do PATCH com o estado em memória, sem consultar o registro: ID, nova versão e
+     * campos alterados, aninhados com os mesmos nomes dos DTOs (associações como {"id": ...}).
+     *
+     * @param entidade Classe da entidade atualizada.
+     * @param id ID do registro.
+     * @param versao Versão do registro depois da atualização.
+     * @param campos Campos alterados, como enviados para {@link #atualizar}.
+     * @return Map com os dados alterados.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, Object> resposta(Class<T> entidade, Object id, Integer versao, Map<String, Object> campos) {
+
+        EntityType<T> tipo = entityManager.getMetamodel().entity(entidade);
+
+        Map<String, Object> resposta = new LinkedHashMap<>();
+        resposta.put(nomeId(tipo), id);
+        resposta.put(tipo.getVersion(Integer.class).getName(), versao);
+
+        campos.forEach((campo, valor) -> {
+
+            String[] partes = campo.split("\\.");
+            Map<String, Object> atual = resposta;
+
+            for (int i = 0; i < partes.length - 1; i++) {
+                atual = (Map<String, Object>) atual.computeIfAbsent(partes[i], p -> new LinkedHashMap<String, Object>());
+            }
+
+            Attribute<?, ?> atributo = atributo(tipo, campo);
+            String nome = partes[partes.length - 1];
+
+            if (valor != null && atributo.isAssociation()) {
+
+                Map<String, Object> associacao = new LinkedHashMap<>();
+                associacao.put(nomeId(entityManager.getMetamodel().entity(atributo.getJavaType())), valor);
+                atual.put(nome, associacao);
+
+            } else {
+
+                atual.put(nome, valor);
+
+            }
+
+        });
+
+        return resposta;
+
+    }
+
+    private Attribute<?, ?> atributo(EntityType<?> tipo, String campo) {
+
+        ManagedType<?> atual = tipo;
+        Attribute<?, ?> atributo = null;
+
+        for (String parte : campo.split("\\.")) {
+
+            atributo = atual.getAttribute(parte);
+
+            if (atributo.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+                atual = entityManager.getMetamodel().embeddable(atributo.getJavaType());
+            }
+        }
+
+        return atributo;
+
+    }
+
+    private String nomeId(EntityType<?> tipo) {
+
+        return tipo.getId(tipo.getIdType().getJavaType()).getName();
+
+    }
+
+}
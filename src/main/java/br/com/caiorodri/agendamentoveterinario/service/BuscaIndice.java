@@ -0,0 +1,473 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Índice invertido (Lucene) dos clientes para a busca da recepção. Cada cliente é um documento com
+ * nome, CPF, e-mail, telefones e os nomes dos seus animais.
+ *
+ * Nomes passam por minúsculas e remoção de acentos ("João" e "joao" são o mesmo termo) e também são
+ * indexados com todos os seus prefixos, assim como CPF, telefones (só dígitos) e e-mail. Com isso a
+ * busca enquanto o usuário digita é uma conjunção de consultas por termo exato, sem varrer o
+ * dicionário de termos como uma PrefixQuery faria.
+ *
+ * Há um único índice para todas as clínicas; cada documento guarda a clínica do cliente e as buscas
+ * filtram por ela, sem afetar a relevância.
+ *
+ * O índice é reconstruído a partir do banco a cada inicialização (ver BuscaService), então o
+ * diretório em disco é só uma área de trabalho; com diretório vazio o índice fica no heap.
+ */
+@Component
+public class BuscaIndice {
+
+    private static final String ID = "id";
+
+    private static final String CLINICA = "clinica";
+
+    private static final String NOME = "nome";
+
+    private static final String NOME_PREFIXO = "nome_prefixo";
+
+    private static final String NOME_ORDEM = "nome_ordem";
+
+    private static final String CPF = "cpf";
+
+    private static final String EMAIL = "email";
+
+    private static final String TELEFONE = "telefone";
+
+    private static final String CONTATO_PREFIXO = "contato_prefixo";
+
+    private static final String ANIMAL = "animal";
+
+    private static final String ANIMAL_NOME = "animal_nome";
+
+    private static final String ANIMAL_PREFIXO = "animal_prefixo";
+
+    private static final int TAMANHO_MAXIMO_PREFIXO_NOME = 20;
+
+    private static final int TAMANHO_MINIMO_PREFIXO_CONTATO = 3;
+
+    private static final int TAMANHO_MAXIMO_PREFIXO_CONTATO = 60;
+
+    private static final int MAXIMO_TERMOS_CONSULTA = 8;
+
+    /** Texto digitado como CPF ou telefone formatado: "123.456.789-09", "(11) 99999-0000". */
+    private static final Pattern DOCUMENTO = Pattern.compile("[\\d\\s().+/-]+");
+
+    private static final Pattern NAO_DIGITO = Pattern.compile("\\D");
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Os documentos de cada segmento ficam em ordem alfabética, então empates de relevância saem em
+     * ordem alfabética sem precisar de uma ordenação na consulta.
+     */
+    private static final Sort ORDEM_INDICE = new Sort(new SortField(NOME_ORDEM, SortField.Type.STRING));
+
+    private final Directory diretorio;
+
+    private final Analyzer analisadorTexto = analisadorTexto(false);
+
+    private final IndexWriter writer;
+
+    private final SearcherManager searcherManager;
+
+    final static Logger logger = LoggerFactory.getLogger(BuscaIndice.class);
+
+    public BuscaIndice(@Value("${busca.diretorio:}") String diretorio) throws IOException {
+
+        this.diretorio = diretorio == null || diretorio.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(diretorio));
+
+        Analyzer analisadorIndice = new PerFieldAnalyzerWrapper(analisadorTexto, Map.of(
+                NOME_PREFIXO, analisadorTexto(true),
+                ANIMAL_PREFIXO, analisadorTexto(true),
+                CONTATO_PREFIXO, analisadorContato()));
+
+        IndexWriterConfig config = new IndexWriterConfig(analisadorIndice)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                .setIndexSort(ORDEM_INDICE)
+                .setRAMBufferSizeMB(64);
+
+        this.writer = new IndexWriter(this.diretorio, config);
+        this.searcherManager = new SearcherManager(writer, null);
+
+        logger.info("[BuscaIndice] - Índice de busca em {}", diretorio == null || diretorio.isBlank() ? "memória" : diretorio);
+
+    }
+
+    /**
+     * Inclui ou substitui um cliente no índice. A alteração só aparece nas buscas depois de {@link #publicar()}.
+     *
+     * @param cliente Dados do cliente.
+     * @throws IOException se o índice não puder ser gravado.
+     */
+    public void indexar(ClienteIndexado cliente) throws IOException {
+
+        writer.updateDocument(new Term(ID, cliente.id().toString()), documento(cliente));
+
+    }
+
+    /**
+     * Remove um cliente do índice. A remoção só aparece nas buscas depois de {@link #publicar()}.
+     *
+     * @param id ID do cliente.
+     * @throws IOException se o índice não puder ser gravado.
+     */
+    public void remover(Long id) throws IOException {
+
+        writer.deleteDocuments(new Term(ID, id.toString()));
+
+    }
+
+    /**
+     * Remove todos os clientes do índice.
+     *
+     * @throws IOException se o índice não puder ser gravado.
+     */
+    public void limpar() throws IOException {
+
+        writer.deleteAll();
+
+    }
+
+    /**
+     * Torna visíveis para as buscas as alterações feitas até aqui, sem gravar o índice em disco.
+     *
+     * @throws IOException se o índice não puder ser reaberto.
+     */
+    public void publicar() throws IOException {
+
+        searcherManager.maybeRefreshBlocking();
+
+    }
+
+    /**
+     * Busca clientes cujo nome, nome de animal, CPF, telefone ou e-mail começam com os termos
+     * digitados. Com mais de um termo, todos precisam ser encontrados (ex.: "maria sil").
+     *
+     * @param idClinica Clínica dos clientes buscados, ou null para buscar em todas.
+     * @param texto Texto digitado.
+     * @param limite Quantidade máxima de clientes retornados.
+     * @return Clientes encontrados, dos mais relevantes para os menos relevantes.
+     * @throws IOException se o índice não puder ser lido.
+     */
+    public List<ClienteIndexado> buscar(Long idClinica, String texto, int limite) throws IOException {
+
+        Query consulta = consulta(texto);
+
+        if (consulta == null) {
+            return List.of();
+        }
+
+        if (idClinica != null) {
+            consulta = new BooleanQuery.Builder()
+                    .add(consulta, BooleanClause.Occur.MUST)
+                    .add(new TermQuery(new Term(CLINICA, idClinica.toString())), BooleanClause.Occur.FILTER)
+                    .build();
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+
+        try {
+
+            // Ordenar só pela relevância permite ao Lucene pular os documentos que não entram entre os
+            // primeiros; termos curtos como "ma" encontram boa parte dos clientes.
+            TopDocs encontrados = searcher.search(consulta, limite);
+            StoredFields campos = searcher.storedFields();
+
+            List<ClienteIndexado> clientes = new ArrayList<>(encontrados.scoreDocs.length);
+
+            for (ScoreDoc encontrado : encontrados.scoreDocs) {
+                clientes.add(ler(campos.document(encontrado.doc)));
+            }
+
+            return clientes;
+
+        } finally {
+            searcherManager.release(searcher);
+        }
+
+    }
+
+    /**
+     * @return Quantidade de clientes visíveis para as buscas.
+     * @throws IOException se o índice não puder ser lido.
+     */
+    public int tamanho() throws IOException {
+
+        IndexSearcher searcher = searcherManager.acquire();
+
+        try {
+            return searcher.getIndexReader().numDocs();
+        } finally {
+            searcherManager.release(searcher);
+        }
+
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+
+        searcherManager.close();
+        writer.close();
+        diretorio.close();
+
+    }
+
+    private Query consulta(String texto) throws IOException {
+
+        BooleanQuery.Builder alternativas = new BooleanQuery.Builder();
+        boolean vazia = true;
+
+        List<String> termos = termos(texto);
+
+        if (!termos.isEmpty()) {
+
+            BooleanQuery.Builder todos = new BooleanQuery.Builder();
+
+            for (String termo : termos) {
+                todos.add(termo(termo), BooleanClause.Occur.MUST);
+            }
+
+            alternativas.add(todos.build(), BooleanClause.Occur.SHOULD);
+            vazia = false;
+
+        }
+
+        String contato = texto.strip().toLowerCase(Locale.ROOT);
+
+        // E-mail inteiro ("maria.souza@em") e documentos formatados não sobrevivem à quebra em termos.
+        if (contato.length() >= TAMANHO_MINIMO_PREFIXO_CONTATO && contato.indexOf(' ') < 0) {
+            alternativas.add(constante(CONTATO_PREFIXO, truncar(contato, TAMANHO_MAXIMO_PREFIXO_CONTATO), 3f), BooleanClause.Occur.SHOULD);
+            vazia = false;
+        }
+
+        String digitos = NAO_DIGITO.matcher(contato).replaceAll("");
+
+        if (digitos.length() >= TAMANHO_MINIMO_PREFIXO_CONTATO && !digitos.equals(contato) && DOCUMENTO.matcher(contato).matches()) {
+            alternativas.add(constante(CONTATO_PREFIXO, truncar(digitos, TAMANHO_MAXIMO_PREFIXO_CONTATO), 3f), BooleanClause.Occur.SHOULD);
+            vazia = false;
+        }
+
+        return vazia ? null : alternativas.build();
+
+    }
+
+    private Query termo(String termo) {
+
+        String prefixo = truncar(termo, TAMANHO_MAXIMO_PREFIXO_NOME);
+
+        // Termo completo vale mais que prefixo, e o nome do cliente mais que o do animal.
+        return new BooleanQuery.Builder()
+                .add(constante(NOME, termo, 4f), BooleanClause.Occur.SHOULD)
+                .add(constante(NOME_PREFIXO, prefixo, 2f), BooleanClause.Occur.SHOULD)
+                .add(constante(ANIMAL_NOME, termo, 2f), BooleanClause.Occur.SHOULD)
+                .add(constante(ANIMAL_PREFIXO, prefixo, 1f), BooleanClause.Occur.SHOULD)
+                .build();
+
+    }
+
+    private static Query constante(String campo, String valor, float peso) {
+
+        return new BoostQuery(new ConstantScoreQuery(new TermQuery(new Term(campo, valor))), peso);
+
+    }
+
+    private List<String> termos(String texto) throws IOException {
+
+        List<String> termos = new ArrayList<>();
+
+        try (TokenStream fluxo = analisadorTexto.tokenStream(NOME, texto)) {
+
+            CharTermAttribute termo = fluxo.addAttribute(CharTermAttribute.class);
+            fluxo.reset();
+
+            while (fluxo.incrementToken() && termos.size() < MAXIMO_TERMOS_CONSULTA) {
+                termos.add(termo.toString());
+            }
+
+            fluxo.end();
+
+        }
+
+        return termos;
+
+    }
+
+    private static Document documento(ClienteIndexado cliente) {
+
+        Document documento = new Document();
+        String nome = cliente.nome() != null ? cliente.nome() : "";
+
+        documento.add(new StringField(ID, cliente.id().toString(), Field.Store.YES));
+        documento.add(new StringField(CLINICA, cliente.idClinica().toString(), Field.Store.YES));
+        documento.add(new TextField(NOME, nome, Field.Store.YES));
+        documento.add(new TextField(NOME_PREFIXO, nome, Field.Store.NO));
+        documento.add(new SortedDocValuesField(NOME_ORDEM, new BytesRef(ordenacao(nome))));
+
+        if (cliente.cpf() != null) {
+            documento.add(new StoredField(CPF, cliente.cpf()));
+            documento.add(new TextField(CONTATO_PREFIXO, NAO_DIGITO.matcher(cliente.cpf()).replaceAll(""), Field.Store.NO));
+        }
+
+        if (cliente.email() != null) {
+            documento.add(new StoredField(EMAIL, cliente.email()));
+            documento.add(new TextField(CONTATO_PREFIXO, cliente.email().toLowerCase(Locale.ROOT), Field.Store.NO));
+        }
+
+        for (String telefone : cliente.telefones()) {
+            documento.add(new StoredField(TELEFONE, telefone));
+            documento.add(new TextField(CONTATO_PREFIXO, NAO_DIGITO.matcher(telefone).replaceAll(""), Field.Store.NO));
+        }
+
+        for (AnimalIndexado animal : cliente.animais()) {
+            documento.add(new StoredField(ANIMAL, animal.id() + ":" + animal.nome()));
+            documento.add(new TextField(ANIMAL_NOME, animal.nome(), Field.Store.NO));
+            documento.add(new TextField(ANIMAL_PREFIXO, animal.nome(), Field.Store.NO));
+        }
+
+        return documento;
+
+    }
+
+    private static ClienteIndexado ler(Document documento) {
+
+        List<AnimalIndexado> animais = new ArrayList<>();
+
+        for (String animal : documento.getValues(ANIMAL)) {
+
+            int separador = animal.indexOf(':');
+            animais.add(new AnimalIndexado(Long.valueOf(animal.substring(0, separador)), animal.substring(separador + 1)));
+
+        }
+
+        return new ClienteIndexado(Long.valueOf(documento.get(ID)), Long.valueOf(documento.get(CLINICA)), documento.get(NOME), documento.get(CPF), documento.get(EMAIL),
+                List.of(documento.getValues(TELEFONE)), animais);
+
+    }
+
+    private static String ordenacao(String nome) {
+
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(nome, Normalizer.Form.NFD)).replaceAll("");
+
+        return truncar(semAcentos.toLowerCase(Locale.ROOT), 100);
+
+    }
+
+    private static String truncar(String valor, int tamanho) {
+
+        return valor.length() > tamanho ? valor.substring(0, tamanho) : valor;
+
+    }
+
+    /**
+     * Quebra em palavras, minúsculas e sem acentos; com prefixos, cada palavra gera também todos os
+     * seus prefixos (m, ma, mar, ...).
+     */
+    private static Analyzer analisadorTexto(boolean prefixos) {
+
+        return new Analyzer() {
+
+            @Override
+            protected TokenStreamComponents createComponents(String campo) {
+
+                Tokenizer tokenizer = new StandardTokenizer();
+                TokenStream fluxo = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+
+                if (prefixos) {
+                    fluxo = new EdgeNGramTokenFilter(fluxo, 1, TAMANHO_MAXIMO_PREFIXO_NOME, true);
+                }
+
+                return new TokenStreamComponents(tokenizer, fluxo);
+
+            }
+
+        };
+
+    }
+
+    /**
+     * CPF, telefone e e-mail são indexados inteiros, com os prefixos a partir de três caracteres.
+     */
+    private static Analyzer analisadorContato() {
+
+        return new Analyzer() {
+
+            @Override
+            protected TokenStreamComponents createComponents(String campo) {
+
+                Tokenizer tokenizer = new KeywordTokenizer();
+                TokenStream fluxo = new EdgeNGramTokenFilter(new LowerCaseFilter(tokenizer), TAMANHO_MINIMO_PREFIXO_CONTATO, TAMANHO_MAXIMO_PREFIXO_CONTATO, true);
+
+                return new TokenStreamComponents(tokenizer, fluxo);
+
+            }
+
+        };
+
+    }
+
+    /**
+     * Dados de um cliente no índice.
+     */
+    public record ClienteIndexado(Long id, Long idClinica, String nome, String cpf, String email, List<String> telefones, List<AnimalIndexado> animais) {
+    }
+
+    /**
+     * Animal de um cliente no índice.
+     */
+    public record AnimalIndexado(Long id, String nome) {
+    }
+
+}
@@ -0,0 +1,302 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.caiorodri.agendamentoveterinario.dto.AnimalSimplesDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.BuscaClientesDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.ClienteBuscaDTO;
+import br.com.caiorodri.agendamentoveterinario.event.ClientesAlteradosEvent;
+import br.com.caiorodri.agendamentoveterinario.event.InvalidacaoRemotaEvent;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+import br.com.caiorodri.agendamentoveterinario.service.BuscaIndice.AnimalIndexado;
+import br.com.caiorodri.agendamentoveterinario.service.BuscaIndice.ClienteIndexado;
+
+/**
+ * Busca de clientes para a recepção, respondida pelo índice em memória (BuscaIndice).
+ *
+ * O índice é carregado do banco na inicialização e, depois disso, cada alteração de cliente ou
+ * animal publicada pelos services (ClientesAlteradosEvent) reindexa os clientes envolvidos depois do
+ * commit, lendo de novo a linha do banco. Alterações feitas em outras instâncias chegam pelo
+ * BarramentoCluster e são reindexadas da mesma forma.
+ *
+ * As buscas só devolvem clientes da clínica da requisição.
+ */
+@Service
+public class BuscaService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BuscaIndice buscaIndice;
+
+    @Value("${busca.tamanho-minimo:2}")
+    private int tamanhoMinimo;
+
+    @Value("${busca.limite-padrao:10}")
+    private int limitePadrao;
+
+    @Value("${busca.limite-maximo:50}")
+    private int limiteMaximo;
+
+    final static Logger logger = LoggerFactory.getLogger(BuscaService.class);
+
+    final Integer ID_PERFIL_CLIENTE = 1;
+
+    private static final int TAMANHO_CONSULTA_IN = 1000;
+
+    private static final String SQL_CLIENTES =
+            "SELECT u.id, u.id_clinica, u.nome, u.cpf, u.email, " +
+            "(SELECT GROUP_CONCAT(t.telefone SEPARATOR '\n') FROM usuario_telefone t WHERE t.id_usuario = u.id) AS telefones, " +
+            "(SELECT GROUP_CONCAT(CONCAT(a.id, ':', a.nome) ORDER BY a.id SEPARATOR '\n') FROM animal a WHERE a.id_dono = u.id) AS animais " +
+            "FROM usuario u WHERE u.id_perfil = ?";
+
+    private volatile boolean indiceCompleto;
+
+    private volatile boolean carregando;
+
+    /** Clientes alterados enquanto a carga inicial lia o banco; são reindexados ao final dela. */
+    private final Set<Long> alteradosDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Carrega todos os clientes no índice de busca. Roda depois que a aplicação já está atendendo;
+     * até terminar, as buscas respondem com o que já foi indexado e indiceCompleto = false.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarIndice() {
+
+        logger.info("[carregarIndice] - Inicio - Carregando clientes no índice de busca");
+
+        long inicio = System.currentTimeMillis();
+
+        carregando = true;
+        indiceCompleto = false;
+        alteradosDuranteCarga.clear();
+
+        try {
+
+            buscaIndice.limpar();
+
+            jdbcTemplate.query(con -> {
+
+                PreparedStatement ps = con.prepareStatement(SQL_CLIENTES, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Ver ExportacaoService: com o driver do MySQL, faz o resultado vir linha a linha.
+                ExportacaoService.configurarStreaming(con, ps);
+                ps.setInt(1, ID_PERFIL_CLIENTE);
+
+                return ps;
+
+            }, (RowCallbackHandler) rs -> indexar(rs));
+
+            buscaIndice.publicar();
+            carregando = false;
+
+            // Linhas lidas antes de uma alteração podem ter sido gravadas no índice depois dela.
+            List<Long> alterados = new ArrayList<>(alteradosDuranteCarga);
+            alteradosDuranteCarga.clear();
+            reindexar(alterados);
+
+            indiceCompleto = true;
+
+            logger.info("[carregarIndice] - Fim - {} clientes indexados em {} ms", buscaIndice.tamanho(), System.currentTimeMillis() - inicio);
+
+        } catch (Exception e) {
+
+            carregando = false;
+            logger.error("[carregarIndice] - Fim - Erro ao carregar o índice de busca: {}", e.getMessage(), e);
+
+        }
+
+    }
+
+    /**
+     * Busca clientes pelo início do nome, do nome de um animal, do CPF, de um telefone ou do e-mail,
+     * sem diferenciar maiúsculas nem acentos.
+     *
+     * @param texto Texto digitado.
+     * @param limite Quantidade máxima de clientes retornados, ou null para o padrão.
+     * @return Clientes encontrados, dos mais relevantes para os menos relevantes.
+     * @throws IllegalArgumentException se o texto for curto demais ou o limite estiver fora do permitido.
+     * @throws RuntimeException se o índice não puder ser lido.
+     */
+    public BuscaClientesDTO buscarClientes(String texto, Integer limite) {
+
+        logger.info("[buscarClientes] - Inicio - Buscando clientes por '{}'", texto);
+
+        if (texto == null || texto.strip().length() < tamanhoMinimo) {
+            throw new IllegalArgumentException("Informe ao menos " + tamanhoMinimo + " caracteres para a busca.");
+        }
+
+        int quantidade = limite != null ? limite : limitePadrao;
+
+        if (quantidade < 1 || quantidade > limiteMaximo) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + limiteMaximo + ".");
+        }
+
+        try {
+
+            long inicio = System.nanoTime();
+
+            List<ClienteBuscaDTO> clientes = buscaIndice.buscar(ContextoClinica.exigir(), texto, quantidade).stream().map(this::converter).toList();
+
+            logger.info("[buscarClientes] - Fim - {} clientes encontrados em {} µs", clientes.size(), (System.nanoTime() - inicio) / 1000);
+
+            return new BuscaClientesDTO(clientes, indiceCompleto);
+
+        } catch (IOException e) {
+
+            logger.error("[buscarClientes] - Fim - Erro ao consultar o índice de busca: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao buscar clientes", e);
+
+        }
+
+    }
+
+    /**
+     * Reindexa os clientes alterados depois do commit da transação que os alterou. Uma falha aqui não
+     * desfaz a alteração; o cliente volta a ficar correto na próxima alteração ou reinicialização.
+     *
+     * @param evento Clientes alterados.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientesAlterados(ClientesAlteradosEvent evento) {
+
+        if (carregando) {
+            alteradosDuranteCarga.addAll(evento.idsClientes());
+        }
+
+        try {
+
+            reindexar(evento.idsClientes());
+
+        } catch (Exception e) {
+
+            logger.error("[onClientesAlterados] - Erro ao reindexar os clientes {}: {}", evento.idsClientes(), e.getMessage(), e);
+
+        }
+
+    }
+
+    /**
+     * Reindexa os clientes alterados em outra instância.
+     *
+     * @param evento Clientes alterados.
+     */
+    @EventListener(condition = "#evento.tipo() == T(br.com.caiorodri.agendamentoveterinario.cluster.BarramentoCluster).CLIENTES")
+    public void onClientesAlteradosRemoto(InvalidacaoRemotaEvent evento) {
+
+        onClientesAlterados(new ClientesAlteradosEvent(evento.ids()));
+
+    }
+
+    private void reindexar(Collection<Long> ids) throws IOException {
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Set<Long> removidos = new LinkedHashSet<>(ids);
+
+        for (List<Long> lote : particionar(new ArrayList<>(removidos))) {
+
+            String marcadores = String.join(", ", Collections.nCopies(lote.size(), "?"));
+
+            List<Object> parametros = new ArrayList<>(lote.size() + 1);
+            parametros.add(ID_PERFIL_CLIENTE);
+            parametros.addAll(lote);
+
+            jdbcTemplate.query(SQL_CLIENTES + " AND u.id IN (" + marcadores + ")",
+                    (RowCallbackHandler) rs -> removidos.remove(indexar(rs)), parametros.toArray());
+
+        }
+
+        // Excluídos ou que deixaram de ser clientes.
+        for (Long id : removidos) {
+            buscaIndice.remover(id);
+        }
+
+        buscaIndice.publicar();
+
+    }
+
+    private Long indexar(ResultSet rs) throws SQLException {
+
+        List<AnimalIndexado> animais = new ArrayList<>();
+
+        for (String animal : separar(rs.getString("animais"))) {
+
+            int separador = animal.indexOf(':');
+            animais.add(new AnimalIndexado(Long.valueOf(animal.substring(0, separador)), animal.substring(separador + 1)));
+
+        }
+
+        ClienteIndexado cliente = new ClienteIndexado(rs.getLong("id"), rs.getLong("id_clinica"), rs.getString("nome"), rs.getString("cpf"), rs.getString("email"),
+                separar(rs.getString("telefones")), animais);
+
+        try {
+            buscaIndice.indexar(cliente);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return cliente.id();
+
+    }
+
+    private ClienteBuscaDTO converter(ClienteIndexado cliente) {
+
+        List<AnimalSimplesDTO> animais = cliente.animais().stream().map(a -> {
+
+            AnimalSimplesDTO animal = new AnimalSimplesDTO();
+            animal.setId(a.id());
+            animal.setNome(a.nome());
+
+            return animal;
+
+        }).toList();
+
+        return new ClienteBuscaDTO(cliente.id(), cliente.nome(), cliente.cpf(), cliente.email(), cliente.telefones(), animais);
+
+    }
+
+    private static List<String> separar(String valores) {
+
+        return valores == null || valores.isEmpty() ? List.of() : List.of(valores.split("\n"));
+
+    }
+
+    private static <T> List<List<T>> particionar(List<T> valores) {
+
+        List<List<T>> lotes = new ArrayList<>();
+
+        for (int inicio = 0; inicio < valores.size(); inicio += TAMANHO_CONSULTA_IN) {
+            lotes.add(valores.subList(inicio, Math.min(inicio + TAMANHO_CONSULTA_IN, valores.size())));
+        }
+
+        return lotes;
+
+    }
+
+}
@@ -0,0 +1,122 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import br.com.caiorodri.agendamentoveterinario.model.Clinica;
+import br.com.caiorodri.agendamentoveterinario.repository.ClinicaRepository;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+
+/**
+ * Dados de cada clínica usados nos e-mails e no auto atendimento, mantidos em memória por clínica
+ * durante clinicas.validade-cache-segundos. Campos vazios na tabela clinica usam os valores globais
+ * do application.yml (endereco, contato), que eram a configuração antes da separação por clínica.
+ */
+@Service
+public class ClinicaService {
+
+    @Autowired
+    private ClinicaRepository clinicaRepository;
+
+    @Value("${clinicas.padrao:1}")
+    private Long idClinicaPadrao;
+
+    @Value("${clinicas.validade-cache-segundos:300}")
+    private long validadeCacheSegundos;
+
+    @Value("${endereco}")
+    private String enderecoPadrao;
+
+    @Value("${contato}")
+    private String contatoPadrao;
+
+    private final Map<Long, ClinicaCarregada> clinicas = new ConcurrentHashMap<>();
+
+    final static Logger logger = LoggerFactory.getLogger(ClinicaService.class);
+
+    final String NOME_RECEPCIONISTA_AUTO_ATENDIMENTO = "AUTO ATENDIMENTO";
+
+    /**
+     * @return ID da clínica usada quando a requisição não informa nenhuma.
+     */
+    public Long getIdClinicaPadrao() {
+
+        return idClinicaPadrao;
+
+    }
+
+    /**
+     * Recupera a clínica da requisição atual, ou a clínica padrão fora de uma requisição.
+     *
+     * @return Clinica com os campos vazios preenchidos pelos valores globais.
+     */
+    public Clinica recuperarAtual() {
+
+        Long idClinica = ContextoClinica.atual();
+
+        return recuperar(idClinica != null ? idClinica : idClinicaPadrao);
+
+    }
+
+    /**
+     * Recupera uma clínica pelo ID.
+     *
+     * @param idClinica ID da clínica; null é tratado como a clínica padrão.
+     * @return Clinica com os campos vazios preenchidos pelos valores globais. Uma clínica que não está
+     * cadastrada é devolvida só com os valores globais.
+     */
+    public Clinica recuperar(Long idClinica) {
+
+        Long id = idClinica != null ? idClinica : idClinicaPadrao;
+
+        ClinicaCarregada carregada = clinicas.get(id);
+
+        if (carregada != null && System.nanoTime() - carregada.carregadoEm() < TimeUnit.SECONDS.toNanos(validadeCacheSegundos)) {
+            return carregada.clinica();
+        }
+
+        Clinica clinica = clinicaRepository.findById(id).map(this::completar).orElseGet(() -> {
+
+            logger.warn("[recuperar] - Clínica {} não cadastrada, usando os dados globais", id);
+
+            return completar(new Clinica(id, null, null, null, null));
+
+        });
+
+        clinicas.put(id, new ClinicaCarregada(clinica, System.nanoTime()));
+
+        return clinica;
+
+    }
+
+    /**
+     * Descarta os dados em memória, forçando a releitura das clínicas.
+     */
+    public void invalidar() {
+
+        clinicas.clear();
+
+    }
+
+    private Clinica completar(Clinica clinica) {
+
+        return new Clinica(clinica.getId(),
+                clinica.getNome(),
+                StringUtils.hasText(clinica.getEndereco()) ? clinica.getEndereco() : enderecoPadrao,
+                StringUtils.hasText(clinica.getContato()) ? clinica.getContato() : contatoPadrao,
+                StringUtils.hasText(clinica.getNomeRecepcionistaAutoAtendimento()) ? clinica.getNomeRecepcionistaAutoAtendimento() : NOME_RECEPCIONISTA_AUTO_ATENDIMENTO);
+
+    }
+
+    private record ClinicaCarregada(Clinica clinica, long carregadoEm) {
+    }
+
+}
@@ -0,0 +1,88 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import br.com.caiorodri.agendamentoveterinario.config.ConsultasProperties;
+import br.com.caiorodri.agendamentoveterinario.dto.ConsultaLentaDTO;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Relatório das consultas que mais tempo tomaram do banco, a partir das estatísticas do Hibernate
+ * (hibernate.generate_statistics). Cobre as consultas HQL, as dos repositórios e as nativas; as
+ * cargas por ID e as coleções carregadas sob demanda não têm tempo próprio nas estatísticas.
+ */
+@Service
+public class ConsultasLentasService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ConsultasProperties properties;
+
+    final static Logger logger = LoggerFactory.getLogger(ConsultasLentasService.class);
+
+    /**
+     * @param limite Quantidade de consultas, limitada a consultas.maximo-relatorio.
+     * @return As consultas com o maior tempo total desde o início da aplicação ou a última limpeza.
+     */
+    public List<ConsultaLentaDTO> listar(int limite) {
+
+        logger.info("[listar] - Inicio - limite = {}", limite);
+
+        if (limite < 1) {
+            throw new IllegalArgumentException("O limite deve ser maior que zero.");
+        }
+
+        Statistics estatisticas = estatisticas();
+
+        if (!estatisticas.isStatisticsEnabled()) {
+            throw new IllegalArgumentException("As estatísticas do Hibernate estão desligadas (hibernate.generate_statistics).");
+        }
+
+        List<ConsultaLentaDTO> consultas = Arrays.stream(estatisticas.getQueries())
+                .map(consulta -> converter(consulta, estatisticas.getQueryStatistics(consulta)))
+                .sorted(Comparator.comparingLong(ConsultaLentaDTO::getTempoTotalMs).reversed())
+                .limit(Math.min(limite, properties.getMaximoRelatorio()))
+                .toList();
+
+        logger.info("[listar] - Fim - {} consultas de {}", consultas.size(), estatisticas.getQueries().length);
+
+        return consultas;
+
+    }
+
+    public void limpar() {
+
+        logger.info("[limpar] - Inicio");
+
+        estatisticas().clear();
+
+        logger.info("[limpar] - Fim");
+
+    }
+
+    private Statistics estatisticas() {
+
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    }
+
+    private static ConsultaLentaDTO converter(String consulta, QueryStatistics estatisticas) {
+
+        return new ConsultaLentaDTO(consulta, estatisticas.getExecutionCount(), estatisticas.getExecutionTotalTime(),
+                estatisticas.getExecutionAvgTimeAsDouble(), estatisticas.getExecutionMaxTime(), estatisticas.getExecutionRowCount());
+
+    }
+
+}
@@ -3,17 +3,23 @@ package br.com.caiorodri.agendamentoveterinario.service;
 import br.com.caiorodri.agendamentoveterinario.model.Usuario;
 import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    final static Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         Usuario usuario = usuarioRepository.findByEmailWithSets(email)
@@ -23,4 +29,25 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return usuario;
     }
-}
\ No newline at end of file
+
+    /**
+     * Chamado pelo Spring Security após um login bem-sucedido quando o hash armazenado usa um formato
+     * ou custo antigo, gravando a senha com o hash atual.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+
+        Usuario usuario = (Usuario) user;
+
+        logger.info("[updatePassword] - Inicio - Atualizando hash da senha do usuário com id = {}", usuario.getId());
+
+        usuarioRepository.updateSenha(usuario.getId(), newPassword);
+        usuario.setSenha(newPassword);
+
+        logger.info("[updatePassword] - Fim - Hash atualizado para o usuário com id = {}", usuario.getId());
+
+        return usuario;
+
+    }
+}
@@ -0,0 +1,346 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.caiorodri.agendamentoveterinario.dto.HorarioDisponivelDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.UsuarioSimplesDTO;
+import br.com.caiorodri.agendamentoveterinario.enums.DiaSemanaEnum;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoTipo;
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoTipoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.VeterinarioHorarioRepository;
+import br.com.caiorodri.agendamentoveterinario.security.ClinicaTenantResolver;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Busca dos próximos horários livres considerando todos os veterinários da clínica atual.
+ * As jornadas semanais dos veterinários ficam em memória, separadas por clínica (recarregadas a cada
+ * disponibilidade.validade-agendas-segundos), e a ocupação do período inteiro é lida em uma única
+ * consulta, somada às reservas temporárias em aberto. A agenda livre de cada veterinário é gerada
+ * em paralelo, já em ordem cronológica, e as listas são intercaladas com um heap até completar o
+ * limite pedido.
+ */
+@Service
+public class DisponibilidadeService {
+
+    @Autowired
+    private VeterinarioHorarioRepository veterinarioHorarioRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private AgendamentoTipoRepository agendamentoTipoRepository;
+
+    @Autowired
+    private ReservasHorario reservasHorario;
+
+    @Autowired
+    @Qualifier("executorDisponibilidade")
+    private Executor executorDisponibilidade;
+
+    @Value("${disponibilidade.horizonte-dias:30}")
+    private int horizonteDias;
+
+    @Value("${disponibilidade.limite-maximo:50}")
+    private int limiteMaximo;
+
+    @Value("${disponibilidade.validade-agendas-segundos:300}")
+    private long validadeAgendasSegundos;
+
+    private final Map<Long, Agendas> agendasPorClinica = new ConcurrentHashMap<>();
+
+    final static Logger logger = LoggerFactory.getLogger(DisponibilidadeService.class);
+
+    final Integer ID_PERFIL_VETERINARIO = 3;
+
+    final Integer ID_STATUS_ATIVO = 1;
+
+    final Integer ID_STATUS_CANCELADO = 2;
+
+    final int INCREMENTO_MINUTOS = 30;
+
+    private static final Comparator<Horario> ORDEM = Comparator.comparing(Horario::inicio).thenComparing(h -> h.veterinario().id());
+
+    /**
+     * Lista os próximos horários livres de qualquer veterinário para o tipo de agendamento informado,
+     * a partir da data informada e dentro do horizonte configurado.
+     *
+     * @param idTipo ID do tipo de agendamento, que define a duração do horário.
+     * @param aPartirDe Data inicial da busca. Se nula ou no passado, a busca começa agora.
+     * @param limite Quantidade máxima de horários retornados.
+     * @return List com os horários em ordem cronológica.
+     * @throws EntityNotFoundException se o tipo de agendamento não existir.
+     * @throws IllegalArgumentException se o limite for inválido.
+     */
+    @Transactional(readOnly = true)
+    public List<HorarioDisponivelDTO> listarProximosHorarios(Integer idTipo, LocalDate aPartirDe, int limite) {
+
+        logger.info("[listarProximosHorarios] - Inicio - Buscando {} horários do tipo {} a partir de {}", limite, idTipo, aPartirDe);
+
+        if (limite < 1 || limite > limiteMaximo) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + limiteMaximo + ".");
+        }
+
+        AgendamentoTipo tipo = agendamentoTipoRepository.findById(idTipo)
+                .orElseThrow(() -> new EntityNotFoundException("Tipo de agendamento com ID " + idTipo + " não encontrado."));
+
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime inicio = aPartirDe == null || aPartirDe.atStartOfDay().isBefore(agora) ? agora : aPartirDe.atStartOfDay();
+        LocalDateTime fim = inicio.toLocalDate().plusDays(horizonteDias).atStartOfDay();
+
+        List<AgendaVeterinario> agendasVeterinarios = recuperarAgendas();
+        Map<Long, List<Ocupacao>> ocupacoes = recuperarOcupacoes(inicio, fim);
+
+        List<CompletableFuture<List<Horario>>> tarefas = new ArrayList<>(agendasVeterinarios.size());
+
+        for (AgendaVeterinario agenda : agendasVeterinarios) {
+
+            List<Ocupacao> ocupacoesVeterinario = ocupacoes.getOrDefault(agenda.veterinario().id(), List.of());
+
+            tarefas.add(CompletableFuture.supplyAsync(() -> gerarHorarios(agenda, ocupacoesVeterinario, inicio, fim, tipo.getDuracaoMinutos(), limite), executorDisponibilidade));
+
+        }
+
+        List<List<Horario>> horariosPorVeterinario = tarefas.stream().map(CompletableFuture::join).toList();
+
+        List<HorarioDisponivelDTO> proximosHorarios = intercalar(horariosPorVeterinario, limite);
+
+        logger.info("[listarProximosHorarios] - Fim - {} horários encontrados em {} veterinários", proximosHorarios.size(), agendasVeterinarios.size());
+
+        return proximosHorarios;
+
+    }
+
+    /**
+     * Descarta as jornadas em memória, forçando a releitura na próxima busca.
+     */
+    public void invalidarAgendas() {
+
+        agendasPorClinica.clear();
+
+    }
+
+    private List<AgendaVeterinario> recuperarAgendas() {
+
+        // As jornadas vêm de uma consulta filtrada pela clínica da sessão; fora de uma requisição, de todas.
+        Long idClinica = Objects.requireNonNullElse(ContextoClinica.atual(), ClinicaTenantResolver.TODAS);
+
+        Agendas atuais = agendasPorClinica.get(idClinica);
+
+        if (atuais != null && System.nanoTime() - atuais.carregadoEm() < TimeUnit.SECONDS.toNanos(validadeAgendasSegundos)) {
+            return atuais.veterinarios();
+        }
+
+        synchronized (this) {
+
+            atuais = agendasPorClinica.get(idClinica);
+
+            if (atuais != null && System.nanoTime() - atuais.carregadoEm() < TimeUnit.SECONDS.toNanos(validadeAgendasSegundos)) {
+                return atuais.veterinarios();
+            }
+
+            Map<Long, AgendaVeterinario> porVeterinario = new LinkedHashMap<>();
+
+            for (Object[] linha : veterinarioHorarioRepository.findAgendasVeterinarios(ID_PERFIL_VETERINARIO, ID_STATUS_ATIVO)) {
+
+                Long idVeterinario = (Long) linha[0];
+
+                AgendaVeterinario agenda = porVeterinario.computeIfAbsent(idVeterinario,
+                        id -> new AgendaVeterinario(new Veterinario(id, (String) linha[1], (String) linha[2]), new HashMap<>()));
+
+                agenda.blocosPorDia().computeIfAbsent((Integer) linha[3], d -> new ArrayList<>()).add(new Bloco((LocalTime) linha[4], (LocalTime) linha[5]));
+
+            }
+
+            List<AgendaVeterinario> veterinarios = List.copyOf(porVeterinario.values());
+
+            agendasPorClinica.put(idClinica, new Agendas(veterinarios, System.nanoTime()));
+
+            logger.info("[recuperarAgendas] - Jornadas de {} veterinários da clínica {} carregadas", veterinarios.size(), idClinica);
+
+            return veterinarios;
+
+        }
+
+    }
+
+    private Map<Long, List<Ocupacao>> recuperarOcupacoes(LocalDateTime inicio, LocalDateTime fim) {
+
+        Map<Long, List<Ocupacao>> ocupacoes = new HashMap<>();
+
+        for (Object[] linha : agendamentoRepository.findOcupacaoNoPeriodo(inicio, fim, ID_STATUS_CANCELADO)) {
+
+            ocupacoes.computeIfAbsent((Long) linha[0], id -> new ArrayList<>()).add(new Ocupacao((LocalDateTime) linha[1], (LocalDateTime) linha[2]));
+
+        }
+
+        reservasHorario.listarNoPeriodo(inicio, fim).forEach((idVeterinario, reservas) -> {
+
+            List<Ocupacao> ocupacoesVeterinario = ocupacoes.computeIfAbsent(idVeterinario, id -> new ArrayList<>());
+
+            reservas.forEach(r -> ocupacoesVeterinario.add(new Ocupacao(r.getInicio(), r.getFim())));
+            ocupacoesVeterinario.sort(Comparator.comparing(Ocupacao::inicio));
+
+        });
+
+        return ocupacoes;
+
+    }
+
+    /**
+     * Gera, em ordem cronológica, até "limite" horários livres de um veterinário. As ocupações chegam
+     * ordenadas pelo início, então as que já terminaram antes do horário corrente são descartadas com
+     * um ponteiro, sem voltar a ser comparadas.
+     */
+    private List<Horario> gerarHorarios(AgendaVeterinario agenda, List<Ocupacao> ocupacoes, LocalDateTime inicio, LocalDateTime fim, int duracaoMinutos, int limite) {
+
+        List<Horario> horarios = new ArrayList<>(limite);
+        int primeiraOcupacao = 0;
+        LocalDateTime ultimoInicio = null;
+
+        for (LocalDate data = inicio.toLocalDate(); data.isBefore(fim.toLocalDate()) && horarios.size() < limite; data = data.plusDays(1)) {
+
+            List<Bloco> blocos = agenda.blocosPorDia().get(DiaSemanaEnum.from(data.getDayOfWeek()));
+
+            if (blocos == null) {
+                continue;
+            }
+
+            for (Bloco bloco : blocos) {
+
+                for (LocalTime slotInicio = bloco.inicio(); ; slotInicio = slotInicio.plusMinutes(INCREMENTO_MINUTOS)) {
+
+                    LocalTime slotFim = slotInicio.plusMinutes(duracaoMinutos);
+
+                    if (slotFim.isAfter(bloco.fim()) || slotFim.isBefore(slotInicio)) {
+                        break;
+                    }
+
+                    LocalDateTime horarioInicio = data.atTime(slotInicio);
+                    LocalDateTime horarioFim = data.atTime(slotFim);
+
+                    if (horarioInicio.isBefore(inicio) || (ultimoInicio != null && !horarioInicio.isAfter(ultimoInicio))) {
+                        continue;
+                    }
+
+                    while (primeiraOcupacao < ocupacoes.size() && !ocupacoes.get(primeiraOcupacao).fim().isAfter(horarioInicio)) {
+                        primeiraOcupacao++;
+                    }
+
+                    if (livre(ocupacoes, primeiraOcupacao, horarioInicio, horarioFim)) {
+
+                        horarios.add(new Horario(agenda.veterinario(), horarioInicio, horarioFim));
+                        ultimoInicio = horarioInicio;
+
+                        if (horarios.size() == limite) {
+                            return horarios;
+                        }
+                    }
+                }
+            }
+        }
+
+        return horarios;
+
+    }
+
+    private boolean livre(List<Ocupacao> ocupacoes, int primeiraOcupacao, LocalDateTime inicio, LocalDateTime fim) {
+
+        for (int i = primeiraOcupacao; i < ocupacoes.size() && ocupacoes.get(i).inicio().isBefore(fim); i++) {
+
+            if (ocupacoes.get(i).fim().isAfter(inicio)) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Intercala as listas ordenadas de cada veterinário (k-way merge) até completar o limite.
+     */
+    private List<HorarioDisponivelDTO> intercalar(List<List<Horario>> horariosPorVeterinario, int limite) {
+
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(1, horariosPorVeterinario.size()), Comparator.comparing(Cursor::atual, ORDEM));
+
+        for (List<Horario> horarios : horariosPorVeterinario) {
+
+            if (!horarios.isEmpty()) {
+                heap.add(new Cursor(horarios, 0));
+            }
+        }
+
+        List<HorarioDisponivelDTO> resultado = new ArrayList<>(limite);
+
+        while (!heap.isEmpty() && resultado.size() < limite) {
+
+            Cursor cursor = heap.poll();
+            Horario horario = cursor.atual();
+
+            UsuarioSimplesDTO veterinario = new UsuarioSimplesDTO();
+            veterinario.setId(horario.veterinario().id());
+            veterinario.setNome(horario.veterinario().nome());
+            veterinario.setEmail(horario.veterinario().email());
+
+            resultado.add(new HorarioDisponivelDTO(veterinario, horario.inicio(), horario.fim()));
+
+            if (cursor.posicao() + 1 < cursor.horarios().size()) {
+                heap.add(new Cursor(cursor.horarios(), cursor.posicao() + 1));
+            }
+        }
+
+        return resultado;
+
+    }
+
+    private record Agendas(List<AgendaVeterinario> veterinarios, long carregadoEm) {
+    }
+
+    private record Veterinario(Long id, String nome, String email) {
+    }
+
+    private record AgendaVeterinario(Veterinario veterinario, Map<Integer, List<Bloco>> blocosPorDia) {
+    }
+
+    private record Bloco(LocalTime inicio, LocalTime fim) {
+    }
+
+    private record Ocupacao(LocalDateTime inicio, LocalDateTime fim) {
+    }
+
+    private record Horario(Veterinario veterinario, LocalDateTime inicio, LocalDateTime fim) {
+    }
+
+    private record Cursor(List<Horario> horarios, int posicao) {
+
+        Horario atual() {
+            return horarios.get(posicao);
+        }
+    }
+
+}
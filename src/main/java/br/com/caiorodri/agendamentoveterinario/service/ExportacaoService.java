@@ -0,0 +1,387 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.caiorodri.agendamentoveterinario.enums.FormatoExportacaoEnum;
+
+/**
+ * Exportações em massa. Rodam na thread da requisição assíncrona do StreamingResponseBody, onde
+ * ContextoClinica não está definido, por isso recebem a clínica como parâmetro e a filtram no SQL.
+ */
+@Service
+public class ExportacaoService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    final static Logger logger = LoggerFactory.getLogger(ExportacaoService.class);
+
+    /**
+     * Com o driver do MySQL, um fetch size igual a Integer.MIN_VALUE em um statement
+     * TYPE_FORWARD_ONLY/CONCUR_READ_ONLY faz o driver entregar as linhas uma a uma,
+     * sem carregar o resultado inteiro em memória. Outros bancos (o H2 do perfil carga) recusam
+     * o valor negativo e ficam com o fetch size padrão do driver.
+     */
+    private static final int FETCH_SIZE_STREAMING = Integer.MIN_VALUE;
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private static final List<String> COLUNAS_AGENDAMENTO = List.of(
+            "id", "data_criacao", "data_agendamento_inicio", "data_agendamento_final", "status", "tipo",
+            "id_animal", "nome_animal", "id_cliente", "nome_cliente", "email_cliente",
+            "id_veterinario", "nome_veterinario", "id_recepcionista", "nome_recepcionista", "descricao");
+
+    private static final String SQL_AGENDAMENTOS =
+            "SELECT a.id, a.data_criacao, a.data_agendamento_inicio, a.data_agendamento_final, " +
+            "s.nome AS status, t.nome AS tipo, " +
+            "an.id AS id_animal, an.nome AS nome_animal, " +
+            "c.id AS id_cliente, c.nome AS nome_cliente, c.email AS email_cliente, " +
+            "v.id AS id_veterinario, v.nome AS nome_veterinario, " +
+            "r.id AS id_recepcionista, r.nome AS nome_recepcionista, a.descricao " +
+            "FROM agendamento a " +
+            "LEFT JOIN agendamento_status s ON s.id = a.id_agendamento_status " +
+            "LEFT JOIN agendamento_tipo t ON t.id = a.id_agendamento_tipo " +
+            "LEFT JOIN animal an ON an.id = a.id_animal " +
+            "LEFT JOIN usuario c ON c.id = a.id_cliente " +
+            "LEFT JOIN usuario v ON v.id = a.id_veterinario " +
+            "LEFT JOIN usuario r ON r.id = a.id_recepcionista " +
+            "WHERE a.id_clinica = ? AND a.data_agendamento_inicio >= ? AND a.data_agendamento_inicio < ? " +
+            "ORDER BY a.data_agendamento_inicio";
+
+    private static final List<String> COLUNAS_ANIMAL = List.of(
+            "id", "nome", "especie", "raca", "sexo", "castrado", "data_nascimento", "peso", "altura",
+            "id_dono", "nome_dono", "descricao");
+
+    private static final String SQL_ANIMAIS =
+            "SELECT an.id, an.nome, e.nome AS especie, r.nome AS raca, s.nome AS sexo, an.castrado, " +
+            "an.data_nascimento, an.peso, an.altura, d.id AS id_dono, d.nome AS nome_dono, an.descricao " +
+            "FROM animal an " +
+            "LEFT JOIN animal_raca r ON r.id = an.id_raca " +
+            "LEFT JOIN animal_especie e ON e.id = r.id_especie " +
+            "LEFT JOIN animal_sexo s ON s.id = an.id_sexo " +
+            "LEFT JOIN usuario d ON d.id = an.id_dono " +
+            "WHERE an.id_clinica = ? " +
+            "ORDER BY an.id";
+
+    private static final List<String> COLUNAS_CLIENTE = List.of(
+            "id", "nome", "email", "cpf", "data_nascimento", "logradouro", "numero", "complemento",
+            "cidade", "sigla_estado", "cep", "status", "telefones", "receber_email");
+
+    private static final String SQL_CLIENTES =
+            "SELECT u.id, u.nome, u.email, u.cpf, u.data_nascimento, u.logradouro, u.numero, u.complemento, " +
+            "u.cidade, u.sigla_estado, u.cep, s.nome AS status, " +
+            "(SELECT GROUP_CONCAT(t.telefone SEPARATOR '|') FROM usuario_telefone t WHERE t.id_usuario = u.id) AS telefones, " +
+            "u.receber_email " +
+            "FROM usuario u " +
+            "LEFT JOIN usuario_status s ON s.id = u.id_status " +
+            "WHERE u.id_clinica = ? AND u.id_perfil = 1 " +
+            "ORDER BY u.id";
+
+    /**
+     * Exporta os agendamentos da clínica cujo início está entre as datas informadas, escrevendo as linhas
+     * diretamente na saída à medida que são lidas do banco.
+     *
+     * @param idClinica ID da clínica exportada.
+     * @param de Data inicial (inclusiva).
+     * @param ate Data final (inclusiva).
+     * @param formato Formato do arquivo gerado.
+     * @param compactar Indica se a saída deve ser compactada com gzip.
+     * @param saida Stream onde o arquivo será escrito.
+     * @return Quantidade de linhas exportadas.
+     * @throws IOException se ocorrer erro ao escrever na saída.
+     */
+    public long exportarAgendamentos(Long idClinica, LocalDate de, LocalDate ate, FormatoExportacaoEnum formato, boolean compactar, OutputStream saida) throws IOException {
+
+        logger.info("[exportarAgendamentos] - Inicio - Exportando agendamentos de {} até {} no formato {}", de, ate, formato);
+
+        long linhas = exportar(SQL_AGENDAMENTOS, COLUNAS_AGENDAMENTO, formato, compactar, saida, idClinica, de.atStartOfDay(), ate.plusDays(1).atStartOfDay());
+
+        logger.info("[exportarAgendamentos] - Fim - {} agendamentos exportados", linhas);
+
+        return linhas;
+
+    }
+
+    /**
+     * Exporta todos os animais da clínica, escrevendo as linhas diretamente na saída.
+     *
+     * @param idClinica ID da clínica exportada.
+     * @param formato Formato do arquivo gerado.
+     * @param compactar Indica se a saída deve ser compactada com gzip.
+     * @param saida Stream onde o arquivo será escrito.
+     * @return Quantidade de linhas exportadas.
+     * @throws IOException se ocorrer erro ao escrever na saída.
+     */
+    public long exportarAnimais(Long idClinica, FormatoExportacaoEnum formato, boolean compactar, OutputStream saida) throws IOException {
+
+        logger.info("[exportarAnimais] - Inicio - Exportando animais no formato {}", formato);
+
+        long linhas = exportar(SQL_ANIMAIS, COLUNAS_ANIMAL, formato, compactar, saida, idClinica);
+
+        logger.info("[exportarAnimais] - Fim - {} animais exportados", linhas);
+
+        return linhas;
+
+    }
+
+    /**
+     * Exporta todos os clientes da clínica, escrevendo as linhas diretamente na saída.
+     * A senha e os dados de recuperação de acesso nunca são exportados.
+     *
+     * @param idClinica ID da clínica exportada.
+     * @param formato Formato do arquivo gerado.
+     * @param compactar Indica se a saída deve ser compactada com gzip.
+     * @param saida Stream onde o arquivo será escrito.
+     * @return Quantidade de linhas exportadas.
+     * @throws IOException se ocorrer erro ao escrever na saída.
+     */
+    public long exportarClientes(Long idClinica, FormatoExportacaoEnum formato, boolean compactar, OutputStream saida) throws IOException {
+
+        logger.info("[exportarClientes] - Inicio - Exportando clientes no formato {}", formato);
+
+        long linhas = exportar(SQL_CLIENTES, COLUNAS_CLIENTE, formato, compactar, saida, idClinica);
+
+        logger.info("[exportarClientes] - Fim - {} clientes exportados", linhas);
+
+        return linhas;
+
+    }
+
+    private long exportar(String sql, List<String> colunas, FormatoExportacaoEnum formato, boolean compactar, OutputStream saida, Object... parametros) throws IOException {
+
+        OutputStream destino = compactar ? new GZIPOutputStream(saida, TAMANHO_BUFFER) : saida;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+
+        EscritorLinhas escritor = formato == FormatoExportacaoEnum.CSV
+                ? new EscritorCsv(writer, colunas)
+                : new EscritorNdjson(objectMapper.getFactory().createGenerator(writer), colunas);
+
+        escritor.iniciar();
+
+        try {
+
+            jdbcTemplate.query(con -> {
+
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                configurarStreaming(con, ps);
+
+                for (int i = 0; i < parametros.length; i++) {
+                    ps.setObject(i + 1, parametros[i]);
+                }
+
+                return ps;
+
+            }, (RowCallbackHandler) rs -> {
+
+                try {
+                    escritor.escrever(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+            });
+
+        } catch (UncheckedIOException e) {
+
+            logger.warn("[exportar] - Exportação interrompida: {}", e.getCause().getMessage());
+            throw e.getCause();
+
+        }
+
+        escritor.finalizar();
+        writer.flush();
+
+        if (destino instanceof GZIPOutputStream gzip) {
+            gzip.finish();
+        }
+
+        destino.flush();
+
+        return escritor.getLinhas();
+
+    }
+
+    private static Object normalizarValor(Object valor) {
+
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+
+        if (valor instanceof java.sql.Date data) {
+            return data.toLocalDate().toString();
+        }
+
+        if (valor instanceof java.time.temporal.Temporal temporal) {
+            return temporal.toString();
+        }
+
+        return valor;
+
+    }
+
+    private abstract static class EscritorLinhas {
+
+        protected final List<String> colunas;
+
+        private long linhas;
+
+        EscritorLinhas(List<String> colunas) {
+            this.colunas = colunas;
+        }
+
+        abstract void iniciar() throws IOException;
+
+        abstract void escreverLinha(ResultSet rs) throws IOException, SQLException;
+
+        abstract void finalizar() throws IOException;
+
+        void escrever(ResultSet rs) throws IOException, SQLException {
+            escreverLinha(rs);
+            linhas++;
+        }
+
+        long getLinhas() {
+            return linhas;
+        }
+
+    }
+
+    private static class EscritorCsv extends EscritorLinhas {
+
+        private final Writer writer;
+
+        EscritorCsv(Writer writer, List<String> colunas) {
+            super(colunas);
+            this.writer = writer;
+        }
+
+        @Override
+        void iniciar() throws IOException {
+            writer.write(String.join(",", colunas));
+            writer.write('\n');
+        }
+
+        @Override
+        void escreverLinha(ResultSet rs) throws IOException, SQLException {
+
+            for (int i = 0; i < colunas.size(); i++) {
+
+                if (i > 0) {
+                    writer.write(',');
+                }
+
+                Object valor = normalizarValor(rs.getObject(i + 1));
+
+                if (valor != null) {
+                    escreverCampo(valor.toString());
+                }
+            }
+
+            writer.write('\n');
+
+        }
+
+        private void escreverCampo(String campo) throws IOException {
+
+            boolean precisaAspas = campo.indexOf(',') >= 0 || campo.indexOf('"') >= 0
+                    || campo.indexOf('\n') >= 0 || campo.indexOf('\r') >= 0;
+
+            if (!precisaAspas) {
+                writer.write(campo);
+                return;
+            }
+
+            writer.write('"');
+            writer.write(campo.replace("\"", "\"\""));
+            writer.write('"');
+
+        }
+
+        @Override
+        void finalizar() {
+        }
+
+    }
+
+    private static class EscritorNdjson extends EscritorLinhas {
+
+        private final JsonGenerator generator;
+
+        EscritorNdjson(JsonGenerator generator, List<String> colunas) {
+            super(colunas);
+            this.generator = generator;
+        }
+
+        @Override
+        void iniciar() {
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void escreverLinha(ResultSet rs) throws IOException, SQLException {
+
+            generator.writeStartObject();
+
+            for (int i = 0; i < colunas.size(); i++) {
+
+                Object valor = normalizarValor(rs.getObject(i + 1));
+
+                generator.writeFieldName(colunas.get(i));
+
+                if (valor == null) {
+                    generator.writeNull();
+                } else if (valor instanceof Number || valor instanceof Boolean) {
+                    generator.writeObject(valor);
+                } else {
+                    generator.writeString(valor.toString());
+                }
+            }
+
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+
+        }
+
+        @Override
+        void finalizar() throws IOException {
+            generator.flush();
+        }
+
+    }
+
+    static void configurarStreaming(Connection con, PreparedStatement ps) throws SQLException {
+
+        if ("MySQL".equals(con.getMetaData().getDatabaseProductName())) {
+            ps.setFetchSize(FETCH_SIZE_STREAMING);
+        }
+
+    }
+
+}
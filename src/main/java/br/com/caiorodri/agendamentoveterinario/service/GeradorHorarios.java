@@ -0,0 +1,87 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.ReservaHorario;
+import br.com.caiorodri.agendamentoveterinario.model.VeterinarioHorario;
+
+/**
+ * Geração dos horários livres de um veterinário em um dia, usada por
+ * {@link UsuarioService#listarHorariosDisponiveis}. Não acessa o banco: recebe os blocos de trabalho,
+ * os agendamentos e as reservas do dia já carregados, o que permite medi-la isoladamente (ver
+ * benchmarks/).
+ */
+public final class GeradorHorarios {
+
+    private static final int INCREMENTO_MINUTOS = 30;
+
+    private GeradorHorarios() {
+    }
+
+    /**
+     * @param data Dia consultado.
+     * @param blocosDeTrabalho Blocos de trabalho do veterinário no dia da semana.
+     * @param duracaoMinutos Duração do tipo de agendamento.
+     * @param agendamentosOcupados Agendamentos não cancelados do veterinário no dia.
+     * @param reservas Reservas temporárias do veterinário no dia.
+     * @param agora Instante atual; no dia de hoje, horários que já começaram não são oferecidos.
+     * @return List com o início de cada horário livre (HH:mm), a cada 30 minutos dentro dos blocos.
+     */
+    public static List<String> gerar(LocalDate data, List<VeterinarioHorario> blocosDeTrabalho, int duracaoMinutos,
+                                     List<Agendamento> agendamentosOcupados, List<ReservaHorario> reservas, LocalDateTime agora) {
+
+        List<String> horariosDisponiveis = new ArrayList<>();
+        boolean isHoje = data.isEqual(agora.toLocalDate());
+
+        for (VeterinarioHorario bloco : blocosDeTrabalho) {
+            LocalTime slotInicio = bloco.getHoraInicio();
+            LocalTime slotFim;
+
+            while (true) {
+                slotFim = slotInicio.plusMinutes(duracaoMinutos);
+
+
+                if (slotFim.isAfter(bloco.getHoraFim())) {
+                    break;
+                }
+
+                boolean isNoPassado = isHoje && slotInicio.isBefore(agora.toLocalTime());
+                boolean isDisponivel = !isNoPassado;
+
+                if (isDisponivel) {
+                    for (Agendamento ocupado : agendamentosOcupados) {
+                        LocalTime ocupadoInicio = ocupado.getDataAgendamentoInicio().toLocalTime();
+                        LocalTime ocupadoFim = ocupado.getDataAgendamentoFinal().toLocalTime();
+
+                        if (slotInicio.isBefore(ocupadoFim) && slotFim.isAfter(ocupadoInicio)) {
+                            isDisponivel = false;
+                            break;
+                        }
+                    }
+                }
+
+                if (isDisponivel) {
+                    LocalDateTime slotInicioData = data.atTime(slotInicio);
+                    LocalDateTime slotFimData = data.atTime(slotFim);
+
+                    isDisponivel = reservas.stream().noneMatch(reserva -> reserva.sobrepoe(slotInicioData, slotFimData));
+                }
+
+                if (isDisponivel) {
+                    horariosDisponiveis.add(slotInicio.toString());
+                }
+
+                slotInicio = slotInicio.plusMinutes(INCREMENTO_MINUTOS);
+            }
+        }
+
+        return horariosDisponiveis;
+
+    }
+
+}
@@ -0,0 +1,879 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.caiorodri.agendamentoveterinario.dto.ImportacaoLinhaDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.ImportacaoRelatorioDTO;
+import br.com.caiorodri.agendamentoveterinario.email.EmailSender;
+import br.com.caiorodri.agendamentoveterinario.enums.FormatoExportacaoEnum;
+import br.com.caiorodri.agendamentoveterinario.event.ClientesAlteradosEvent;
+import br.com.caiorodri.agendamentoveterinario.model.Animal;
+import br.com.caiorodri.agendamentoveterinario.model.Estado;
+import br.com.caiorodri.agendamentoveterinario.model.Raca;
+import br.com.caiorodri.agendamentoveterinario.model.Sexo;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+import br.com.caiorodri.agendamentoveterinario.repository.EstadoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.RacaRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.SexoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+
+@Service
+public class ImportacaoService {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EstadoRepository estadoRepository;
+
+    @Autowired
+    private RacaRepository racaRepository;
+
+    @Autowired
+    private SexoRepository sexoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("codificadorSenhasLote")
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("executorSenhasImportacao")
+    private Executor executorSenhasImportacao;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmailSender emailSender;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier("executorEmails")
+    private Executor executorEmails;
+
+    @Value("${importacao.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Value("${importacao.maximo-linhas:50000}")
+    private int maximoLinhas;
+
+    final static Logger logger = LoggerFactory.getLogger(ImportacaoService.class);
+
+    final Integer ID_PERFIL_CLIENTE = 1;
+
+    final Integer ID_STATUS_ATIVO = 1;
+
+    private static final int TAMANHO_CONSULTA_IN = 1000;
+
+    // Só o id: com RETURN_GENERATED_KEYS o H2 devolve também data_atualizacao, preenchida pelo banco.
+    private static final String[] COLUNAS_CHAVE = {"id"};
+
+    private static final String SQL_INSERIR_USUARIO =
+            "INSERT INTO usuario (nome, senha, cpf, email, logradouro, numero, complemento, cidade, sigla_estado, cep, " +
+            "data_nascimento, id_status, id_perfil, email_realizar_consulta_recebido, receber_email, id_clinica) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE, ?, ?)";
+
+    private static final String SQL_INSERIR_TELEFONE =
+            "INSERT INTO usuario_telefone (id_usuario, telefone) VALUES (?, ?)";
+
+    private static final String SQL_INSERIR_ANIMAL =
+            "INSERT INTO animal (id_raca, id_sexo, id_dono, nome, data_nascimento, descricao, castrado, peso, altura, id_clinica) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Importa clientes a partir de um arquivo CSV ou NDJSON.
+     * As linhas são validadas em paralelo, a unicidade de CPF e e-mail é verificada em memória
+     * e as inserções são feitas em lotes. Os e-mails de boas-vindas são enviados em segundo plano.
+     *
+     * @param conteudo Conteúdo do arquivo.
+     * @param formato Formato do arquivo.
+     * @param enviarEmails Indica se os e-mails de boas-vindas devem ser enviados.
+     * @return Relatório com o resultado de cada linha.
+     * @throws IllegalArgumentException se o arquivo for inválido ou exceder o limite de linhas.
+     */
+    public ImportacaoRelatorioDTO importarUsuarios(InputStream conteudo, FormatoExportacaoEnum formato, boolean enviarEmails) {
+
+        logger.info("[importarUsuarios] - Inicio - Importando usuários no formato {}", formato);
+
+        Long idClinica = ContextoClinica.exigir();
+
+        List<LinhaImportacao> linhas = lerLinhas(conteudo, formato);
+
+        Set<String> estados = estadoRepository.findAll().stream().map(Estado::getSigla).collect(Collectors.toSet());
+
+        List<RegistroImportacao<Usuario>> registros = linhas.parallelStream()
+                .map(linha -> converterUsuario(linha, estados))
+                .toList();
+
+        Set<String> cpfs = new HashSet<>(usuarioRepository.findAllCpfs());
+        Set<String> emails = new HashSet<>(usuarioRepository.findAllEmails());
+
+        for (RegistroImportacao<Usuario> registro : registros) {
+
+            if (registro.erro != null) {
+                continue;
+            }
+
+            String cpf = registro.entidade.getCpf();
+            String email = registro.entidade.getEmail().toLowerCase();
+
+            // CPF e e-mail só passam a ser de uma linha quando ela é aceita; uma linha rejeitada não
+            // bloqueia as seguintes.
+            if (cpfs.contains(cpf)) {
+                registro.erro = "CPF já cadastrado no sistema.";
+            } else if (emails.contains(email)) {
+                registro.erro = "O e-mail informado já está em uso.";
+            } else {
+                cpfs.add(cpf);
+                emails.add(email);
+            }
+        }
+
+        criptografarSenhas(registros.stream().filter(r -> r.erro == null).toList());
+
+        List<RegistroImportacao<Usuario>> validos = registros.stream().filter(r -> r.erro == null).toList();
+
+        for (int inicio = 0; inicio < validos.size(); inicio += tamanhoLote) {
+            gravarLoteUsuarios(validos.subList(inicio, Math.min(inicio + tamanhoLote, validos.size())), idClinica);
+        }
+
+        eventPublisher.publishEvent(new ClientesAlteradosEvent(validos.stream().filter(r -> r.erro == null).map(r -> r.entidade.getId()).toList()));
+
+        if (enviarEmails) {
+            validos.stream()
+                    .filter(r -> r.erro == null)
+                    .forEach(r -> executorEmails.execute(() -> emailSender.enviarInformacaoCadastroUsuarioEmail(r.entidade)));
+        }
+
+        ImportacaoRelatorioDTO relatorio = montarRelatorio(registros);
+
+        logger.info("[importarUsuarios] - Fim - {} linhas, {} importadas, {} rejeitadas", relatorio.getTotalLinhas(), relatorio.getImportadas(), relatorio.getRejeitadas());
+
+        return relatorio;
+
+    }
+
+    /**
+     * Importa animais a partir de um arquivo CSV ou NDJSON.
+     * O dono pode ser informado pelo id (id_dono) ou pelo CPF (cpf_dono), o que permite importar
+     * os animais logo após os clientes de uma nova clínica.
+     *
+     * @param conteudo Conteúdo do arquivo.
+     * @param formato Formato do arquivo.
+     * @param enviarEmails Indica se os e-mails de cadastro devem ser enviados.
+     * @return Relatório com o resultado de cada linha.
+     * @throws IllegalArgumentException se o arquivo for inválido ou exceder o limite de linhas.
+     */
+    public ImportacaoRelatorioDTO importarAnimais(InputStream conteudo, FormatoExportacaoEnum formato, boolean enviarEmails) {
+
+        logger.info("[importarAnimais] - Inicio - Importando animais no formato {}", formato);
+
+        Long idClinica = ContextoClinica.exigir();
+
+        List<LinhaImportacao> linhas = lerLinhas(conteudo, formato);
+
+        Map<Integer, Raca> racas = racaRepository.findAll().stream().collect(Collectors.toMap(Raca::getId, r -> r));
+        Set<Integer> sexos = sexoRepository.findAll().stream().map(Sexo::getId).collect(Collectors.toSet());
+
+        List<RegistroImportacao<Animal>> registros = linhas.parallelStream()
+                .map(linha -> converterAnimal(linha, racas, sexos))
+                .toList();
+
+        resolverDonos(registros);
+
+        List<RegistroImportacao<Animal>> validos = registros.stream().filter(r -> r.erro == null).toList();
+
+        for (int inicio = 0; inicio < validos.size(); inicio += tamanhoLote) {
+            gravarLoteAnimais(validos.subList(inicio, Math.min(inicio + tamanhoLote, validos.size())), idClinica);
+        }
+
+        eventPublisher.publishEvent(new ClientesAlteradosEvent(validos.stream().filter(r -> r.erro == null).map(r -> r.entidade.getDono().getId()).distinct().toList()));
+
+        if (enviarEmails) {
+            validos.stream()
+                    .filter(r -> r.erro == null)
+                    .forEach(r -> executorEmails.execute(() -> emailSender.enviarInformacaoCadastroAnimalEmail(r.entidade, false)));
+        }
+
+        ImportacaoRelatorioDTO relatorio = montarRelatorio(registros);
+
+        logger.info("[importarAnimais] - Fim - {} linhas, {} importadas, {} rejeitadas", relatorio.getTotalLinhas(), relatorio.getImportadas(), relatorio.getRejeitadas());
+
+        return relatorio;
+
+    }
+
+    /**
+     * Calcula os hashes no executor da importação, com o encoder sem o limitador do login: um arquivo
+     * grande ocupa só as threads desse executor, e uma falha rejeita apenas a sua linha.
+     */
+    private void criptografarSenhas(List<RegistroImportacao<Usuario>> registros) {
+
+        List<CompletableFuture<Void>> hashes = registros.stream()
+                .map(r -> CompletableFuture.runAsync(() -> r.entidade.setSenha(passwordEncoder.encode(r.entidade.getSenha())), executorSenhasImportacao)
+                        .exceptionally(e -> {
+                            logger.error("[criptografarSenhas] - Erro ao criptografar a senha da linha {}: {}", r.linha, e.getMessage());
+                            r.erro = "Erro ao criptografar a senha.";
+                            return null;
+                        }))
+                .toList();
+
+        CompletableFuture.allOf(hashes.toArray(CompletableFuture[]::new)).join();
+
+    }
+
+    private RegistroImportacao<Usuario> converterUsuario(LinhaImportacao linha, Set<String> estados) {
+
+        RegistroImportacao<Usuario> registro = new RegistroImportacao<>(linha.numero);
+
+        try {
+
+            Usuario usuario = new Usuario();
+
+            usuario.setNome(obrigatorio(linha, "nome", 30));
+            usuario.setEmail(obrigatorio(linha, "email", 80));
+            usuario.setSenha(obrigatorio(linha, "senha", 100));
+            usuario.setCpf(somenteDigitos(obrigatorio(linha, "cpf", 14)));
+
+            if (!usuario.getEmail().contains("@")) {
+                throw new IllegalArgumentException("Formato de e-mail inválido.");
+            }
+
+            if (usuario.getCpf().length() != 11) {
+                throw new IllegalArgumentException("CPF deve conter 11 dígitos.");
+            }
+
+            usuario.getEndereco().setLogradouro(obrigatorio(linha, "logradouro", 50));
+            usuario.getEndereco().setNumero(obrigatorio(linha, "numero", 20));
+            usuario.getEndereco().setComplemento(opcional(linha, "complemento", 40));
+            usuario.getEndereco().setCidade(obrigatorio(linha, "cidade", 40));
+            usuario.getEndereco().getEstado().setSigla(obrigatorio(linha, "estado", 2).toUpperCase());
+            if (!estados.contains(usuario.getEndereco().getEstado().getSigla())) {
+                throw new IllegalArgumentException("Estado " + usuario.getEndereco().getEstado().getSigla() + " não foi encontrado.");
+            }
+
+            usuario.getEndereco().setCep(somenteDigitos(obrigatorio(linha, "cep", 9)));
+
+            if (usuario.getEndereco().getCep().length() != 8) {
+                throw new IllegalArgumentException("CEP deve conter 8 dígitos.");
+            }
+
+            LocalDate dataNascimento = data(linha, "data_nascimento", false);
+            usuario.setDataNascimento(dataNascimento != null ? Date.valueOf(dataNascimento) : null);
+
+            String telefones = opcional(linha, "telefones", Integer.MAX_VALUE);
+
+            if (telefones != null) {
+                for (String telefone : telefones.split("\\|")) {
+                    if (!telefone.isBlank()) {
+                        usuario.getTelefones().add(telefone.trim());
+                    }
+                }
+            }
+
+            usuario.setReceberEmail(Boolean.parseBoolean(opcional(linha, "receber_email", 5)));
+
+            registro.entidade = usuario;
+
+        } catch (IllegalArgumentException e) {
+
+            registro.erro = e.getMessage();
+
+        }
+
+        return registro;
+
+    }
+
+    private RegistroImportacao<Animal> converterAnimal(LinhaImportacao linha, Map<Integer, Raca> racas, Set<Integer> sexos) {
+
+        RegistroImportacao<Animal> registro = new RegistroImportacao<>(linha.numero);
+
+        try {
+
+            Animal animal = new Animal();
+
+            animal.setNome(obrigatorio(linha, "nome", 40));
+
+            if (animal.getNome().length() < 3) {
+                throw new IllegalArgumentException("O nome deve ter entre 3 e 40 caracteres.");
+            }
+
+            Integer idRaca = inteiro(linha, "id_raca");
+            Integer idSexo = inteiro(linha, "id_sexo");
+
+            if (!racas.containsKey(idRaca)) {
+                throw new IllegalArgumentException("Raça com id " + idRaca + " não foi encontrada.");
+            }
+
+            if (!sexos.contains(idSexo)) {
+                throw new IllegalArgumentException("Sexo com id " + idSexo + " não foi encontrado.");
+            }
+
+            animal.setRaca(racas.get(idRaca));
+            animal.setSexo(new Sexo(idSexo));
+            animal.setDataNascimento(Date.valueOf(data(linha, "data_nascimento", true)));
+
+            String descricao = opcional(linha, "descricao", 255);
+            animal.setDescricao(descricao != null ? descricao : "");
+            animal.setCastrado(Boolean.parseBoolean(opcional(linha, "castrado", 5)));
+            animal.setPeso(decimal(linha, "peso"));
+            animal.setAltura(decimal(linha, "altura"));
+
+            String idDono = opcional(linha, "id_dono", 20);
+            String cpfDono = opcional(linha, "cpf_dono", 14);
+
+            if (idDono != null) {
+                animal.setDono(new Usuario(Long.parseLong(idDono)));
+            } else if (cpfDono != null) {
+                registro.cpfDono = somenteDigitos(cpfDono);
+            } else {
+                throw new IllegalArgumentException("O animal deve estar associado a um dono (id_dono ou cpf_dono).");
+            }
+
+            registro.entidade = animal;
+
+        } catch (NumberFormatException e) {
+
+            registro.erro = "Valor numérico inválido: " + e.getMessage();
+
+        } catch (IllegalArgumentException e) {
+
+            registro.erro = e.getMessage();
+
+        }
+
+        return registro;
+
+    }
+
+    private void resolverDonos(List<RegistroImportacao<Animal>> registros) {
+
+        Set<Long> ids = new HashSet<>();
+        Set<String> cpfs = new HashSet<>();
+
+        for (RegistroImportacao<Animal> registro : registros) {
+
+            if (registro.erro != null) {
+                continue;
+            }
+
+            if (registro.cpfDono != null) {
+                cpfs.add(registro.cpfDono);
+            } else {
+                ids.add(registro.entidade.getDono().getId());
+            }
+        }
+
+        Set<Long> idsExistentes = new HashSet<>();
+        Map<String, Long> idsPorCpf = new HashMap<>();
+
+        for (List<Long> lote : particionar(ids)) {
+            idsExistentes.addAll(usuarioRepository.findIdsExistentes(lote));
+        }
+
+        for (List<String> lote : particionar(cpfs)) {
+            for (Object[] linha : usuarioRepository.findIdsByCpfs(lote)) {
+                idsPorCpf.put((String) linha[0], (Long) linha[1]);
+            }
+        }
+
+        for (RegistroImportacao<Animal> registro : registros) {
+
+            if (registro.erro != null) {
+                continue;
+            }
+
+            if (registro.cpfDono != null) {
+
+                Long idDono = idsPorCpf.get(registro.cpfDono);
+
+                if (idDono == null) {
+                    registro.erro = "Dono com CPF " + registro.cpfDono + " não foi encontrado.";
+                } else {
+                    registro.entidade.setDono(new Usuario(idDono));
+                }
+
+            } else if (!idsExistentes.contains(registro.entidade.getDono().getId())) {
+
+                registro.erro = "Dono com id " + registro.entidade.getDono().getId() + " não foi encontrado.";
+
+            }
+        }
+
+    }
+
+    private void gravarLoteUsuarios(List<RegistroImportacao<Usuario>> lote, Long idClinica) {
+
+        try {
+
+            transactionTemplate.executeWithoutResult(status -> {
+
+                KeyHolder chaves = new GeneratedKeyHolder();
+
+                jdbcTemplate.batchUpdate(con -> con.prepareStatement(SQL_INSERIR_USUARIO, COLUNAS_CHAVE), new BatchPreparedStatementSetter() {
+
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+
+                        Usuario usuario = lote.get(i).entidade;
+
+                        ps.setString(1, usuario.getNome());
+                        ps.setString(2, usuario.getSenha());
+                        ps.setString(3, usuario.getCpf());
+                        ps.setString(4, usuario.getEmail());
+                        ps.setString(5, usuario.getEndereco().getLogradouro());
+                        ps.setString(6, usuario.getEndereco().getNumero());
+                        ps.setString(7, usuario.getEndereco().getComplemento());
+                        ps.setString(8, usuario.getEndereco().getCidade());
+                        ps.setString(9, usuario.getEndereco().getEstado().getSigla());
+                        ps.setString(10, usuario.getEndereco().getCep());
+
+                        if (usuario.getDataNascimento() != null) {
+                            ps.setDate(11, (Date) usuario.getDataNascimento());
+                        } else {
+                            ps.setNull(11, Types.DATE);
+                        }
+
+                        ps.setInt(12, ID_STATUS_ATIVO);
+                        ps.setInt(13, ID_PERFIL_CLIENTE);
+                        ps.setBoolean(14, usuario.isReceberEmail());
+                        ps.setLong(15, idClinica);
+
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return lote.size();
+                    }
+
+                }, chaves);
+
+                List<Object[]> telefones = new ArrayList<>();
+                List<Map<String, Object>> chavesGeradas = chaves.getKeyList();
+
+                for (int i = 0; i < lote.size(); i++) {
+
+                    Usuario usuario = lote.get(i).entidade;
+                    usuario.setId(((Number) chavesGeradas.get(i).values().iterator().next()).longValue());
+                    usuario.setIdClinica(idClinica);
+
+                    for (String telefone : usuario.getTelefones()) {
+                        telefones.add(new Object[]{usuario.getId(), telefone});
+                    }
+                }
+
+                if (!telefones.isEmpty()) {
+                    jdbcTemplate.batchUpdate(SQL_INSERIR_TELEFONE, telefones);
+                }
+
+            });
+
+        } catch (Exception e) {
+
+            logger.error("[gravarLoteUsuarios] - Erro ao gravar lote a partir da linha {}: {}", lote.get(0).linha, e.getMessage());
+            lote.forEach(r -> r.erro = "Erro ao gravar o lote: " + e.getMessage());
+
+        }
+
+    }
+
+    private void gravarLoteAnimais(List<RegistroImportacao<Animal>> lote, Long idClinica) {
+
+        try {
+
+            transactionTemplate.executeWithoutResult(status -> {
+
+                KeyHolder chaves = new GeneratedKeyHolder();
+
+                jdbcTemplate.batchUpdate(con -> con.prepareStatement(SQL_INSERIR_ANIMAL, COLUNAS_CHAVE), new BatchPreparedStatementSetter() {
+
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+
+                        Animal animal = lote.get(i).entidade;
+
+                        ps.setInt(1, animal.getRaca().getId());
+                        ps.setInt(2, animal.getSexo().getId());
+                        ps.setLong(3, animal.getDono().getId());
+                        ps.setString(4, animal.getNome());
+                        ps.setDate(5, (Date) animal.getDataNascimento());
+                        ps.setString(6, animal.getDescricao());
+                        ps.setBoolean(7, animal.getCastrado());
+                        ps.setFloat(8, animal.getPeso());
+                        ps.setFloat(9, animal.getAltura());
+                        ps.setLong(10, idClinica);
+
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return lote.size();
+                    }
+
+                }, chaves);
+
+                List<Map<String, Object>> chavesGeradas = chaves.getKeyList();
+
+                for (int i = 0; i < lote.size(); i++) {
+                    lote.get(i).entidade.setId(((Number) chavesGeradas.get(i).values().iterator().next()).longValue());
+                    lote.get(i).entidade.setIdClinica(idClinica);
+                }
+
+            });
+
+        } catch (Exception e) {
+
+            logger.error("[gravarLoteAnimais] - Erro ao gravar lote a partir da linha {}: {}", lote.get(0).linha, e.getMessage());
+            lote.forEach(r -> r.erro = "Erro ao gravar o lote: " + e.getMessage());
+
+        }
+
+    }
+
+    private ImportacaoRelatorioDTO montarRelatorio(List<? extends RegistroImportacao<?>> registros) {
+
+        ImportacaoRelatorioDTO relatorio = new ImportacaoRelatorioDTO();
+
+        for (RegistroImportacao<?> registro : registros) {
+
+            boolean sucesso = registro.erro == null;
+
+            relatorio.getLinhas().add(new ImportacaoLinhaDTO(registro.linha, sucesso, sucesso ? registro.getId() : null, sucesso ? "Importado com sucesso." : registro.erro));
+
+            if (sucesso) {
+                relatorio.setImportadas(relatorio.getImportadas() + 1);
+            } else {
+                relatorio.setRejeitadas(relatorio.getRejeitadas() + 1);
+            }
+        }
+
+        relatorio.getLinhas().sort(Comparator.comparingInt(ImportacaoLinhaDTO::getLinha));
+        relatorio.setTotalLinhas(registros.size());
+
+        return relatorio;
+
+    }
+
+    private List<LinhaImportacao> lerLinhas(InputStream conteudo, FormatoExportacaoEnum formato) {
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(conteudo, StandardCharsets.UTF_8))) {
+
+            List<LinhaImportacao> linhas = formato == FormatoExportacaoEnum.CSV ? lerCsv(reader) : lerNdjson(reader);
+
+            if (linhas.size() > maximoLinhas) {
+                throw new IllegalArgumentException("O arquivo excede o limite de " + maximoLinhas + " linhas por importação.");
+            }
+
+            return linhas;
+
+        } catch (IOException e) {
+
+            throw new IllegalArgumentException("Não foi possível ler o arquivo de importação: " + e.getMessage());
+
+        }
+
+    }
+
+    private List<LinhaImportacao> lerNdjson(BufferedReader reader) throws IOException {
+
+        List<LinhaImportacao> linhas = new ArrayList<>();
+        TypeReference<LinkedHashMap<String, Object>> tipo = new TypeReference<>() {};
+
+        String conteudo;
+        int numero = 0;
+
+        while ((conteudo = reader.readLine()) != null) {
+
+            numero++;
+
+            if (conteudo.isBlank()) {
+                continue;
+            }
+
+            Map<String, String> campos = new HashMap<>();
+
+            try {
+
+                for (Map.Entry<String, Object> campo : objectMapper.readValue(conteudo, tipo).entrySet()) {
+
+                    Object valor = campo.getValue();
+
+                    if (valor instanceof Collection<?> lista) {
+                        valor = lista.stream().map(String::valueOf).collect(Collectors.joining("|"));
+                    }
+
+                    campos.put(campo.getKey().toLowerCase(), valor != null ? valor.toString() : null);
+                }
+
+            } catch (IOException e) {
+
+                throw new IllegalArgumentException("JSON inválido na linha " + numero + ".");
+
+            }
+
+            linhas.add(new LinhaImportacao(numero, campos));
+        }
+
+        return linhas;
+
+    }
+
+    private List<LinhaImportacao> lerCsv(BufferedReader reader) throws IOException {
+
+        List<LinhaImportacao> linhas = new ArrayList<>();
+        List<String> cabecalho = null;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+
+        boolean entreAspas = false;
+        int numero = 1;
+        int inicioRegistro = 1;
+        int c;
+
+        while ((c = reader.read()) != -1) {
+
+            char caractere = (char) c;
+
+            if (entreAspas) {
+
+                if (caractere == '"') {
+
+                    reader.mark(1);
+
+                    if (reader.read() == '"') {
+                        campo.append('"');
+                    } else {
+                        reader.reset();
+                        entreAspas = false;
+                    }
+
+                } else {
+
+                    if (caractere == '\n') {
+                        numero++;
+                    }
+
+                    campo.append(caractere);
+                }
+
+            } else if (caractere == '"') {
+
+                entreAspas = true;
+
+            } else if (caractere == ',') {
+
+                campos.add(campo.toString());
+                campo.setLength(0);
+
+            } else if (caractere == '\n') {
+
+                campos.add(campo.toString());
+                campo.setLength(0);
+
+                cabecalho = adicionarRegistroCsv(linhas, cabecalho, campos, inicioRegistro);
+
+                campos = new ArrayList<>();
+                numero++;
+                inicioRegistro = numero;
+
+            } else if (caractere != '\r') {
+
+                campo.append(caractere);
+
+            }
+        }
+
+        if (campo.length() > 0 || !campos.isEmpty()) {
+            campos.add(campo.toString());
+            adicionarRegistroCsv(linhas, cabecalho, campos, inicioRegistro);
+        }
+
+        return linhas;
+
+    }
+
+    private List<String> adicionarRegistroCsv(List<LinhaImportacao> linhas, List<String> cabecalho, List<String> campos, int numero) {
+
+        if (campos.size() == 1 && campos.get(0).isBlank()) {
+            return cabecalho;
+        }
+
+        if (cabecalho == null) {
+            return campos.stream().map(nome -> nome.trim().toLowerCase()).toList();
+        }
+
+        Map<String, String> valores = new HashMap<>();
+
+        for (int i = 0; i < cabecalho.size() && i < campos.size(); i++) {
+            valores.put(cabecalho.get(i), campos.get(i));
+        }
+
+        linhas.add(new LinhaImportacao(numero, valores));
+
+        return cabecalho;
+
+    }
+
+    private static String opcional(LinhaImportacao linha, String nome, int tamanhoMaximo) {
+
+        String valor = linha.campos.get(nome);
+
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+
+        valor = valor.trim();
+
+        if (valor.length() > tamanhoMaximo) {
+            throw new IllegalArgumentException("O campo " + nome + " deve ter no máximo " + tamanhoMaximo + " caracteres.");
+        }
+
+        return valor;
+
+    }
+
+    private static String obrigatorio(LinhaImportacao linha, String nome, int tamanhoMaximo) {
+
+        String valor = opcional(linha, nome, tamanhoMaximo);
+
+        if (valor == null) {
+            throw new IllegalArgumentException("O campo " + nome + " é obrigatório.");
+        }
+
+        return valor;
+
+    }
+
+    private static Integer inteiro(LinhaImportacao linha, String nome) {
+
+        return Integer.valueOf(obrigatorio(linha, nome, 11));
+
+    }
+
+    private static float decimal(LinhaImportacao linha, String nome) {
+
+        String valor = opcional(linha, nome, 20);
+
+        return valor != null ? Float.parseFloat(valor.replace(',', '.')) : 0f;
+
+    }
+
+    private static LocalDate data(LinhaImportacao linha, String nome, boolean obrigatoria) {
+
+        String valor = obrigatoria ? obrigatorio(linha, nome, 10) : opcional(linha, nome, 10);
+
+        if (valor == null) {
+            return null;
+        }
+
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("O campo " + nome + " deve estar no formato yyyy-MM-dd.");
+        }
+
+    }
+
+    private static String somenteDigitos(String valor) {
+
+        return valor.replaceAll("\\D", "");
+
+    }
+
+    private static <T> List<List<T>> particionar(Set<T> valores) {
+
+        List<T> lista = new ArrayList<>(new LinkedHashSet<>(valores));
+        List<List<T>> lotes = new ArrayList<>();
+
+        for (int inicio = 0; inicio < lista.size(); inicio += TAMANHO_CONSULTA_IN) {
+            lotes.add(lista.subList(inicio, Math.min(inicio + TAMANHO_CONSULTA_IN, lista.size())));
+        }
+
+        return lotes;
+
+    }
+
+    private record LinhaImportacao(int numero, Map<String, String> campos) {
+    }
+
+    private static class RegistroImportacao<T> {
+
+        private final int linha;
+
+        private T entidade;
+
+        private String cpfDono;
+
+        private volatile String erro;
+
+        RegistroImportacao(int linha) {
+            this.linha = linha;
+        }
+
+        Long getId() {
+
+            if (entidade instanceof Usuario usuario) {
+                return usuario.getId();
+            }
+
+            if (entidade instanceof Animal animal) {
+                return animal.getId();
+            }
+
+            return null;
+
+        }
+
+    }
+
+}
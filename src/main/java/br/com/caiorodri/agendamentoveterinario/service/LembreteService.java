@@ -0,0 +1,376 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import br.com.caiorodri.agendamentoveterinario.email.EmailSender;
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoTipo;
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoTipoRepository;
+import br.com.caiorodri.agendamentoveterinario.scheduler.RodaTemporizacao;
+
+/**
+ * Lembretes por e-mail antes dos agendamentos. O envio dos lembretes das próximas horas fica em uma
+ * roda de temporização, recarregada periodicamente por uma consulta indexada pelo status e início do
+ * agendamento; o que está além da janela continua só no banco. Cada avanço da roda devolve os
+ * lembretes de uma casa, que são validados com uma única consulta e enviados em lote para a fila de
+ * e-mails. O cadastro, a atualização e a exclusão de agendamentos atualizam a roda na hora.
+ *
+ * A roda não remove itens: o lembrete removido sai do conjunto de agendados e é descartado quando
+ * vence. Antes do envio o agendamento é relido do banco, então lembretes de agendamentos cancelados
+ * ou alterados por outra instância também são descartados. Todas as instâncias carregam a mesma
+ * janela, e a linha gravada em lembrete_agendamento antes do envio garante que só uma envia cada
+ * lembrete. A linha só é necessária até o início do agendamento, quando nenhum lembrete dele é mais
+ * enviado; a partir daí é removida por {@link #limpar()}, e antes disso junto com o agendamento.
+ */
+@Service
+public class LembreteService {
+
+    private static final String SQL_REGISTRAR =
+            "INSERT INTO lembrete_agendamento (id_agendamento, antecedencia_minutos, data_agendamento_inicio, data_envio) " +
+            "VALUES (?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private static final String SQL_DESFAZER =
+            "DELETE FROM lembrete_agendamento WHERE id_agendamento = ? AND antecedencia_minutos = ? AND data_agendamento_inicio = ?";
+
+    private static final String SQL_LIMPAR = "DELETE FROM lembrete_agendamento WHERE data_agendamento_inicio < ?";
+
+    private static final int TAMANHO_LOTE = 500;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private AgendamentoTipoRepository agendamentoTipoRepository;
+
+    @Autowired
+    private EmailSender emailSender;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("executorEmails")
+    private Executor executorEmails;
+
+    private final RodaTemporizacao<Lembrete> roda;
+
+    private final Set<Lembrete> agendados = ConcurrentHashMap.newKeySet();
+
+    private final Duration janela;
+
+    private final Duration tolerancia;
+
+    private final List<Integer> antecedenciasPadrao;
+
+    private volatile Map<Integer, List<Integer>> antecedenciasPorTipo = Map.of();
+
+    final static Logger logger = LoggerFactory.getLogger(LembreteService.class);
+
+    final Integer ID_STATUS_ABERTO = 1;
+
+    public LembreteService(@Value("${lembretes.duracao-casa-ms:60000}") long duracaoCasaMillis,
+                           @Value("${lembretes.janela-horas:6}") long janelaHoras,
+                           @Value("${lembretes.tolerancia-minutos:30}") long toleranciaMinutos,
+                           @Value("${lembretes.antecedencias-minutos:1440,120}") List<Integer> antecedenciasPadrao) {
+
+        this.janela = Duration.ofHours(janelaHoras);
+        this.tolerancia = Duration.ofMinutes(toleranciaMinutos);
+        this.antecedenciasPadrao = List.copyOf(antecedenciasPadrao);
+
+        // Uma casa a mais que a janela, para que nenhum lembrete carregado dê mais de uma volta na roda.
+        int quantidadeCasas = (int) (janela.toMillis() / duracaoCasaMillis) + 1;
+
+        this.roda = new RodaTemporizacao<>(duracaoCasaMillis, quantidadeCasas, System.currentTimeMillis());
+
+    }
+
+    /**
+     * Agenda os lembretes de um agendamento salvo ou atualizado cujo envio cai na janela atual. Os
+     * demais são carregados por {@link #recarregar()} quando entrarem na janela.
+     *
+     * @param agendamento Agendamento salvo.
+     */
+    public void agendar(Agendamento agendamento) {
+
+        if (agendamento.getId() == null || agendamento.getDataAgendamentoInicio() == null
+                || agendamento.getStatus() == null || !ID_STATUS_ABERTO.equals(agendamento.getStatus().getId())) {
+            return;
+        }
+
+        Integer idTipo = agendamento.getTipo() != null ? agendamento.getTipo().getId() : null;
+
+        agendar(agendamento.getId(), agendamento.getDataAgendamentoInicio(), idTipo, LocalDateTime.now());
+
+    }
+
+    /**
+     * Descarta os lembretes ainda não enviados de um agendamento.
+     *
+     * @param idAgendamento ID do agendamento.
+     */
+    public void remover(Long idAgendamento) {
+
+        agendados.removeIf(l -> l.idAgendamento().equals(idAgendamento));
+
+    }
+
+    /**
+     * Lê as antecedências dos tipos de agendamento e agenda os lembretes dos agendamentos em aberto
+     * cujo envio cai entre a tolerância passada e a janela à frente. Lembretes já agendados são
+     * ignorados.
+     */
+    public void recarregar() {
+
+        recarregar(LocalDateTime.now());
+
+    }
+
+    /**
+     * Envia os lembretes vencidos desde o último avanço da roda.
+     *
+     * @return Quantidade de lembretes enviados para a fila de e-mails.
+     */
+    public int disparar() {
+
+        return disparar(LocalDateTime.now());
+
+    }
+
+    /**
+     * Remove os registros de envio dos agendamentos que já começaram.
+     *
+     * @return Quantidade de registros removidos.
+     */
+    public int limpar() {
+
+        return limpar(LocalDateTime.now());
+
+    }
+
+    void recarregar(LocalDateTime agora) {
+
+        logger.info("[recarregar] - Inicio");
+
+        Map<Integer, List<Integer>> porTipo = new HashMap<>();
+
+        for (AgendamentoTipo tipo : agendamentoTipoRepository.findAll()) {
+            porTipo.put(tipo.getId(), lerAntecedencias(tipo));
+        }
+
+        antecedenciasPorTipo = porTipo;
+
+        List<Integer> todas = new ArrayList<>(antecedenciasPadrao);
+        porTipo.values().forEach(todas::addAll);
+
+        if (todas.isEmpty()) {
+
+            logger.info("[recarregar] - Fim - Nenhum tipo de agendamento com lembretes");
+            return;
+
+        }
+
+        int menor = todas.stream().mapToInt(Integer::intValue).min().getAsInt();
+        int maior = todas.stream().mapToInt(Integer::intValue).max().getAsInt();
+
+        List<Object[]> agendamentos = agendamentoRepository.findLembretesNoPeriodo(
+                agora.minus(tolerancia).plusMinutes(menor), agora.plus(janela).plusMinutes(maior), ID_STATUS_ABERTO);
+
+        int novos = 0;
+
+        for (Object[] agendamento : agendamentos) {
+            novos += agendar((Long) agendamento[0], (LocalDateTime) agendamento[1], (Integer) agendamento[2], agora);
+        }
+
+        logger.info("[recarregar] - Fim - {} agendamentos na janela, {} lembretes novos, {} agendados", agendamentos.size(), novos, agendados.size());
+
+    }
+
+    int disparar(LocalDateTime agora) {
+
+        List<Lembrete> vencidos = roda.avancar(millis(agora)).stream().filter(agendados::remove).toList();
+
+        int enviados = 0;
+
+        for (int i = 0; i < vencidos.size(); i += TAMANHO_LOTE) {
+            enviados += enviarLote(vencidos.subList(i, Math.min(i + TAMANHO_LOTE, vencidos.size())), agora);
+        }
+
+        if (!vencidos.isEmpty()) {
+            logger.info("[disparar] - {} lembretes vencidos, {} enviados para a fila de e-mails", vencidos.size(), enviados);
+        }
+
+        return enviados;
+
+    }
+
+    int limpar(LocalDateTime agora) {
+
+        int removidos = jdbcTemplate.update(SQL_LIMPAR, agora);
+
+        if (removidos > 0) {
+            logger.info("[limpar] - {} registros de lembretes enviados removidos", removidos);
+        }
+
+        return removidos;
+
+    }
+
+    private int agendar(Long idAgendamento, LocalDateTime inicio, Integer idTipo, LocalDateTime agora) {
+
+        int novos = 0;
+
+        for (Integer antecedencia : antecedencias(idTipo)) {
+
+            LocalDateTime envio = inicio.minusMinutes(antecedencia);
+
+            if (envio.isBefore(agora.minus(tolerancia)) || envio.isAfter(agora.plus(janela))) {
+                continue;
+            }
+
+            Lembrete lembrete = new Lembrete(idAgendamento, antecedencia, inicio);
+
+            if (agendados.add(lembrete)) {
+
+                roda.agendar(lembrete, millis(envio));
+                novos++;
+
+            }
+        }
+
+        return novos;
+
+    }
+
+    private int enviarLote(List<Lembrete> lote, LocalDateTime agora) {
+
+        List<Long> ids = lote.stream().map(Lembrete::idAgendamento).distinct().toList();
+
+        Map<Long, Agendamento> agendamentos = agendamentoRepository.findByIdInComParticipantes(ids).stream()
+                .collect(Collectors.toMap(Agendamento::getId, Function.identity()));
+
+        int enviados = 0;
+
+        for (Lembrete lembrete : lote) {
+
+            Agendamento agendamento = agendamentos.get(lembrete.idAgendamento());
+
+            if (agendamento == null || !valido(agendamento, lembrete, agora) || !agendamento.getCliente().isReceberEmail()) {
+                continue;
+            }
+
+            if (!registrar(lembrete)) {
+
+                logger.debug("[enviarLote] - Lembrete {} já enviado por outra instância", lembrete);
+                continue;
+
+            }
+
+            executorEmails.execute(() -> enviar(agendamento, lembrete));
+            enviados++;
+
+        }
+
+        return enviados;
+
+    }
+
+    private boolean valido(Agendamento agendamento, Lembrete lembrete, LocalDateTime agora) {
+
+        return ID_STATUS_ABERTO.equals(agendamento.getStatus().getId())
+                && lembrete.inicio().equals(agendamento.getDataAgendamentoInicio())
+                && agendamento.getDataAgendamentoInicio().isAfter(agora)
+                && antecedencias(agendamento.getTipo().getId()).contains(lembrete.antecedenciaMinutos());
+
+    }
+
+    private boolean registrar(Lembrete lembrete) {
+
+        try {
+
+            return jdbcTemplate.update(SQL_REGISTRAR, lembrete.idAgendamento(), lembrete.antecedenciaMinutos(), lembrete.inicio()) == 1;
+
+        } catch (DuplicateKeyException e) {
+
+            return false;
+
+        }
+
+    }
+
+    private void enviar(Agendamento agendamento, Lembrete lembrete) {
+
+        if (emailSender.enviarLembreteAgendamentoEmail(agendamento, lembrete.antecedenciaMinutos())) {
+            return;
+        }
+
+        // Desfaz o registro para que o lembrete seja reenviado na próxima recarga, dentro da tolerância.
+        jdbcTemplate.update(SQL_DESFAZER, lembrete.idAgendamento(), lembrete.antecedenciaMinutos(), lembrete.inicio());
+
+        logger.warn("[enviar] - Falha ao enviar o lembrete do agendamento com id = {}", lembrete.idAgendamento());
+
+    }
+
+    private List<Integer> antecedencias(Integer idTipo) {
+
+        return idTipo == null ? antecedenciasPadrao : antecedenciasPorTipo.getOrDefault(idTipo, antecedenciasPadrao);
+
+    }
+
+    private List<Integer> lerAntecedencias(AgendamentoTipo tipo) {
+
+        if (tipo.getAntecedenciasLembrete() == null) {
+            return antecedenciasPadrao;
+        }
+
+        try {
+
+            return Arrays.stream(tipo.getAntecedenciasLembrete().split(","))
+                    .map(String::trim)
+                    .filter(valor -> !valor.isEmpty())
+                    .map(Integer::valueOf)
+                    .filter(minutos -> minutos > 0)
+                    .distinct()
+                    .toList();
+
+        } catch (NumberFormatException e) {
+
+            logger.warn("[lerAntecedencias] - Antecedências inválidas no tipo de agendamento com id = {}: {}", tipo.getId(), tipo.getAntecedenciasLembrete());
+
+            return antecedenciasPadrao;
+
+        }
+
+    }
+
+    private static long millis(LocalDateTime data) {
+
+        return data.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    }
+
+    private record Lembrete(Long idAgendamento, Integer antecedenciaMinutos, LocalDateTime inicio) {
+    }
+
+}
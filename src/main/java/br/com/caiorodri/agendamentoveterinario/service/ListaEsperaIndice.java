@@ -0,0 +1,150 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.stereotype.Component;
+
+import br.com.caiorodri.agendamentoveterinario.model.ListaEspera;
+
+/**
+ * Índice em memória das entradas aguardando na lista de espera.
+ * As entradas ficam agrupadas por (clínica, veterinário, tipo), com veterinário 0 para "qualquer veterinário",
+ * e cada grupo é uma fila de prioridade ordenada pela data de cadastro. Na liberação de um horário
+ * só dois grupos são consultados, e a reserva do candidato é a própria remoção da fila, o que garante
+ * que duas liberações simultâneas nunca ofertam para a mesma entrada.
+ */
+@Component
+public class ListaEsperaIndice {
+
+    private static final Long QUALQUER_VETERINARIO = 0L;
+
+    private static final Comparator<Entrada> PRIORIDADE = Comparator.comparing(Entrada::dataCriacao).thenComparing(Entrada::id);
+
+    private final Map<Chave, NavigableSet<Entrada>> filas = new ConcurrentHashMap<>();
+
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+
+    /**
+     * Adiciona (ou substitui) uma entrada aguardando no índice.
+     *
+     * @param listaEspera Entrada da lista de espera.
+     */
+    public void adicionar(ListaEspera listaEspera) {
+
+        Long idVeterinario = listaEspera.getVeterinario() != null ? listaEspera.getVeterinario().getId() : QUALQUER_VETERINARIO;
+
+        Entrada entrada = new Entrada(listaEspera.getId(), listaEspera.getIdClinica(), idVeterinario, listaEspera.getTipo().getId(),
+                listaEspera.getDataInicio(), listaEspera.getDataFim(), listaEspera.getDataCriacao());
+
+        remover(entrada.id());
+
+        entradas.put(entrada.id(), entrada);
+        filas.computeIfAbsent(new Chave(entrada.idClinica(), entrada.idVeterinario(), entrada.idTipo()), c -> new ConcurrentSkipListSet<>(PRIORIDADE)).add(entrada);
+
+    }
+
+    /**
+     * Remove uma entrada do índice, se existir.
+     *
+     * @param id ID da entrada.
+     * @return true se a entrada estava no índice.
+     */
+    public boolean remover(Long id) {
+
+        Entrada entrada = entradas.remove(id);
+
+        if (entrada == null) {
+            return false;
+        }
+
+        NavigableSet<Entrada> fila = filas.get(new Chave(entrada.idClinica(), entrada.idVeterinario(), entrada.idTipo()));
+
+        return fila != null && fila.remove(entrada);
+
+    }
+
+    /**
+     * Escolhe e retira do índice a entrada mais antiga compatível com o horário liberado, considerando
+     * quem pediu o veterinário do horário e quem aceita qualquer veterinário.
+     *
+     * @param idClinica Clínica do horário liberado.
+     * @param idVeterinario Veterinário do horário liberado.
+     * @param idTipo Tipo do agendamento liberado.
+     * @param data Data do horário liberado.
+     * @return ID da entrada reservada ou null se não houver candidato.
+     */
+    public Long reservarCandidato(Long idClinica, Long idVeterinario, Integer idTipo, LocalDate data) {
+
+        while (true) {
+
+            Entrada especifico = primeiroCompativel(filas.get(new Chave(idClinica, idVeterinario, idTipo)), data);
+            Entrada qualquer = primeiroCompativel(filas.get(new Chave(idClinica, QUALQUER_VETERINARIO, idTipo)), data);
+
+            Entrada escolhido = especifico == null ? qualquer
+                    : qualquer == null ? especifico
+                    : PRIORIDADE.compare(especifico, qualquer) <= 0 ? especifico : qualquer;
+
+            if (escolhido == null) {
+                return null;
+            }
+
+            if (entradas.remove(escolhido.id(), escolhido)) {
+
+                filas.get(new Chave(escolhido.idClinica(), escolhido.idVeterinario(), escolhido.idTipo())).remove(escolhido);
+
+                return escolhido.id();
+
+            }
+        }
+
+    }
+
+    /**
+     * @return Quantidade de entradas aguardando no índice.
+     */
+    public int tamanho() {
+
+        return entradas.size();
+
+    }
+
+    /**
+     * Esvazia o índice.
+     */
+    public void limpar() {
+
+        entradas.clear();
+        filas.clear();
+
+    }
+
+    private Entrada primeiroCompativel(NavigableSet<Entrada> fila, LocalDate data) {
+
+        if (fila == null) {
+            return null;
+        }
+
+        for (Entrada entrada : fila) {
+
+            if (!data.isBefore(entrada.dataInicio()) && !data.isAfter(entrada.dataFim())) {
+                return entrada;
+            }
+        }
+
+        return null;
+
+    }
+
+    private record Chave(Long idClinica, Long idVeterinario, Integer idTipo) {
+    }
+
+    private record Entrada(Long id, Long idClinica, Long idVeterinario, Integer idTipo, LocalDate dataInicio, LocalDate dataFim, LocalDateTime dataCriacao) {
+    }
+
+}
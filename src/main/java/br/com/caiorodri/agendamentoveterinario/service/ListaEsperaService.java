@@ -0,0 +1,559 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.caiorodri.agendamentoveterinario.cluster.BarramentoCluster;
+import br.com.caiorodri.agendamentoveterinario.email.EmailSender;
+import br.com.caiorodri.agendamentoveterinario.enums.ListaEsperaStatusEnum;
+import br.com.caiorodri.agendamentoveterinario.event.AgendamentoCanceladoEvent;
+import br.com.caiorodri.agendamentoveterinario.event.InvalidacaoRemotaEvent;
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoStatus;
+import br.com.caiorodri.agendamentoveterinario.model.ListaEspera;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoTipoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.AnimalRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.ListaEsperaRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
+import jakarta.persistence.EntityNotFoundException;
+
+@Service
+public class ListaEsperaService {
+
+    @Autowired
+    private ListaEsperaRepository listaEsperaRepository;
+
+    @Autowired
+    private ListaEsperaIndice listaEsperaIndice;
+
+    @Autowired
+    private ReservasHorario reservasHorario;
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private AgendamentoTipoRepository agendamentoTipoRepository;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private EmailSender emailSender;
+
+    @Autowired
+    private BarramentoCluster barramentoCluster;
+
+    @Autowired
+    @Qualifier("executorEmails")
+    private Executor executorEmails;
+
+    @Value("${lista-espera.validade-oferta-minutos:30}")
+    private long validadeOfertaMinutos;
+
+    @Value("${lista-espera.janela-maxima-dias:90}")
+    private long janelaMaximaDias;
+
+    final static Logger logger = LoggerFactory.getLogger(ListaEsperaService.class);
+
+    final Integer ID_PERFIL_CLIENTE = 1;
+
+    final Integer ID_PERFIL_VETERINARIO = 3;
+
+    final Integer ID_STATUS_ABERTO = 1;
+
+    /**
+     * Carrega no índice em memória as entradas que ainda estão aguardando.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarIndice() {
+
+        logger.info("[carregarIndice] - Inicio - Carregando lista de espera");
+
+        listaEsperaIndice.limpar();
+        listaEsperaRepository.findVigentes(ListaEsperaStatusEnum.AGUARDANDO, LocalDate.now()).forEach(listaEsperaIndice::adicionar);
+
+        logger.info("[carregarIndice] - Fim - {} entradas aguardando", listaEsperaIndice.tamanho());
+
+    }
+
+    /**
+     * Recupera uma entrada da lista de espera. Clientes só podem ver as próprias entradas.
+     *
+     * @param id ID da entrada.
+     * @param usuarioLogado Usuário autenticado.
+     * @return Entrada encontrada.
+     * @throws EntityNotFoundException se a entrada não existir ou não pertencer ao cliente.
+     */
+    public ListaEspera recuperar(Long id, Usuario usuarioLogado) {
+
+        logger.info("[recuperar] - Inicio - Buscando entrada da lista de espera com id = {}", id);
+
+        ListaEspera listaEspera = listaEsperaRepository.findById(id)
+                .filter(l -> !isCliente(usuarioLogado) || l.getCliente().getId().equals(usuarioLogado.getId()))
+                .orElseThrow(() -> new EntityNotFoundException("Entrada da lista de espera com id " + id + " não encontrada"));
+
+        logger.info("[recuperar] - Fim - Entrada com id = {} encontrada", id);
+
+        return listaEspera;
+
+    }
+
+    /**
+     * Lista as entradas da lista de espera de um cliente.
+     *
+     * @param idCliente ID do cliente.
+     * @param pageable Dados de paginação.
+     * @return Page com as entradas do cliente.
+     */
+    public Page<ListaEspera> listarByCliente(Long idCliente, Pageable pageable) {
+
+        logger.info("[listarByCliente] - Inicio - Listando lista de espera do cliente com id = {}", idCliente);
+
+        Page<ListaEspera> entradas = listaEsperaRepository.findByCliente(idCliente, pageable);
+
+        logger.info("[listarByCliente] - Fim - Encontradas {} entradas", entradas.getTotalElements());
+
+        return entradas;
+
+    }
+
+    /**
+     * Lista as entradas aguardando ou com oferta em aberto, da mais antiga para a mais nova.
+     *
+     * @param pageable Dados de paginação.
+     * @return Page com as entradas ativas.
+     */
+    public Page<ListaEspera> listarAtivas(Pageable pageable) {
+
+        logger.info("[listarAtivas] - Inicio - Listando entradas ativas da lista de espera");
+
+        Page<ListaEspera> entradas = listaEsperaRepository.findByStatus(List.of(ListaEsperaStatusEnum.AGUARDANDO, ListaEsperaStatusEnum.OFERTADA), pageable);
+
+        logger.info("[listarAtivas] - Fim - Encontradas {} entradas", entradas.getTotalElements());
+
+        return entradas;
+
+    }
+
+    /**
+     * Cadastra o interesse de um cliente por um horário de um veterinário (ou de qualquer veterinário)
+     * e tipo dentro de uma janela de datas.
+     *
+     * @param listaEspera Entrada a ser cadastrada.
+     * @param usuarioLogado Usuário autenticado. Se for cliente, a entrada é sempre registrada em seu nome.
+     * @return Entrada salva.
+     * @throws IllegalArgumentException se os dados forem inválidos.
+     */
+    @Transactional
+    public ListaEspera salvar(ListaEspera listaEspera, Usuario usuarioLogado) {
+
+        logger.info("[salvar] - Inicio - Cadastrando entrada na lista de espera");
+
+        if (isCliente(usuarioLogado)) {
+            listaEspera.setCliente(new Usuario(usuarioLogado.getId()));
+        }
+
+        validarListaEspera(listaEspera);
+
+        listaEspera.setId(null);
+        listaEspera.setStatus(ListaEsperaStatusEnum.AGUARDANDO);
+        listaEspera.setDataCriacao(LocalDateTime.now());
+        listaEspera.setOfertaVeterinario(null);
+        listaEspera.setOfertaInicio(null);
+        listaEspera.setOfertaFim(null);
+        listaEspera.setOfertaExpiracao(null);
+        listaEspera.setAgendamento(null);
+
+        ListaEspera listaEsperaSalva = listaEsperaRepository.save(listaEspera);
+
+        // Só entra no índice depois do commit: se a transação for desfeita, a entrada nunca é ofertada.
+        aposCommit(() -> listaEsperaIndice.adicionar(listaEsperaSalva));
+        barramentoCluster.publicar(BarramentoCluster.LISTA_ESPERA, List.of(listaEsperaSalva.getId()));
+
+        logger.info("[salvar] - Fim - Entrada salva com id = {}", listaEsperaSalva.getId());
+
+        return listaEsperaSalva;
+
+    }
+
+    /**
+     * Cancela uma entrada da lista de espera.
+     *
+     * @param id ID da entrada.
+     * @param usuarioLogado Usuário autenticado.
+     * @throws EntityNotFoundException se a entrada não existir.
+     * @throws IllegalArgumentException se a entrada já tiver sido encerrada.
+     */
+    @Transactional
+    public void cancelar(Long id, Usuario usuarioLogado) {
+
+        logger.info("[cancelar] - Inicio - Cancelando entrada da lista de espera com id = {}", id);
+
+        ListaEspera listaEspera = recuperar(id, usuarioLogado);
+
+        if (!isAtiva(listaEspera)) {
+            throw new IllegalArgumentException("Esta entrada da lista de espera já foi encerrada.");
+        }
+
+        listaEsperaIndice.remover(id);
+
+        AgendamentoCanceladoEvent vagaOfertada = listaEspera.getStatus() == ListaEsperaStatusEnum.OFERTADA ? vagaOfertada(listaEspera) : null;
+
+        listaEspera.setStatus(ListaEsperaStatusEnum.CANCELADA);
+        listaEsperaRepository.save(listaEspera);
+        barramentoCluster.publicar(BarramentoCluster.LISTA_ESPERA, List.of(id));
+
+        if (vagaOfertada != null) {
+            liberarReservaOferta(listaEspera.getCliente().getId(), vagaOfertada);
+            ofertar(vagaOfertada);
+        }
+
+        logger.info("[cancelar] - Fim - Entrada com id = {} cancelada", id);
+
+    }
+
+    /**
+     * Aceita a oferta de horário feita para a entrada, criando o agendamento.
+     *
+     * @param id ID da entrada.
+     * @param usuarioLogado Usuário autenticado.
+     * @return Agendamento criado.
+     * @throws EntityNotFoundException se a entrada não existir.
+     * @throws IllegalArgumentException se não houver oferta válida ou o horário não estiver mais livre.
+     */
+    @Transactional
+    public Agendamento aceitar(Long id, Usuario usuarioLogado) {
+
+        logger.info("[aceitar] - Inicio - Aceitando oferta da entrada com id = {}", id);
+
+        ListaEspera listaEspera = recuperar(id, usuarioLogado);
+
+        if (listaEspera.getStatus() != ListaEsperaStatusEnum.OFERTADA || listaEspera.getOfertaExpiracao().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Não há oferta de horário válida para esta entrada.");
+        }
+
+        Usuario recepcionista = usuarioService.recuperarRecepcionistaAutoAtendimento();
+
+        Agendamento agendamento = new Agendamento();
+        agendamento.setAnimal(listaEspera.getAnimal());
+        agendamento.setCliente(listaEspera.getCliente());
+        agendamento.setVeterinario(listaEspera.getOfertaVeterinario());
+        agendamento.setRecepcionista(recepcionista != null ? recepcionista : usuarioLogado);
+        agendamento.setTipo(listaEspera.getTipo());
+        agendamento.setStatus(new AgendamentoStatus(ID_STATUS_ABERTO));
+        agendamento.setDataAgendamentoInicio(listaEspera.getOfertaInicio());
+        agendamento.setDataAgendamentoFinal(listaEspera.getOfertaFim());
+        agendamento.setDescricao("Agendamento realizado pela lista de espera.");
+
+        Agendamento agendamentoSalvo = agendamentoService.salvar(agendamento);
+
+        listaEspera.setStatus(ListaEsperaStatusEnum.ATENDIDA);
+        listaEspera.setAgendamento(agendamentoSalvo);
+        listaEsperaRepository.save(listaEspera);
+
+        logger.info("[aceitar] - Fim - Agendamento {} criado a partir da entrada {}", agendamentoSalvo.getId(), id);
+
+        return agendamentoSalvo;
+
+    }
+
+    /**
+     * Recusa a oferta de horário. A entrada volta a aguardar e o horário é ofertado ao próximo da fila.
+     *
+     * @param id ID da entrada.
+     * @param usuarioLogado Usuário autenticado.
+     * @throws EntityNotFoundException se a entrada não existir.
+     * @throws IllegalArgumentException se não houver oferta em aberto.
+     */
+    @Transactional
+    public void recusar(Long id, Usuario usuarioLogado) {
+
+        logger.info("[recusar] - Inicio - Recusando oferta da entrada com id = {}", id);
+
+        ListaEspera listaEspera = recuperar(id, usuarioLogado);
+
+        if (listaEspera.getStatus() != ListaEsperaStatusEnum.OFERTADA) {
+            throw new IllegalArgumentException("Não há oferta de horário em aberto para esta entrada.");
+        }
+
+        devolverParaFila(listaEspera);
+
+        logger.info("[recusar] - Fim - Entrada com id = {} voltou a aguardar", id);
+
+    }
+
+    /**
+     * Oferta o horário liberado por um cancelamento ao primeiro candidato compatível da lista de espera.
+     * Roda na mesma thread do cancelamento, depois do commit; a escolha do candidato é feita
+     * inteiramente em memória.
+     *
+     * @param evento Horário liberado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAgendamentoCancelado(AgendamentoCanceladoEvent evento) {
+
+        if (evento.inicio() == null || evento.inicio().isBefore(LocalDateTime.now())) {
+            return;
+        }
+
+        ofertar(evento);
+
+    }
+
+    /**
+     * Atualiza o índice com as entradas alteradas em outra instância: as que estão aguardando são
+     * (re)adicionadas e as demais retiradas. A leitura é feita fora de transação, no primário.
+     *
+     * @param evento Entradas alteradas.
+     */
+    @EventListener(condition = "#evento.tipo() == T(br.com.caiorodri.agendamentoveterinario.cluster.BarramentoCluster).LISTA_ESPERA")
+    public void onListaEsperaAlteradaRemota(InvalidacaoRemotaEvent evento) {
+
+        for (Long id : evento.ids()) {
+
+            ListaEspera listaEspera = listaEsperaRepository.findById(id).orElse(null);
+
+            if (listaEspera != null && listaEspera.getStatus() == ListaEsperaStatusEnum.AGUARDANDO && !listaEspera.getDataFim().isBefore(LocalDate.now())) {
+                listaEsperaIndice.adicionar(listaEspera);
+            } else {
+                listaEsperaIndice.remover(id);
+            }
+        }
+
+    }
+
+    /**
+     * Devolve para a fila as ofertas vencidas, repassando o horário ao próximo candidato, e encerra as
+     * entradas cuja janela de datas já passou.
+     */
+    @Transactional
+    public void expirarOfertas() {
+
+        LocalDateTime agora = LocalDateTime.now();
+
+        List<Long> ofertasVencidas = listaEsperaRepository.findIdsOfertasExpiradas(ListaEsperaStatusEnum.OFERTADA, agora);
+
+        for (Long id : ofertasVencidas) {
+            listaEsperaRepository.findById(id).ifPresent(this::devolverParaFila);
+        }
+
+        List<Long> janelasEncerradas = listaEsperaRepository.findIdsJanelaEncerrada(ListaEsperaStatusEnum.AGUARDANDO, agora.toLocalDate());
+
+        if (!janelasEncerradas.isEmpty()) {
+            janelasEncerradas.forEach(listaEsperaIndice::remover);
+            listaEsperaRepository.updateStatus(janelasEncerradas, ListaEsperaStatusEnum.EXPIRADA);
+            barramentoCluster.publicar(BarramentoCluster.LISTA_ESPERA, janelasEncerradas);
+        }
+
+        if (!ofertasVencidas.isEmpty() || !janelasEncerradas.isEmpty()) {
+            logger.info("[expirarOfertas] - {} ofertas vencidas devolvidas, {} entradas expiradas", ofertasVencidas.size(), janelasEncerradas.size());
+        }
+
+    }
+
+    private void devolverParaFila(ListaEspera listaEspera) {
+
+        AgendamentoCanceladoEvent vaga = vagaOfertada(listaEspera);
+
+        listaEspera.setStatus(ListaEsperaStatusEnum.AGUARDANDO);
+        listaEspera.setOfertaVeterinario(null);
+        listaEspera.setOfertaInicio(null);
+        listaEspera.setOfertaFim(null);
+        listaEspera.setOfertaExpiracao(null);
+        listaEsperaRepository.save(listaEspera);
+        barramentoCluster.publicar(BarramentoCluster.LISTA_ESPERA, List.of(listaEspera.getId()));
+
+        liberarReservaOferta(listaEspera.getCliente().getId(), vaga);
+
+        // O horário é repassado antes de a entrada voltar ao índice, para não ser ofertado a ela de novo.
+        ofertar(vaga);
+
+        if (!listaEspera.getDataFim().isBefore(LocalDate.now())) {
+            listaEsperaIndice.adicionar(listaEspera);
+        }
+
+    }
+
+    private void ofertar(AgendamentoCanceladoEvent vaga) {
+
+        if (vaga.idVeterinario() == null || vaga.inicio() == null || vaga.inicio().isBefore(LocalDateTime.now())) {
+            return;
+        }
+
+        Long idCandidato = listaEsperaIndice.reservarCandidato(vaga.idClinica(), vaga.idVeterinario(), vaga.idTipo(), vaga.inicio().toLocalDate());
+
+        if (idCandidato == null) {
+            logger.info("[ofertar] - Nenhum candidato na lista de espera para o horário de {}", vaga.inicio());
+            return;
+        }
+
+        ListaEspera candidato = listaEsperaRepository.findById(idCandidato).orElse(null);
+
+        if (candidato == null || candidato.getStatus() != ListaEsperaStatusEnum.AGUARDANDO) {
+            ofertar(vaga);
+            return;
+        }
+
+        LocalDateTime expiracao = LocalDateTime.now().plusMinutes(validadeOfertaMinutos);
+
+        // A oferta segura o horário com uma reserva; se outro cliente já o reservou, não há o que ofertar.
+        if (reservasHorario.reservar(vaga.idVeterinario(), candidato.getCliente().getId(), vaga.idTipo(), vaga.inicio(), vaga.fim(), expiracao).isEmpty()) {
+
+            listaEsperaIndice.adicionar(candidato);
+
+            logger.info("[ofertar] - Horário de {} já reservado por outro cliente, oferta não realizada", vaga.inicio());
+            return;
+
+        }
+
+        candidato.setStatus(ListaEsperaStatusEnum.OFERTADA);
+        candidato.setOfertaVeterinario(usuarioRepository.getReferenceById(vaga.idVeterinario()));
+        candidato.setOfertaInicio(vaga.inicio());
+        candidato.setOfertaFim(vaga.fim());
+        candidato.setOfertaExpiracao(expiracao);
+
+        listaEsperaRepository.save(candidato);
+        barramentoCluster.publicar(BarramentoCluster.LISTA_ESPERA, List.of(candidato.getId()));
+
+        Long idEntrada = candidato.getId();
+        aposCommit(() -> executorEmails.execute(() -> listaEsperaRepository.findById(idEntrada).ifPresent(emailSender::enviarOfertaListaEsperaEmail)));
+
+        logger.info("[ofertar] - Horário de {} ofertado para a entrada {} da lista de espera", vaga.inicio(), idEntrada);
+
+    }
+
+    private void aposCommit(Runnable acao) {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+
+        } else {
+
+            acao.run();
+
+        }
+
+    }
+
+    private void liberarReservaOferta(Long idCliente, AgendamentoCanceladoEvent vaga) {
+
+        if (vaga.idVeterinario() != null && vaga.inicio() != null && vaga.fim() != null) {
+            reservasHorario.liberarDoCliente(vaga.idVeterinario(), idCliente, vaga.inicio(), vaga.fim());
+        }
+
+    }
+
+    private AgendamentoCanceladoEvent vagaOfertada(ListaEspera listaEspera) {
+
+        Long idVeterinario = listaEspera.getOfertaVeterinario() != null ? listaEspera.getOfertaVeterinario().getId() : null;
+
+        return new AgendamentoCanceladoEvent(null, listaEspera.getIdClinica(), idVeterinario, listaEspera.getTipo().getId(), listaEspera.getOfertaInicio(), listaEspera.getOfertaFim());
+
+    }
+
+    private void validarListaEspera(ListaEspera listaEspera) {
+
+        if (listaEspera.getCliente() == null || listaEspera.getCliente().getId() == null) {
+            throw new IllegalArgumentException("O cliente é obrigatório.");
+        }
+
+        if (listaEspera.getAnimal() == null || listaEspera.getAnimal().getId() == null) {
+            throw new IllegalArgumentException("O animal é obrigatório.");
+        }
+
+        if (!animalRepository.existsByIdAndDonoId(listaEspera.getAnimal().getId(), listaEspera.getCliente().getId())) {
+            throw new IllegalArgumentException("O animal informado não pertence ao cliente.");
+        }
+
+        if (listaEspera.getTipo() == null || listaEspera.getTipo().getId() == null) {
+            throw new IllegalArgumentException("O tipo de agendamento é obrigatório.");
+        }
+
+        listaEspera.setTipo(agendamentoTipoRepository.findById(listaEspera.getTipo().getId())
+                .orElseThrow(() -> new IllegalArgumentException("Tipo de agendamento com id " + listaEspera.getTipo().getId() + " não encontrado.")));
+
+        if (listaEspera.getVeterinario() != null) {
+
+            if (listaEspera.getVeterinario().getId() == null) {
+
+                listaEspera.setVeterinario(null);
+
+            } else {
+
+                Usuario veterinario = usuarioRepository.findById(listaEspera.getVeterinario().getId())
+                        .orElseThrow(() -> new IllegalArgumentException("Veterinário com id " + listaEspera.getVeterinario().getId() + " não encontrado."));
+
+                if (!Objects.equals(veterinario.getPerfil().getId(), ID_PERFIL_VETERINARIO)) {
+                    throw new IllegalArgumentException("Usuário com id " + veterinario.getId() + " não é um veterinário.");
+                }
+
+                listaEspera.setVeterinario(veterinario);
+
+            }
+        }
+
+        if (listaEspera.getDataInicio() == null || listaEspera.getDataFim() == null) {
+            throw new IllegalArgumentException("As datas inicial e final da janela são obrigatórias.");
+        }
+
+        if (listaEspera.getDataFim().isBefore(listaEspera.getDataInicio())) {
+            throw new IllegalArgumentException("A data final não pode ser anterior à data inicial.");
+        }
+
+        if (listaEspera.getDataFim().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("A janela de datas já passou.");
+        }
+
+        if (listaEspera.getDataInicio().plusDays(janelaMaximaDias).isBefore(listaEspera.getDataFim())) {
+            throw new IllegalArgumentException("A janela de datas pode ter no máximo " + janelaMaximaDias + " dias.");
+        }
+
+    }
+
+    private boolean isAtiva(ListaEspera listaEspera) {
+
+        return listaEspera.getStatus() == ListaEsperaStatusEnum.AGUARDANDO || listaEspera.getStatus() == ListaEsperaStatusEnum.OFERTADA;
+
+    }
+
+    private boolean isCliente(Usuario usuario) {
+
+        return usuario != null && usuario.getPerfil() != null && Objects.equals(usuario.getPerfil().getId(), ID_PERFIL_CLIENTE);
+
+    }
+
+}
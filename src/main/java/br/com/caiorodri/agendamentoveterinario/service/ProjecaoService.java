@@ -0,0 +1,238 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+
+/**
+ * Listagens com seleção de campos (parâmetro fields). Os campos pedidos viram uma projeção Criteria
+ * com LEFT JOIN apenas nas associações necessárias; ID de associação (ex.: cliente.id) é lido da
+ * chave estrangeira, sem join. O resultado é um Map aninhado com os mesmos nomes dos DTOs, sem as
+ * chaves cujo valor é nulo.
+ */
+@Service
+public class ProjecaoService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    final static Logger logger = LoggerFactory.getLogger(ProjecaoService.class);
+
+    /**
+     * Lista uma página da entidade trazendo só os campos pedidos.
+     *
+     * @param entidade Classe da entidade consultada.
+     * @param catalogo Campos que podem ser pedidos, no formato do DTO (ex.: animal.nome).
+     * @param campos Campos pedidos, separados por vírgula. Um prefixo (ex.: animal) seleciona todos os campos do catálogo abaixo dele.
+     * @param filtro Filtro da consulta, ou null para todos os registros.
+     * @param pageable Dados de paginação e ordenação.
+     * @return Page com um Map por registro.
+     * @throws IllegalArgumentException se nenhum campo for informado ou algum campo não estiver no catálogo.
+     */
+    @Transactional(readOnly = true)
+    public <T> Page<Map<String, Object>> listar(Class<T> entidade, List<String> catalogo, String campos, Specification<T> filtro, Pageable pageable) {
+
+        List<String> selecionados = resolverCampos(catalogo, campos);
+
+        logger.info("[listar] - Inicio - Projetando {} com os campos {}", entidade.getSimpleName(), selecionados);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entidade);
+
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selecoes = new ArrayList<>();
+
+        for (String campo : selecionados) {
+            selecoes.add(caminho(root, joins, campo));
+        }
+
+        query.multiselect(selecoes);
+
+        Predicate predicado = filtro != null ? filtro.toPredicate(root, query, cb) : null;
+
+        if (predicado != null) {
+            query.where(predicado);
+        }
+
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        List<Tuple> linhas = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        List<Map<String, Object>> conteudo = new ArrayList<>(linhas.size());
+
+        for (Tuple linha : linhas) {
+            conteudo.add(montar(selecionados, linha));
+        }
+
+        logger.info("[listar] - Fim - {} registros de {} projetados", conteudo.size(), entidade.getSimpleName());
+
+        // Como no Spring Data, a contagem só é feita quando não dá para deduzir o total pela própria página.
+        return PageableExecutionUtils.getPage(conteudo, pageable, () -> contar(entidade, filtro));
+
+    }
+
+    private List<String> resolverCampos(List<String> catalogo, String campos) {
+
+        Set<String> selecionados = new LinkedHashSet<>();
+
+        for (String campo : campos == null ? new String[0] : campos.split(",")) {
+
+            String nome = campo.trim();
+
+            if (nome.isEmpty()) {
+                continue;
+            }
+
+            if (catalogo.contains(nome)) {
+                selecionados.add(nome);
+                continue;
+            }
+
+            List<String> abaixo = catalogo.stream().filter(c -> c.startsWith(nome + ".")).toList();
+
+            if (abaixo.isEmpty()) {
+                throw new IllegalArgumentException("Campo '" + nome + "' não pode ser selecionado. Campos disponíveis: " + String.join(", ", catalogo));
+            }
+
+            selecionados.addAll(abaixo);
+
+        }
+
+        if (selecionados.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um campo em fields.");
+        }
+
+        return new ArrayList<>(selecionados);
+
+    }
+
+    private Path<?> caminho(Root<?> root, Map<String, From<?, ?>> joins, String campo) {
+
+        String[] partes = campo.split("\\.");
+
+        Path<?> atual = root;
+        ManagedType<?> tipo = root.getModel();
+        String prefixo = "";
+
+        for (int i = 0; i < partes.length - 1; i++) {
+
+            Attribute<?, ?> atributo = tipo.getAttribute(partes[i]);
+            prefixo = prefixo.isEmpty() ? partes[i] : prefixo + "." + partes[i];
+
+            if (atributo.isAssociation()) {
+
+                EntityType<?> destino = entityManager.getMetamodel().entity(atributo.getJavaType());
+                boolean somenteId = i == partes.length - 2 && isId(destino, partes[i + 1]);
+
+                // O ID da associação está na própria tabela; para os demais campos o join é LEFT para não descartar registros.
+                if (somenteId || !(atual instanceof From<?, ?> from)) {
+                    atual = atual.get(partes[i]);
+                } else {
+                    atual = joins.computeIfAbsent(prefixo, p -> from.join(atributo.getName(), JoinType.LEFT));
+                }
+
+                tipo = destino;
+
+            } else {
+
+                atual = atual.get(partes[i]);
+                tipo = entityManager.getMetamodel().embeddable(atributo.getJavaType());
+
+            }
+        }
+
+        return atual.get(partes[partes.length - 1]);
+
+    }
+
+    private boolean isId(EntityType<?> tipo, String atributo) {
+
+        return tipo.hasSingleIdAttribute() && tipo.getId(tipo.getIdType().getJavaType()).getName().equals(atributo);
+
+    }
+
+    private <T> long contar(Class<T> entidade, Specification<T> filtro) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entidade);
+
+        query.select(cb.count(root));
+
+        Predicate predicado = filtro != null ? filtro.toPredicate(root, query, cb) : null;
+
+        if (predicado != null) {
+            query.where(predicado);
+        }
+
+        return entityManager.createQuery(query).getSingleResult();
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> montar(List<String> campos, Tuple linha) {
+
+        Map<String, Object> registro = new LinkedHashMap<>();
+
+        for (int i = 0; i < campos.size(); i++) {
+
+            Object valor = linha.get(i);
+            String campo = campos.get(i);
+
+            if (valor == null) {
+                continue;
+            }
+
+            String[] partes = campo.split("\\.");
+            Map<String, Object> atual = registro;
+
+            for (int j = 0; j < partes.length - 1; j++) {
+                atual = (Map<String, Object>) atual.computeIfAbsent(partes[j], p -> new LinkedHashMap<String, Object>());
+            }
+
+            atual.put(partes[partes.length - 1], valor);
+
+        }
+
+        return registro;
+
+    }
+
+}
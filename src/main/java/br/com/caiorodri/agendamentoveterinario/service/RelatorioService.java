@@ -0,0 +1,335 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.caiorodri.agendamentoveterinario.dto.RelatorioAgrupamentoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.RelatorioDiaDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.RelatorioResumoDTO;
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoEstatisticaDiariaRepository;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+
+@Service
+public class RelatorioService {
+
+    @Autowired
+    private AgendamentoEstatisticaDiariaRepository estatisticaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    final static Logger logger = LoggerFactory.getLogger(RelatorioService.class);
+
+    final Integer ID_STATUS_CANCELADO = 2;
+
+    private static final String SQL_REGISTRAR =
+            "INSERT INTO agendamento_estatistica_diaria " +
+            "(data, id_veterinario, id_agendamento_tipo, id_agendamento_status, total, soma_antecedencia_minutos) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total = total + VALUES(total), " +
+            "soma_antecedencia_minutos = soma_antecedencia_minutos + VALUES(soma_antecedencia_minutos)";
+
+    private static final String SQL_MOVER =
+            "INSERT INTO agendamento_estatistica_diaria " +
+            "(data, id_veterinario, id_agendamento_tipo, id_agendamento_status, total, soma_antecedencia_minutos) " +
+            "VALUES (?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total = total + VALUES(total), " +
+            "soma_antecedencia_minutos = soma_antecedencia_minutos + VALUES(soma_antecedencia_minutos)";
+
+    /**
+     * Soma (quantidade = 1) ou subtrai (quantidade = -1) um agendamento do consolidado diário.
+     * A gravação acompanha a transação de quem chamou, mas uma falha aqui é apenas registrada em log:
+     * o agendamento nunca deixa de ser salvo por causa do relatório, e a compactação noturna corrige
+     * qualquer diferença.
+     *
+     * @param agendamento Agendamento com início, data de criação, veterinário, tipo e status preenchidos.
+     * @param quantidade 1 para inclusão, -1 para remoção.
+     */
+    public void registrar(Agendamento agendamento, int quantidade) {
+
+        if (agendamento == null || agendamento.getVeterinario() == null || agendamento.getTipo() == null || agendamento.getStatus() == null) {
+            return;
+        }
+
+        registrar(agendamento.getDataAgendamentoInicio(), agendamento.getDataCriacao(), agendamento.getVeterinario().getId(),
+                agendamento.getTipo().getId(), agendamento.getStatus().getId(), quantidade);
+
+    }
+
+    /**
+     * Soma ou subtrai um agendamento do consolidado diário a partir dos seus campos.
+     *
+     * @param inicio Data e hora de início do agendamento.
+     * @param criacao Data e hora de criação do agendamento.
+     * @param idVeterinario ID do veterinário.
+     * @param idTipo ID do tipo do agendamento.
+     * @param idStatus ID do status do agendamento.
+     * @param quantidade 1 para inclusão, -1 para remoção.
+     */
+    public void registrar(LocalDateTime inicio, LocalDateTime criacao, Long idVeterinario, Integer idTipo, Integer idStatus, int quantidade) {
+
+        if (inicio == null || idVeterinario == null || idTipo == null || idStatus == null) {
+            return;
+        }
+
+        long antecedencia = antecedencia(criacao, inicio);
+
+        try {
+
+            jdbcTemplate.update(SQL_REGISTRAR, Date.valueOf(inicio.toLocalDate()), idVeterinario, idTipo, idStatus, quantidade, quantidade * antecedencia);
+
+        } catch (Exception e) {
+
+            logger.error("[registrar] - Erro ao atualizar o consolidado do dia {}: {}", inicio.toLocalDate(), e.getMessage());
+
+        }
+
+    }
+
+    /**
+     * Tira um agendamento alterado da linha do consolidado em que estava e o soma na nova, em um único
+     * comando. Se a linha não mudar, só a antecedência é corrigida, e nada é gravado quando ela também
+     * for a mesma.
+     *
+     * @param inicioAnterior Início antes da alteração.
+     * @param idVeterinarioAnterior Veterinário antes da alteração.
+     * @param idTipoAnterior Tipo antes da alteração.
+     * @param idStatusAnterior Status antes da alteração.
+     * @param inicio Início depois da alteração.
+     * @param idVeterinario Veterinário depois da alteração.
+     * @param idTipo Tipo depois da alteração.
+     * @param idStatus Status depois da alteração.
+     * @param criacao Data e hora de criação do agendamento.
+     */
+    public void mover(LocalDateTime inicioAnterior, Long idVeterinarioAnterior, Integer idTipoAnterior, Integer idStatusAnterior,
+                      LocalDateTime inicio, Long idVeterinario, Integer idTipo, Integer idStatus, LocalDateTime criacao) {
+
+        if (inicioAnterior == null || idVeterinarioAnterior == null || idTipoAnterior == null || idStatusAnterior == null
+                || inicio == null || idVeterinario == null || idTipo == null || idStatus == null) {
+
+            registrar(inicioAnterior, criacao, idVeterinarioAnterior, idTipoAnterior, idStatusAnterior, -1);
+            registrar(inicio, criacao, idVeterinario, idTipo, idStatus, 1);
+            return;
+
+        }
+
+        long antecedenciaAnterior = antecedencia(criacao, inicioAnterior);
+        long antecedencia = antecedencia(criacao, inicio);
+
+        boolean mesmaLinha = inicioAnterior.toLocalDate().equals(inicio.toLocalDate()) && idVeterinarioAnterior.equals(idVeterinario)
+                && idTipoAnterior.equals(idTipo) && idStatusAnterior.equals(idStatus);
+
+        try {
+
+            if (mesmaLinha) {
+
+                if (antecedencia != antecedenciaAnterior) {
+                    jdbcTemplate.update(SQL_REGISTRAR, Date.valueOf(inicio.toLocalDate()), idVeterinario, idTipo, idStatus, 0, antecedencia - antecedenciaAnterior);
+                }
+
+                return;
+
+            }
+
+            jdbcTemplate.update(SQL_MOVER,
+                    Date.valueOf(inicioAnterior.toLocalDate()), idVeterinarioAnterior, idTipoAnterior, idStatusAnterior, -1, -antecedenciaAnterior,
+                    Date.valueOf(inicio.toLocalDate()), idVeterinario, idTipo, idStatus, 1, antecedencia);
+
+        } catch (Exception e) {
+
+            logger.error("[mover] - Erro ao atualizar o consolidado dos dias {} e {}: {}", inicioAnterior.toLocalDate(), inicio.toLocalDate(), e.getMessage());
+
+        }
+
+    }
+
+    private long antecedencia(LocalDateTime criacao, LocalDateTime inicio) {
+
+        return criacao != null ? Math.max(Duration.between(criacao, inicio).toMinutes(), 0) : 0;
+
+    }
+
+    /**
+     * Recalcula o consolidado de um período a partir da tabela de agendamentos e remove as linhas zeradas.
+     *
+     * @param de Data inicial.
+     * @param ate Data final, inclusiva.
+     */
+    @Transactional
+    public void compactar(LocalDate de, LocalDate ate) {
+
+        logger.info("[compactar] - Inicio - Recalculando consolidado de {} até {}", de, ate);
+
+        validarPeriodo(de, ate);
+
+        int removidas = estatisticaRepository.deleteByPeriodo(de, ate);
+        int inseridas = estatisticaRepository.recalcularPeriodo(de.atStartOfDay(), ate.plusDays(1).atStartOfDay());
+        int vazias = estatisticaRepository.deleteVazias();
+
+        logger.info("[compactar] - Fim - {} linhas removidas, {} recalculadas, {} vazias descartadas", removidas, inseridas, vazias);
+
+    }
+
+    /**
+     * Totaliza os agendamentos do período.
+     *
+     * @param de Data inicial.
+     * @param ate Data final, inclusiva.
+     * @return Resumo com total, cancelamentos e antecedência média.
+     */
+    public RelatorioResumoDTO recuperarResumo(LocalDate de, LocalDate ate) {
+
+        logger.info("[recuperarResumo] - Inicio - Periodo de {} até {}", de, ate);
+
+        validarPeriodo(de, ate);
+
+        long total = 0;
+        long cancelados = 0;
+        long antecedencia = 0;
+
+        for (Object[] linha : estatisticaRepository.somarPorDia(de, ate, ID_STATUS_CANCELADO, ContextoClinica.exigir())) {
+            total += numero(linha[1]);
+            cancelados += numero(linha[2]);
+            antecedencia += numero(linha[3]);
+        }
+
+        RelatorioResumoDTO resumo = new RelatorioResumoDTO(de, ate, total, cancelados, taxa(cancelados, total), media(antecedencia, total));
+
+        logger.info("[recuperarResumo] - Fim - {} agendamentos no período", total);
+
+        return resumo;
+
+    }
+
+    /**
+     * Lista os totais do período agrupados por dia.
+     *
+     * @param de Data inicial.
+     * @param ate Data final, inclusiva.
+     * @return Lista com um item por dia que possui agendamentos.
+     */
+    public List<RelatorioDiaDTO> listarPorDia(LocalDate de, LocalDate ate) {
+
+        validarPeriodo(de, ate);
+
+        return estatisticaRepository.somarPorDia(de, ate, ID_STATUS_CANCELADO, ContextoClinica.exigir()).stream()
+                .map(linha -> {
+
+                    long total = numero(linha[1]);
+                    long cancelados = numero(linha[2]);
+
+                    return new RelatorioDiaDTO(data(linha[0]), total, cancelados, taxa(cancelados, total), media(numero(linha[3]), total));
+
+                })
+                .toList();
+
+    }
+
+    /**
+     * Lista os totais do período agrupados por veterinário.
+     *
+     * @param de Data inicial.
+     * @param ate Data final, inclusiva.
+     * @return Lista ordenada pelo total de agendamentos.
+     */
+    public List<RelatorioAgrupamentoDTO> listarPorVeterinario(LocalDate de, LocalDate ate) {
+
+        validarPeriodo(de, ate);
+
+        return converterAgrupamentos(estatisticaRepository.somarPorVeterinario(de, ate, ID_STATUS_CANCELADO, ContextoClinica.exigir()));
+
+    }
+
+    /**
+     * Lista os totais do período agrupados por tipo de agendamento.
+     *
+     * @param de Data inicial.
+     * @param ate Data final, inclusiva.
+     * @return Lista ordenada pelo total de agendamentos.
+     */
+    public List<RelatorioAgrupamentoDTO> listarPorTipo(LocalDate de, LocalDate ate) {
+
+        validarPeriodo(de, ate);
+
+        return converterAgrupamentos(estatisticaRepository.somarPorTipo(de, ate, ID_STATUS_CANCELADO, ContextoClinica.exigir()));
+
+    }
+
+    /**
+     * Lista os totais do período agrupados por status de agendamento.
+     *
+     * @param de Data inicial.
+     * @param ate Data final, inclusiva.
+     * @return Lista ordenada pelo total de agendamentos.
+     */
+    public List<RelatorioAgrupamentoDTO> listarPorStatus(LocalDate de, LocalDate ate) {
+
+        validarPeriodo(de, ate);
+
+        return converterAgrupamentos(estatisticaRepository.somarPorStatus(de, ate, ID_STATUS_CANCELADO, ContextoClinica.exigir()));
+
+    }
+
+    private List<RelatorioAgrupamentoDTO> converterAgrupamentos(List<Object[]> linhas) {
+
+        return linhas.stream()
+                .map(linha -> {
+
+                    long total = numero(linha[2]);
+                    long cancelados = numero(linha[3]);
+
+                    return new RelatorioAgrupamentoDTO(numero(linha[0]), (String) linha[1], total, cancelados, taxa(cancelados, total), media(numero(linha[4]), total));
+
+                })
+                .toList();
+
+    }
+
+    private void validarPeriodo(LocalDate de, LocalDate ate) {
+
+        if (de == null || ate == null) {
+            throw new IllegalArgumentException("As datas inicial e final são obrigatórias.");
+        }
+
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final não pode ser anterior à data inicial.");
+        }
+
+    }
+
+    private static long numero(Object valor) {
+
+        return valor != null ? ((Number) valor).longValue() : 0;
+
+    }
+
+    private static LocalDate data(Object valor) {
+
+        return valor instanceof Date data ? data.toLocalDate() : (LocalDate) valor;
+
+    }
+
+    private static double taxa(long parte, long total) {
+
+        return total > 0 ? (double) parte / total : 0;
+
+    }
+
+    private static double media(long soma, long total) {
+
+        return total > 0 ? (double) soma / total : 0;
+
+    }
+
+}
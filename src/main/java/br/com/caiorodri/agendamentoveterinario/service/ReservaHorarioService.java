@@ -0,0 +1,206 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.caiorodri.agendamentoveterinario.dto.ReservaHorarioRequestDTO;
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoStatus;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoTipo;
+import br.com.caiorodri.agendamentoveterinario.model.ReservaHorario;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoTipoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
+import jakarta.persistence.EntityNotFoundException;
+
+@Service
+public class ReservaHorarioService {
+
+    @Autowired
+    private ReservasHorario reservasHorario;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private AgendamentoTipoRepository agendamentoTipoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${reservas.validade-minutos:5}")
+    private long validadeMinutos;
+
+    @Value("${reservas.maximo-por-cliente:3}")
+    private long maximoPorCliente;
+
+    final static Logger logger = LoggerFactory.getLogger(ReservaHorarioService.class);
+
+    final Integer ID_PERFIL_CLIENTE = 1;
+
+    final Integer ID_PERFIL_VETERINARIO = 3;
+
+    final Integer ID_STATUS_ABERTO = 1;
+
+    final Integer ID_STATUS_CANCELADO = 2;
+
+    /**
+     * Reserva temporariamente um horário de um veterinário, para que o cliente conclua o agendamento
+     * sem disputar o horário com outros clientes.
+     *
+     * @param request Veterinário, tipo, início e (para funcionários) cliente da reserva.
+     * @param usuarioLogado Usuário autenticado. Se for cliente, a reserva é sempre feita em seu nome.
+     * @return Reserva criada.
+     * @throws EntityNotFoundException se o tipo, o veterinário ou o cliente não existirem.
+     * @throws IllegalArgumentException se os dados forem inválidos ou o horário já estiver ocupado ou reservado.
+     */
+    @Transactional(readOnly = true)
+    public ReservaHorario reservar(ReservaHorarioRequestDTO request, Usuario usuarioLogado) {
+
+        logger.info("[reservar] - Inicio - Reservando horário {} do veterinário {}", request.getInicio(), request.getIdVeterinario());
+
+        if (request.getIdVeterinario() == null || request.getIdTipo() == null || request.getInicio() == null) {
+            throw new IllegalArgumentException("Veterinário, tipo e início do horário são obrigatórios.");
+        }
+
+        if (!request.getInicio().isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Não é possível reservar um horário no passado.");
+        }
+
+        Long idCliente = isCliente(usuarioLogado) ? usuarioLogado.getId() : request.getIdCliente();
+
+        if (idCliente == null) {
+            throw new IllegalArgumentException("O cliente da reserva é obrigatório.");
+        }
+
+        if (!usuarioRepository.existsById(idCliente)) {
+            throw new EntityNotFoundException("Cliente com ID " + idCliente + " não encontrado.");
+        }
+
+        Usuario veterinario = usuarioRepository.findById(request.getIdVeterinario())
+                .orElseThrow(() -> new EntityNotFoundException("Veterinário com ID " + request.getIdVeterinario() + " não encontrado."));
+
+        if (!Objects.equals(veterinario.getPerfil().getId(), ID_PERFIL_VETERINARIO)) {
+            throw new IllegalArgumentException("Usuário com ID " + veterinario.getId() + " não é um veterinário.");
+        }
+
+        AgendamentoTipo tipo = agendamentoTipoRepository.findById(request.getIdTipo())
+                .orElseThrow(() -> new EntityNotFoundException("Tipo de agendamento com ID " + request.getIdTipo() + " não encontrado."));
+
+        if (reservasHorario.contarDoCliente(idCliente) >= maximoPorCliente) {
+            throw new IllegalArgumentException("O cliente já possui o máximo de " + maximoPorCliente + " reservas em aberto.");
+        }
+
+        LocalDateTime inicio = request.getInicio();
+        LocalDateTime fim = inicio.plusMinutes(tipo.getDuracaoMinutos());
+
+        if (agendamentoRepository.existeConflitoDeHorario(inicio, fim, ID_STATUS_CANCELADO)) {
+
+            logger.warn("[reservar] - Fim - Horário {} já possui agendamento", inicio);
+            throw new IllegalArgumentException("Já existe um agendamento para esse horário");
+
+        }
+
+        ReservaHorario reserva = reservasHorario.reservar(veterinario.getId(), idCliente, tipo.getId(), inicio, fim, LocalDateTime.now().plusMinutes(validadeMinutos))
+                .orElseThrow(() -> {
+                    logger.warn("[reservar] - Fim - Horário {} do veterinário {} já reservado por outro cliente", inicio, veterinario.getId());
+                    return new IllegalArgumentException("Este horário está reservado por outro cliente no momento.");
+                });
+
+        logger.info("[reservar] - Fim - Reserva {} criada até {}", reserva.getId(), reserva.getExpiracao());
+
+        return reserva;
+
+    }
+
+    /**
+     * Recupera uma reserva válida. Clientes só enxergam as próprias reservas.
+     *
+     * @param id ID da reserva.
+     * @param usuarioLogado Usuário autenticado.
+     * @return Reserva encontrada.
+     * @throws EntityNotFoundException se a reserva não existir, tiver vencido ou for de outro cliente.
+     */
+    public ReservaHorario recuperar(String id, Usuario usuarioLogado) {
+
+        return reservasHorario.recuperar(id)
+                .filter(r -> !isCliente(usuarioLogado) || r.getIdCliente().equals(usuarioLogado.getId()))
+                .orElseThrow(() -> new EntityNotFoundException("Reserva " + id + " não encontrada ou vencida."));
+
+    }
+
+    /**
+     * Confirma uma reserva, criando o agendamento no horário reservado.
+     *
+     * @param id ID da reserva.
+     * @param agendamento Dados complementares do agendamento (animal e descrição).
+     * @param usuarioLogado Usuário autenticado.
+     * @return Agendamento criado.
+     * @throws EntityNotFoundException se a reserva não existir ou tiver vencido.
+     * @throws IllegalArgumentException se os dados do agendamento forem inválidos.
+     */
+    public Agendamento confirmar(String id, Agendamento agendamento, Usuario usuarioLogado) {
+
+        logger.info("[confirmar] - Inicio - Confirmando reserva {}", id);
+
+        ReservaHorario reserva = recuperar(id, usuarioLogado);
+
+        Usuario recepcionista = isCliente(usuarioLogado) ? usuarioService.recuperarRecepcionistaAutoAtendimento() : null;
+
+        agendamento.setId(null);
+        agendamento.setCliente(new Usuario(reserva.getIdCliente()));
+        agendamento.setVeterinario(new Usuario(reserva.getIdVeterinario()));
+        agendamento.setRecepcionista(recepcionista != null ? recepcionista : usuarioLogado);
+        agendamento.setTipo(new AgendamentoTipo(reserva.getIdTipo()));
+        agendamento.setStatus(new AgendamentoStatus(ID_STATUS_ABERTO));
+        agendamento.setDataAgendamentoInicio(reserva.getInicio());
+        agendamento.setDataAgendamentoFinal(reserva.getFim());
+
+        Agendamento agendamentoSalvo = agendamentoService.salvar(agendamento);
+
+        reservasHorario.liberar(reserva);
+
+        logger.info("[confirmar] - Fim - Reserva {} convertida no agendamento {}", id, agendamentoSalvo.getId());
+
+        return agendamentoSalvo;
+
+    }
+
+    /**
+     * Libera uma reserva antes do vencimento.
+     *
+     * @param id ID da reserva.
+     * @param usuarioLogado Usuário autenticado.
+     * @throws EntityNotFoundException se a reserva não existir ou tiver vencido.
+     */
+    public void liberar(String id, Usuario usuarioLogado) {
+
+        logger.info("[liberar] - Inicio - Liberando reserva {}", id);
+
+        reservasHorario.liberar(recuperar(id, usuarioLogado));
+
+        logger.info("[liberar] - Fim - Reserva {} liberada", id);
+
+    }
+
+    private boolean isCliente(Usuario usuario) {
+
+        return usuario.getPerfil() != null && Objects.equals(usuario.getPerfil().getId(), ID_PERFIL_CLIENTE);
+
+    }
+
+}
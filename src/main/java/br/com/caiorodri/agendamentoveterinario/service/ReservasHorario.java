@@ -0,0 +1,95 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import br.com.caiorodri.agendamentoveterinario.model.ReservaHorario;
+
+/**
+ * Reservas temporárias de horário. As reservas válidas de um veterinário nunca se sobrepõem, e as
+ * vencidas são ignoradas mesmo antes de serem removidas.
+ */
+public interface ReservasHorario {
+
+    /**
+     * Tenta reservar o intervalo do veterinário para o cliente. Reservas do próprio cliente que se
+     * sobrepõem ao intervalo são substituídas.
+     *
+     * @param idVeterinario ID do veterinário.
+     * @param idCliente ID do cliente dono da reserva.
+     * @param idTipo ID do tipo de agendamento.
+     * @param inicio Início do horário.
+     * @param fim Fim do horário.
+     * @param expiracao Instante em que a reserva deixa de valer.
+     * @return Reserva criada ou vazio se o intervalo já estiver reservado por outro cliente.
+     */
+    Optional<ReservaHorario> reservar(Long idVeterinario, Long idCliente, Integer idTipo, LocalDateTime inicio, LocalDateTime fim, LocalDateTime expiracao);
+
+    /**
+     * @param id ID da reserva.
+     * @return Reserva válida com o ID informado.
+     */
+    Optional<ReservaHorario> recuperar(String id);
+
+    /**
+     * Remove uma reserva, se ainda existir.
+     *
+     * @param reserva Reserva a remover.
+     */
+    void liberar(ReservaHorario reserva);
+
+    /**
+     * Remove as reservas do cliente que se sobrepõem ao intervalo, usado quando o horário é confirmado
+     * ou quando uma oferta da lista de espera é encerrada.
+     *
+     * @param idVeterinario ID do veterinário.
+     * @param idCliente ID do cliente.
+     * @param inicio Início do intervalo.
+     * @param fim Fim do intervalo.
+     */
+    void liberarDoCliente(Long idVeterinario, Long idCliente, LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Verifica se o intervalo do veterinário está reservado por outro cliente.
+     *
+     * @param idVeterinario ID do veterinário.
+     * @param idCliente ID do cliente que pretende usar o horário (suas próprias reservas não contam).
+     * @param inicio Início do intervalo.
+     * @param fim Fim do intervalo.
+     * @return true se houver reserva válida de outro cliente.
+     */
+    boolean reservadoPorOutro(Long idVeterinario, Long idCliente, LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Lista as reservas válidas que se sobrepõem ao período, agrupadas por veterinário e ordenadas pelo início.
+     *
+     * @param inicio Início do período.
+     * @param fim Fim do período.
+     * @return Map de ID do veterinário para suas reservas no período.
+     */
+    Map<Long, List<ReservaHorario>> listarNoPeriodo(LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Lista as reservas válidas de um veterinário que se sobrepõem ao período, ordenadas pelo início.
+     *
+     * @param idVeterinario ID do veterinário.
+     * @param inicio Início do período.
+     * @param fim Fim do período.
+     * @return List com as reservas.
+     */
+    List<ReservaHorario> listarDoVeterinario(Long idVeterinario, LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * @param idCliente ID do cliente.
+     * @return Quantidade de reservas válidas do cliente.
+     */
+    long contarDoCliente(Long idCliente);
+
+    /**
+     * Remove as reservas vencidas.
+     */
+    void expirar();
+
+}
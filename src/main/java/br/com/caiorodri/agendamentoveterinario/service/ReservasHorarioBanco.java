@@ -0,0 +1,187 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.caiorodri.agendamentoveterinario.model.ReservaHorario;
+
+/**
+ * Reservas na tabela reserva_horario, para quando a aplicação tem várias instâncias e a reserva feita
+ * em uma precisa bloquear o horário nas demais.
+ *
+ * Para que duas instâncias não reservem o mesmo intervalo, a reserva trava a linha do veterinário em
+ * usuario antes de procurar sobreposições, em uma transação própria: como a reserva em memória, ela vale
+ * mesmo que a transação de quem a pediu seja desfeita. O vencimento compara a expiração informada por
+ * quem reservou com o relógio da instância, então os relógios das instâncias precisam estar sincronizados.
+ */
+public class ReservasHorarioBanco implements ReservasHorario {
+
+    private static final String COLUNAS = "id, id_veterinario, id_cliente, id_tipo, inicio, fim, expiracao";
+
+    private static final String SQL_TRAVAR_VETERINARIO = "SELECT id FROM usuario WHERE id = ? FOR UPDATE";
+
+    private static final String SQL_SOBREPOSTAS =
+            "SELECT " + COLUNAS + " FROM reserva_horario WHERE id_veterinario = ? AND inicio < ? AND fim > ? ORDER BY inicio";
+
+    private static final String SQL_SOBREPOSTAS_VALIDAS =
+            "SELECT " + COLUNAS + " FROM reserva_horario WHERE id_veterinario = ? AND inicio < ? AND fim > ? AND expiracao > ? ORDER BY inicio";
+
+    private static final String SQL_NO_PERIODO =
+            "SELECT " + COLUNAS + " FROM reserva_horario WHERE inicio < ? AND fim > ? AND expiracao > ? ORDER BY id_veterinario, inicio";
+
+    private static final String SQL_POR_ID = "SELECT " + COLUNAS + " FROM reserva_horario WHERE id = ? AND expiracao > ?";
+
+    private static final String SQL_INSERIR = "INSERT INTO reserva_horario (" + COLUNAS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_REMOVER = "DELETE FROM reserva_horario WHERE id = ?";
+
+    private static final String SQL_REMOVER_DO_CLIENTE =
+            "DELETE FROM reserva_horario WHERE id_veterinario = ? AND id_cliente = ? AND inicio < ? AND fim > ?";
+
+    private static final String SQL_CONTAR_DO_CLIENTE = "SELECT COUNT(*) FROM reserva_horario WHERE id_cliente = ? AND expiracao > ?";
+
+    private static final String SQL_REMOVER_VENCIDAS = "DELETE FROM reserva_horario WHERE expiracao <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    final static Logger logger = LoggerFactory.getLogger(ReservasHorarioBanco.class);
+
+    /**
+     * @param jdbcTemplate Acesso ao banco compartilhado pelas instâncias.
+     * @param transactionManager Gerenciador das transações próprias das reservas.
+     */
+    public ReservasHorarioBanco(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    }
+
+    @Override
+    public Optional<ReservaHorario> reservar(Long idVeterinario, Long idCliente, Integer idTipo, LocalDateTime inicio, LocalDateTime fim, LocalDateTime expiracao) {
+
+        ReservaHorario reserva = new ReservaHorario(UUID.randomUUID().toString(), idVeterinario, idCliente, idTipo, inicio, fim, expiracao);
+
+        return transactionTemplate.execute(status -> {
+
+            jdbcTemplate.queryForList(SQL_TRAVAR_VETERINARIO, Long.class, idVeterinario);
+
+            LocalDateTime agora = LocalDateTime.now();
+            List<ReservaHorario> sobrepostas = jdbcTemplate.query(SQL_SOBREPOSTAS, this::mapear, idVeterinario, fim, inicio);
+
+            if (sobrepostas.stream().anyMatch(r -> !r.isExpirada(agora) && !Objects.equals(r.getIdCliente(), idCliente))) {
+                return Optional.empty();
+            }
+
+            // Remove também as vencidas que a limpeza ainda não recolheu, mantendo a agenda sem sobreposições.
+            sobrepostas.forEach(r -> jdbcTemplate.update(SQL_REMOVER, r.getId()));
+
+            jdbcTemplate.update(SQL_INSERIR, reserva.getId(), idVeterinario, idCliente, idTipo, inicio, fim, expiracao);
+
+            return Optional.of(reserva);
+
+        });
+
+    }
+
+    @Override
+    public Optional<ReservaHorario> recuperar(String id) {
+
+        return jdbcTemplate.query(SQL_POR_ID, this::mapear, id, LocalDateTime.now()).stream().findFirst();
+
+    }
+
+    @Override
+    public void liberar(ReservaHorario reserva) {
+
+        jdbcTemplate.update(SQL_REMOVER, reserva.getId());
+
+    }
+
+    @Override
+    public void liberarDoCliente(Long idVeterinario, Long idCliente, LocalDateTime inicio, LocalDateTime fim) {
+
+        jdbcTemplate.update(SQL_REMOVER_DO_CLIENTE, idVeterinario, idCliente, fim, inicio);
+
+    }
+
+    @Override
+    public boolean reservadoPorOutro(Long idVeterinario, Long idCliente, LocalDateTime inicio, LocalDateTime fim) {
+
+        return listarDoVeterinario(idVeterinario, inicio, fim).stream().anyMatch(r -> !Objects.equals(r.getIdCliente(), idCliente));
+
+    }
+
+    @Override
+    public Map<Long, List<ReservaHorario>> listarNoPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+
+        Map<Long, List<ReservaHorario>> resultado = new HashMap<>();
+
+        jdbcTemplate.query(SQL_NO_PERIODO, this::mapear, fim, inicio, LocalDateTime.now())
+                .forEach(r -> resultado.computeIfAbsent(r.getIdVeterinario(), id -> new ArrayList<>()).add(r));
+
+        return resultado;
+
+    }
+
+    @Override
+    public List<ReservaHorario> listarDoVeterinario(Long idVeterinario, LocalDateTime inicio, LocalDateTime fim) {
+
+        return jdbcTemplate.query(SQL_SOBREPOSTAS_VALIDAS, this::mapear, idVeterinario, fim, inicio, LocalDateTime.now());
+
+    }
+
+    @Override
+    public long contarDoCliente(Long idCliente) {
+
+        Long quantidade = jdbcTemplate.queryForObject(SQL_CONTAR_DO_CLIENTE, Long.class, idCliente, LocalDateTime.now());
+
+        return quantidade != null ? quantidade : 0;
+
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${reservas.intervalo-limpeza-ms:60000}")
+    public void expirar() {
+
+        int vencidas = jdbcTemplate.update(SQL_REMOVER_VENCIDAS, LocalDateTime.now());
+
+        if (vencidas > 0) {
+            logger.debug("[expirar] - {} reservas de horário vencidas", vencidas);
+        }
+
+    }
+
+    private ReservaHorario mapear(ResultSet rs, int linha) throws SQLException {
+
+        return new ReservaHorario(
+                rs.getString("id"),
+                rs.getLong("id_veterinario"),
+                rs.getLong("id_cliente"),
+                rs.getObject("id_tipo", Integer.class),
+                rs.getObject("inicio", LocalDateTime.class),
+                rs.getObject("fim", LocalDateTime.class),
+                rs.getObject("expiracao", LocalDateTime.class));
+
+    }
+
+}
@@ -0,0 +1,223 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import br.com.caiorodri.agendamentoveterinario.model.ReservaHorario;
+import br.com.caiorodri.agendamentoveterinario.scheduler.RodaTemporizacao;
+
+/**
+ * Reservas temporárias de horário em memória, válidas só na instância que as criou. As reservas de
+ * cada veterinário ficam em um mapa ordenado pelo início e nunca se sobrepõem, então a busca de
+ * conflitos olha só a reserva anterior ao início do intervalo e as que começam dentro dele. O
+ * vencimento é feito por uma roda de temporização, e reservas vencidas que a roda ainda não recolheu
+ * são ignoradas.
+ */
+public class ReservasHorarioMemoria implements ReservasHorario {
+
+    private final Map<String, ReservaHorario> reservas = new ConcurrentHashMap<>();
+
+    private final Map<Long, NavigableMap<LocalDateTime, ReservaHorario>> porVeterinario = new ConcurrentHashMap<>();
+
+    private final RodaTemporizacao<ReservaHorario> roda;
+
+    final static Logger logger = LoggerFactory.getLogger(ReservasHorarioMemoria.class);
+
+    /**
+     * @param duracaoCasaMillis Duração de cada casa da roda de temporização.
+     * @param quantidadeCasas Quantidade de casas da roda.
+     */
+    public ReservasHorarioMemoria(long duracaoCasaMillis, int quantidadeCasas) {
+
+        this.roda = new RodaTemporizacao<>(duracaoCasaMillis, quantidadeCasas, System.currentTimeMillis());
+
+    }
+
+    @Override
+    public Optional<ReservaHorario> reservar(Long idVeterinario, Long idCliente, Integer idTipo, LocalDateTime inicio, LocalDateTime fim, LocalDateTime expiracao) {
+
+        ReservaHorario reserva = new ReservaHorario(UUID.randomUUID().toString(), idVeterinario, idCliente, idTipo, inicio, fim, expiracao);
+        NavigableMap<LocalDateTime, ReservaHorario> agenda = porVeterinario.computeIfAbsent(idVeterinario, id -> new TreeMap<>());
+        LocalDateTime agora = LocalDateTime.now();
+
+        synchronized (agenda) {
+
+            List<ReservaHorario> sobrepostas = sobrepostas(agenda, inicio, fim);
+
+            if (sobrepostas.stream().anyMatch(r -> !r.isExpirada(agora) && !Objects.equals(r.getIdCliente(), idCliente))) {
+                return Optional.empty();
+            }
+
+            // Remove também as vencidas que a roda ainda não recolheu, mantendo a agenda sem sobreposições.
+            sobrepostas.forEach(r -> removerDaAgenda(agenda, r));
+
+            agenda.put(inicio, reserva);
+            reservas.put(reserva.getId(), reserva);
+
+        }
+
+        roda.agendar(reserva, expiracao.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+
+        return Optional.of(reserva);
+
+    }
+
+    @Override
+    public Optional<ReservaHorario> recuperar(String id) {
+
+        return Optional.ofNullable(reservas.get(id)).filter(r -> !r.isExpirada(LocalDateTime.now()));
+
+    }
+
+    @Override
+    public void liberar(ReservaHorario reserva) {
+
+        NavigableMap<LocalDateTime, ReservaHorario> agenda = porVeterinario.get(reserva.getIdVeterinario());
+
+        if (agenda == null) {
+            return;
+        }
+
+        synchronized (agenda) {
+            removerDaAgenda(agenda, reserva);
+        }
+
+    }
+
+    @Override
+    public void liberarDoCliente(Long idVeterinario, Long idCliente, LocalDateTime inicio, LocalDateTime fim) {
+
+        NavigableMap<LocalDateTime, ReservaHorario> agenda = porVeterinario.get(idVeterinario);
+
+        if (agenda == null) {
+            return;
+        }
+
+        synchronized (agenda) {
+
+            sobrepostas(agenda, inicio, fim).stream()
+                    .filter(r -> Objects.equals(r.getIdCliente(), idCliente))
+                    .forEach(r -> removerDaAgenda(agenda, r));
+
+        }
+
+    }
+
+    @Override
+    public boolean reservadoPorOutro(Long idVeterinario, Long idCliente, LocalDateTime inicio, LocalDateTime fim) {
+
+        NavigableMap<LocalDateTime, ReservaHorario> agenda = porVeterinario.get(idVeterinario);
+
+        if (agenda == null) {
+            return false;
+        }
+
+        synchronized (agenda) {
+
+            LocalDateTime agora = LocalDateTime.now();
+
+            return sobrepostas(agenda, inicio, fim).stream()
+                    .anyMatch(r -> !r.isExpirada(agora) && !Objects.equals(r.getIdCliente(), idCliente));
+
+        }
+
+    }
+
+    @Override
+    public Map<Long, List<ReservaHorario>> listarNoPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+
+        Map<Long, List<ReservaHorario>> resultado = new HashMap<>();
+
+        porVeterinario.keySet().forEach(idVeterinario -> {
+
+            List<ReservaHorario> doVeterinario = listarDoVeterinario(idVeterinario, inicio, fim);
+
+            if (!doVeterinario.isEmpty()) {
+                resultado.put(idVeterinario, doVeterinario);
+            }
+        });
+
+        return resultado;
+
+    }
+
+    @Override
+    public List<ReservaHorario> listarDoVeterinario(Long idVeterinario, LocalDateTime inicio, LocalDateTime fim) {
+
+        NavigableMap<LocalDateTime, ReservaHorario> agenda = porVeterinario.get(idVeterinario);
+
+        if (agenda == null) {
+            return List.of();
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+
+        synchronized (agenda) {
+            return sobrepostas(agenda, inicio, fim).stream().filter(r -> !r.isExpirada(agora)).toList();
+        }
+
+    }
+
+    @Override
+    public long contarDoCliente(Long idCliente) {
+
+        LocalDateTime agora = LocalDateTime.now();
+
+        return reservas.values().stream().filter(r -> Objects.equals(r.getIdCliente(), idCliente) && !r.isExpirada(agora)).count();
+
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${reservas.duracao-casa-ms:1000}")
+    public void expirar() {
+
+        List<ReservaHorario> vencidas = roda.avancar(System.currentTimeMillis());
+
+        vencidas.forEach(this::liberar);
+
+        if (!vencidas.isEmpty()) {
+            logger.debug("[expirar] - {} reservas de horário vencidas", vencidas.size());
+        }
+
+    }
+
+    private List<ReservaHorario> sobrepostas(NavigableMap<LocalDateTime, ReservaHorario> agenda, LocalDateTime inicio, LocalDateTime fim) {
+
+        List<ReservaHorario> sobrepostas = new ArrayList<>();
+
+        // As reservas da agenda nunca se sobrepõem, então só a última que começa antes do início pode invadir o intervalo.
+        LocalDateTime primeiraChave = Optional.ofNullable(agenda.lowerKey(inicio)).orElse(inicio);
+
+        for (ReservaHorario reserva : agenda.subMap(primeiraChave, true, fim, false).values()) {
+
+            if (reserva.sobrepoe(inicio, fim)) {
+                sobrepostas.add(reserva);
+            }
+        }
+
+        return sobrepostas;
+
+    }
+
+    private void removerDaAgenda(NavigableMap<LocalDateTime, ReservaHorario> agenda, ReservaHorario reserva) {
+
+        agenda.remove(reserva.getInicio(), reserva);
+        reservas.remove(reserva.getId(), reserva);
+
+    }
+
+}
@@ -0,0 +1,497 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.caiorodri.agendamentoveterinario.cluster.TravaTarefas;
+import br.com.caiorodri.agendamentoveterinario.dto.TarefaDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.TarefaExecucaoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.TarefaParticaoDTO;
+import br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum;
+import br.com.caiorodri.agendamentoveterinario.model.TarefaExecucao;
+import br.com.caiorodri.agendamentoveterinario.model.TarefaParticao;
+import br.com.caiorodri.agendamentoveterinario.repository.TarefaExecucaoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.TarefaParticaoRepository;
+import br.com.caiorodri.agendamentoveterinario.security.ClinicaTenantResolver;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+import br.com.caiorodri.agendamentoveterinario.tarefa.TarefaLote;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Execução das tarefas em lote (TarefaLote) com estado no banco.
+ *
+ * Disparar uma tarefa grava a execução e divide a faixa de IDs dos itens em partições
+ * (tarefas.particoes). Cada partição é assumida por uma thread do executorTarefas de alguma instância
+ * com uma atualização condicional, e processada em lotes de tarefas.tamanho-lote itens; ao fim de cada
+ * lote o último ID e os contadores são gravados, o que também serve de sinal de vida da partição.
+ *
+ * Partições pendentes, ou cuja instância não registra progresso há tarefas.particao-inativa-segundos
+ * (instância reiniciada ou fora do ar), são assumidas pela verificação periódica (TarefasScheduler) e
+ * continuam do último ID gravado. A pausa é vista pelas threads entre um lote e outro: a partição volta
+ * a pendente, guardando o ponto de retomada.
+ *
+ * A execução e as partições ficam na clínica de quem disparou a tarefa (todas, se foi o agendador).
+ * Como uma partição pode ser assumida por qualquer thread ou instância, ela é processada na clínica
+ * gravada nela, e não na da thread que a assumiu. Só uma execução de cada tarefa por clínica fica em
+ * andamento: a verificação e a gravação da execução rodam com a trava da tarefa em TravaTarefas.
+ */
+@Service
+public class TarefaService {
+
+    @Autowired
+    private List<TarefaLote> tarefasLote;
+
+    @Autowired
+    private TarefaExecucaoRepository tarefaExecucaoRepository;
+
+    @Autowired
+    private TarefaParticaoRepository tarefaParticaoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TravaTarefas travaTarefas;
+
+    @Autowired
+    @Qualifier("executorTarefas")
+    private ThreadPoolTaskExecutor executorTarefas;
+
+    @Value("${tarefas.particoes:4}")
+    private int particoes;
+
+    @Value("${tarefas.tamanho-lote:100}")
+    private int tamanhoLote;
+
+    @Value("${tarefas.particao-inativa-segundos:300}")
+    private long particaoInativaSegundos;
+
+    /** Partições assumidas por esta instância e ainda não encerradas. */
+    private final AtomicInteger particoesEmExecucao = new AtomicInteger();
+
+    final static Logger logger = LoggerFactory.getLogger(TarefaService.class);
+
+    private static final List<TarefaStatusEnum> EM_ANDAMENTO = List.of(TarefaStatusEnum.EXECUTANDO, TarefaStatusEnum.PAUSADA);
+
+    /** Tempo máximo da trava de disparo, caso a instância caia enquanto grava a execução. */
+    private static final Duration DURACAO_TRAVA_DISPARO = Duration.ofMinutes(1);
+
+    /**
+     * @return Tarefas que podem ser disparadas.
+     */
+    public List<TarefaDTO> listarTarefas() {
+
+        return tarefasLote.stream().map(t -> new TarefaDTO(t.getNome(), t.getDescricao())).toList();
+
+    }
+
+    /**
+     * Dispara uma execução da tarefa.
+     *
+     * @param nome Nome da tarefa.
+     * @param iniciadoPor Quem disparou (e-mail do usuário ou "agendador").
+     * @return Execução criada.
+     * @throws EntityNotFoundException se a tarefa não existir.
+     * @throws IllegalArgumentException se já houver uma execução da tarefa em andamento ou pausada, ou se
+     *         a tarefa estiver sendo disparada ao mesmo tempo por outra requisição.
+     */
+    public TarefaExecucaoDTO disparar(String nome, String iniciadoPor) {
+
+        logger.info("[disparar] - Inicio - Disparando a tarefa {} por {}", nome, iniciadoPor);
+
+        TarefaLote tarefa = recuperarTarefa(nome);
+        Long idClinica = Objects.requireNonNullElse(ContextoClinica.atual(), ClinicaTenantResolver.TODAS);
+        AtomicReference<TarefaExecucao> criada = new AtomicReference<>();
+
+        boolean disparada = travaTarefas.executar("disparo:" + nome + ":" + idClinica, DURACAO_TRAVA_DISPARO, Duration.ZERO,
+                () -> criada.set(criarExecucao(tarefa, iniciadoPor)));
+
+        if (!disparada) {
+            throw new IllegalArgumentException("A tarefa " + nome + " já está sendo disparada por outra requisição.");
+        }
+
+        TarefaExecucao execucao = criada.get();
+
+        iniciarParticoes();
+
+        logger.info("[disparar] - Fim - Execução {} da tarefa {} criada com {} itens", execucao.getId(), nome, execucao.getTotalItens());
+
+        return recuperar(execucao.getId());
+
+    }
+
+    private TarefaExecucao criarExecucao(TarefaLote tarefa, String iniciadoPor) {
+
+        String nome = tarefa.getNome();
+
+        return transactionTemplate.execute(status -> {
+
+            if (tarefaExecucaoRepository.existsByNomeAndStatusIn(nome, EM_ANDAMENTO)) {
+                throw new IllegalArgumentException("Já existe uma execução da tarefa " + nome + " em andamento ou pausada.");
+            }
+
+            TarefaLote.Intervalo intervalo = tarefa.recuperarIntervalo();
+            LocalDateTime agora = LocalDateTime.now();
+
+            TarefaExecucao novaExecucao = tarefaExecucaoRepository.save(new TarefaExecucao(null, null, nome,
+                    intervalo == null ? TarefaStatusEnum.CONCLUIDA : TarefaStatusEnum.EXECUTANDO,
+                    intervalo == null ? 0 : intervalo.total(), iniciadoPor, agora, intervalo == null ? agora : null));
+
+            if (intervalo != null) {
+                tarefaParticaoRepository.saveAll(dividir(novaExecucao.getId(), intervalo));
+            }
+
+            return novaExecucao;
+
+        });
+
+    }
+
+    /**
+     * Pausa uma execução. As partições param ao fim do lote em andamento.
+     *
+     * @param id ID da execução.
+     * @return Execução pausada.
+     * @throws EntityNotFoundException se a execução não existir.
+     * @throws IllegalArgumentException se a execução não estiver em andamento.
+     */
+    public TarefaExecucaoDTO pausar(Long id) {
+
+        logger.info("[pausar] - Inicio - Pausando a execução {}", id);
+
+        TarefaExecucao execucao = recuperarExecucao(id);
+
+        Integer alteradas = transactionTemplate.execute(status ->
+                tarefaExecucaoRepository.updateStatus(id, List.of(TarefaStatusEnum.EXECUTANDO), TarefaStatusEnum.PAUSADA, null));
+
+        if (alteradas == 0) {
+            throw new IllegalArgumentException("A execução " + id + " não está em andamento (status " + execucao.getStatus() + ").");
+        }
+
+        logger.info("[pausar] - Fim - Execução {} pausada", id);
+
+        return recuperar(id);
+
+    }
+
+    /**
+     * Retoma uma execução pausada ou que falhou. Partições que falharam voltam a pendentes e continuam
+     * do último ID gravado.
+     *
+     * @param id ID da execução.
+     * @return Execução retomada.
+     * @throws EntityNotFoundException se a execução não existir.
+     * @throws IllegalArgumentException se a execução não estiver pausada nem tiver falhado.
+     */
+    public TarefaExecucaoDTO retomar(Long id) {
+
+        logger.info("[retomar] - Inicio - Retomando a execução {}", id);
+
+        TarefaExecucao execucao = recuperarExecucao(id);
+
+        Integer alteradas = transactionTemplate.execute(status -> {
+
+            int atualizadas = tarefaExecucaoRepository.updateStatus(id, List.of(TarefaStatusEnum.PAUSADA, TarefaStatusEnum.FALHOU), TarefaStatusEnum.EXECUTANDO, null);
+
+            if (atualizadas > 0) {
+                tarefaParticaoRepository.updateStatus(id, TarefaStatusEnum.FALHOU, TarefaStatusEnum.PENDENTE);
+            }
+
+            return atualizadas;
+
+        });
+
+        if (alteradas == 0) {
+            throw new IllegalArgumentException("A execução " + id + " não está pausada nem falhou (status " + execucao.getStatus() + ").");
+        }
+
+        // Pausada depois que a última partição terminou: não há mais nada a assumir.
+        concluirSeTerminou(id);
+        iniciarParticoes();
+
+        logger.info("[retomar] - Fim - Execução {} retomada", id);
+
+        return recuperar(id);
+
+    }
+
+    /**
+     * Recupera uma execução com o andamento de cada partição.
+     *
+     * @param id ID da execução.
+     * @return Execução encontrada.
+     * @throws EntityNotFoundException se a execução não existir.
+     */
+    public TarefaExecucaoDTO recuperar(Long id) {
+
+        TarefaExecucao execucao = recuperarExecucao(id);
+
+        List<TarefaParticaoDTO> particoesDto = tarefaParticaoRepository.findByIdExecucaoOrderByIndice(id).stream()
+                .map(p -> new TarefaParticaoDTO(p.getIndice(), p.getIdInicio(), p.getIdFim(), p.getUltimoId(), p.getStatus(),
+                        p.getItensProcessados(), p.getItensComErro(), p.getInstancia(), p.getDataAtualizacao(), p.getMensagemErro()))
+                .toList();
+
+        long processados = particoesDto.stream().mapToLong(TarefaParticaoDTO::getItensProcessados).sum();
+        long comErro = particoesDto.stream().mapToLong(TarefaParticaoDTO::getItensComErro).sum();
+
+        return converter(execucao, processados, comErro, particoesDto);
+
+    }
+
+    /**
+     * Lista as execuções, das mais recentes para as mais antigas, sem o detalhe das partições.
+     *
+     * @param pageable Dados de paginação.
+     * @return Page com as execuções.
+     */
+    public Page<TarefaExecucaoDTO> listarExecucoes(Pageable pageable) {
+
+        Page<TarefaExecucao> execucoes = tarefaExecucaoRepository.findAllByOrderByIdDesc(pageable);
+
+        Map<Long, long[]> totais = new HashMap<>();
+
+        if (execucoes.hasContent()) {
+
+            for (Object[] linha : tarefaParticaoRepository.somarPorExecucao(execucoes.map(TarefaExecucao::getId).getContent())) {
+                totais.put((Long) linha[0], new long[] {((Number) linha[1]).longValue(), ((Number) linha[2]).longValue()});
+            }
+        }
+
+        return execucoes.map(e -> {
+
+            long[] total = totais.getOrDefault(e.getId(), new long[2]);
+
+            return converter(e, total[0], total[1], null);
+
+        });
+
+    }
+
+    /**
+     * Assume as partições disponíveis, até ocupar todas as threads do executorTarefas desta instância.
+     */
+    public synchronized void iniciarParticoes() {
+
+        int livres = executorTarefas.getMaxPoolSize() - particoesEmExecucao.get();
+
+        if (livres <= 0) {
+            return;
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime inativaDesde = agora.minusSeconds(particaoInativaSegundos);
+
+        for (Long idParticao : tarefaParticaoRepository.findIdsDisponiveis(inativaDesde, Limit.of(livres))) {
+
+            Integer reservadas = transactionTemplate.execute(status ->
+                    tarefaParticaoRepository.reservar(idParticao, travaTarefas.getInstancia(), agora, inativaDesde));
+
+            if (reservadas == 1) {
+
+                particoesEmExecucao.incrementAndGet();
+
+                executorTarefas.execute(() -> {
+                    try {
+                        executarParticao(idParticao);
+                    } finally {
+                        particoesEmExecucao.decrementAndGet();
+                    }
+                });
+
+            }
+        }
+
+    }
+
+    private void executarParticao(Long idParticao) {
+
+        TarefaParticao particao = tarefaParticaoRepository.findById(idParticao).orElseThrow();
+
+        ContextoClinica.definir(particao.getIdClinica());
+
+        try {
+            executarParticao(particao);
+        } finally {
+            ContextoClinica.limpar();
+        }
+
+    }
+
+    private void executarParticao(TarefaParticao particao) {
+
+        Long idParticao = particao.getId();
+        Long idExecucao = particao.getIdExecucao();
+        String instancia = travaTarefas.getInstancia();
+
+        long ultimoId = particao.getUltimoId() != null ? particao.getUltimoId() : particao.getIdInicio() - 1;
+
+        logger.info("[executarParticao] - Inicio - Partição {} da execução {} a partir do ID {}", particao.getIndice(), idExecucao, ultimoId + 1);
+
+        try {
+
+            TarefaLote tarefa = recuperarTarefa(recuperarExecucao(idExecucao).getNome());
+
+            while (true) {
+
+                if (recuperarExecucao(idExecucao).getStatus() != TarefaStatusEnum.EXECUTANDO) {
+
+                    liberar(idParticao, instancia, TarefaStatusEnum.PENDENTE, null);
+                    logger.info("[executarParticao] - Fim - Partição {} da execução {} parada no ID {}", particao.getIndice(), idExecucao, ultimoId);
+
+                    return;
+
+                }
+
+                List<Long> ids = tarefa.listarIds(ultimoId, particao.getIdFim(), tamanhoLote);
+
+                if (ids.isEmpty()) {
+
+                    liberar(idParticao, instancia, TarefaStatusEnum.CONCLUIDA, null);
+                    concluirSeTerminou(idExecucao);
+                    logger.info("[executarParticao] - Fim - Partição {} da execução {} concluída", particao.getIndice(), idExecucao);
+
+                    return;
+
+                }
+
+                long comErro = 0;
+
+                for (Long id : ids) {
+
+                    try {
+
+                        tarefa.processar(id);
+
+                    } catch (Exception e) {
+
+                        comErro++;
+                        logger.warn("[executarParticao] - Erro no item {} da execução {}: {}", id, idExecucao, e.getMessage());
+
+                    }
+                }
+
+                ultimoId = ids.get(ids.size() - 1);
+
+                long processadosLote = ids.size();
+                long comErroLote = comErro;
+                long ultimoIdLote = ultimoId;
+
+                Integer registrados = transactionTemplate.execute(status -> tarefaParticaoRepository.registrarProgresso(idParticao, instancia,
+                        ultimoIdLote, processadosLote, comErroLote, LocalDateTime.now()));
+
+                if (registrados == 0) {
+
+                    logger.warn("[executarParticao] - Fim - Partição {} da execução {} assumida por outra instância", particao.getIndice(), idExecucao);
+
+                    return;
+
+                }
+            }
+
+        } catch (Exception e) {
+
+            logger.error("[executarParticao] - Fim - Erro na partição {} da execução {}: {}", particao.getIndice(), idExecucao, e.getMessage(), e);
+
+            liberar(idParticao, instancia, TarefaStatusEnum.FALHOU, resumir(e.getMessage()));
+
+            transactionTemplate.execute(status -> tarefaExecucaoRepository.updateStatus(idExecucao, List.of(TarefaStatusEnum.EXECUTANDO),
+                    TarefaStatusEnum.FALHOU, LocalDateTime.now()));
+
+        }
+
+    }
+
+    private void liberar(Long idParticao, String instancia, TarefaStatusEnum status, String mensagemErro) {
+
+        transactionTemplate.execute(s -> tarefaParticaoRepository.liberar(idParticao, instancia, status, LocalDateTime.now(), mensagemErro));
+
+    }
+
+    private void concluirSeTerminou(Long idExecucao) {
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            if (tarefaParticaoRepository.countByIdExecucaoAndStatusNot(idExecucao, TarefaStatusEnum.CONCLUIDA) == 0
+                    && tarefaExecucaoRepository.updateStatus(idExecucao, List.of(TarefaStatusEnum.EXECUTANDO), TarefaStatusEnum.CONCLUIDA, LocalDateTime.now()) > 0) {
+
+                logger.info("[concluirSeTerminou] - Execução {} concluída", idExecucao);
+
+            }
+
+        });
+
+    }
+
+    private List<TarefaParticao> dividir(Long idExecucao, TarefaLote.Intervalo intervalo) {
+
+        long tamanho = intervalo.idFim() - intervalo.idInicio() + 1;
+        int quantidade = (int) Math.min(particoes, tamanho);
+
+        List<TarefaParticao> faixas = new ArrayList<>(quantidade);
+
+        for (int i = 0; i < quantidade; i++) {
+
+            long inicio = intervalo.idInicio() + tamanho * i / quantidade;
+            long fim = intervalo.idInicio() + tamanho * (i + 1) / quantidade - 1;
+
+            faixas.add(new TarefaParticao(null, null, idExecucao, i, inicio, fim, null, TarefaStatusEnum.PENDENTE, 0, 0, null, null, null));
+
+        }
+
+        return faixas;
+
+    }
+
+    private TarefaExecucaoDTO converter(TarefaExecucao execucao, long processados, long comErro, List<TarefaParticaoDTO> particoesDto) {
+
+        LocalDateTime fim = execucao.getDataFim() != null ? execucao.getDataFim() : LocalDateTime.now();
+        long duracaoMillis = Math.max(Duration.between(execucao.getDataInicio(), fim).toMillis(), 1);
+
+        double percentual = execucao.getTotalItens() > 0 ? 100.0 * processados / execucao.getTotalItens() : 100.0;
+
+        return new TarefaExecucaoDTO(execucao.getId(), execucao.getNome(), execucao.getStatus(), execucao.getIniciadoPor(),
+                execucao.getDataInicio(), execucao.getDataFim(), execucao.getTotalItens(), processados, comErro,
+                Math.min(percentual, 100.0), duracaoMillis / 1000, processados * 1000.0 / duracaoMillis, particoesDto);
+
+    }
+
+    private TarefaLote recuperarTarefa(String nome) {
+
+        return tarefasLote.stream().filter(t -> t.getNome().equals(nome)).findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Tarefa " + nome + " não encontrada."));
+
+    }
+
+    private TarefaExecucao recuperarExecucao(Long id) {
+
+        return tarefaExecucaoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Execução de tarefa com ID " + id + " não encontrada."));
+
+    }
+
+    private static String resumir(String mensagem) {
+
+        return mensagem != null && mensagem.length() > 500 ? mensagem.substring(0, 500) : mensagem;
+
+    }
+
+}
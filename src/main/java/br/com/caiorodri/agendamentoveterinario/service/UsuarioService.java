@@ -2,20 +2,26 @@ package br.com.caiorodri.agendamentoveterinario.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import br.com.caiorodri.agendamentoveterinario.dto.UsuarioAtualizacaoDTO;
 import br.com.caiorodri.agendamentoveterinario.email.EmailSender;
 import br.com.caiorodri.agendamentoveterinario.enums.DiaSemanaEnum;
+import br.com.caiorodri.agendamentoveterinario.event.ClientesAlteradosEvent;
 import br.com.caiorodri.agendamentoveterinario.model.*;
 import br.com.caiorodri.agendamentoveterinario.repository.*;
+import br.com.caiorodri.agendamentoveterinario.security.CodigosRecuperacao;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -31,6 +37,9 @@ public class UsuarioService {
     @Autowired
     private StatusRepository statusRepository;
 
+    @Autowired
+    private PerfilRepository perfilRepository;
+
     @Autowired
     private EmailSender emailSender;
 
@@ -40,6 +49,9 @@ public class UsuarioService {
     @Autowired
     private VeterinarioHorarioRepository veterinarioHorarioRepository;
 
+    @Autowired
+    private ReservasHorario reservasHorario;
+
     @Autowired
     private AgendamentoRepository agendamentoRepository;
 
@@ -49,12 +61,38 @@ public class UsuarioService {
     @Autowired
     private EstadoRepository estadoRepository;
 
+    @Autowired
+    private ProjecaoService projecaoService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ClinicaService clinicaService;
+
+    @Autowired
+    private AtualizacaoParcialService atualizacaoParcialService;
+
+    @Autowired
+    private CodigosRecuperacao codigosRecuperacao;
+
     final static Logger logger = LoggerFactory.getLogger(UsuarioService.class);
 
-    final String NOME_RECEPCIONISTA_AUTO_ATENDIMENTO = "AUTO ATENDIMENTO";
+    final Integer ID_CLIENTE = 1;
+
+    final Integer ID_RECEPCIONISTA = 2;
 
     final Integer ID_VETERINARIO = 3;
 
+    final Integer ID_ADMINISTRADOR = 4;
+
+    /** Campos do UsuarioDTO que podem ser pedidos no parâmetro fields das listagens. */
+    final static List<String> CAMPOS_PROJECAO = List.of(
+            "id", "nome", "email", "cpf", "dataNascimento", "emailRealizarConsultaRecebido", "receberEmail", "urlImagem", "versao",
+            "endereco.logradouro", "endereco.numero", "endereco.complemento", "endereco.cidade", "endereco.cep", "endereco.estado.sigla",
+            "status.id", "status.nome",
+            "perfil.id", "perfil.nome");
+
     /**
      * Recupera um usuário pelo seu ID.
      *
@@ -166,6 +204,8 @@ public class UsuarioService {
 
             Usuario usuarioSalvo = usuarioRepository.save(usuario);
 
+            eventPublisher.publishEvent(ClientesAlteradosEvent.de(usuarioSalvo.getId()));
+
             emailSender.enviarInformacaoCadastroUsuarioEmail(usuarioSalvo);
 
             logger.info("[salvar] - Fim - Usuário salvo com sucesso com o id = {}", usuarioSalvo.getId());
@@ -228,6 +268,11 @@ public class UsuarioService {
 
             usuarioRepository.saveAndFlush(usuarioExistente);
 
+            // Telefones ficam em outra tabela; a data de atualização é marcada explicitamente para invalidar o ETag.
+            usuarioRepository.updateDataAtualizacao(usuario.getId());
+
+            eventPublisher.publishEvent(ClientesAlteradosEvent.de(usuario.getId()));
+
             Usuario usuarioAtualizado = this.recuperar(usuario.getId());
 
             logger.info("[atualizar] - Fim - Usuário com id = {} atualizado com sucesso.", usuarioAtualizado.getId());
@@ -248,6 +293,132 @@ public class UsuarioService {
 
     }
 
+    /**
+     * Atualiza só os campos enviados no PATCH, sem carregar o usuário: no máximo a checagem de e-mail
+     * duplicado (quando o e-mail muda), a checagem de status, perfil e estado informados e um UPDATE
+     * condicionado à versão. A resposta é montada com o que já está em memória.
+     *
+     * Só administradores alteram outros usuários ou o status e o perfil; os demais alteram os próprios
+     * dados.
+     *
+     * @param id ID do usuário.
+     * @param atualizacao Campos alterados e versão lida pelo cliente.
+     * @param usuarioLogado Usuário autenticado.
+     * @return Map com ID, nova versão e campos alterados, nos nomes do UsuarioDTO.
+     * @throws EntityNotFoundException se o usuário não existir.
+     * @throws IllegalArgumentException se algum campo for inválido ou o e-mail já estiver em uso.
+     * @throws SecurityException se o usuário logado não puder fazer a alteração.
+     * @throws OptimisticLockingFailureException se o usuário foi alterado depois da versão informada.
+     */
+    @Transactional
+    public Map<String, Object> atualizarParcial(Long id, UsuarioAtualizacaoDTO atualizacao, Usuario usuarioLogado) {
+
+        Map<String, Object> alteracoes = atualizacao.getAlteracoes();
+
+        logger.info("[atualizarParcial] - Inicio - Atualizando os campos {} do usuário com id = {}", alteracoes.keySet(), id);
+
+        try {
+
+            validarPermissaoAtualizacaoParcial(id, atualizacao, usuarioLogado);
+            validarAtualizacaoParcial(id, atualizacao);
+
+            if (atualizacaoParcialService.atualizar(Usuario.class, id, atualizacao.getVersao(), alteracoes) == 0) {
+
+                // Só no caso de falha vale uma consulta a mais para diferenciar inexistente de desatualizado.
+                if (!usuarioRepository.existsById(id)) {
+                    throw new EntityNotFoundException("Usuário com id " + id + " não encontrado para atualização.");
+                }
+
+                throw new OptimisticLockingFailureException("O usuário foi alterado por outra requisição. Recarregue-o e tente novamente.");
+
+            }
+
+            eventPublisher.publishEvent(ClientesAlteradosEvent.de(id));
+
+            logger.info("[atualizarParcial] - Fim - Usuário com id = {} atualizado para a versão {}", id, atualizacao.getVersao() + 1);
+
+            return atualizacaoParcialService.resposta(Usuario.class, id, atualizacao.getVersao() + 1, alteracoes);
+
+        } catch (EntityNotFoundException | IllegalArgumentException | SecurityException | OptimisticLockingFailureException e) {
+
+            logger.error("[atualizarParcial] - Fim - Erro ao atualizar usuário com id = {}: {}", id, e.getMessage());
+            throw e;
+
+        }
+
+    }
+
+    private void validarPermissaoAtualizacaoParcial(Long id, UsuarioAtualizacaoDTO atualizacao, Usuario usuarioLogado) {
+
+        if (usuarioLogado != null && usuarioLogado.getPerfil() != null && ID_ADMINISTRADOR.equals(usuarioLogado.getPerfil().getId())) {
+            return;
+        }
+
+        if (usuarioLogado == null || !id.equals(usuarioLogado.getId())) {
+            throw new SecurityException("Você só pode alterar os próprios dados.");
+        }
+
+        if (atualizacao.getAlteracoes().containsKey("status") || atualizacao.getAlteracoes().containsKey("perfil")) {
+            throw new SecurityException("Só administradores podem alterar o status ou o perfil de um usuário.");
+        }
+
+    }
+
+    private void validarAtualizacaoParcial(Long id, UsuarioAtualizacaoDTO atualizacao) {
+
+        Map<String, Object> alteracoes = atualizacao.getAlteracoes();
+
+        if (atualizacao.getVersao() == null) {
+            throw new IllegalArgumentException("Versão do usuário é obrigatória.");
+        }
+
+        if (alteracoes.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um campo para atualizar.");
+        }
+
+        for (String obrigatorio : List.of("status", "perfil", "receberEmail")) {
+
+            if (alteracoes.containsKey(obrigatorio) && alteracoes.get(obrigatorio) == null) {
+                throw new IllegalArgumentException("O campo " + obrigatorio + " do usuário não pode ser nulo.");
+            }
+
+        }
+
+        if (alteracoes.containsKey("nome") && (atualizacao.getNome() == null || atualizacao.getNome().isBlank())) {
+            throw new IllegalArgumentException("Nome do usuário é obrigatório.");
+        }
+
+        if (alteracoes.containsKey("email")) {
+
+            if (atualizacao.getEmail() == null || atualizacao.getEmail().isBlank()) {
+                throw new IllegalArgumentException("Email do usuário é obrigatório.");
+            }
+
+            Optional<Long> usuarioExistente = usuarioRepository.findIdByEmailTodasClinicas(atualizacao.getEmail());
+
+            if (usuarioExistente.isPresent() && !usuarioExistente.get().equals(id)) {
+                throw new IllegalArgumentException("O e-mail informado já está em uso por outro usuário.");
+            }
+
+        }
+
+        // Sem essas checagens, um ID inexistente só seria notado pela chave estrangeira, com erro 500.
+        if (alteracoes.containsKey("status") && !statusRepository.existsById(atualizacao.getIdStatus())) {
+            throw new IllegalArgumentException("Status com id " + atualizacao.getIdStatus() + " não encontrado.");
+        }
+
+        if (alteracoes.containsKey("perfil") && !perfilRepository.existsById(atualizacao.getIdPerfil())) {
+            throw new IllegalArgumentException("Perfil com id " + atualizacao.getIdPerfil() + " não encontrado.");
+        }
+
+        Object siglaEstado = alteracoes.get("endereco.estado");
+
+        if (siglaEstado != null && !estadoRepository.existsById(siglaEstado.toString())) {
+            throw new IllegalArgumentException("Estado " + siglaEstado + " não encontrado.");
+        }
+
+    }
+
     /**
      * Altera a senha de um usuário autenticado, validando sua senha antiga.
      *
@@ -277,7 +448,7 @@ public class UsuarioService {
 
             }
 
-            if (passwordEncoder.matches(usuarioAlterarSenha.getSenhaNova(), usuarioLogado.getSenha())) {
+            if (usuarioAlterarSenha.getSenhaNova().equals(usuarioAlterarSenha.getSenhaAntiga())) {
                 throw new IllegalArgumentException("A nova senha não pode ser igual à senha antiga.");
             }
 
@@ -314,13 +485,13 @@ public class UsuarioService {
 
         try {
 
-            if (!usuarioRepository.existsById(id)) {
+            // O deleteById buscaria o usuário de novo; com ele já carregado, a exclusão é direta.
+            Usuario usuario = usuarioRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Usuário com id " + id + " não encontrado para exclusão."));
 
-                throw new EntityNotFoundException("Usuário com id " + id + " não encontrado para exclusão.");
+            usuarioRepository.delete(usuario);
 
-            }
-
-            usuarioRepository.deleteById(id);
+            eventPublisher.publishEvent(ClientesAlteradosEvent.de(id));
 
             logger.info("[deletar] - Fim - Usuário com id = {} deletado com sucesso.", id);
 
@@ -372,13 +543,13 @@ public class UsuarioService {
 
         }
 
-        if (isNovoUsuario && usuarioRepository.existsByCpf(usuario.getCpf())) {
+        if (isNovoUsuario && usuarioRepository.countByCpfTodasClinicas(usuario.getCpf()) > 0) {
 
             throw new IllegalArgumentException("CPF já cadastrado no sistema.");
 
         }
 
-        Optional<Usuario> usuarioExistente = usuarioRepository.findByEmail(usuario.getEmail());
+        Optional<Long> usuarioExistente = usuarioRepository.findIdByEmailTodasClinicas(usuario.getEmail());
 
         if (usuarioExistente.isPresent()) {
 
@@ -388,7 +559,7 @@ public class UsuarioService {
 
             } else {
 
-                if (!usuarioExistente.get().getId().equals(usuario.getId())) {
+                if (!usuarioExistente.get().equals(usuario.getId())) {
 
                     throw new IllegalArgumentException("O e-mail informado já está em uso por outro usuário.");
 
@@ -484,7 +655,8 @@ public class UsuarioService {
     }
 
     /**
-     * Retorna usuário com perfil de recepcionista e com nome AUTO ATENDIMENTO.
+     * Retorna o usuário com perfil de recepcionista usado no auto atendimento da clínica atual, cujo
+     * nome é configurado por clínica (AUTO ATENDIMENTO quando não configurado).
      *
      * @return Usuario.
      * @throws RuntimeException se ocorrer um erro inesperado ao consultar os recepcionistas.
@@ -496,11 +668,13 @@ public class UsuarioService {
 
         try {
 
+            String nomeAutoAtendimento = clinicaService.recuperarAtual().getNomeRecepcionistaAutoAtendimento();
+
             List<Usuario> listaRecepcionistas = usuarioRepository.findRecepcionista();
 
             for(Usuario recepcionista : listaRecepcionistas){
 
-                if(recepcionista.getNome().equals(NOME_RECEPCIONISTA_AUTO_ATENDIMENTO)){
+                if(recepcionista.getNome().equals(nomeAutoAtendimento)){
 
                     logger.info("[recuperarRecepcionistaAutoAtendimento] - Fim - Busca concluída. Recepcionista AUTO ATENDIMENTO encontrado com sucesso");
 
@@ -577,6 +751,52 @@ public class UsuarioService {
         }
     }
 
+    /**
+     * Lista usuários com paginação trazendo só os campos pedidos.
+     *
+     * @param campos Campos separados por vírgula, com os nomes do UsuarioDTO (ex.: id,nome,perfil.nome).
+     * @param pageable Dados de paginação.
+     * @return Page com um Map por usuário.
+     * @throws IllegalArgumentException se algum campo não puder ser selecionado.
+     */
+    public Page<Map<String, Object>> listarProjecao(String campos, Pageable pageable) {
+
+        return projecaoService.listar(Usuario.class, CAMPOS_PROJECAO, campos, null, pageable);
+
+    }
+
+    /**
+     * Lista clientes com paginação trazendo só os campos pedidos.
+     *
+     * @param campos Campos separados por vírgula, com os nomes do UsuarioDTO.
+     * @param pageable Dados de paginação.
+     * @return Page com um Map por cliente.
+     * @throws IllegalArgumentException se algum campo não puder ser selecionado.
+     */
+    public Page<Map<String, Object>> listarClientesProjecao(String campos, Pageable pageable) {
+
+        Specification<Usuario> filtro = (root, query, cb) -> cb.equal(root.get("perfil").get("id"), ID_CLIENTE);
+
+        return projecaoService.listar(Usuario.class, CAMPOS_PROJECAO, campos, filtro, pageable);
+
+    }
+
+    /**
+     * Lista funcionários (recepcionistas e veterinários) com paginação trazendo só os campos pedidos.
+     *
+     * @param campos Campos separados por vírgula, com os nomes do UsuarioDTO.
+     * @param pageable Dados de paginação.
+     * @return Page com um Map por funcionário.
+     * @throws IllegalArgumentException se algum campo não puder ser selecionado.
+     */
+    public Page<Map<String, Object>> listarFuncionariosProjecao(String campos, Pageable pageable) {
+
+        Specification<Usuario> filtro = (root, query, cb) -> root.get("perfil").get("id").in(ID_RECEPCIONISTA, ID_VETERINARIO);
+
+        return projecaoService.listar(Usuario.class, CAMPOS_PROJECAO, campos, filtro, pageable);
+
+    }
+
     /**
      * Lista todos os funcionários (Recepcionistas e Veterinários).
      *
@@ -632,30 +852,49 @@ public class UsuarioService {
     }
 
     /**
-     * Envia código de recuperação para o usuário por email.
+     * Envia código de recuperação para o usuário por email. Do usuário só são lidos o ID e o nome; o
+     * código fica em {@link CodigosRecuperacao}, não no cadastro.
      *
      * @param email Email do destinatário.
-     * @return {@code true} se o usuário existe e o processo de envio foi iniciado, {@code false} caso contrário.
+     * @return {@code true} se o usuário existe e o código foi enviado, {@code false} caso contrário.
      */
-    @Transactional(readOnly = true)
     public boolean enviarCodigoEmail(String email){
 
         logger.info("[enviarCodigoEmail] - Inicio - Tentativa de envio de código para o email: {}", email);
 
         try {
 
-            Optional<Usuario> usuarioOptional = usuarioRepository.findByEmail(email);
+            List<Object[]> usuarios = usuarioRepository.findIdENomeByEmail(email);
 
-            if(usuarioOptional.isEmpty()){
+            if(usuarios.isEmpty()){
 
                 logger.warn("[enviarCodigoEmail] - Fim - Usuário com email {} não encontrado.", email);
                 return false;
 
             }
 
-            emailSender.enviarCodigoEmail(email);
+            Long idUsuario = (Long) usuarios.get(0)[0];
+            String nome = (String) usuarios.get(0)[1];
+
+            Optional<String> codigo = codigosRecuperacao.gerar(idUsuario);
+
+            if(codigo.isEmpty()){
+
+                logger.warn("[enviarCodigoEmail] - Fim - Código não gerado para o usuário ID: {}", idUsuario);
+                return false;
+
+            }
+
+            if(!emailSender.enviarCodigoEmail(email, nome, codigo.get())){
 
-            logger.info("[enviarCodigoEmail] - Fim - Processo de envio de código iniciado para o email: {}", email);
+                codigosRecuperacao.descartar(idUsuario, codigo.get());
+
+                logger.warn("[enviarCodigoEmail] - Fim - Falha ao enviar o código para o email: {}", email);
+                return false;
+
+            }
+
+            logger.info("[enviarCodigoEmail] - Fim - Código enviado para o email: {}", email);
             return true;
 
         } catch (Exception e) {
@@ -667,60 +906,29 @@ public class UsuarioService {
     }
 
     /**
-     * Valida o código de recuperação do usuário, checando também se não expirou.
+     * Valida o código de recuperação do usuário, sem consultar o cadastro: usuário inexistente e código
+     * inexistente, vencido, errado ou com as tentativas esgotadas têm o mesmo resultado.
      *
      * @param idUsuario Id do usuário
      * @param codigo Código a ser validado
-     * @return {@code true} se o código for válido e não estiver expirado, caso contrário {@code false}.
+     * @return {@code true} se o código for válido, caso contrário {@code false}.
      */
-    @Transactional
     public boolean validarCodigo(Long idUsuario, String codigo) {
 
         logger.info("[validarCodigo] - Inicio - Validando código para o usuário ID: {}", idUsuario);
 
         try {
 
-            Optional<Usuario> usuarioOptional = usuarioRepository.findById(idUsuario);
-
-            if (usuarioOptional.isEmpty()) {
-
-                logger.warn("[validarCodigo] - Fim - Tentativa de validação para usuário inexistente. ID: {}", idUsuario);
-                return false;
-
-            }
-
-            Usuario usuario = usuarioOptional.get();
-
-            if(usuario.getExpiracaoCodigo() == null){
-
-                logger.warn("[validarCodigo] - Fim - Usuário ID {} não possui um código de recuperação ativo.", idUsuario);
-                return false;
-
-            }
-
-            boolean codigoCorreto = codigo != null && codigo.equals(usuario.getCodigoRecuperacao());
-            boolean naoExpirou = LocalDateTime.now().isBefore(usuario.getExpiracaoCodigo());
-
-            if (codigoCorreto && naoExpirou) {
-
-                usuario.setCodigoRecuperacao(null);
-                usuario.setExpiracaoCodigo(null);
-                usuarioRepository.save(usuario);
+            if (codigosRecuperacao.validar(idUsuario, codigo)) {
 
                 logger.info("[validarCodigo] - Fim - Código validado com sucesso para o usuário ID: {}", idUsuario);
                 return true;
 
-            } else {
-
-                if (!codigoCorreto) {
-                    logger.warn("[validarCodigo] - Fim - Código fornecido é inválido para o usuário ID: {}", idUsuario);
-                }
-                if (!naoExpirou) {
-                    logger.warn("[validarCodigo] - Fim - Código de recuperação expirou para o usuário ID: {}", idUsuario);
-                }
-                return false;
             }
 
+            logger.warn("[validarCodigo] - Fim - Código inválido, expirado ou inexistente para o usuário ID: {}", idUsuario);
+            return false;
+
         } catch (Exception e) {
 
             logger.error("[validarCodigo] - Fim - Erro inesperado ao validar código para o usuário ID {}: {}", idUsuario, e.getMessage(), e);
@@ -815,46 +1023,9 @@ public class UsuarioService {
                 idVeterinario, inicioDoDia, fimDoDia, 2
         );
 
-        List<String> horariosDisponiveis = new ArrayList<>();
-        LocalTime agora = LocalTime.now();
-        boolean isHoje = data.isEqual(LocalDate.now());
+        List<ReservaHorario> reservas = reservasHorario.listarDoVeterinario(idVeterinario, inicioDoDia, fimDoDia);
 
-        final int INCREMENTO_MINUTOS = 30;
-
-        for (VeterinarioHorario bloco : blocosDeTrabalho) {
-            LocalTime slotInicio = bloco.getHoraInicio();
-            LocalTime slotFim;
-
-            while (true) {
-                slotFim = slotInicio.plusMinutes(duracaoSlotsMinutos);
-
-
-                if (slotFim.isAfter(bloco.getHoraFim())) {
-                    break;
-                }
-
-                boolean isNoPassado = isHoje && slotInicio.isBefore(agora);
-                boolean isDisponivel = !isNoPassado;
-
-                if (isDisponivel) {
-                    for (Agendamento ocupado : agendamentosOcupados) {
-                        LocalTime ocupadoInicio = ocupado.getDataAgendamentoInicio().toLocalTime();
-                        LocalTime ocupadoFim = ocupado.getDataAgendamentoFinal().toLocalTime();
-
-                        if (slotInicio.isBefore(ocupadoFim) && slotFim.isAfter(ocupadoInicio)) {
-                            isDisponivel = false;
-                            break;
-                        }
-                    }
-                }
-
-                if (isDisponivel) {
-                    horariosDisponiveis.add(slotInicio.toString());
-                }
-
-                slotInicio = slotInicio.plusMinutes(INCREMENTO_MINUTOS);
-            }
-        }
+        List<String> horariosDisponiveis = GeradorHorarios.gerar(data, blocosDeTrabalho, duracaoSlotsMinutos, agendamentosOcupados, reservas, LocalDateTime.now());
 
         logger.info("[listarHorariosDisponiveis] - Fim - Encontrados {} slots disponíveis.", horariosDisponiveis.size());
         return horariosDisponiveis;
@@ -0,0 +1,98 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.AnimalRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+
+/**
+ * Calcula ETags a partir das colunas data_atualizacao (mantidas pelo banco) e da quantidade de
+ * registros, sem carregar nem serializar as entidades. Os controllers comparam o ETag com o
+ * If-None-Match antes de chamar o service e respondem 304 quando nada mudou.
+ *
+ * Os DTOs de listagem trazem dados de agendamentos, usuários e animais ao mesmo tempo, então as
+ * coleções usam a versão das três tabelas; os recursos individuais olham só as linhas envolvidas.
+ *
+ * As consultas de versão já são filtradas pela clínica da requisição; a clínica também entra no ETag
+ * das coleções para que clínicas diferentes nunca compartilhem um ETag.
+ */
+@Service
+public class VersaoRecursoService {
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    /**
+     * @param recurso Nome da coleção (entra no ETag para não colidir entre endpoints).
+     * @param parametros Parâmetros da requisição que alteram o conteúdo (paginação, filtros).
+     * @return ETag da coleção.
+     */
+    @Transactional(readOnly = true)
+    public String etagColecao(String recurso, Object... parametros) {
+
+        return etag(recurso, ContextoClinica.atual(), Arrays.toString(parametros), versao(agendamentoRepository.findVersao()),
+                versao(usuarioRepository.findVersao()), versao(animalRepository.findVersao()));
+
+    }
+
+    /**
+     * @param id ID do agendamento.
+     * @return ETag do agendamento ou null se ele não existir.
+     */
+    @Transactional(readOnly = true)
+    public String etagAgendamento(Long id) {
+
+        List<Object[]> versao = agendamentoRepository.findVersaoById(id);
+
+        return versao.isEmpty() ? null : etag("agendamento", id, versao(versao));
+
+    }
+
+    /**
+     * @param id ID do usuário.
+     * @return ETag do usuário, incluindo seus animais e agendamentos, ou null se ele não existir.
+     */
+    @Transactional(readOnly = true)
+    public String etagUsuario(Long id) {
+
+        List<?> dataAtualizacao = usuarioRepository.findDataAtualizacaoById(id);
+
+        if (dataAtualizacao.isEmpty()) {
+            return null;
+        }
+
+        return etag("usuario", id, dataAtualizacao.get(0), versao(agendamentoRepository.findVersaoByCliente(id)),
+                versao(animalRepository.findVersaoByDono(id)));
+
+    }
+
+    private String versao(List<Object[]> linhas) {
+
+        return linhas.isEmpty() ? "" : Arrays.toString(linhas.get(0));
+
+    }
+
+    private String etag(Object... partes) {
+
+        String hash = DigestUtils.md5DigestAsHex(Arrays.toString(partes).getBytes(StandardCharsets.UTF_8));
+
+        return "W/\"" + hash + "\"";
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package br.com.caiorodri.agendamentoveterinario.tarefa;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.caiorodri.agendamentoveterinario.email.EmailSender;
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.Animal;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.AnimalRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
+
+/**
+ * Envia aos donos de animais sem consulta há mais de seis meses o lembrete de agendar uma consulta,
+ * uma vez por dono (usuario.email_realizar_consulta_recebido).
+ *
+ * O dono é marcado com uma atualização condicional antes do envio, na mesma transação: se dois animais
+ * do mesmo dono forem processados ao mesmo tempo, ou o lote for reprocessado, só um e-mail é enviado.
+ * Se o envio falhar, a marcação é desfeita e o item conta como erro.
+ */
+@Component
+public class NotificacaoConsultaTarefa implements TarefaLote {
+
+    public static final String NOME = "notificacao-consultas";
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EmailSender emailService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public String getNome() {
+
+        return NOME;
+
+    }
+
+    @Override
+    public String getDescricao() {
+
+        return "Lembra os donos de animais sem consulta há mais de seis meses de agendar uma consulta.";
+
+    }
+
+    @Override
+    public Intervalo recuperarIntervalo() {
+
+        Object[] intervalo = animalRepository.findIntervaloIds().get(0);
+
+        return intervalo[0] == null ? null : new Intervalo((Long) intervalo[0], (Long) intervalo[1], (Long) intervalo[2]);
+
+    }
+
+    @Override
+    public List<Long> listarIds(long depoisDe, long ate, int limite) {
+
+        return animalRepository.findIdsNoIntervalo(depoisDe, ate, Limit.of(limite));
+
+    }
+
+    @Override
+    public void processar(Long id) {
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            Animal animal = animalRepository.findById(id).orElse(null);
+
+            if (animal == null || animal.getDono() == null) {
+                return;
+            }
+
+            Usuario dono = animal.getDono();
+
+            if (dono.isEmailRealizarConsultaRecebido() || !dono.isReceberEmail()) {
+                return;
+            }
+
+            Agendamento ultimaConsulta = agendamentoRepository.findUltimaConsultaByAnimal(id);
+
+            if (ultimaConsulta == null || !ultimaConsulta.getDataAgendamentoInicio().toLocalDate().isBefore(LocalDate.now().minusMonths(6))) {
+                return;
+            }
+
+            if (usuarioRepository.marcarEmailRealizarConsultaRecebido(dono.getId()) == 0) {
+                return;
+            }
+
+            if (!emailService.enviarInformacaoRealizarConsultaEmail(animal, ultimaConsulta)) {
+                throw new IllegalStateException("Falha ao enviar o e-mail para o dono do animal " + id);
+            }
+
+        });
+
+    }
+
+}
@@ -0,0 +1,50 @@
+package br.com.caiorodri.agendamentoveterinario.tarefa;
+
+import java.util.List;
+
+/**
+ * Tarefa em lote executada pelo TarefaService. Os itens são identificados por IDs numéricos, que o
+ * TarefaService divide em faixas processadas em paralelo, registrando o último ID concluído de cada
+ * faixa.
+ *
+ * Um lote interrompido é reprocessado a partir do último ID registrado, então {@link #processar(Long)}
+ * precisa ser idempotente: processar de novo um item já processado não pode repetir o efeito.
+ */
+public interface TarefaLote {
+
+    /**
+     * @return Nome único da tarefa, usado no endpoint e nas execuções.
+     */
+    String getNome();
+
+    /**
+     * @return Descrição exibida na listagem das tarefas.
+     */
+    String getDescricao();
+
+    /**
+     * @return Menor e maior ID e quantidade de itens a processar, ou null se não houver itens.
+     */
+    Intervalo recuperarIntervalo();
+
+    /**
+     * Lista os próximos IDs da faixa, em ordem crescente.
+     *
+     * @param depoisDe IDs maiores que este.
+     * @param ate IDs menores ou iguais a este.
+     * @param limite Quantidade máxima de IDs.
+     * @return IDs encontrados.
+     */
+    List<Long> listarIds(long depoisDe, long ate, int limite);
+
+    /**
+     * Processa um item. Exceções contam como erro do item e não interrompem a faixa.
+     *
+     * @param id ID do item.
+     */
+    void processar(Long id);
+
+    record Intervalo(long idInicio, long idFim, long total) {
+    }
+
+}
@@ -0,0 +1,74 @@
+-- Perfil carga: dados de referência de scripts/bd_agendamento_veterinario.sql. Clientes, animais e
+-- agendamentos são gerados pelo GeradorDadosCarga.
+
+INSERT INTO clinica (id, nome) VALUES (1, 'AgenPet');
+
+INSERT INTO estado (nome, sigla) VALUES ('Acre', 'AC'),
+ ('Alagoas', 'AL'),
+ ('Amazonas', 'AM'),
+ ('Amapá', 'AP'),
+ ('Bahia', 'BA'),
+ ('Ceará', 'CE'),
+ ('Distrito Federal', 'DF'),
+ ('Espírito Santo', 'ES'),
+ ('Goiás', 'GO'),
+ ('Maranhão', 'MA'),
+ ('Minas Gerais', 'MG'),
+ ('Mato Grosso do Sul', 'MS'),
+ ('Mato Grosso', 'MT'),
+ ('Pará', 'PA'),
+ ('Paraíba', 'PB'),
+ ('Pernambuco', 'PE'),
+ ('Piauí', 'PI'),
+ ('Paraná', 'PR'),
+ ('Rio de Janeiro', 'RJ'),
+ ('Rio Grande do Norte', 'RN'),
+ ('Rondônia', 'RO'),
+ ('Roraima', 'RR'),
+ ('Rio Grande do Sul', 'RS'),
+ ('Santa Catarina', 'SC'),
+ ('Sergipe', 'SE'),
+ ('São Paulo', 'SP'),
+ ('Tocantins', 'TO');
+
+INSERT INTO perfil (id, nome) VALUES (1, 'Cliente'), (2, 'Recepcionista'), (3, 'Veterinario'), (4, 'Administrador');
+
+INSERT INTO usuario_status (id, nome) VALUES (1, 'Ativo'), (2, 'Inativo');
+
+INSERT INTO animal_especie (id, nome) VALUES
+(1, 'Cachorro'),
+(2, 'Gato'),
+(3, 'Ave'),
+(4, 'Coelho');
+
+INSERT INTO animal_raca (id_especie, nome) VALUES
+(1, 'Desconhecido'),
+(1, 'Vira Lata'),
+(1, 'Pastor Alemão'),
+(1, 'Poodle'),
+(1, 'Labrador Retriever'),
+(1, 'Bulldog Francês'),
+(1, 'Golden Retriever'),
+(1, 'Shih Tzu'),
+(2, 'Desconhecido'),
+(2, 'Siamês'),
+(2, 'Persa'),
+(2, 'Maine Coon'),
+(3, 'Periquito'),
+(3, 'Calopsita'),
+(4, 'Mini Lop');
+
+INSERT INTO animal_sexo (id, nome) VALUES (1, 'Macho'), (2, 'Femea'), (3, 'Desconhecido');
+
+INSERT INTO agendamento_status (id, nome) VALUES (1, 'Aberto'), (2, 'Cancelado'), (3, 'Concluido'), (4, 'Perdido');
+
+INSERT INTO agendamento_tipo (id, nome, duracao_minutos) VALUES (1, 'Consulta', 30), (2, 'Cirurgia', 60);
+
+INSERT INTO dia_semana (id, nome) VALUES
+(1, 'Domingo'),
+(2, 'Segunda-feira'),
+(3, 'Terça-feira'),
+(4, 'Quarta-feira'),
+(5, 'Quinta-feira'),
+(6, 'Sexta-feira'),
+(7, 'Sábado');
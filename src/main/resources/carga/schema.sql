@@ -0,0 +1,62 @@
+-- Perfil carga: tabelas sem entidade JPA e índices de scripts/bd_agendamento_veterinario.sql. As
+-- tabelas das entidades são criadas antes pelo Hibernate (ddl-auto: create).
+
+CREATE TABLE IF NOT EXISTS trava_tarefa (
+    nome VARCHAR(64) PRIMARY KEY,
+    travado_ate TIMESTAMP NOT NULL,
+    travado_em TIMESTAMP NOT NULL,
+    travado_por VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS evento_cluster (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tipo VARCHAR(30) NOT NULL,
+    ids CLOB,
+    origem VARCHAR(255) NOT NULL,
+    data_criacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS lembrete_agendamento (
+    id_agendamento BIGINT NOT NULL,
+    antecedencia_minutos INT NOT NULL,
+    data_agendamento_inicio TIMESTAMP NOT NULL,
+    data_envio TIMESTAMP NOT NULL,
+    PRIMARY KEY (id_agendamento, antecedencia_minutos, data_agendamento_inicio),
+    CONSTRAINT lembrete_agendamento_agendamento_fk FOREIGN KEY (id_agendamento) REFERENCES agendamento(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS codigo_recuperacao (
+    id_usuario BIGINT PRIMARY KEY,
+    hash_codigo CHAR(64) NOT NULL,
+    expiracao TIMESTAMP NOT NULL,
+    tentativas INT NOT NULL DEFAULT 0,
+    CONSTRAINT codigo_recuperacao_usuario_fk FOREIGN KEY (id_usuario) REFERENCES usuario(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS reserva_horario (
+    id CHAR(36) PRIMARY KEY,
+    id_veterinario BIGINT NOT NULL,
+    id_cliente BIGINT NOT NULL,
+    id_tipo INT NOT NULL,
+    inicio TIMESTAMP NOT NULL,
+    fim TIMESTAMP NOT NULL,
+    expiracao TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS evento_cluster_data_criacao_idx ON evento_cluster (data_criacao);
+CREATE INDEX IF NOT EXISTS codigo_recuperacao_expiracao_idx ON codigo_recuperacao (expiracao);
+CREATE INDEX IF NOT EXISTS lembrete_agendamento_inicio_idx ON lembrete_agendamento (data_agendamento_inicio);
+CREATE INDEX IF NOT EXISTS reserva_horario_veterinario_idx ON reserva_horario (id_veterinario, inicio);
+CREATE INDEX IF NOT EXISTS reserva_horario_cliente_idx ON reserva_horario (id_cliente);
+CREATE INDEX IF NOT EXISTS reserva_horario_expiracao_idx ON reserva_horario (expiracao);
+CREATE INDEX IF NOT EXISTS lista_espera_status_idx ON lista_espera (status, oferta_expiracao);
+CREATE INDEX IF NOT EXISTS tarefa_execucao_nome_status_idx ON tarefa_execucao (nome, status);
+CREATE INDEX IF NOT EXISTS tarefa_particao_execucao_idx ON tarefa_particao (id_execucao, indice);
+CREATE INDEX IF NOT EXISTS tarefa_particao_status_idx ON tarefa_particao (status, data_atualizacao);
+CREATE INDEX IF NOT EXISTS usuario_data_atualizacao_idx ON usuario (data_atualizacao);
+CREATE INDEX IF NOT EXISTS animal_data_atualizacao_idx ON animal (data_atualizacao);
+CREATE INDEX IF NOT EXISTS agendamento_data_atualizacao_idx ON agendamento (data_atualizacao);
+CREATE INDEX IF NOT EXISTS usuario_clinica_perfil_idx ON usuario (id_clinica, id_perfil);
+CREATE INDEX IF NOT EXISTS animal_clinica_idx ON animal (id_clinica, id);
+CREATE INDEX IF NOT EXISTS agendamento_clinica_inicio_idx ON agendamento (id_clinica, data_agendamento_inicio);
+CREATE INDEX IF NOT EXISTS agendamento_status_inicio_idx ON agendamento (id_agendamento_status, data_agendamento_inicio);
@@ -0,0 +1,170 @@
+package br.com.caiorodri.agendamentoveterinario.carga;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class GeradorDadosCargaTest {
+
+    private static final LocalDate DATA_REFERENCIA = LocalDate.of(2026, 3, 10);
+
+    @TempDir
+    private Path temporario;
+
+    @Test
+    void mesmaSementeGeraOsMesmosArquivosComQualquerQuantidadeDeThreads() throws Exception {
+
+        Path umaThread = temporario.resolve("uma");
+        Path quatroThreads = temporario.resolve("quatro");
+
+        new GeradorDadosCarga(new DestinoArquivos(umaThread), parametros(1)).gerar();
+        new GeradorDadosCarga(new DestinoArquivos(quatroThreads), parametros(4)).gerar();
+
+        List<Path> arquivos = listar(umaThread);
+
+        assertEquals(arquivos, listar(quatroThreads));
+        assertTrue(arquivos.contains(Path.of(DestinoArquivos.SCRIPT)));
+        assertTrue(arquivos.contains(Path.of("usuario-00003.tsv")), "funcionários mais três partições de clientes");
+
+        for (Path arquivo : arquivos) {
+            assertArrayEquals(Files.readAllBytes(umaThread.resolve(arquivo)), Files.readAllBytes(quatroThreads.resolve(arquivo)), arquivo.toString());
+        }
+
+    }
+
+    @Test
+    void agendamentosNaoSeSobrepoemPorVeterinarioEUsamOAnimalDoCliente() throws Exception {
+
+        DestinoMemoria destino = new DestinoMemoria();
+
+        new GeradorDadosCarga(destino, parametros(4)).gerar();
+
+        Map<Object, Object> donos = new HashMap<>();
+        destino.linhas(DestinoCarga.ANIMAL).forEach(animal -> donos.put(animal[0], animal[3]));
+
+        List<Object[]> agendamentos = destino.linhas(DestinoCarga.AGENDAMENTO);
+        assertEquals(20_000, agendamentos.size());
+        assertEquals(20_000, agendamentos.stream().map(a -> a[0]).distinct().count());
+
+        Map<Object, List<Object[]>> porVeterinario = new HashMap<>();
+
+        for (Object[] agendamento : agendamentos) {
+
+            assertEquals(donos.get(agendamento[1]), agendamento[2]);
+            porVeterinario.computeIfAbsent(agendamento[3], v -> new ArrayList<>()).add(agendamento);
+
+        }
+
+        for (List<Object[]> doVeterinario : porVeterinario.values()) {
+
+            doVeterinario.sort((a, b) -> ((LocalDateTime) a[8]).compareTo((LocalDateTime) b[8]));
+
+            for (int i = 1; i < doVeterinario.size(); i++) {
+                assertFalse(((LocalDateTime) doVeterinario.get(i)[8]).isBefore((LocalDateTime) doVeterinario.get(i - 1)[9]));
+            }
+        }
+
+    }
+
+    @Test
+    void destinoBancoGravaComInsertsDeVariasLinhas() throws Exception {
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE item (id BIGINT PRIMARY KEY, nome VARCHAR(20))");
+
+        DestinoBanco destino = new DestinoBanco(jdbcTemplate, 1000);
+        DestinoCarga.Tabela item = new DestinoCarga.Tabela("item", "id", "nome");
+
+        try (DestinoCarga.Escrita escrita = destino.abrir(item, 0)) {
+            for (long id = 1; id <= 2500; id++) {
+                escrita.adicionar(id, id % 2 == 0 ? "item" + id : null);
+            }
+        }
+
+        assertEquals(2500, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item", Integer.class));
+        assertEquals(1250, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item WHERE nome IS NULL", Integer.class));
+        assertEquals(2501, destino.proximoId("item"));
+
+    }
+
+    private static GeradorDadosCarga.Parametros parametros(int threads) {
+
+        return new GeradorDadosCarga.Parametros("senha", 7, 25_000, 30_000, 20_000, 7, 2, 10, DATA_REFERENCIA, threads, 1);
+
+    }
+
+    private static List<Path> listar(Path diretorio) throws Exception {
+
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.map(diretorio::relativize).sorted().toList();
+        }
+
+    }
+
+    /** Guarda as linhas de cada tabela, de todas as partições. */
+    private static class DestinoMemoria implements DestinoCarga {
+
+        private final Map<String, List<Object[]>> tabelas = new ConcurrentHashMap<>();
+
+        @Override
+        public long proximoId(String tabela) {
+
+            return 1;
+
+        }
+
+        @Override
+        public Escrita abrir(Tabela tabela, int particao) {
+
+            List<Object[]> linhas = new ArrayList<>();
+
+            return new Escrita() {
+
+                @Override
+                public void adicionar(Object... linha) {
+
+                    linhas.add(linha);
+
+                }
+
+                @Override
+                public void close() {
+
+                    tabelas.merge(tabela.nome(), linhas, (todas, novas) -> {
+                        todas.addAll(novas);
+                        return todas;
+                    });
+
+                }
+
+            };
+
+        }
+
+        List<Object[]> linhas(Tabela tabela) {
+
+            return tabelas.get(tabela.nome());
+
+        }
+
+    }
+
+}
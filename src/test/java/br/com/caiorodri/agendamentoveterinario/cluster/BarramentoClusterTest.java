@@ -0,0 +1,125 @@
+package br.com.caiorodri.agendamentoveterinario.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.caiorodri.agendamentoveterinario.event.InvalidacaoRemotaEvent;
+
+/**
+ * Simula duas instâncias da aplicação, cada uma com seu BarramentoCluster, usando o mesmo banco H2 em memória.
+ */
+class BarramentoClusterTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transacao;
+
+    private final List<Object> recebidos1 = new ArrayList<>();
+
+    private final List<Object> recebidos2 = new ArrayList<>();
+
+    private BarramentoCluster instancia1;
+
+    private BarramentoCluster instancia2;
+
+    @BeforeEach
+    void setUp() {
+
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE evento_cluster (id BIGINT AUTO_INCREMENT PRIMARY KEY, tipo VARCHAR(30) NOT NULL, ids CLOB, " +
+                "origem VARCHAR(255) NOT NULL, data_criacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+
+        transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        instancia1 = new BarramentoCluster(jdbcTemplate, recebidos1::add, "instancia-1", 30);
+        instancia2 = new BarramentoCluster(jdbcTemplate, recebidos2::add, "instancia-2", 30);
+
+    }
+
+    @Test
+    void eventoChegaSoAsOutrasInstanciasEUmaVez() {
+
+        instancia1.publicar(BarramentoCluster.CLIENTES, List.of(1L, 2L));
+
+        assertEquals(0, instancia1.receber());
+        assertEquals(1, instancia2.receber());
+        assertEquals(0, instancia2.receber());
+
+        assertEquals(List.of(new InvalidacaoRemotaEvent(BarramentoCluster.CLIENTES, List.of(1L, 2L))), recebidos2);
+        assertTrue(recebidos1.isEmpty());
+
+    }
+
+    @Test
+    void eventoDeTransacaoDesfeitaNaoEGravado() {
+
+        transacao.executeWithoutResult(status -> {
+            instancia1.publicar(BarramentoCluster.LISTA_ESPERA, List.of(10L));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, instancia2.receber());
+
+        transacao.executeWithoutResult(status -> instancia1.publicar(BarramentoCluster.LISTA_ESPERA, List.of(11L)));
+
+        assertEquals(1, instancia2.receber());
+        assertEquals(List.of(new InvalidacaoRemotaEvent(BarramentoCluster.LISTA_ESPERA, List.of(11L))), recebidos2);
+
+    }
+
+    @Test
+    void eventoConfirmadoForaDeOrdemNaoEPerdido() {
+
+        // A transação mais antiga recebe o id menor, mas só é confirmada depois da leitura do id maior.
+        jdbcTemplate.update("INSERT INTO evento_cluster (id, tipo, ids, origem) VALUES (2, 'clientes', '2', 'instancia-1')");
+
+        assertEquals(1, instancia2.receber());
+
+        jdbcTemplate.update("INSERT INTO evento_cluster (id, tipo, ids, origem) VALUES (1, 'clientes', '1', 'instancia-1')");
+
+        assertEquals(1, instancia2.receber());
+        assertEquals(2, recebidos2.size());
+
+    }
+
+    @Test
+    void muitosIdsSaoDivididosEmVariosEventos() {
+
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+
+        instancia1.publicar(BarramentoCluster.CLIENTES, ids);
+
+        assertEquals(3, instancia2.receber());
+        assertEquals(ids, recebidos2.stream().flatMap(e -> ((InvalidacaoRemotaEvent) e).ids().stream()).toList());
+
+    }
+
+    @Test
+    void limparApagaEventosAntigos() {
+
+        jdbcTemplate.update("INSERT INTO evento_cluster (tipo, ids, origem, data_criacao) VALUES ('clientes', '1', 'instancia-1', TIMESTAMPADD(HOUR, -25, CURRENT_TIMESTAMP))");
+        instancia1.publicar(BarramentoCluster.CLIENTES, List.of(2L));
+
+        assertEquals(1, instancia1.limpar(Duration.ofHours(24)));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM evento_cluster", Integer.class));
+
+    }
+
+}
@@ -0,0 +1,117 @@
+package br.com.caiorodri.agendamentoveterinario.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Simula duas instâncias da aplicação, cada uma com sua TravaTarefas, usando o mesmo banco H2 em memória.
+ */
+class TravaTarefasTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TravaTarefas instancia1;
+
+    private TravaTarefas instancia2;
+
+    @BeforeEach
+    void setUp() {
+
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE trava_tarefa (nome VARCHAR(64) PRIMARY KEY, travado_ate TIMESTAMP NOT NULL, " +
+                "travado_em TIMESTAMP NOT NULL, travado_por VARCHAR(255) NOT NULL)");
+
+        instancia1 = new TravaTarefas(jdbcTemplate, "instancia-1");
+        instancia2 = new TravaTarefas(jdbcTemplate, "instancia-2");
+
+    }
+
+    @Test
+    void tarefaEmExecucaoNaoRodaEmOutraInstancia() throws Exception {
+
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        Thread primeira = new Thread(() -> instancia1.executar("tarefa", Duration.ofMinutes(1), Duration.ZERO, () -> {
+            execucoes.incrementAndGet();
+            emExecucao.countDown();
+            aguardar(liberar);
+        }));
+
+        primeira.start();
+        assertTrue(emExecucao.await(5, TimeUnit.SECONDS));
+
+        assertFalse(instancia2.executar("tarefa", Duration.ofMinutes(1), Duration.ZERO, execucoes::incrementAndGet));
+
+        liberar.countDown();
+        primeira.join();
+
+        assertEquals(1, execucoes.get());
+        assertTrue(instancia2.executar("tarefa", Duration.ofMinutes(1), Duration.ZERO, execucoes::incrementAndGet));
+        assertEquals(2, execucoes.get());
+
+    }
+
+    @Test
+    void duracaoMinimaImpedeNovaExecucaoLogoAposTerminar() {
+
+        AtomicInteger execucoes = new AtomicInteger();
+
+        assertTrue(instancia1.executar("semanal", Duration.ofMinutes(10), Duration.ofMinutes(5), execucoes::incrementAndGet));
+
+        // Outra instância com o relógio alguns segundos atrasado dispara o mesmo cron depois do fim.
+        assertFalse(instancia2.executar("semanal", Duration.ofMinutes(10), Duration.ofMinutes(5), execucoes::incrementAndGet));
+        assertFalse(instancia1.executar("semanal", Duration.ofMinutes(10), Duration.ofMinutes(5), execucoes::incrementAndGet));
+
+        assertEquals(1, execucoes.get());
+
+    }
+
+    @Test
+    void travaVencidaPodeSerAssumidaPorOutraInstancia() {
+
+        // Instância que caiu no meio da tarefa, deixando a trava vencida.
+        jdbcTemplate.update("INSERT INTO trava_tarefa VALUES ('tarefa', TIMESTAMPADD(SECOND, -1, CURRENT_TIMESTAMP), " +
+                "TIMESTAMPADD(MINUTE, -10, CURRENT_TIMESTAMP), 'instancia-1')");
+
+        assertTrue(instancia2.executar("tarefa", Duration.ofMinutes(1), Duration.ZERO, () -> { }));
+        assertEquals("instancia-2", jdbcTemplate.queryForObject("SELECT travado_por FROM trava_tarefa WHERE nome = 'tarefa'", String.class));
+
+    }
+
+    @Test
+    void falhaNaTarefaLiberaATrava() {
+
+        assertThrows(IllegalStateException.class, () -> instancia1.executar("tarefa", Duration.ofMinutes(1), Duration.ZERO, () -> {
+            throw new IllegalStateException("falha");
+        }));
+
+        assertTrue(instancia2.executar("tarefa", Duration.ofMinutes(1), Duration.ZERO, () -> { }));
+
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+    }
+
+}
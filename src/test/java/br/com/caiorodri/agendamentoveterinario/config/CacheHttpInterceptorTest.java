@@ -0,0 +1,56 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * A política de Cache-Control vale só para GET e HEAD, vence o padrão mais específico e o context-path
+ * não entra na comparação.
+ */
+class CacheHttpInterceptorTest {
+
+    private final CacheHttpInterceptor interceptor = new CacheHttpInterceptor()
+            .adicionar(CacheControl.maxAge(Duration.ofHours(1)).cachePrivate(), "/agendamentos/status", "/animais/racas/especie/{idEspecie}")
+            .adicionar(CacheControl.noCache().cachePrivate(), "/agendamentos", "/agendamentos/{id}");
+
+    @Test
+    void aplicaAPoliticaDoPadraoMaisEspecifico() {
+
+        assertEquals("max-age=3600, private", cacheControl("GET", "/agendamentos/status"));
+        assertEquals("max-age=3600, private", cacheControl("HEAD", "/animais/racas/especie/2"));
+        assertEquals("no-cache, private", cacheControl("GET", "/agendamentos/5"));
+        assertEquals("no-cache, private", cacheControl("GET", "/agendamentos"));
+
+    }
+
+    @Test
+    void escritasEGetsSemPoliticaNaoSaoArmazenados() {
+
+        assertEquals("no-store", cacheControl("PUT", "/agendamentos/5"));
+        assertEquals("no-store", cacheControl("POST", "/agendamentos/status"));
+        assertEquals("no-store", cacheControl("GET", "/usuarios/5"));
+        assertEquals("no-store", cacheControl("GET", "/agendamentos/5/historico"));
+
+    }
+
+    private String cacheControl(String metodo, String caminho) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, "/agendamento-veterinario" + caminho);
+        request.setContextPath("/agendamento-veterinario");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+
+        return response.getHeader(HttpHeaders.CACHE_CONTROL);
+
+    }
+
+}
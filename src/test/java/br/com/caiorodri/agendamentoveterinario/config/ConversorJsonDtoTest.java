@@ -0,0 +1,104 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import br.com.caiorodri.agendamentoveterinario.dto.EspecieDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.RacaDTO;
+
+/**
+ * O conversor escreve o mesmo JSON do ObjectMapper, guardando um writer só para DTOs e listas de
+ * DTOs; outros tipos e respostas com view seguem o caminho padrão, sem entrar no cache.
+ */
+class ConversorJsonDtoTest {
+
+    private static final Type LISTA_RACAS = new ParameterizedTypeReference<List<RacaDTO>>() {}.getType();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConversorJsonDto conversor;
+
+    @BeforeEach
+    void setUp() {
+
+        conversor = new ConversorJsonDto(objectMapper);
+
+    }
+
+    @Test
+    void escreveDtosEListasComWriterReaproveitado() throws Exception {
+
+        RacaDTO raca = new RacaDTO(1, new EspecieDTO(2, "Cachorro"), "Labrador");
+        List<RacaDTO> racas = List.of(raca, new RacaDTO(3, null, "Siamês"));
+
+        assertEquals(objectMapper.writeValueAsString(raca), escrever(raca, RacaDTO.class));
+        assertEquals(objectMapper.writeValueAsString(racas), escrever(racas, LISTA_RACAS));
+        assertEquals(2, writers().size());
+
+        ObjectWriter writerRaca = writers().get(objectMapper.constructType(RacaDTO.class));
+
+        assertEquals(objectMapper.writeValueAsString(raca), escrever(raca, RacaDTO.class));
+        assertSame(writerRaca, writers().get(objectMapper.constructType(RacaDTO.class)));
+        assertEquals(2, writers().size());
+
+    }
+
+    @Test
+    void outrosTiposEViewsNaoEntramNoCache() throws Exception {
+
+        assertEquals("{\"id\":1}", escrever(Map.of("id", 1), Map.class));
+
+        MappingJacksonValue comView = new MappingJacksonValue(new EspecieDTO(2, "Cachorro"));
+        comView.setSerializationView(Object.class);
+
+        assertEquals(objectMapper.writeValueAsString(new EspecieDTO(2, "Cachorro")), escrever(comView, EspecieDTO.class));
+        assertTrue(writers().isEmpty());
+
+    }
+
+    @Test
+    void preResolverGuardaOWriterDoDtoEDaLista() {
+
+        conversor.preResolver(RacaDTO.class, EspecieDTO.class);
+
+        assertEquals(4, writers().size());
+        assertTrue(writers().containsKey(objectMapper.getTypeFactory().constructCollectionType(List.class, RacaDTO.class)));
+
+    }
+
+    private String escrever(Object valor, Type tipo) throws Exception {
+
+        MockHttpOutputMessage saida = new MockHttpOutputMessage();
+
+        conversor.write(valor, tipo, MediaType.APPLICATION_JSON, saida);
+
+        return saida.getBodyAsString(StandardCharsets.UTF_8);
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<JavaType, ObjectWriter> writers() {
+
+        return (Map<JavaType, ObjectWriter>) ReflectionTestUtils.getField(conversor, "writers");
+
+    }
+
+}
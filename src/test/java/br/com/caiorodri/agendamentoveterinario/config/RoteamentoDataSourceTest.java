@@ -0,0 +1,144 @@
+package br.com.caiorodri.agendamentoveterinario.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Usa dois bancos H2 em memória, um como primário e outro como réplica, cada um com uma tabela
+ * que diz em qual deles a consulta foi executada.
+ */
+class RoteamentoDataSourceTest {
+
+    private static final String SQL_ORIGEM = "SELECT nome FROM origem";
+
+    private final AtomicReference<String> usuario = new AtomicReference<>("recepcionista@email.com");
+
+    private DriverManagerDataSource replica;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RoteamentoDataSource roteamento;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate leitura;
+
+    private TransactionTemplate escrita;
+
+    @BeforeEach
+    void setUp() {
+
+        DataSource primario = banco("primario");
+        replica = banco("replica");
+        meterRegistry = new SimpleMeterRegistry();
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica);
+
+        roteamento = new RoteamentoDataSource(primario, replicas, 60_000, usuario::get, meterRegistry);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(roteamento);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        escrita = new TransactionTemplate(transactionManager);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+
+    }
+
+    @Test
+    void transacaoSomenteLeituraVaiParaReplica() {
+
+        assertEquals("replica", ler());
+        assertEquals(1, contagem("replica-1", "leitura"));
+
+    }
+
+    @Test
+    void escritaVaiParaPrimario() {
+
+        assertEquals("primario", escrita.execute(status -> jdbcTemplate.queryForObject(SQL_ORIGEM, String.class)));
+        assertEquals(1, contagem(RoteamentoDataSource.PRIMARIO, "escrita"));
+
+    }
+
+    @Test
+    void leituraDoMesmoUsuarioAposEscritaVaiParaPrimario() {
+
+        escrita.executeWithoutResult(status -> jdbcTemplate.update("UPDATE origem SET nome = nome"));
+
+        assertEquals("primario", ler());
+        assertEquals(1, contagem(RoteamentoDataSource.PRIMARIO, "leitura-apos-escrita"));
+
+        usuario.set("outro@email.com");
+
+        assertEquals("replica", ler());
+
+    }
+
+    @Test
+    void replicaForaDoArCaiParaPrimarioEVoltaAposVerificacao() {
+
+        String url = replica.getUrl();
+        replica.setUrl("jdbc:h2:mem:replica;IFEXISTS=TRUE;DB_CLOSE_DELAY=-1;ACCESS_MODE_DATA=r;INIT=FALHAR");
+
+        assertEquals("primario", ler());
+        assertEquals(1, contagem(RoteamentoDataSource.PRIMARIO, "failover"));
+        assertTrue(roteamento.listarReplicasDisponiveis().isEmpty());
+        assertEquals(0, meterRegistry.get("banco.replicas.disponiveis").gauge().value());
+
+        // Enquanto estiver fora do rodízio, a réplica nem é tentada.
+        assertEquals("primario", ler());
+        assertEquals(2, contagem(RoteamentoDataSource.PRIMARIO, "failover"));
+
+        replica.setUrl(url);
+        roteamento.verificarReplicas(1);
+
+        assertEquals("replica", ler());
+        assertEquals(1, meterRegistry.get("banco.replicas.disponiveis").gauge().value());
+
+    }
+
+    private String ler() {
+
+        return leitura.execute(status -> jdbcTemplate.queryForObject(SQL_ORIGEM, String.class));
+
+    }
+
+    private double contagem(String destino, String motivo) {
+
+        return meterRegistry.get("banco.conexoes").tag("destino", destino).tag("motivo", motivo).counter().count();
+
+    }
+
+    private static DriverManagerDataSource banco(String nome) {
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS origem");
+        jdbcTemplate.execute("CREATE TABLE origem (nome VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO origem VALUES (?)", nome);
+
+        return dataSource;
+
+    }
+
+}
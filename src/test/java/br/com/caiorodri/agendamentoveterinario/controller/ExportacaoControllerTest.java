@@ -0,0 +1,97 @@
+package br.com.caiorodri.agendamentoveterinario.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+import br.com.caiorodri.agendamentoveterinario.service.ExportacaoService;
+
+/**
+ * O corpo da exportação é escrito em outra thread, sem ContextoClinica, como na thread de requisições
+ * assíncronas do Spring MVC; a clínica precisa ter sido capturada pelo controller.
+ */
+class ExportacaoControllerTest {
+
+    private ExportacaoController controller;
+
+    private final ExecutorService threadAssincrona = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    void setUp() {
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+
+        jdbcTemplate.execute("CREATE TABLE usuario_status (id INT PRIMARY KEY, nome VARCHAR(30))");
+        jdbcTemplate.execute("CREATE TABLE usuario (id BIGINT PRIMARY KEY, nome VARCHAR(30), email VARCHAR(80), cpf CHAR(11), " +
+                "data_nascimento DATE, logradouro VARCHAR(50), numero VARCHAR(20), complemento VARCHAR(40), cidade VARCHAR(40), " +
+                "sigla_estado CHAR(2), cep CHAR(8), id_status INT, id_perfil INT, receber_email BOOLEAN, id_clinica BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE usuario_telefone (id_usuario BIGINT, telefone VARCHAR(11))");
+
+        jdbcTemplate.update("INSERT INTO usuario_status VALUES (1, 'Ativo')");
+        jdbcTemplate.update("INSERT INTO usuario VALUES (1, 'Ana', 'ana@email.com', '00000000001', NULL, 'Rua A', '1', NULL, 'Campinas', 'SP', '13000000', 1, 1, TRUE, 1)");
+        jdbcTemplate.update("INSERT INTO usuario VALUES (2, 'Bruno', 'bruno@email.com', '00000000002', NULL, 'Rua B', '2', NULL, 'Santos', 'SP', '11000000', 1, 1, FALSE, 2)");
+        jdbcTemplate.update("INSERT INTO usuario_telefone VALUES (2, '11999990000'), (2, '11988880000')");
+
+        ExportacaoService exportacaoService = new ExportacaoService();
+        ReflectionTestUtils.setField(exportacaoService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(exportacaoService, "objectMapper", new ObjectMapper());
+
+        controller = new ExportacaoController();
+        ReflectionTestUtils.setField(controller, "exportacaoService", exportacaoService);
+
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        ContextoClinica.limpar();
+        threadAssincrona.shutdownNow();
+
+    }
+
+    @Test
+    void exportacaoEscritaEmOutraThreadUsaAClinicaDaRequisicao() throws Exception {
+
+        ContextoClinica.definir(2L);
+
+        ResponseEntity<StreamingResponseBody> resposta = controller.exportarClientes("csv", false);
+
+        ContextoClinica.limpar();
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        threadAssincrona.submit(() -> {
+
+            assertNull(ContextoClinica.atual());
+            resposta.getBody().writeTo(saida);
+
+            return null;
+
+        }).get(10, TimeUnit.SECONDS);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertEquals(2, linhas.length);
+        assertEquals("2,Bruno,bruno@email.com,00000000002,,Rua B,2,,Santos,SP,11000000,Ativo,11999990000|11988880000,false", linhas[1]);
+
+    }
+
+}
@@ -0,0 +1,104 @@
+package br.com.caiorodri.agendamentoveterinario.monitoramento;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import br.com.caiorodri.agendamentoveterinario.config.ConsultasProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+class ConsultasFilterTest {
+
+    private static final String ENDPOINT = "GET /animais/{id}";
+
+    private final InspetorConsultas inspetor = new InspetorConsultas();
+
+    private ConsultasFilter filtro;
+
+    private ConsultasProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+
+        properties = new ConsultasProperties();
+        properties.setLimitePadrao(3);
+        properties.setFalharAcimaDoLimite(true);
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        filtro = new ConsultasFilter();
+        ReflectionTestUtils.setField(filtro, "properties", properties);
+        ReflectionTestUtils.setField(filtro, "meterRegistry", meterRegistry);
+
+    }
+
+    @Test
+    void requisicaoDentroDoLimitePassaEPublicaAContagem() {
+
+        assertDoesNotThrow(() -> executar(3));
+
+        assertEquals(3, meterRegistry.summary("consultas.por_requisicao", "endpoint", ENDPOINT).totalAmount());
+
+    }
+
+    @Test
+    void requisicaoAcimaDoLimiteFalhaComOEndpointEOsComandos() {
+
+        IllegalStateException erro = assertThrows(IllegalStateException.class, () -> executar(4));
+
+        assertTrue(erro.getMessage().contains(ENDPOINT + " executou 4 comandos SQL"));
+        assertEquals(1, meterRegistry.counter("consultas.acima_do_limite", "endpoint", ENDPOINT).count());
+
+    }
+
+    @Test
+    void limiteDoEndpointSubstituiOPadrao() {
+
+        properties.setLimites(Map.of(ENDPOINT, 10));
+
+        assertDoesNotThrow(() -> executar(4));
+
+    }
+
+    @Test
+    void comandosForaDaRequisicaoNaoSaoContados() throws Exception {
+
+        executar(2);
+        inspetor.inspect("select 1");
+
+        assertEquals(2, meterRegistry.summary("consultas.por_requisicao", "endpoint", ENDPOINT).totalAmount());
+
+    }
+
+    private void executar(int comandos) throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animais/1");
+
+        FilterChain cadeia = (req, res) -> {
+
+            for (int i = 0; i < comandos; i++) {
+                inspetor.inspect("select * from animal_raca where id = ?");
+            }
+
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/animais/{id}");
+
+        };
+
+        filtro.doFilter(request, new MockHttpServletResponse(), cadeia);
+
+    }
+
+}
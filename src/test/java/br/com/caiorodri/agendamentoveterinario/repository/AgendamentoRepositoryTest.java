@@ -0,0 +1,302 @@
+package br.com.caiorodri.agendamentoveterinario.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoAtualizacaoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoDTO;
+import br.com.caiorodri.agendamentoveterinario.mapper.Mapper;
+import br.com.caiorodri.agendamentoveterinario.mapper.MapperImpl;
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoStatus;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoTipo;
+import br.com.caiorodri.agendamentoveterinario.model.Animal;
+import br.com.caiorodri.agendamentoveterinario.model.Especie;
+import br.com.caiorodri.agendamentoveterinario.model.Estado;
+import br.com.caiorodri.agendamentoveterinario.model.Perfil;
+import br.com.caiorodri.agendamentoveterinario.model.Raca;
+import br.com.caiorodri.agendamentoveterinario.model.Sexo;
+import br.com.caiorodri.agendamentoveterinario.model.Status;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+import br.com.caiorodri.agendamentoveterinario.service.AtualizacaoParcialService;
+
+/**
+ * Garante que listar e mapear uma página de agendamentos executa a mesma quantidade de comandos SQL
+ * qualquer que seja o tamanho da página: cliente, veterinário, recepcionista e animal de cada
+ * agendamento são carregados em lote, não um SELECT por agendamento.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({MapperImpl.class, AtualizacaoParcialService.class})
+class AgendamentoRepositoryTest {
+
+    private static final int CLIENTES = 60;
+
+    private static final int VETERINARIOS = 20;
+
+    private static final int RECEPCIONISTAS = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    @Autowired
+    private AtualizacaoParcialService atualizacaoParcialService;
+
+    @Autowired
+    private Mapper mapper;
+
+    private Statistics statistics;
+
+    private List<Agendamento> agendamentos = new ArrayList<>();
+
+    private List<Usuario> veterinarios = new ArrayList<>();
+
+    private Animal animalSemAgendamentos;
+
+    @BeforeEach
+    void setUp() {
+
+        Status ativo = entityManager.persist(new Status(1, "Ativo"));
+        Perfil cliente = entityManager.persist(new Perfil(1, "Cliente"));
+        Perfil recepcionista = entityManager.persist(new Perfil(2, "Recepcionista"));
+        Perfil veterinario = entityManager.persist(new Perfil(3, "Veterinario"));
+        Estado estado = entityManager.persist(new Estado("SP", "São Paulo"));
+        Raca raca = entityManager.persist(new Raca(null, entityManager.persist(new Especie(null, "Cachorro")), "Labrador"));
+        Sexo sexo = entityManager.persist(new Sexo(1, "Macho"));
+        AgendamentoStatus aberto = entityManager.persist(new AgendamentoStatus(1, "Aberto"));
+        AgendamentoTipo consulta = entityManager.persist(new AgendamentoTipo(1, "Consulta", 30, null));
+
+        List<Usuario> recepcionistas = new ArrayList<>();
+        List<Animal> animais = new ArrayList<>();
+
+        for (int i = 0; i < VETERINARIOS; i++) {
+            veterinarios.add(usuario("veterinario" + i, veterinario, ativo, estado));
+        }
+
+        for (int i = 0; i < RECEPCIONISTAS; i++) {
+            recepcionistas.add(usuario("recepcionista" + i, recepcionista, ativo, estado));
+        }
+
+        for (int i = 0; i < CLIENTES; i++) {
+
+            Animal animal = new Animal();
+            animal.setNome("Animal " + i);
+            animal.setRaca(raca);
+            animal.setSexo(sexo);
+            animal.setCastrado(false);
+            animal.setDono(usuario("cliente" + i, cliente, ativo, estado));
+
+            animais.add(entityManager.persist(animal));
+
+        }
+
+        LocalDateTime inicio = LocalDateTime.of(2025, 3, 10, 8, 0);
+
+        for (int i = 0; i < CLIENTES; i++) {
+
+            Animal animal = animais.get(i);
+
+            Agendamento agendamento = new Agendamento();
+            agendamento.setAnimal(animal);
+            agendamento.setCliente(animal.getDono());
+            agendamento.setVeterinario(veterinarios.get(i % VETERINARIOS));
+            agendamento.setRecepcionista(recepcionistas.get(i % RECEPCIONISTAS));
+            agendamento.setStatus(aberto);
+            agendamento.setTipo(consulta);
+            agendamento.setDataCriacao(inicio.minusDays(1));
+            agendamento.setDataAgendamentoInicio(inicio.plusMinutes(30L * i));
+            agendamento.setDataAgendamentoFinal(inicio.plusMinutes(30L * i + 30));
+
+            agendamentos.add(entityManager.persist(agendamento));
+
+        }
+
+        animalSemAgendamentos = new Animal();
+        animalSemAgendamentos.setNome("Animal sem agendamentos");
+        animalSemAgendamentos.setRaca(raca);
+        animalSemAgendamentos.setSexo(sexo);
+        animalSemAgendamentos.setCastrado(false);
+        animalSemAgendamentos.setDono(animais.get(0).getDono());
+        entityManager.persist(animalSemAgendamentos);
+
+        entityManager.flush();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+    }
+
+    @Test
+    void listarEMapearPaginaExecutaQuantidadeConstanteDeComandos() {
+
+        long comandosPagina10 = comandosParaListarEMapear(10);
+        long comandosPagina50 = comandosParaListarEMapear(50);
+
+        assertEquals(comandosPagina10, comandosPagina50, "A quantidade de comandos SQL não pode crescer com o tamanho da página");
+        // Página, contagem, um lote com veterinários e recepcionistas e um SELECT por tabela de referência
+        // (estado, perfil, status, raça, sexo, status e tipo do agendamento), que só cresce com a
+        // quantidade de valores distintos.
+        assertTrue(comandosPagina50 <= 10, "Esperado no máximo 10 comandos SQL por página, foram " + comandosPagina50);
+
+    }
+
+    @Test
+    void conflitoDeHorarioIgnoraOProprioAgendamento() {
+
+        Agendamento agendamento = agendamentos.get(0);
+        LocalDateTime inicio = agendamento.getDataAgendamentoInicio();
+        LocalDateTime fim = agendamento.getDataAgendamentoFinal();
+
+        assertTrue(agendamentoRepository.existeConflitoDeHorario(inicio, fim, 0));
+        assertFalse(agendamentoRepository.existeConflitoDeHorarioExceto(inicio, fim, 0, agendamento.getId()));
+        assertTrue(agendamentoRepository.existeConflitoDeHorarioExceto(inicio, fim.plusMinutes(15), 0, agendamento.getId()));
+
+    }
+
+    @Test
+    void excluirAnimalSoSemAgendamentosEmUmComando() {
+
+        entityManager.clear();
+        statistics.clear();
+
+        assertEquals(0, animalRepository.deleteSemAgendamentos(agendamentos.get(0).getAnimal().getId()));
+        assertEquals(1, animalRepository.deleteSemAgendamentos(animalSemAgendamentos.getId()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertFalse(animalRepository.existsById(animalSemAgendamentos.getId()));
+
+    }
+
+    @Test
+    void atualizacaoParcialReagendaComUmSelectEUmUpdateCondicionadoAVersao() {
+
+        Agendamento agendamento = agendamentos.get(0);
+        LocalDateTime novoInicio = agendamentos.get(CLIENTES - 1).getDataAgendamentoFinal().plusHours(1);
+
+        AgendamentoAtualizacaoDTO atualizacao = new AgendamentoAtualizacaoDTO();
+        atualizacao.setVersao(0);
+        atualizacao.setIdVeterinario(veterinarios.get(1).getId());
+        atualizacao.setDescricao(null);
+        atualizacao.setDataAgendamentoInicio(novoInicio);
+        atualizacao.setDataAgendamentoFinal(novoInicio.plusMinutes(30));
+
+        entityManager.clear();
+        statistics.clear();
+
+        Object[] estado = agendamentoRepository.findEstadoComConflitosById(agendamento.getId(), novoInicio, novoInicio.plusMinutes(30), 2).get(0);
+
+        assertEquals(0, estado[6]);
+        assertEquals(agendamento.getCliente().getId(), estado[7]);
+        assertEquals(0L, estado[8]);
+        assertEquals(1, atualizacaoParcialService.atualizar(Agendamento.class, agendamento.getId(), 0, atualizacao.getAlteracoes()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        // A mesma versão não grava de novo.
+        assertEquals(0, atualizacaoParcialService.atualizar(Agendamento.class, agendamento.getId(), 0, atualizacao.getAlteracoes()));
+
+        entityManager.clear();
+
+        Agendamento atualizado = entityManager.find(Agendamento.class, agendamento.getId());
+
+        assertEquals(1, atualizado.getVersao());
+        assertEquals(novoInicio, atualizado.getDataAgendamentoInicio());
+        assertEquals(veterinarios.get(1).getId(), atualizado.getVeterinario().getId());
+        assertEquals(null, atualizado.getDescricao());
+        assertEquals(agendamento.getAnimal().getId(), atualizado.getAnimal().getId());
+
+        Map<String, Object> resposta = atualizacaoParcialService.resposta(Agendamento.class, agendamento.getId(), 1, atualizacao.getAlteracoes());
+
+        assertEquals(Map.of("id", veterinarios.get(1).getId()), resposta.get("veterinario"));
+        assertEquals(1, resposta.get("versao"));
+
+    }
+
+    @Test
+    void estadoParaReagendarContaConflitosComOutrosAgendamentos() {
+
+        Agendamento agendamento = agendamentos.get(0);
+        Agendamento outro = agendamentos.get(1);
+
+        Object[] estado = agendamentoRepository.findEstadoComConflitosById(agendamento.getId(), outro.getDataAgendamentoInicio(), outro.getDataAgendamentoFinal(), 2).get(0);
+
+        assertEquals(1L, estado[8]);
+        assertTrue(agendamentoRepository.findEstadoById(-1L).isEmpty());
+
+    }
+
+    @Test
+    void estadoSemNovoHorarioContaConflitosDoHorarioAtual() {
+
+        Agendamento agendamento = agendamentos.get(0);
+
+        assertEquals(0L, agendamentoRepository.findEstadoComConflitosById(agendamento.getId(), null, null, 2).get(0)[8]);
+
+        // Outro agendamento no mesmo horário, como um cancelado que seria reaberto pelo PATCH.
+        Agendamento sobreposto = agendamentos.get(1);
+        sobreposto.setDataAgendamentoInicio(agendamento.getDataAgendamentoInicio().plusMinutes(15));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1L, agendamentoRepository.findEstadoComConflitosById(agendamento.getId(), null, null, 2).get(0)[8]);
+
+    }
+
+    private long comandosParaListarEMapear(int tamanhoPagina) {
+
+        entityManager.clear();
+        statistics.clear();
+
+        Page<Agendamento> pagina = agendamentoRepository.findAll(PageRequest.of(0, tamanhoPagina));
+        List<AgendamentoDTO> dtos = mapper.agendamentoListToDtoList(pagina.getContent());
+
+        assertEquals(tamanhoPagina, dtos.size());
+        dtos.forEach(dto -> {
+            assertTrue(dto.getCliente().getNome().startsWith("cliente"));
+            assertTrue(dto.getVeterinario().getNome().startsWith("veterinario"));
+            assertTrue(dto.getRecepcionista().getNome().startsWith("recepcionista"));
+        });
+
+        return statistics.getPrepareStatementCount();
+
+    }
+
+    private Usuario usuario(String nome, Perfil perfil, Status status, Estado estado) {
+
+        Usuario usuario = new Usuario();
+        usuario.setNome(nome);
+        usuario.setEmail(nome + "@email.com");
+        usuario.setSenha("senha");
+        usuario.setCpf(String.format("%011d", Math.abs((long) nome.hashCode())));
+        usuario.setPerfil(perfil);
+        usuario.setStatus(status);
+        usuario.getEndereco().setEstado(estado);
+
+        return entityManager.persist(usuario);
+
+    }
+
+}
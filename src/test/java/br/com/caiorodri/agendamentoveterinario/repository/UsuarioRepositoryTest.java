@@ -0,0 +1,206 @@
+package br.com.caiorodri.agendamentoveterinario.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.caiorodri.agendamentoveterinario.model.Estado;
+import br.com.caiorodri.agendamentoveterinario.model.Perfil;
+import br.com.caiorodri.agendamentoveterinario.model.Status;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+import br.com.caiorodri.agendamentoveterinario.service.AtualizacaoParcialService;
+
+/**
+ * Garante que as consultas de usuários ficam restritas à clínica da requisição (ContextoClinica) e
+ * que a clínica é preenchida e preservada pelo Hibernate. Cada operação roda na própria transação,
+ * porque a clínica é fixada quando a sessão é aberta.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(AtualizacaoParcialService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UsuarioRepositoryTest {
+
+    private static final Long CLINICA_1 = 1L;
+
+    private static final Long CLINICA_2 = 2L;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private PerfilRepository perfilRepository;
+
+    @Autowired
+    private EstadoRepository estadoRepository;
+
+    @Autowired
+    private AtualizacaoParcialService atualizacaoParcialService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long idUsuarioClinica2;
+
+    @BeforeEach
+    void setUp() {
+
+        executar(null, () -> {
+
+            statusRepository.save(new Status(1, "Ativo"));
+            perfilRepository.save(new Perfil(1, "Cliente"));
+            estadoRepository.save(new Estado("SP", "São Paulo"));
+
+            return null;
+
+        });
+
+        executar(CLINICA_1, () -> usuarioRepository.save(usuario("ana")));
+        executar(CLINICA_1, () -> usuarioRepository.save(usuario("bruno")));
+        idUsuarioClinica2 = executar(CLINICA_2, () -> usuarioRepository.save(usuario("carla"))).getId();
+
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        executar(null, () -> {
+
+            usuarioRepository.deleteAll();
+            statusRepository.deleteAll();
+            perfilRepository.deleteAll();
+            estadoRepository.deleteAll();
+
+            return null;
+
+        });
+
+        ContextoClinica.limpar();
+
+    }
+
+    @Test
+    void consultasEnxergamSomenteAClinicaAtual() {
+
+        assertEquals(List.of("ana", "bruno"), executar(CLINICA_1, () -> nomes(usuarioRepository.findAll())));
+        assertEquals(List.of("carla"), executar(CLINICA_2, () -> nomes(usuarioRepository.findAll())));
+        assertTrue(executar(CLINICA_1, () -> usuarioRepository.findByEmailWithSets("carla@email.com")).isEmpty());
+        assertTrue(executar(CLINICA_1, () -> usuarioRepository.findById(idUsuarioClinica2)).isEmpty());
+
+    }
+
+    @Test
+    void semClinicaDefinidaEnxergaTodas() {
+
+        assertEquals(3, executar(null, () -> usuarioRepository.findAll()).size());
+
+    }
+
+    @Test
+    void clinicaEhPreenchidaNaInclusaoEPreservadaNaAtualizacao() {
+
+        Usuario carla = executar(null, () -> usuarioRepository.findById(idUsuarioClinica2).orElseThrow());
+
+        assertEquals(CLINICA_2, carla.getIdClinica());
+
+        // Atualização a partir de um DTO convertido, sem a clínica preenchida.
+        carla.setIdClinica(null);
+        carla.setNome("carla souza");
+
+        executar(CLINICA_2, () -> usuarioRepository.save(carla));
+
+        Usuario atualizada = executar(null, () -> usuarioRepository.findById(idUsuarioClinica2).orElseThrow());
+
+        assertEquals("carla souza", atualizada.getNome());
+        assertEquals(CLINICA_2, atualizada.getIdClinica());
+
+    }
+
+    @Test
+    void unicidadeDeEmailConsideraTodasAsClinicas() {
+
+        assertEquals(idUsuarioClinica2, executar(CLINICA_1, () -> usuarioRepository.findIdByEmailTodasClinicas("carla@email.com")).orElseThrow());
+        assertEquals(1, executar(CLINICA_1, () -> usuarioRepository.countByCpfTodasClinicas(cpf("carla"))));
+
+    }
+
+    @Test
+    void atualizacaoParcialFicaRestritaAClinicaEAVersao() {
+
+        Map<String, Object> nome = Map.of("nome", "carla souza");
+        Map<String, Object> estado = Map.of("endereco.cidade", "Campinas", "endereco.estado", "SP");
+
+        assertEquals(0, executar(CLINICA_1, () -> atualizacaoParcialService.atualizar(Usuario.class, idUsuarioClinica2, 0, nome)));
+        assertEquals(1, executar(CLINICA_2, () -> atualizacaoParcialService.atualizar(Usuario.class, idUsuarioClinica2, 0, nome)));
+        assertEquals(0, executar(CLINICA_2, () -> atualizacaoParcialService.atualizar(Usuario.class, idUsuarioClinica2, 0, estado)));
+        assertEquals(1, executar(CLINICA_2, () -> atualizacaoParcialService.atualizar(Usuario.class, idUsuarioClinica2, 1, estado)));
+
+        Usuario carla = executar(null, () -> usuarioRepository.findById(idUsuarioClinica2).orElseThrow());
+
+        assertEquals("carla souza", carla.getNome());
+        assertEquals("Campinas", carla.getEndereco().getCidade());
+        assertEquals(2, carla.getVersao());
+        assertEquals(CLINICA_2, carla.getIdClinica());
+
+    }
+
+    private <T> T executar(Long idClinica, Supplier<T> operacao) {
+
+        ContextoClinica.definir(idClinica);
+
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> operacao.get());
+        } finally {
+            ContextoClinica.limpar();
+        }
+
+    }
+
+    private static List<String> nomes(List<Usuario> usuarios) {
+
+        return usuarios.stream().map(Usuario::getNome).sorted().toList();
+
+    }
+
+    private static Usuario usuario(String nome) {
+
+        Usuario usuario = new Usuario();
+        usuario.setNome(nome);
+        usuario.setEmail(nome + "@email.com");
+        usuario.setSenha("senha");
+        usuario.setCpf(cpf(nome));
+        usuario.setPerfil(new Perfil(1, "Cliente"));
+        usuario.setStatus(new Status(1, "Ativo"));
+        usuario.getEndereco().setEstado(new Estado("SP", "São Paulo"));
+
+        return usuario;
+
+    }
+
+    private static String cpf(String nome) {
+
+        return String.format("%011d", Math.abs((long) nome.hashCode()));
+
+    }
+
+}
@@ -0,0 +1,184 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Os cenários rodam nos dois armazenamentos; o do banco usa um H2 em memória e duas instâncias de
+ * CodigosRecuperacao, como duas instâncias da aplicação.
+ */
+class CodigosRecuperacaoTest {
+
+    private static final String SEGREDO = "segredo-teste";
+
+    private static final Duration VALIDADE = Duration.ofMinutes(15);
+
+    private static final int MAXIMO_TENTATIVAS = 3;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE codigo_recuperacao (id_usuario BIGINT PRIMARY KEY, hash_codigo CHAR(64) NOT NULL, " +
+                "expiracao TIMESTAMP NOT NULL, tentativas INT NOT NULL DEFAULT 0)");
+
+    }
+
+    @Test
+    void codigoCorretoValeUmaVez() {
+
+        for (CodigosRecuperacao codigos : List.of(memoria(100), banco())) {
+
+            String codigo = codigos.gerar(1L).orElseThrow();
+
+            assertEquals(5, codigo.length());
+            assertFalse(codigos.validar(2L, codigo));
+            assertTrue(codigos.validar(1L, codigo));
+            assertFalse(codigos.validar(1L, codigo));
+
+        }
+
+    }
+
+    @Test
+    void tentativasEsgotadasInvalidamOCodigo() {
+
+        for (CodigosRecuperacao codigos : List.of(memoria(100), banco())) {
+
+            String codigo = codigos.gerar(1L).orElseThrow();
+
+            for (int i = 0; i < MAXIMO_TENTATIVAS; i++) {
+                assertFalse(codigos.validar(1L, errado(codigo)));
+            }
+
+            assertFalse(codigos.validar(1L, codigo));
+
+        }
+
+    }
+
+    @Test
+    void novoCodigoSubstituiOAnteriorEZeraAsTentativas() {
+
+        for (CodigosRecuperacao codigos : List.of(memoria(100), banco())) {
+
+            String primeiro = codigos.gerar(1L).orElseThrow();
+
+            for (int i = 0; i < MAXIMO_TENTATIVAS - 1; i++) {
+                assertFalse(codigos.validar(1L, errado(primeiro)));
+            }
+
+            String segundo = codigos.gerar(1L).orElseThrow();
+
+            if (!primeiro.equals(segundo)) {
+                assertFalse(codigos.validar(1L, primeiro));
+            }
+
+            assertTrue(codigos.validar(1L, segundo));
+
+        }
+
+    }
+
+    @Test
+    void codigoVencidoNaoValeESaiNaLimpeza() {
+
+        CodigosRecuperacao memoria = new CodigosRecuperacao(new ArmazenamentoCodigosMemoria(100, Clock.systemUTC()), SEGREDO, Duration.ZERO, MAXIMO_TENTATIVAS);
+        CodigosRecuperacao banco = new CodigosRecuperacao(new ArmazenamentoCodigosBanco(jdbcTemplate), SEGREDO, Duration.ofSeconds(-1), MAXIMO_TENTATIVAS);
+
+        for (CodigosRecuperacao codigos : List.of(memoria, banco)) {
+
+            String codigo = codigos.gerar(1L).orElseThrow();
+
+            assertFalse(codigos.validar(1L, codigo));
+
+        }
+
+        banco.gerar(2L);
+        banco.removerVencidos();
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM codigo_recuperacao", Integer.class));
+
+    }
+
+    @Test
+    void bancoGuardaSoOHashEValeEmOutraInstancia() {
+
+        CodigosRecuperacao instancia1 = banco();
+        CodigosRecuperacao instancia2 = banco();
+
+        String codigo = instancia1.gerar(1L).orElseThrow();
+
+        String hash = jdbcTemplate.queryForObject("SELECT hash_codigo FROM codigo_recuperacao WHERE id_usuario = 1", String.class);
+
+        assertEquals(64, hash.length());
+        assertFalse(hash.contains(codigo));
+
+        assertTrue(instancia2.validar(1L, codigo));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM codigo_recuperacao", Integer.class));
+
+    }
+
+    @Test
+    void memoriaCheiaRecusaNovosUsuariosMasAceitaSubstituicao() {
+
+        CodigosRecuperacao codigos = memoria(1);
+
+        codigos.gerar(1L).orElseThrow();
+
+        assertTrue(codigos.gerar(2L).isEmpty());
+
+        String segundo = codigos.gerar(1L).orElseThrow();
+
+        assertTrue(codigos.validar(1L, segundo));
+        assertTrue(codigos.gerar(2L).isPresent());
+
+    }
+
+    @Test
+    void codigoDescartadoNaoVale() {
+
+        for (CodigosRecuperacao codigos : List.of(memoria(100), banco())) {
+
+            String codigo = codigos.gerar(1L).orElseThrow();
+
+            codigos.descartar(1L, codigo);
+
+            assertFalse(codigos.validar(1L, codigo));
+
+        }
+
+    }
+
+    private CodigosRecuperacao memoria(int maximoCodigos) {
+
+        return new CodigosRecuperacao(new ArmazenamentoCodigosMemoria(maximoCodigos, Clock.systemUTC()), SEGREDO, VALIDADE, MAXIMO_TENTATIVAS);
+
+    }
+
+    private CodigosRecuperacao banco() {
+
+        return new CodigosRecuperacao(new ArmazenamentoCodigosBanco(jdbcTemplate), SEGREDO, VALIDADE, MAXIMO_TENTATIVAS);
+
+    }
+
+    private static String errado(String codigo) {
+
+        return codigo.equals("99999") ? "10000" : "99999";
+
+    }
+
+}
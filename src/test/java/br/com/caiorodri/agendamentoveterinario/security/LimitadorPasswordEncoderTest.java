@@ -0,0 +1,95 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.caiorodri.agendamentoveterinario.exception.LimiteRequisicoesExcedidoException;
+
+/**
+ * Com todas as vagas ocupadas, quem espera além do limite é recusado com 429 em vez de ficar
+ * bloqueado; a vaga volta quando a operação termina, mesmo com erro.
+ */
+class LimitadorPasswordEncoderTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final ExecutorService chamadores = Executors.newSingleThreadExecutor();
+
+    private PasswordEncoder delegate;
+
+    private LimitadorPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+
+        delegate = mock(PasswordEncoder.class);
+        encoder = new LimitadorPasswordEncoder(delegate, executor, 1, 50);
+
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        executor.shutdownNow();
+        chamadores.shutdownNow();
+
+    }
+
+    @Test
+    void semVagaDentroDaEsperaMaximaRecusaComLimiteExcedido() throws Exception {
+
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        when(delegate.encode("lenta")).thenAnswer(invocacao -> {
+            emExecucao.countDown();
+            liberar.await();
+            return "{bcrypt}lenta";
+        });
+        when(delegate.encode("rapida")).thenReturn("{bcrypt}rapida");
+
+        CompletableFuture<String> ocupando = CompletableFuture.supplyAsync(() -> encoder.encode("lenta"), chamadores);
+        assertTrue(emExecucao.await(5, TimeUnit.SECONDS));
+
+        long inicio = System.nanoTime();
+        LimiteRequisicoesExcedidoException erro = assertThrows(LimiteRequisicoesExcedidoException.class, () -> encoder.encode("rapida"));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) >= 50);
+        assertEquals(1, erro.getSegundosParaNovaTentativa());
+
+        liberar.countDown();
+
+        assertEquals("{bcrypt}lenta", ocupando.get(5, TimeUnit.SECONDS));
+        assertEquals("{bcrypt}rapida", encoder.encode("rapida"));
+
+    }
+
+    @Test
+    void erroDoEncoderChegaAoChamadorELiberaAVaga() {
+
+        IllegalArgumentException falha = new IllegalArgumentException("hash inválido");
+
+        when(delegate.matches("senha", "invalido")).thenThrow(falha);
+        when(delegate.matches("senha", "{bcrypt}hash")).thenReturn(true);
+
+        assertSame(falha, assertThrows(IllegalArgumentException.class, () -> encoder.matches("senha", "invalido")));
+        assertTrue(encoder.matches("senha", "{bcrypt}hash"));
+
+    }
+
+}
@@ -0,0 +1,143 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.caiorodri.agendamentoveterinario.config.LimiteRequisicoesProperties;
+import br.com.caiorodri.agendamentoveterinario.exception.LimiteRequisicoesExcedidoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Limites por chave, descarte dos baldes cheios quando a política atinge o máximo de chaves e balde
+ * de excedente compartilhado quando não há o que descartar.
+ */
+class LimitadorRequisicoesTest {
+
+    private LimitadorRequisicoes limitador;
+
+    private LimiteRequisicoesProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+
+        properties = new LimiteRequisicoesProperties();
+        properties.setMaximoChaves(2);
+        properties.getPoliticas().put("lenta", politica(1, 1));
+        // Uma ficha por microssegundo: o balde está cheio de novo quase imediatamente.
+        properties.getPoliticas().put("rapida", politica(1, 60_000_000));
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        limitador = new LimitadorRequisicoes();
+        ReflectionTestUtils.setField(limitador, "properties", properties);
+        ReflectionTestUtils.setField(limitador, "meterRegistry", meterRegistry);
+
+    }
+
+    @Test
+    void chaveSemFichasRecebeORetryAfterDaReposicao() {
+
+        limitador.verificar("lenta", "10.0.0.1");
+
+        LimiteRequisicoesExcedidoException erro = assertThrows(LimiteRequisicoesExcedidoException.class, () -> limitador.verificar("lenta", "10.0.0.1"));
+
+        assertEquals(60, erro.getSegundosParaNovaTentativa());
+        assertEquals(1, meterRegistry.counter("limite_requisicoes.rejeitadas", "politica", "lenta").count());
+
+        // Outra chave tem o seu próprio balde.
+        assertDoesNotThrow(() -> limitador.verificar("lenta", "10.0.0.2"));
+
+    }
+
+    @Test
+    void politicaDesconhecidaChaveNulaOuLimiteDesabilitadoNaoLimitam() {
+
+        for (int i = 0; i < 3; i++) {
+            limitador.verificar("inexistente", "10.0.0.1");
+            limitador.verificar("lenta", null);
+        }
+
+        properties.setHabilitado(false);
+
+        for (int i = 0; i < 3; i++) {
+            limitador.verificar("lenta", "10.0.0.1");
+        }
+
+        assertTrue(baldes("lenta").isEmpty());
+
+    }
+
+    @Test
+    void chavesAlemDoMaximoDividemOBaldeDeExcedente() {
+
+        limitador.verificar("lenta", "a");
+        limitador.verificar("lenta", "b");
+
+        // Nenhum balde cheio para descartar: "c" usa o excedente, e "d" já o encontra vazio.
+        limitador.verificar("lenta", "c");
+
+        assertThrows(LimiteRequisicoesExcedidoException.class, () -> limitador.verificar("lenta", "d"));
+        assertEquals(Set.of("a", "b"), baldes("lenta").keySet());
+
+    }
+
+    @Test
+    void baldesCheiosSaoDescartadosParaAbrirEspaco() throws InterruptedException {
+
+        limitador.verificar("rapida", "a");
+        limitador.verificar("rapida", "b");
+
+        Thread.sleep(1);
+
+        limitador.verificar("rapida", "c");
+
+        assertEquals(Set.of("c"), baldes("rapida").keySet());
+
+    }
+
+    @Test
+    void limpezaPeriodicaSoDescartaBaldesCheios() throws InterruptedException {
+
+        limitador.verificar("lenta", "a");
+        limitador.verificar("rapida", "a");
+
+        Thread.sleep(1);
+
+        limitador.limparBaldesCheios();
+
+        assertEquals(Set.of("a"), baldes("lenta").keySet());
+        assertTrue(baldes("rapida").isEmpty());
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, TokenBucket> baldes(String politica) {
+
+        Map<String, Map<String, TokenBucket>> baldes = (Map<String, Map<String, TokenBucket>>) ReflectionTestUtils.getField(limitador, "baldes");
+
+        return baldes.getOrDefault(politica, Map.of());
+
+    }
+
+    private LimiteRequisicoesProperties.Politica politica(int capacidade, int reposicaoPorMinuto) {
+
+        LimiteRequisicoesProperties.Politica politica = new LimiteRequisicoesProperties.Politica();
+        politica.setCapacidade(capacidade);
+        politica.setReposicaoPorMinuto(reposicaoPorMinuto);
+
+        return politica;
+
+    }
+
+}
@@ -0,0 +1,142 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.caiorodri.agendamentoveterinario.config.LimiteRequisicoesProperties;
+import br.com.caiorodri.agendamentoveterinario.exception.LimiteRequisicoesExcedidoException;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Cada rota pública é limitada pelas chaves da sua política (IP, e-mail ou usuário), e a recusa vira
+ * 429 com Retry-After sem chegar ao resto da cadeia.
+ */
+class LimiteRequisicoesFilterTest {
+
+    private LimiteRequisicoesFilter filtro;
+
+    private LimitadorRequisicoes limitador;
+
+    private LimiteRequisicoesProperties properties;
+
+    private final AtomicBoolean chegouNaCadeia = new AtomicBoolean();
+
+    private final FilterChain cadeia = (request, response) -> chegouNaCadeia.set(true);
+
+    @BeforeEach
+    void setUp() {
+
+        limitador = mock(LimitadorRequisicoes.class);
+        properties = new LimiteRequisicoesProperties();
+
+        filtro = new LimiteRequisicoesFilter();
+        ReflectionTestUtils.setField(filtro, "limitadorRequisicoes", limitador);
+        ReflectionTestUtils.setField(filtro, "properties", properties);
+
+    }
+
+    @Test
+    void loginELimitadoPeloIp() throws Exception {
+
+        filtro.doFilter(requisicao("POST", "/usuarios/autenticar"), new MockHttpServletResponse(), cadeia);
+
+        verify(limitador).verificar("autenticar-ip", "10.0.0.1");
+        verifyNoMoreInteractions(limitador);
+        assertTrue(chegouNaCadeia.get());
+
+    }
+
+    @Test
+    void recuperacaoDeSenhaELimitadaPeloIpEPeloEmailDecodificado() throws Exception {
+
+        filtro.doFilter(requisicao("GET", "/usuarios/recuperar-senha/Ana%40Email.com"), new MockHttpServletResponse(), cadeia);
+
+        verify(limitador).verificar("recuperar-senha-ip", "10.0.0.1");
+        verify(limitador).verificar("recuperar-senha-email", "ana@email.com");
+        verifyNoMoreInteractions(limitador);
+
+    }
+
+    @Test
+    void validacaoDoCodigoELimitadaPeloIpEPeloUsuario() throws Exception {
+
+        filtro.doFilter(requisicao("GET", "/usuarios/42/validar-codigo/12345"), new MockHttpServletResponse(), cadeia);
+
+        verify(limitador).verificar("validar-codigo-ip", "10.0.0.1");
+        verify(limitador).verificar("validar-codigo-usuario", "42");
+        verifyNoMoreInteractions(limitador);
+
+    }
+
+    @Test
+    void xForwardedForSoEUsadoQuandoHabilitado() throws Exception {
+
+        MockHttpServletRequest request = requisicao("POST", "/usuarios/autenticar");
+        request.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.9");
+
+        filtro.doFilter(request, new MockHttpServletResponse(), cadeia);
+
+        properties.setUsarXForwardedFor(true);
+
+        filtro.doFilter(request, new MockHttpServletResponse(), cadeia);
+
+        verify(limitador).verificar("autenticar-ip", "10.0.0.1");
+        verify(limitador).verificar("autenticar-ip", "203.0.113.7");
+
+    }
+
+    @Test
+    void outrasRotasNaoSaoLimitadas() throws Exception {
+
+        filtro.doFilter(requisicao("GET", "/usuarios/autenticar"), new MockHttpServletResponse(), cadeia);
+        filtro.doFilter(requisicao("POST", "/usuarios/recuperar-senha/ana%40email.com"), new MockHttpServletResponse(), cadeia);
+        filtro.doFilter(requisicao("GET", "/agendamentos"), new MockHttpServletResponse(), cadeia);
+
+        verifyNoInteractions(limitador);
+        assertTrue(chegouNaCadeia.get());
+
+    }
+
+    @Test
+    void recusaRespondeTooManyRequestsComRetryAfter() throws Exception {
+
+        doThrow(new LimiteRequisicoesExcedidoException("Muitas tentativas. Tente novamente mais tarde.", 30))
+                .when(limitador).verificar("recuperar-senha-email", "ana@email.com");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(requisicao("GET", "/usuarios/recuperar-senha/ana%40email.com"), response, cadeia);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("30", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("Muitas tentativas. Tente novamente mais tarde.", response.getContentAsString());
+        assertFalse(chegouNaCadeia.get());
+
+    }
+
+    private MockHttpServletRequest requisicao(String metodo, String caminho) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, "/agendamento-veterinario" + caminho);
+        request.setContextPath("/agendamento-veterinario");
+        request.setRemoteAddr("10.0.0.1");
+
+        return request;
+
+    }
+
+}
@@ -0,0 +1,99 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Nas rotas públicas por e-mail, a clínica da requisição é a do dono do e-mail, qualquer que seja o
+ * cabeçalho X-Clinica; nas demais rotas sem token continua sendo a do cabeçalho ou a padrão.
+ */
+class SecurityFilterTest {
+
+    private SecurityFilter filtro;
+
+    private final AtomicReference<Long> clinicaNaCadeia = new AtomicReference<>();
+
+    private final AtomicReference<String> corpoNaCadeia = new AtomicReference<>();
+
+    private final FilterChain cadeia = (request, response) -> {
+        clinicaNaCadeia.set(ContextoClinica.atual());
+        corpoNaCadeia.set(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    };
+
+    @BeforeEach
+    void setUp() {
+
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        when(usuarioRepository.findIdClinicaByEmailTodasClinicas("carla@clinica2.com")).thenReturn(Optional.of(2L));
+        when(usuarioRepository.findIdClinicaByEmailTodasClinicas("ninguem@email.com")).thenReturn(Optional.empty());
+
+        filtro = new SecurityFilter();
+        ReflectionTestUtils.setField(filtro, "usuarioRepository", usuarioRepository);
+        ReflectionTestUtils.setField(filtro, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filtro, "idClinicaPadrao", 1L);
+
+    }
+
+    @Test
+    void loginUsaAClinicaDoDonoDoEmailEPreservaOCorpo() throws Exception {
+
+        String corpo = "{\"email\":\"carla@clinica2.com\",\"senha\":\"segredo\"}";
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/usuarios/autenticar");
+        request.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+
+        filtro.doFilter(request, new MockHttpServletResponse(), cadeia);
+
+        assertEquals(2L, clinicaNaCadeia.get());
+        assertEquals(corpo, corpoNaCadeia.get());
+        assertNull(ContextoClinica.atual());
+
+    }
+
+    @Test
+    void recuperacaoDeSenhaUsaAClinicaDoDonoDoEmail() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/usuarios/recuperar-senha/carla%40clinica2.com");
+        request.addHeader(SecurityFilter.CABECALHO_CLINICA, "1");
+
+        filtro.doFilter(request, new MockHttpServletResponse(), cadeia);
+
+        assertEquals(2L, clinicaNaCadeia.get());
+
+    }
+
+    @Test
+    void emailDesconhecidoEOutrasRotasUsamOCabecalhoOuAPadrao() throws Exception {
+
+        MockHttpServletRequest login = new MockHttpServletRequest("POST", "/usuarios/autenticar");
+        login.setContent("{\"email\":\"ninguem@email.com\"}".getBytes(StandardCharsets.UTF_8));
+        login.addHeader(SecurityFilter.CABECALHO_CLINICA, "3");
+
+        filtro.doFilter(login, new MockHttpServletResponse(), cadeia);
+
+        assertEquals(3L, clinicaNaCadeia.get());
+
+        filtro.doFilter(new MockHttpServletRequest("POST", "/usuarios"), new MockHttpServletResponse(), cadeia);
+
+        assertEquals(1L, clinicaNaCadeia.get());
+
+    }
+
+}
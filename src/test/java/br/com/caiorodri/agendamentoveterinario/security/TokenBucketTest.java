@@ -0,0 +1,79 @@
+package br.com.caiorodri.agendamentoveterinario.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * O balde aceita uma rajada do tamanho da capacidade, depois uma ficha por intervalo, e informa quanto
+ * falta para a próxima ficha. Os instantes são passados em nanos, sem depender do relógio.
+ */
+class TokenBucketTest {
+
+    private static final long INTERVALO = 1_000;
+
+    @Test
+    void rajadaAteACapacidadeEDepoisEsperaPelaReposicao() {
+
+        TokenBucket balde = new TokenBucket(3, INTERVALO, 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, balde.consumir(0));
+        }
+
+        assertEquals(INTERVALO, balde.consumir(0));
+        assertEquals(INTERVALO / 2, balde.consumir(INTERVALO / 2));
+
+        // Uma ficha reposta, uma consumida.
+        assertEquals(0, balde.consumir(INTERVALO));
+        assertEquals(INTERVALO, balde.consumir(INTERVALO));
+
+    }
+
+    @Test
+    void recusaNaoConsomeFicha() {
+
+        TokenBucket balde = new TokenBucket(1, INTERVALO, 0);
+
+        assertEquals(0, balde.consumir(0));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(INTERVALO, balde.consumir(0));
+        }
+
+        assertEquals(0, balde.consumir(INTERVALO));
+
+    }
+
+    @Test
+    void ociosidadeNaoAcumulaMaisQueACapacidade() {
+
+        TokenBucket balde = new TokenBucket(3, INTERVALO, 0);
+        long muitoDepois = 1_000 * INTERVALO;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, balde.consumir(muitoDepois));
+        }
+
+        assertEquals(INTERVALO, balde.consumir(muitoDepois));
+
+    }
+
+    @Test
+    void cheioQuandoTodasAsFichasForamRepostas() {
+
+        TokenBucket balde = new TokenBucket(3, INTERVALO, 0);
+
+        assertTrue(balde.cheio(0));
+
+        balde.consumir(0);
+        balde.consumir(0);
+
+        assertFalse(balde.cheio(2 * INTERVALO - 1));
+        assertTrue(balde.cheio(2 * INTERVALO));
+
+    }
+
+}
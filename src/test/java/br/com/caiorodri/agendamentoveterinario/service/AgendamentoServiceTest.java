@@ -0,0 +1,184 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.caiorodri.agendamentoveterinario.dto.AgendamentoAtualizacaoDTO;
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoRepository;
+
+/**
+ * O PATCH verifica o horário resultante sempre que o horário, o veterinário ou o status mudam: conflito
+ * com outros agendamentos, reserva de outro cliente e início antes do fim. Também fixa quantos comandos
+ * um reagendamento executa na requisição e depois do commit.
+ */
+class AgendamentoServiceTest {
+
+    private static final Long ID = 5L;
+
+    private static final Long ID_CLIENTE = 10L;
+
+    private static final Long ID_VETERINARIO = 3L;
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 3, 10, 9, 0);
+
+    private static final LocalDateTime FIM = INICIO.plusMinutes(30);
+
+    private AgendamentoService agendamentoService;
+
+    private AgendamentoRepository agendamentoRepository;
+
+    private AtualizacaoParcialService atualizacaoParcialService;
+
+    private ReservasHorario reservasHorario;
+
+    private RelatorioService relatorioService;
+
+    private final List<Runnable> emails = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+
+        agendamentoRepository = mock(AgendamentoRepository.class);
+        atualizacaoParcialService = mock(AtualizacaoParcialService.class);
+        reservasHorario = new ReservasHorarioMemoria(1000, 16);
+        relatorioService = mock(RelatorioService.class);
+
+        when(atualizacaoParcialService.atualizar(eq(Agendamento.class), eq(ID), anyInt(), anyMap())).thenReturn(1);
+        when(atualizacaoParcialService.resposta(eq(Agendamento.class), eq(ID), anyInt(), anyMap())).thenReturn(Map.of("id", ID));
+
+        agendamentoService = new AgendamentoService();
+        ReflectionTestUtils.setField(agendamentoService, "agendamentoRepository", agendamentoRepository);
+        ReflectionTestUtils.setField(agendamentoService, "atualizacaoParcialService", atualizacaoParcialService);
+        ReflectionTestUtils.setField(agendamentoService, "reservasHorario", reservasHorario);
+        ReflectionTestUtils.setField(agendamentoService, "relatorioService", relatorioService);
+        ReflectionTestUtils.setField(agendamentoService, "lembreteService", mock(LembreteService.class));
+        ReflectionTestUtils.setField(agendamentoService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(agendamentoService, "executorEmails", (Executor) emails::add);
+
+    }
+
+    @Test
+    void trocarVeterinarioVerificaConflitosNoHorarioAtual() {
+
+        estado(1, 1L);
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> agendamentoService.atualizarParcial(ID, atualizacao(dto -> dto.setIdVeterinario(4L))));
+
+        assertEquals("Já existe um agendamento para esse horário", erro.getMessage());
+        verify(agendamentoRepository).findEstadoComConflitosById(eq(ID), isNull(), isNull(), eq(2));
+        verify(atualizacaoParcialService, never()).atualizar(any(), anyLong(), anyInt(), anyMap());
+
+    }
+
+    @Test
+    void reabrirCanceladoVerificaConflitosECancelarNao() {
+
+        estado(2, 1L);
+
+        assertThrows(IllegalArgumentException.class, () -> agendamentoService.atualizarParcial(ID, atualizacao(dto -> dto.setIdStatus(1))));
+
+        estado(1, 1L);
+
+        assertEquals(Map.of("id", ID), agendamentoService.atualizarParcial(ID, atualizacao(dto -> dto.setIdStatus(2))));
+
+    }
+
+    @Test
+    void horarioReservadoPorOutroClienteRecusaOPatch() {
+
+        estado(1, 0L);
+        reservasHorario.reservar(4L, 99L, 1, INICIO, FIM, LocalDateTime.now().plusMinutes(5));
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> agendamentoService.atualizarParcial(ID, atualizacao(dto -> dto.setIdVeterinario(4L))));
+
+        assertEquals("Este horário está reservado por outro cliente no momento.", erro.getMessage());
+
+        // A reserva do próprio cliente não impede a troca.
+        reservasHorario.reservar(6L, ID_CLIENTE, 1, INICIO, FIM, LocalDateTime.now().plusMinutes(5));
+
+        assertEquals(Map.of("id", ID), agendamentoService.atualizarParcial(ID, atualizacao(dto -> dto.setIdVeterinario(6L))));
+
+    }
+
+    @Test
+    void reagendarCustaUmSelectUmUpdateEUmUpsertNaRequisicaoEOSelectDoEmailDepois() {
+
+        estado(1, 0L);
+
+        agendamentoService.atualizarParcial(ID, atualizacao(dto -> {
+            dto.setDataAgendamentoInicio(INICIO.plusDays(1));
+            dto.setDataAgendamentoFinal(FIM.plusDays(1));
+            dto.setIdVeterinario(4L);
+        }));
+
+        verify(agendamentoRepository).findEstadoComConflitosById(ID, INICIO.plusDays(1), FIM.plusDays(1), 2);
+        verify(atualizacaoParcialService).atualizar(eq(Agendamento.class), eq(ID), eq(0), anyMap());
+        verify(relatorioService).mover(INICIO, ID_VETERINARIO, 1, 1, INICIO.plusDays(1), 4L, 1, 1, INICIO.minusDays(1));
+        verifyNoMoreInteractions(agendamentoRepository, relatorioService);
+
+        // O agendamento completo do e-mail só é lido pelo executor de e-mails.
+        assertEquals(1, emails.size());
+        emails.get(0).run();
+        verify(agendamentoRepository).findById(ID);
+
+    }
+
+    @Test
+    void inicioDepoisDoFimERecusadoSemConsultarOBanco() {
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, () -> agendamentoService.atualizarParcial(ID, atualizacao(dto -> {
+            dto.setDataAgendamentoInicio(FIM);
+            dto.setDataAgendamentoFinal(INICIO);
+        })));
+
+        assertEquals("A data de início do agendamento deve ser anterior à data de fim.", erro.getMessage());
+        verifyNoInteractions(agendamentoRepository);
+
+    }
+
+    private void estado(Integer idStatus, Long conflitos) {
+
+        Object[] linha = {INICIO, FIM, INICIO.minusDays(1), ID_VETERINARIO, 1, idStatus, 0, ID_CLIENTE, conflitos};
+
+        when(agendamentoRepository.findEstadoComConflitosById(eq(ID), any(), any(), eq(2))).thenReturn(List.<Object[]>of(linha));
+
+    }
+
+    private AgendamentoAtualizacaoDTO atualizacao(Consumer<AgendamentoAtualizacaoDTO> campos) {
+
+        AgendamentoAtualizacaoDTO atualizacao = new AgendamentoAtualizacaoDTO();
+        atualizacao.setVersao(0);
+        campos.accept(atualizacao);
+
+        return atualizacao;
+
+    }
+
+}
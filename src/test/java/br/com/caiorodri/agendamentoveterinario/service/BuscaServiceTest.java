@@ -0,0 +1,151 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.caiorodri.agendamentoveterinario.dto.BuscaClientesDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.ClienteBuscaDTO;
+import br.com.caiorodri.agendamentoveterinario.event.ClientesAlteradosEvent;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+
+/**
+ * Confere que a busca só devolve clientes da clínica da requisição, encontra pelo nome do animal,
+ * valida o texto e o limite, e que a reindexação depois de uma alteração acompanha renomeações,
+ * exclusões e usuários que deixaram de ser clientes.
+ */
+class BuscaServiceTest {
+
+    private static final Long CLINICA = 1L;
+
+    private static final Long OUTRA_CLINICA = 2L;
+
+    private BuscaService buscaService;
+
+    private BuscaIndice buscaIndice;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE usuario (id BIGINT PRIMARY KEY, nome VARCHAR(30), cpf CHAR(11), email VARCHAR(80), id_perfil INT, id_clinica BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE usuario_telefone (id_usuario BIGINT, telefone VARCHAR(11))");
+        jdbcTemplate.execute("CREATE TABLE animal (id BIGINT PRIMARY KEY, nome VARCHAR(30), id_dono BIGINT)");
+
+        usuario(1L, "Maria Silva", "00000000001", 1, CLINICA);
+        usuario(2L, "Mariana Costa", "00000000002", 1, OUTRA_CLINICA);
+        usuario(3L, "Marcos Lima", "00000000003", 3, CLINICA);
+        usuario(4L, "Marta Souza", "00000000004", 1, CLINICA);
+        jdbcTemplate.update("INSERT INTO usuario_telefone (id_usuario, telefone) VALUES (1, '11987654321'), (1, '1133334444')");
+        jdbcTemplate.update("INSERT INTO animal (id, nome, id_dono) VALUES (10, 'Rex', 1), (11, 'Mia', 1), (12, 'Rex', 2)");
+
+        buscaIndice = new BuscaIndice(null);
+
+        buscaService = new BuscaService();
+        ReflectionTestUtils.setField(buscaService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(buscaService, "buscaIndice", buscaIndice);
+        ReflectionTestUtils.setField(buscaService, "tamanhoMinimo", 2);
+        ReflectionTestUtils.setField(buscaService, "limitePadrao", 10);
+        ReflectionTestUtils.setField(buscaService, "limiteMaximo", 50);
+
+        ContextoClinica.definir(CLINICA);
+
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+
+        ContextoClinica.limpar();
+        buscaIndice.fechar();
+
+    }
+
+    @Test
+    void buscaSoClientesDaClinicaDaRequisicao() {
+
+        assertFalse(buscaService.buscarClientes("mar", null).isIndiceCompleto());
+
+        buscaService.carregarIndice();
+
+        BuscaClientesDTO resultado = buscaService.buscarClientes("mar", null);
+
+        assertTrue(resultado.isIndiceCompleto());
+        assertEquals(List.of(1L, 4L), ids(resultado));
+
+        ClienteBuscaDTO maria = buscaService.buscarClientes("rex", null).getClientes().get(0);
+
+        assertEquals(1L, maria.getId());
+        assertEquals(List.of("11987654321", "1133334444"), maria.getTelefones());
+        assertEquals(List.of("Rex", "Mia"), maria.getAnimais().stream().map(a -> a.getNome()).toList());
+        assertEquals(1, buscaService.buscarClientes("rex", null).getClientes().size());
+
+        ContextoClinica.definir(OUTRA_CLINICA);
+
+        assertEquals(List.of(2L), ids(buscaService.buscarClientes("rex", null)));
+
+    }
+
+    @Test
+    void rejeitaTextoCurtoELimiteForaDoPermitido() {
+
+        buscaService.carregarIndice();
+
+        assertEquals("Informe ao menos 2 caracteres para a busca.",
+                assertThrows(IllegalArgumentException.class, () -> buscaService.buscarClientes(" m ", null)).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> buscaService.buscarClientes(null, null));
+        assertThrows(IllegalArgumentException.class, () -> buscaService.buscarClientes("mar", 0));
+        assertThrows(IllegalArgumentException.class, () -> buscaService.buscarClientes("mar", 51));
+
+        assertEquals(1, buscaService.buscarClientes("mar", 1).getClientes().size());
+
+    }
+
+    @Test
+    void reindexaClientesAlteradosExcluidosOuQueDeixaramDeSerClientes() {
+
+        buscaService.carregarIndice();
+
+        jdbcTemplate.update("UPDATE usuario SET nome = 'Joana Silva' WHERE id = 1");
+        jdbcTemplate.update("UPDATE usuario SET id_perfil = 2 WHERE id = 4");
+        jdbcTemplate.update("DELETE FROM usuario WHERE id = 2");
+        jdbcTemplate.update("DELETE FROM animal WHERE id = 12");
+
+        buscaService.onClientesAlterados(ClientesAlteradosEvent.de(1L, 2L, 4L));
+
+        assertEquals(List.of(), ids(buscaService.buscarClientes("mar", null)));
+        assertEquals(List.of(1L), ids(buscaService.buscarClientes("joa", null)));
+
+        ContextoClinica.definir(OUTRA_CLINICA);
+
+        assertEquals(List.of(), ids(buscaService.buscarClientes("rex", null)));
+
+    }
+
+    private void usuario(Long id, String nome, String cpf, Integer idPerfil, Long idClinica) {
+
+        jdbcTemplate.update("INSERT INTO usuario (id, nome, cpf, email, id_perfil, id_clinica) VALUES (?, ?, ?, ?, ?, ?)",
+                id, nome, cpf, "usuario" + id + "@email.com", idPerfil, idClinica);
+
+    }
+
+    private static List<Long> ids(BuscaClientesDTO resultado) {
+
+        return resultado.getClientes().stream().map(ClienteBuscaDTO::getId).sorted().toList();
+
+    }
+
+}
@@ -0,0 +1,153 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.caiorodri.agendamentoveterinario.dto.ImportacaoLinhaDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.ImportacaoRelatorioDTO;
+import br.com.caiorodri.agendamentoveterinario.enums.FormatoExportacaoEnum;
+import br.com.caiorodri.agendamentoveterinario.model.Estado;
+import br.com.caiorodri.agendamentoveterinario.repository.EstadoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+
+/**
+ * Os hashes da importação rodam no executor próprio, com o encoder sem limitador; uma senha que não
+ * pode ser criptografada rejeita só a sua linha. CPF e e-mail repetidos só contam contra linhas
+ * aceitas.
+ */
+class ImportacaoServiceTest {
+
+    private ImportacaoService importacaoService;
+
+    private UsuarioRepository usuarioRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executorSenhas = Executors.newFixedThreadPool(2);
+
+    private final AtomicInteger tarefasNoExecutor = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Como na tabela criada pelo Hibernate, data_atualizacao também é gerada pelo banco e vem antes do id.
+        jdbcTemplate.execute("CREATE TABLE usuario (data_atualizacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                "id BIGINT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(30), senha VARCHAR(100), cpf CHAR(11), " +
+                "email VARCHAR(80), logradouro VARCHAR(50), numero VARCHAR(20), complemento VARCHAR(40), cidade VARCHAR(40), " +
+                "sigla_estado CHAR(2), cep CHAR(8), data_nascimento DATE, id_status INT, id_perfil INT, " +
+                "email_realizar_consulta_recebido BOOLEAN, receber_email BOOLEAN, id_clinica BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE usuario_telefone (id_usuario BIGINT, telefone VARCHAR(11))");
+
+        EstadoRepository estadoRepository = mock(EstadoRepository.class);
+        when(estadoRepository.findAll()).thenReturn(List.of(new Estado("SP", "São Paulo")));
+
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode("segredo")).thenReturn("{bcrypt}hash");
+        when(passwordEncoder.encode("invalida")).thenThrow(new IllegalStateException("falha no hash"));
+
+        usuarioRepository = mock(UsuarioRepository.class);
+
+        importacaoService = new ImportacaoService();
+        ReflectionTestUtils.setField(importacaoService, "usuarioRepository", usuarioRepository);
+        ReflectionTestUtils.setField(importacaoService, "estadoRepository", estadoRepository);
+        ReflectionTestUtils.setField(importacaoService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(importacaoService, "transactionTemplate", new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(importacaoService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(importacaoService, "executorSenhasImportacao", (Executor) tarefa -> {
+            tarefasNoExecutor.incrementAndGet();
+            executorSenhas.execute(tarefa);
+        });
+        ReflectionTestUtils.setField(importacaoService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(importacaoService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(importacaoService, "tamanhoLote", 500);
+        ReflectionTestUtils.setField(importacaoService, "maximoLinhas", 100);
+
+        ContextoClinica.definir(1L);
+
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        ContextoClinica.limpar();
+        executorSenhas.shutdownNow();
+
+    }
+
+    @Test
+    void falhaNoHashRejeitaSoALinha() {
+
+        String csv = "nome,email,senha,cpf,logradouro,numero,cidade,estado,cep\n" +
+                "Ana,ana@email.com,segredo,00000000001,Rua A,1,Campinas,SP,13000000\n" +
+                "Bruno,bruno@email.com,invalida,00000000002,Rua B,2,Santos,SP,11000000\n" +
+                "Carla,carla@email.com,segredo,00000000003,Rua C,3,Sorocaba,SP,18000000\n";
+
+        ImportacaoRelatorioDTO relatorio = importacaoService.importarUsuarios(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), FormatoExportacaoEnum.CSV, false);
+
+        assertEquals(2, relatorio.getImportadas());
+        assertEquals(1, relatorio.getRejeitadas());
+        assertEquals(3, tarefasNoExecutor.get());
+
+        ImportacaoLinhaDTO rejeitada = relatorio.getLinhas().get(1);
+
+        assertEquals(3, rejeitada.getLinha());
+        assertFalse(rejeitada.isSucesso());
+        assertEquals("Erro ao criptografar a senha.", rejeitada.getMensagem());
+        assertTrue(relatorio.getLinhas().get(0).isSucesso());
+
+        assertEquals(List.of("{bcrypt}hash", "{bcrypt}hash"), jdbcTemplate.queryForList("SELECT senha FROM usuario ORDER BY id", String.class));
+
+    }
+
+    @Test
+    void linhaRejeitadaPeloEmailNaoReservaOCpf() {
+
+        when(usuarioRepository.findAllEmails()).thenReturn(List.of("ana@email.com"));
+
+        String csv = "nome,email,senha,cpf,logradouro,numero,cidade,estado,cep\n" +
+                "Ana,ANA@email.com,segredo,00000000001,Rua A,1,Campinas,SP,13000000\n" +
+                "Ana Maria,ana.maria@email.com,segredo,00000000001,Rua A,1,Campinas,SP,13000000\n" +
+                "Bruno,bruno@email.com,segredo,00000000001,Rua B,2,Santos,SP,11000000\n" +
+                "Bia,ana.maria@email.com,segredo,00000000004,Rua B,2,Santos,SP,11000000\n";
+
+        ImportacaoRelatorioDTO relatorio = importacaoService.importarUsuarios(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), FormatoExportacaoEnum.CSV, false);
+
+        assertEquals(List.of("O e-mail informado já está em uso.", "CPF já cadastrado no sistema.", "O e-mail informado já está em uso."),
+                relatorio.getLinhas().stream().filter(l -> !l.isSucesso()).map(ImportacaoLinhaDTO::getMensagem).toList());
+        assertTrue(relatorio.getLinhas().get(1).isSucesso());
+        assertEquals(List.of("ana.maria@email.com"), jdbcTemplate.queryForList("SELECT email FROM usuario", String.class));
+
+    }
+
+}
@@ -0,0 +1,270 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import br.com.caiorodri.agendamentoveterinario.email.EmailSender;
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoStatus;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoTipo;
+import br.com.caiorodri.agendamentoveterinario.model.Animal;
+import br.com.caiorodri.agendamentoveterinario.model.Especie;
+import br.com.caiorodri.agendamentoveterinario.model.Estado;
+import br.com.caiorodri.agendamentoveterinario.model.Perfil;
+import br.com.caiorodri.agendamentoveterinario.model.Raca;
+import br.com.caiorodri.agendamentoveterinario.model.Sexo;
+import br.com.caiorodri.agendamentoveterinario.model.Status;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+
+/**
+ * Confere que os lembretes saem uma única vez em cada antecedência configurada e que os de
+ * agendamentos cancelados, remarcados ou excluídos são descartados sem envio. Também confere que os
+ * registros de envio saem com o agendamento ou quando ele começa.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({LembreteService.class, LembreteServiceTest.Configuracao.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class LembreteServiceTest {
+
+    @Autowired
+    private LembreteService lembreteService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private EmailSender emailSender;
+
+    private LocalDateTime agora;
+
+    private AgendamentoStatus aberto;
+
+    private AgendamentoStatus cancelado;
+
+    private AgendamentoTipo consulta;
+
+    private AgendamentoTipo cirurgia;
+
+    private AgendamentoTipo vacina;
+
+    private Animal animal;
+
+    private Usuario veterinario;
+
+    private Usuario recepcionista;
+
+    @BeforeEach
+    void setUp() {
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS lembrete_agendamento (id_agendamento BIGINT NOT NULL, antecedencia_minutos INT NOT NULL, " +
+                "data_agendamento_inicio TIMESTAMP NOT NULL, data_envio TIMESTAMP NOT NULL, PRIMARY KEY (id_agendamento, antecedencia_minutos, data_agendamento_inicio), " +
+                "FOREIGN KEY (id_agendamento) REFERENCES agendamento(id) ON DELETE CASCADE)");
+
+        when(emailSender.enviarLembreteAgendamentoEmail(any(), anyInt())).thenReturn(true);
+
+        agora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        Status ativo = entityManager.persist(new Status(1, "Ativo"));
+        Perfil perfilCliente = entityManager.persist(new Perfil(1, "Cliente"));
+        Estado estado = entityManager.persist(new Estado("SP", "São Paulo"));
+
+        aberto = entityManager.persist(new AgendamentoStatus(1, "Aberto"));
+        cancelado = entityManager.persist(new AgendamentoStatus(2, "Cancelado"));
+        consulta = entityManager.persist(new AgendamentoTipo(1, "Consulta", 30, null));
+        cirurgia = entityManager.persist(new AgendamentoTipo(2, "Cirurgia", 60, "60"));
+        vacina = entityManager.persist(new AgendamentoTipo(3, "Vacina", 15, ""));
+
+        veterinario = usuario("veterinario", perfilCliente, ativo, estado);
+        recepcionista = usuario("recepcionista", perfilCliente, ativo, estado);
+
+        animal = new Animal();
+        animal.setNome("Rex");
+        animal.setRaca(entityManager.persist(new Raca(null, entityManager.persist(new Especie(null, "Cachorro")), "Labrador")));
+        animal.setSexo(entityManager.persist(new Sexo(1, "Macho")));
+        animal.setCastrado(false);
+        animal.setDono(usuario("cliente", perfilCliente, ativo, estado));
+        animal = entityManager.persist(animal);
+
+    }
+
+    @Test
+    void enviaCadaLembreteUmaVezNaAntecedenciaPadrao() {
+
+        // Lembrete de 24h vence em 5 minutos; o de 2h fica fora da janela de 6 horas.
+        Agendamento amanha = agendamento(consulta, agora.plusHours(24).plusMinutes(5));
+        // Lembrete de 2h vence em 5 minutos; o de 24h já passou da tolerância.
+        Agendamento hoje = agendamento(consulta, agora.plusHours(2).plusMinutes(5));
+
+        lembreteService.recarregar(agora);
+        lembreteService.recarregar(agora);
+
+        assertEquals(0, lembreteService.disparar(agora.plusMinutes(1)));
+        assertEquals(2, lembreteService.disparar(agora.plusMinutes(6)));
+
+        verify(emailSender).enviarLembreteAgendamentoEmail(argThat(a -> a.getId().equals(amanha.getId())), eq(1440));
+        verify(emailSender).enviarLembreteAgendamentoEmail(argThat(a -> a.getId().equals(hoje.getId())), eq(120));
+
+        // A próxima recarga traz de volta os lembretes dentro da tolerância, mas eles já foram registrados.
+        lembreteService.recarregar(agora.plusMinutes(10));
+
+        assertEquals(0, lembreteService.disparar(agora.plusMinutes(12)));
+        verify(emailSender, times(2)).enviarLembreteAgendamentoEmail(any(), anyInt());
+
+    }
+
+    @Test
+    void descartaLembretesDeAgendamentosCanceladosRemarcadosOuExcluidos() {
+
+        Agendamento cancelar = agendamento(consulta, agora.plusHours(2).plusMinutes(5));
+        Agendamento remarcar = agendamento(consulta, agora.plusHours(2).plusMinutes(10));
+        Agendamento excluir = agendamento(consulta, agora.plusHours(2).plusMinutes(15));
+
+        lembreteService.recarregar(agora);
+
+        cancelar.setStatus(cancelado);
+        remarcar.setDataAgendamentoInicio(agora.plusDays(3));
+        entityManager.flush();
+
+        lembreteService.remover(excluir.getId());
+
+        assertEquals(0, lembreteService.disparar(agora.plusMinutes(20)));
+        verify(emailSender, never()).enviarLembreteAgendamentoEmail(any(), anyInt());
+
+    }
+
+    @Test
+    void usaAsAntecedenciasDoTipoDeAgendamento() {
+
+        Agendamento semLembrete = agendamento(vacina, agora.plusHours(2).plusMinutes(5));
+
+        lembreteService.recarregar(agora);
+
+        // Agendamento criado depois da recarga, agendado pelo AgendamentoService.salvar.
+        Agendamento cirurgiaEmUmaHora = agendamento(cirurgia, agora.plusMinutes(65));
+        lembreteService.agendar(cirurgiaEmUmaHora);
+
+        assertEquals(1, lembreteService.disparar(agora.plusMinutes(10)));
+
+        verify(emailSender).enviarLembreteAgendamentoEmail(argThat(a -> a.getId().equals(cirurgiaEmUmaHora.getId())), eq(60));
+        verify(emailSender, never()).enviarLembreteAgendamentoEmail(argThat(a -> a.getId().equals(semLembrete.getId())), anyInt());
+
+    }
+
+    @Test
+    void naoReenviaLembreteDeOutraInstanciaEReenviaOQueFalhou() {
+
+        Agendamento enviadoPorOutra = agendamento(consulta, agora.plusHours(2).plusMinutes(5));
+        Agendamento comFalha = agendamento(consulta, agora.plusHours(2).plusMinutes(6));
+
+        jdbcTemplate.update("INSERT INTO lembrete_agendamento VALUES (?, 120, ?, CURRENT_TIMESTAMP)",
+                enviadoPorOutra.getId(), enviadoPorOutra.getDataAgendamentoInicio());
+
+        when(emailSender.enviarLembreteAgendamentoEmail(argThat(a -> a != null && a.getId().equals(comFalha.getId())), anyInt())).thenReturn(false);
+
+        lembreteService.recarregar(agora);
+
+        assertEquals(1, lembreteService.disparar(agora.plusMinutes(10)));
+        verify(emailSender, never()).enviarLembreteAgendamentoEmail(argThat(a -> a.getId().equals(enviadoPorOutra.getId())), anyInt());
+
+        when(emailSender.enviarLembreteAgendamentoEmail(any(), anyInt())).thenReturn(true);
+
+        lembreteService.recarregar(agora.plusMinutes(10));
+
+        assertEquals(1, lembreteService.disparar(agora.plusMinutes(12)));
+        verify(emailSender, times(2)).enviarLembreteAgendamentoEmail(argThat(a -> a.getId().equals(comFalha.getId())), eq(120));
+
+    }
+
+    @Test
+    void removeRegistrosDeAgendamentosIniciadosOuExcluidos() {
+
+        Agendamento iniciado = agendamento(consulta, agora.minusMinutes(10));
+        Agendamento futuro = agendamento(consulta, agora.plusHours(2));
+        Agendamento excluido = agendamento(consulta, agora.plusHours(3));
+
+        for (Agendamento agendamento : List.of(iniciado, futuro, excluido)) {
+            jdbcTemplate.update("INSERT INTO lembrete_agendamento VALUES (?, 120, ?, CURRENT_TIMESTAMP)",
+                    agendamento.getId(), agendamento.getDataAgendamentoInicio());
+        }
+
+        jdbcTemplate.update("DELETE FROM agendamento WHERE id = ?", excluido.getId());
+
+        assertEquals(1, lembreteService.limpar(agora));
+        assertEquals(List.of(futuro.getId()), jdbcTemplate.queryForList("SELECT id_agendamento FROM lembrete_agendamento", Long.class));
+
+    }
+
+    private Agendamento agendamento(AgendamentoTipo tipo, LocalDateTime inicio) {
+
+        Agendamento agendamento = new Agendamento();
+        agendamento.setAnimal(animal);
+        agendamento.setCliente(animal.getDono());
+        agendamento.setVeterinario(veterinario);
+        agendamento.setRecepcionista(recepcionista);
+        agendamento.setStatus(aberto);
+        agendamento.setTipo(tipo);
+        agendamento.setDataCriacao(agora);
+        agendamento.setDataAgendamentoInicio(inicio);
+        agendamento.setDataAgendamentoFinal(inicio.plusMinutes(tipo.getDuracaoMinutos()));
+
+        return entityManager.persistAndFlush(agendamento);
+
+    }
+
+    private Usuario usuario(String nome, Perfil perfil, Status status, Estado estado) {
+
+        Usuario usuario = new Usuario();
+        usuario.setNome(nome);
+        usuario.setEmail(nome + "@email.com");
+        usuario.setSenha("senha");
+        usuario.setCpf(String.format("%011d", Math.abs((long) nome.hashCode())));
+        usuario.setPerfil(perfil);
+        usuario.setStatus(status);
+        usuario.setReceberEmail(true);
+        usuario.getEndereco().setEstado(estado);
+
+        return entityManager.persist(usuario);
+
+    }
+
+    @TestConfiguration
+    static class Configuracao {
+
+        @Bean(name = "executorEmails")
+        Executor executorEmails() {
+            return Runnable::run;
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoTipo;
+import br.com.caiorodri.agendamentoveterinario.model.ListaEspera;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+
+/**
+ * Confere que o índice só oferta o horário a entradas da mesma clínica, do mesmo tipo e cuja janela
+ * contém a data, escolhendo a mais antiga entre quem pediu o veterinário e quem aceita qualquer um.
+ */
+class ListaEsperaIndiceTest {
+
+    private static final Long CLINICA = 1L;
+
+    private static final Long VETERINARIO = 3L;
+
+    private static final Integer TIPO = 2;
+
+    private static final LocalDate DATA = LocalDate.of(2030, 3, 10);
+
+    private static final LocalDateTime CADASTRO = LocalDateTime.of(2030, 3, 1, 8, 0);
+
+    private ListaEsperaIndice indice;
+
+    @BeforeEach
+    void setUp() {
+
+        indice = new ListaEsperaIndice();
+
+    }
+
+    @Test
+    void soReservaEntradaCompativelComOHorario() {
+
+        indice.adicionar(entrada(1L, 2L, VETERINARIO, TIPO, DATA, DATA, CADASTRO));
+        indice.adicionar(entrada(2L, CLINICA, 99L, TIPO, DATA, DATA, CADASTRO));
+        indice.adicionar(entrada(3L, CLINICA, VETERINARIO, 7, DATA, DATA, CADASTRO));
+        indice.adicionar(entrada(4L, CLINICA, VETERINARIO, TIPO, DATA.plusDays(1), DATA.plusDays(5), CADASTRO));
+        indice.adicionar(entrada(5L, CLINICA, null, TIPO, DATA.minusDays(5), DATA.minusDays(1), CADASTRO));
+
+        assertNull(indice.reservarCandidato(CLINICA, VETERINARIO, TIPO, DATA));
+
+        indice.adicionar(entrada(6L, CLINICA, VETERINARIO, TIPO, DATA.minusDays(1), DATA.plusDays(1), CADASTRO));
+
+        assertEquals(6L, indice.reservarCandidato(CLINICA, VETERINARIO, TIPO, DATA));
+        assertNull(indice.reservarCandidato(CLINICA, VETERINARIO, TIPO, DATA));
+        assertEquals(5, indice.tamanho());
+
+    }
+
+    @Test
+    void reservaNaOrdemDeCadastroEntreVeterinarioEQualquerVeterinario() {
+
+        indice.adicionar(entrada(1L, CLINICA, VETERINARIO, TIPO, DATA, DATA, CADASTRO.plusHours(2)));
+        indice.adicionar(entrada(2L, CLINICA, null, TIPO, DATA, DATA, CADASTRO.plusHours(1)));
+        indice.adicionar(entrada(3L, CLINICA, VETERINARIO, TIPO, DATA, DATA, CADASTRO));
+        indice.adicionar(entrada(4L, CLINICA, null, TIPO, DATA, DATA, CADASTRO.plusHours(3)));
+
+        assertEquals(3L, indice.reservarCandidato(CLINICA, VETERINARIO, TIPO, DATA));
+        assertEquals(2L, indice.reservarCandidato(CLINICA, VETERINARIO, TIPO, DATA));
+        assertEquals(1L, indice.reservarCandidato(CLINICA, VETERINARIO, TIPO, DATA));
+        assertEquals(4L, indice.reservarCandidato(CLINICA, VETERINARIO, TIPO, DATA));
+        assertEquals(0, indice.tamanho());
+
+    }
+
+    @Test
+    void adicionarDeNovoSubstituiAEntradaERemoverARetira() {
+
+        indice.adicionar(entrada(1L, CLINICA, VETERINARIO, TIPO, DATA, DATA, CADASTRO));
+        indice.adicionar(entrada(1L, CLINICA, null, TIPO, DATA.plusDays(1), DATA.plusDays(1), CADASTRO));
+
+        assertEquals(1, indice.tamanho());
+        assertNull(indice.reservarCandidato(CLINICA, VETERINARIO, TIPO, DATA));
+
+        assertTrue(indice.remover(1L));
+        assertFalse(indice.remover(1L));
+        assertNull(indice.reservarCandidato(CLINICA, VETERINARIO, TIPO, DATA.plusDays(1)));
+
+    }
+
+    static ListaEspera entrada(Long id, Long idClinica, Long idVeterinario, Integer idTipo, LocalDate inicio, LocalDate fim, LocalDateTime cadastro) {
+
+        ListaEspera listaEspera = new ListaEspera(id);
+        listaEspera.setIdClinica(idClinica);
+        listaEspera.setVeterinario(idVeterinario != null ? new Usuario(idVeterinario) : null);
+        listaEspera.setTipo(new AgendamentoTipo(idTipo));
+        listaEspera.setDataInicio(inicio);
+        listaEspera.setDataFim(fim);
+        listaEspera.setDataCriacao(cadastro);
+
+        return listaEspera;
+
+    }
+
+}
@@ -0,0 +1,135 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.caiorodri.agendamentoveterinario.cluster.BarramentoCluster;
+import br.com.caiorodri.agendamentoveterinario.model.AgendamentoTipo;
+import br.com.caiorodri.agendamentoveterinario.model.Animal;
+import br.com.caiorodri.agendamentoveterinario.model.ListaEspera;
+import br.com.caiorodri.agendamentoveterinario.model.Perfil;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoTipoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.AnimalRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.ListaEsperaRepository;
+
+/**
+ * Confere que a entrada cadastrada só entra no índice depois do commit, e nunca se a transação for
+ * desfeita.
+ */
+class ListaEsperaServiceTest {
+
+    private static final Long ID_CLIENTE = 10L;
+
+    private static final Long ID_ANIMAL = 20L;
+
+    private static final Integer ID_TIPO = 2;
+
+    private static final Long ID_VETERINARIO = 3L;
+
+    private ListaEsperaService listaEsperaService;
+
+    private ListaEsperaIndice listaEsperaIndice;
+
+    @BeforeEach
+    void setUp() {
+
+        ListaEsperaRepository listaEsperaRepository = mock(ListaEsperaRepository.class);
+        AnimalRepository animalRepository = mock(AnimalRepository.class);
+        AgendamentoTipoRepository agendamentoTipoRepository = mock(AgendamentoTipoRepository.class);
+
+        when(animalRepository.existsByIdAndDonoId(ID_ANIMAL, ID_CLIENTE)).thenReturn(true);
+        when(agendamentoTipoRepository.findById(ID_TIPO)).thenReturn(Optional.of(new AgendamentoTipo(ID_TIPO)));
+        when(listaEsperaRepository.save(any(ListaEspera.class))).thenAnswer(invocacao -> {
+
+            ListaEspera listaEspera = invocacao.getArgument(0);
+            listaEspera.setId(1L);
+            listaEspera.setIdClinica(1L);
+
+            return listaEspera;
+
+        });
+
+        listaEsperaIndice = new ListaEsperaIndice();
+
+        listaEsperaService = new ListaEsperaService();
+        ReflectionTestUtils.setField(listaEsperaService, "listaEsperaRepository", listaEsperaRepository);
+        ReflectionTestUtils.setField(listaEsperaService, "listaEsperaIndice", listaEsperaIndice);
+        ReflectionTestUtils.setField(listaEsperaService, "animalRepository", animalRepository);
+        ReflectionTestUtils.setField(listaEsperaService, "agendamentoTipoRepository", agendamentoTipoRepository);
+        ReflectionTestUtils.setField(listaEsperaService, "barramentoCluster", mock(BarramentoCluster.class));
+        ReflectionTestUtils.setField(listaEsperaService, "janelaMaximaDias", 90L);
+
+        TransactionSynchronizationManager.initSynchronization();
+
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        TransactionSynchronizationManager.clearSynchronization();
+
+    }
+
+    @Test
+    void entradaEntraNoIndiceSoDepoisDoCommit() {
+
+        listaEsperaService.salvar(novaEntrada(), cliente());
+
+        assertEquals(0, listaEsperaIndice.tamanho());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(1, listaEsperaIndice.tamanho());
+        assertEquals(1L, listaEsperaIndice.reservarCandidato(1L, ID_VETERINARIO, ID_TIPO, LocalDate.now().plusDays(1)));
+
+    }
+
+    @Test
+    void entradaDeTransacaoDesfeitaNaoEntraNoIndice() {
+
+        listaEsperaService.salvar(novaEntrada(), cliente());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, listaEsperaIndice.tamanho());
+        assertNull(listaEsperaIndice.reservarCandidato(1L, ID_VETERINARIO, ID_TIPO, LocalDate.now().plusDays(1)));
+
+    }
+
+    private ListaEspera novaEntrada() {
+
+        ListaEspera listaEspera = new ListaEspera();
+        listaEspera.setAnimal(new Animal(ID_ANIMAL));
+        listaEspera.setTipo(new AgendamentoTipo(ID_TIPO));
+        listaEspera.setDataInicio(LocalDate.now());
+        listaEspera.setDataFim(LocalDate.now().plusDays(7));
+
+        return listaEspera;
+
+    }
+
+    private Usuario cliente() {
+
+        Usuario cliente = new Usuario(ID_CLIENTE);
+        cliente.setPerfil(new Perfil(1));
+
+        return cliente;
+
+    }
+
+}
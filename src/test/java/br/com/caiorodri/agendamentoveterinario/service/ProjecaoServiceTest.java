@@ -0,0 +1,146 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import br.com.caiorodri.agendamentoveterinario.model.Agendamento;
+import br.com.caiorodri.agendamentoveterinario.model.Animal;
+import br.com.caiorodri.agendamentoveterinario.model.Especie;
+import br.com.caiorodri.agendamentoveterinario.model.Estado;
+import br.com.caiorodri.agendamentoveterinario.model.Perfil;
+import br.com.caiorodri.agendamentoveterinario.model.Raca;
+import br.com.caiorodri.agendamentoveterinario.model.Status;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+
+/**
+ * Confere a resolução do parâmetro fields (campos fora do catálogo, prefixos e lista vazia), o Map
+ * aninhado sem valores nulos e que todos os campos dos catálogos das listagens viram uma consulta válida.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(ProjecaoService.class)
+class ProjecaoServiceTest {
+
+    private static final Pageable PAGINA = PageRequest.of(0, 10, Sort.by("id"));
+
+    @Autowired
+    private ProjecaoService projecaoService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Usuario dono;
+
+    private Animal rex;
+
+    private Animal mia;
+
+    @BeforeEach
+    void setUp() {
+
+        Raca labrador = entityManager.persist(new Raca(null, entityManager.persist(new Especie(null, "Cachorro")), "Labrador"));
+
+        dono = new Usuario();
+        dono.setNome("Ana");
+        dono.setEmail("ana@email.com");
+        dono.setSenha("senha");
+        dono.setCpf("00000000001");
+        dono.setPerfil(entityManager.persist(new Perfil(1, "Cliente")));
+        dono.setStatus(entityManager.persist(new Status(1, "Ativo")));
+        dono.getEndereco().setEstado(entityManager.persist(new Estado("SP", "São Paulo")));
+        dono = entityManager.persist(dono);
+
+        rex = animal("Rex", labrador, "Dócil");
+        mia = animal("Mia", null, null);
+
+    }
+
+    @Test
+    void montaCamposAninhadosSemValoresNulos() {
+
+        Page<Map<String, Object>> pagina = projecaoService.listar(Animal.class, AnimalService.CAMPOS_PROJECAO,
+                "nome, descricao, raca.nome, raca.especie.nome, dono.id", null, PAGINA);
+
+        assertEquals(2, pagina.getTotalElements());
+        assertEquals(Map.of("nome", "Rex", "descricao", "Dócil", "raca", Map.of("nome", "Labrador", "especie", Map.of("nome", "Cachorro")),
+                "dono", Map.of("id", dono.getId())), pagina.getContent().get(0));
+        // Sem raça o animal continua na listagem (LEFT JOIN), só sem as chaves da raça.
+        assertEquals(Map.of("nome", "Mia", "dono", Map.of("id", dono.getId())), pagina.getContent().get(1));
+
+    }
+
+    @Test
+    void prefixoSelecionaOsCamposDoCatalogoAbaixoDele() {
+
+        Page<Map<String, Object>> pagina = projecaoService.listar(Animal.class, AnimalService.CAMPOS_PROJECAO, "id,raca,raca.nome", null, PAGINA);
+
+        assertEquals(Map.of("id", rex.getId(), "raca", Map.of("id", rex.getRaca().getId(), "nome", "Labrador",
+                "especie", Map.of("id", rex.getRaca().getEspecie().getId(), "nome", "Cachorro"))), pagina.getContent().get(0));
+        assertEquals(Map.of("id", mia.getId()), pagina.getContent().get(1));
+
+    }
+
+    @Test
+    void rejeitaCampoForaDoCatalogoOuListaVazia() {
+
+        IllegalArgumentException foraDoCatalogo = assertThrows(IllegalArgumentException.class,
+                () -> projecaoService.listar(Animal.class, AnimalService.CAMPOS_PROJECAO, "nome,dono.senha", null, PAGINA));
+
+        assertTrue(foraDoCatalogo.getMessage().startsWith("Campo 'dono.senha' não pode ser selecionado."));
+
+        // Prefixo de texto que não é um caminho do catálogo.
+        assertThrows(IllegalArgumentException.class, () -> projecaoService.listar(Animal.class, AnimalService.CAMPOS_PROJECAO, "ra", null, PAGINA));
+
+        for (String vazio : new String[] {null, "", " , ,"}) {
+
+            IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                    () -> projecaoService.listar(Animal.class, AnimalService.CAMPOS_PROJECAO, vazio, null, PAGINA));
+
+            assertEquals("Informe ao menos um campo em fields.", erro.getMessage());
+
+        }
+
+    }
+
+    @Test
+    void todosOsCamposDosCatalogosSaoConsultaveis() {
+
+        assertEquals(2, projecaoService.listar(Animal.class, AnimalService.CAMPOS_PROJECAO,
+                String.join(",", AnimalService.CAMPOS_PROJECAO), null, PAGINA).getTotalElements());
+        assertEquals(1, projecaoService.listar(Usuario.class, UsuarioService.CAMPOS_PROJECAO,
+                String.join(",", UsuarioService.CAMPOS_PROJECAO), null, PAGINA).getTotalElements());
+        assertEquals(0, projecaoService.listar(Agendamento.class, AgendamentoService.CAMPOS_PROJECAO,
+                String.join(",", AgendamentoService.CAMPOS_PROJECAO), null, PAGINA).getTotalElements());
+
+    }
+
+    private Animal animal(String nome, Raca raca, String descricao) {
+
+        Animal animal = new Animal();
+        animal.setNome(nome);
+        animal.setRaca(raca);
+        animal.setDescricao(descricao);
+        animal.setDono(dono);
+
+        return entityManager.persistAndFlush(animal);
+
+    }
+
+}
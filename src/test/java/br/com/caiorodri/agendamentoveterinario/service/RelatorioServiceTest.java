@@ -0,0 +1,80 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Alterar um agendamento tira uma unidade da linha antiga do consolidado e soma na nova com um único
+ * comando.
+ */
+class RelatorioServiceTest {
+
+    private static final LocalDateTime CRIACAO = LocalDateTime.of(2030, 3, 1, 8, 0);
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 3, 10, 9, 0);
+
+    private RelatorioService relatorioService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+
+        jdbcTemplate = spy(new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1")));
+        jdbcTemplate.execute("CREATE TABLE agendamento_estatistica_diaria (data DATE, id_veterinario BIGINT, id_agendamento_tipo INT, " +
+                "id_agendamento_status INT, total BIGINT, soma_antecedencia_minutos BIGINT, " +
+                "PRIMARY KEY (data, id_veterinario, id_agendamento_tipo, id_agendamento_status))");
+
+        relatorioService = new RelatorioService();
+        ReflectionTestUtils.setField(relatorioService, "jdbcTemplate", jdbcTemplate);
+
+        // Um comando de inclusão, contado nas verificações abaixo.
+        relatorioService.registrar(INICIO, CRIACAO, 3L, 1, 1, 1);
+
+    }
+
+    @Test
+    void moverParaOutraLinhaUsaUmComando() {
+
+        relatorioService.mover(INICIO, 3L, 1, 1, INICIO.plusDays(1), 4L, 1, 1, CRIACAO);
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        assertEquals(List.of(
+                Map.of("ID_VETERINARIO", 3L, "TOTAL", 0L, "SOMA_ANTECEDENCIA_MINUTOS", 0L),
+                Map.of("ID_VETERINARIO", 4L, "TOTAL", 1L, "SOMA_ANTECEDENCIA_MINUTOS", 14_460L)), linhas());
+
+    }
+
+    @Test
+    void mesmaLinhaSoCorrigeAAntecedencia() {
+
+        relatorioService.mover(INICIO, 3L, 1, 1, INICIO, 3L, 1, 1, CRIACAO);
+        relatorioService.mover(INICIO, 3L, 1, 1, INICIO.plusHours(1), 3L, 1, 1, CRIACAO);
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        assertEquals(List.of(Map.of("ID_VETERINARIO", 3L, "TOTAL", 1L, "SOMA_ANTECEDENCIA_MINUTOS", 13_080L)), linhas());
+
+    }
+
+    private List<Map<String, Object>> linhas() {
+
+        return jdbcTemplate.queryForList("SELECT id_veterinario, total, soma_antecedencia_minutos FROM agendamento_estatistica_diaria ORDER BY data");
+
+    }
+
+}
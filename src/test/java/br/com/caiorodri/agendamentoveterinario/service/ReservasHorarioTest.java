@@ -0,0 +1,201 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import br.com.caiorodri.agendamentoveterinario.model.ReservaHorario;
+
+/**
+ * Os cenários rodam nos dois armazenamentos; o do banco usa um H2 em memória e duas instâncias de
+ * ReservasHorarioBanco, como duas instâncias da aplicação.
+ */
+class ReservasHorarioTest {
+
+    private static final Long ID_VETERINARIO = 3L;
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 3, 10, 9, 0);
+
+    private static final LocalDateTime FIM = INICIO.plusMinutes(30);
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE usuario (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("INSERT INTO usuario (id) VALUES (3), (4)");
+        jdbcTemplate.execute("CREATE TABLE reserva_horario (id CHAR(36) PRIMARY KEY, id_veterinario BIGINT NOT NULL, " +
+                "id_cliente BIGINT NOT NULL, id_tipo INT NOT NULL, inicio TIMESTAMP NOT NULL, fim TIMESTAMP NOT NULL, expiracao TIMESTAMP NOT NULL)");
+
+    }
+
+    @Test
+    void horarioReservadoSoPodeSerUsadoPeloDono() {
+
+        for (ReservasHorario reservas : List.of(memoria(), banco())) {
+
+            assertTrue(reservas.reservar(ID_VETERINARIO, 10L, 1, INICIO, FIM, validade()).isPresent());
+
+            assertFalse(reservas.reservar(ID_VETERINARIO, 11L, 1, INICIO.plusMinutes(15), FIM.plusMinutes(15), validade()).isPresent());
+            assertTrue(reservas.reservadoPorOutro(ID_VETERINARIO, 11L, INICIO, FIM));
+            assertFalse(reservas.reservadoPorOutro(ID_VETERINARIO, 10L, INICIO, FIM));
+            assertFalse(reservas.reservadoPorOutro(4L, 11L, INICIO, FIM));
+
+            // O intervalo seguinte e o de outro veterinário continuam livres.
+            assertTrue(reservas.reservar(ID_VETERINARIO, 11L, 1, FIM, FIM.plusMinutes(30), validade()).isPresent());
+            assertTrue(reservas.reservar(4L, 11L, 1, INICIO, FIM, validade()).isPresent());
+
+            assertEquals(2, reservas.listarNoPeriodo(INICIO, FIM.plusMinutes(30)).get(ID_VETERINARIO).size());
+
+        }
+
+    }
+
+    @Test
+    void novaReservaDoClienteSubstituiASobreposta() {
+
+        for (ReservasHorario reservas : List.of(memoria(), banco())) {
+
+            ReservaHorario primeira = reservas.reservar(ID_VETERINARIO, 10L, 1, INICIO, FIM, validade()).orElseThrow();
+            ReservaHorario segunda = reservas.reservar(ID_VETERINARIO, 10L, 1, INICIO.plusMinutes(15), FIM.plusMinutes(15), validade()).orElseThrow();
+
+            assertFalse(reservas.recuperar(primeira.getId()).isPresent());
+            assertEquals(segunda.getId(), reservas.recuperar(segunda.getId()).orElseThrow().getId());
+            assertEquals(1, reservas.contarDoCliente(10L));
+
+            reservas.liberarDoCliente(ID_VETERINARIO, 10L, INICIO, FIM);
+
+            assertEquals(0, reservas.contarDoCliente(10L));
+            assertTrue(reservas.listarDoVeterinario(ID_VETERINARIO, INICIO, FIM.plusMinutes(15)).isEmpty());
+
+        }
+
+    }
+
+    @Test
+    void reservaVencidaNaoBloqueiaOHorario() {
+
+        for (ReservasHorario reservas : List.of(memoria(), banco())) {
+
+            ReservaHorario vencida = reservas.reservar(ID_VETERINARIO, 10L, 1, INICIO, FIM, LocalDateTime.now().minusSeconds(1)).orElseThrow();
+
+            assertFalse(reservas.recuperar(vencida.getId()).isPresent());
+            assertFalse(reservas.reservadoPorOutro(ID_VETERINARIO, 11L, INICIO, FIM));
+            assertEquals(0, reservas.contarDoCliente(10L));
+            assertTrue(reservas.reservar(ID_VETERINARIO, 11L, 1, INICIO, FIM, validade()).isPresent());
+
+        }
+
+    }
+
+    @Test
+    void reservaFeitaEmUmaInstanciaValeNaOutra() {
+
+        ReservasHorario primeira = banco();
+        ReservasHorario segunda = banco();
+
+        ReservaHorario reserva = primeira.reservar(ID_VETERINARIO, 10L, 1, INICIO, FIM, validade()).orElseThrow();
+
+        assertFalse(segunda.reservar(ID_VETERINARIO, 11L, 1, INICIO, FIM, validade()).isPresent());
+        assertTrue(segunda.reservadoPorOutro(ID_VETERINARIO, 11L, INICIO, FIM));
+        assertEquals(reserva.getId(), segunda.recuperar(reserva.getId()).orElseThrow().getId());
+
+        segunda.liberar(reserva);
+
+        assertTrue(primeira.reservar(ID_VETERINARIO, 11L, 1, INICIO, FIM, validade()).isPresent());
+
+    }
+
+    @Test
+    void instanciasConcorrentesNaoReservamOMesmoHorario() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch largada = new CountDownLatch(1);
+
+        try {
+
+            List<Callable<Optional<ReservaHorario>>> tentativas = List.of(
+                    concorrente(banco(), 10L, largada),
+                    concorrente(banco(), 11L, largada));
+
+            List<Future<Optional<ReservaHorario>>> resultados = tentativas.stream().map(executor::submit).toList();
+            largada.countDown();
+
+            long reservadas = 0;
+
+            for (Future<Optional<ReservaHorario>> resultado : resultados) {
+                reservadas += resultado.get().isPresent() ? 1 : 0;
+            }
+
+            assertEquals(1, reservadas);
+
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    @Test
+    void expirarRemoveAsVencidas() {
+
+        ReservasHorario reservas = banco();
+
+        reservas.reservar(ID_VETERINARIO, 10L, 1, INICIO, FIM, LocalDateTime.now().minusSeconds(1));
+        reservas.reservar(4L, 10L, 1, INICIO, FIM, validade());
+
+        reservas.expirar();
+
+        assertEquals(1, new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM reserva_horario", Long.class));
+
+    }
+
+    private Callable<Optional<ReservaHorario>> concorrente(ReservasHorario reservas, Long idCliente, CountDownLatch largada) {
+
+        return () -> {
+            largada.await();
+            return reservas.reservar(ID_VETERINARIO, idCliente, 1, INICIO, FIM, validade());
+        };
+
+    }
+
+    private LocalDateTime validade() {
+
+        return LocalDateTime.now().plusMinutes(5);
+
+    }
+
+    private ReservasHorario memoria() {
+
+        return new ReservasHorarioMemoria(1000, 16);
+
+    }
+
+    private ReservasHorario banco() {
+
+        return new ReservasHorarioBanco(new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource));
+
+    }
+
+}
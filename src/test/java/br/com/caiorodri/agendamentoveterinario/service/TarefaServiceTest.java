@@ -0,0 +1,398 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.caiorodri.agendamentoveterinario.cluster.TravaTarefas;
+import br.com.caiorodri.agendamentoveterinario.dto.TarefaExecucaoDTO;
+import br.com.caiorodri.agendamentoveterinario.enums.TarefaStatusEnum;
+import br.com.caiorodri.agendamentoveterinario.model.TarefaExecucao;
+import br.com.caiorodri.agendamentoveterinario.model.TarefaParticao;
+import br.com.caiorodri.agendamentoveterinario.repository.AnimalRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.TarefaExecucaoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.TarefaParticaoRepository;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+import br.com.caiorodri.agendamentoveterinario.tarefa.TarefaLote;
+
+/**
+ * Executa uma tarefa de teste sobre 1000 IDs não contíguos (3, 6, ..., 3000) e confere que cada item
+ * é processado uma única vez, inclusive com pausa, retomada e partição abandonada por outra instância.
+ * Uma segunda tarefa, sobre a tabela animal, confere que a execução disparada em uma clínica só
+ * processa os animais dessa clínica.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "tarefas.tamanho-lote=50"
+})
+@Import({TarefaService.class, TarefaServiceTest.Configuracao.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TarefaServiceTest {
+
+    private static final List<Long> IDS = LongStream.rangeClosed(1, 1000).map(i -> i * 3).boxed().toList();
+
+    @Autowired
+    private TarefaService tarefaService;
+
+    @Autowired
+    private TarefaExecucaoRepository tarefaExecucaoRepository;
+
+    @Autowired
+    private TarefaParticaoRepository tarefaParticaoRepository;
+
+    @Autowired
+    private TarefaTeste tarefa;
+
+    @Autowired
+    private TarefaAnimais tarefaAnimais;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS trava_tarefa (nome VARCHAR(64) PRIMARY KEY, travado_ate TIMESTAMP NOT NULL, "
+                + "travado_em TIMESTAMP NOT NULL, travado_por VARCHAR(255) NOT NULL)");
+
+        tarefa.processados.clear();
+        tarefa.comErro.clear();
+        tarefa.bloqueio = null;
+        tarefaAnimais.clinicas.clear();
+
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        aguardar(() -> tarefaParticaoRepository.findAll().stream().noneMatch(p -> p.getStatus() == TarefaStatusEnum.EXECUTANDO
+                && "instancia-teste".equals(p.getInstancia())));
+
+        tarefaParticaoRepository.deleteAll();
+        tarefaExecucaoRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM animal");
+        jdbcTemplate.update("DELETE FROM trava_tarefa");
+
+    }
+
+    @Test
+    void processaTodosOsItensUmaVez() {
+
+        tarefa.comErro.addAll(Set.of(30L, 2400L));
+
+        TarefaExecucaoDTO execucao = tarefaService.disparar(TarefaTeste.NOME, "admin@email.com");
+
+        assertEquals(1000, execucao.getTotalItens());
+        assertEquals(4, execucao.getParticoes().size());
+
+        TarefaExecucaoDTO concluida = aguardarStatus(execucao.getId(), TarefaStatusEnum.CONCLUIDA);
+
+        assertProcessadosUmaVez();
+        assertEquals(1000, concluida.getItensProcessados());
+        assertEquals(2, concluida.getItensComErro());
+        assertEquals(100.0, concluida.getPercentualConcluido());
+        assertTrue(concluida.getItensPorSegundo() > 0);
+
+    }
+
+    @Test
+    void naoDisparaComExecucaoEmAndamento() {
+
+        tarefa.bloqueio = new CountDownLatch(1);
+
+        TarefaExecucaoDTO execucao = tarefaService.disparar(TarefaTeste.NOME, "admin@email.com");
+
+        assertThrows(IllegalArgumentException.class, () -> tarefaService.disparar(TarefaTeste.NOME, "admin@email.com"));
+
+        tarefa.bloqueio.countDown();
+        aguardarStatus(execucao.getId(), TarefaStatusEnum.CONCLUIDA);
+
+    }
+
+    @Test
+    void pausaERetomaDoUltimoIdGravado() {
+
+        tarefa.bloqueio = new CountDownLatch(1);
+
+        TarefaExecucaoDTO execucao = tarefaService.disparar(TarefaTeste.NOME, "admin@email.com");
+
+        tarefaService.pausar(execucao.getId());
+        tarefa.bloqueio.countDown();
+
+        // Cada partição termina o lote em andamento e volta a pendente.
+        aguardar(() -> tarefaParticaoRepository.findByIdExecucaoOrderByIndice(execucao.getId()).stream()
+                .allMatch(p -> p.getStatus() == TarefaStatusEnum.PENDENTE));
+
+        TarefaExecucaoDTO pausada = tarefaService.recuperar(execucao.getId());
+
+        assertEquals(TarefaStatusEnum.PAUSADA, pausada.getStatus());
+        assertTrue(pausada.getItensProcessados() < 1000);
+        assertEquals(pausada.getItensProcessados(), tarefa.processados.size());
+
+        tarefaService.retomar(execucao.getId());
+
+        aguardarStatus(execucao.getId(), TarefaStatusEnum.CONCLUIDA);
+        assertProcessadosUmaVez();
+
+    }
+
+    @Test
+    void particaoAbandonadaPorOutraInstanciaContinuaDoUltimoId() {
+
+        TarefaExecucao execucao = tarefaExecucaoRepository.save(new TarefaExecucao(null, null, TarefaTeste.NOME, TarefaStatusEnum.EXECUTANDO,
+                1000, "agendador", LocalDateTime.now().minusMinutes(30), null));
+
+        // A outra instância processou até o ID 1500 e parou de registrar progresso há 10 minutos.
+        tarefaParticaoRepository.save(new TarefaParticao(null, null, execucao.getId(), 0, 3, 3000, 1500L, TarefaStatusEnum.EXECUTANDO,
+                500, 0, "outra-instancia", LocalDateTime.now().minusMinutes(10), null));
+
+        tarefaService.iniciarParticoes();
+
+        TarefaExecucaoDTO concluida = aguardarStatus(execucao.getId(), TarefaStatusEnum.CONCLUIDA);
+
+        assertEquals(IDS.subList(500, 1000), tarefa.processados.keySet().stream().sorted().toList());
+        assertEquals(1000, concluida.getItensProcessados());
+        assertEquals("instancia-teste", concluida.getParticoes().get(0).getInstancia());
+
+    }
+
+    @Test
+    void particaoAtivaDeOutraInstanciaNaoEAssumida() {
+
+        TarefaExecucao execucao = tarefaExecucaoRepository.save(new TarefaExecucao(null, null, TarefaTeste.NOME, TarefaStatusEnum.EXECUTANDO,
+                1000, "agendador", LocalDateTime.now(), null));
+
+        tarefaParticaoRepository.save(new TarefaParticao(null, null, execucao.getId(), 0, 3, 3000, 1500L, TarefaStatusEnum.EXECUTANDO,
+                500, 0, "outra-instancia", LocalDateTime.now(), null));
+
+        tarefaService.iniciarParticoes();
+
+        assertTrue(tarefa.processados.isEmpty());
+        assertEquals("outra-instancia", tarefaParticaoRepository.findByIdExecucaoOrderByIndice(execucao.getId()).get(0).getInstancia());
+
+    }
+
+    @Test
+    void execucaoDisparadaEmUmaClinicaSoProcessaAsLinhasDela() {
+
+        // IDs das duas clínicas intercalados, para que o intervalo da clínica 1 contenha animais da clínica 2.
+        for (int i = 0; i < 200; i++) {
+            jdbcTemplate.update("INSERT INTO animal (id_clinica, nome, peso, altura) VALUES (?, ?, 1, 1)", i % 2 + 1, "Animal " + i);
+        }
+
+        List<Long> daClinica = jdbcTemplate.queryForList("SELECT id FROM animal WHERE id_clinica = 1 ORDER BY id", Long.class);
+        AtomicReference<TarefaExecucaoDTO> execucao = new AtomicReference<>();
+
+        ContextoClinica.definir(1L);
+
+        try {
+            execucao.set(tarefaService.disparar(TarefaAnimais.NOME, "admin@email.com"));
+        } finally {
+            ContextoClinica.limpar();
+        }
+
+        assertEquals(100, execucao.get().getTotalItens());
+
+        TarefaExecucaoDTO concluida = aguardarStatus(execucao.get().getId(), TarefaStatusEnum.CONCLUIDA);
+
+        assertEquals(100, concluida.getItensProcessados());
+        assertEquals(daClinica, tarefaAnimais.clinicas.keySet().stream().sorted().toList());
+        assertTrue(tarefaAnimais.clinicas.values().stream().allMatch(c -> c == 1L), "Animal de outra clínica processado");
+        assertTrue(tarefaParticaoRepository.findByIdExecucaoOrderByIndice(concluida.getId()).stream().allMatch(p -> p.getIdClinica() == 1L));
+
+    }
+
+    private void assertProcessadosUmaVez() {
+
+        assertEquals(IDS, tarefa.processados.keySet().stream().sorted().toList());
+        assertTrue(tarefa.processados.values().stream().allMatch(v -> v.get() == 1), "Item processado mais de uma vez");
+
+    }
+
+    private TarefaExecucaoDTO aguardarStatus(Long id, TarefaStatusEnum status) {
+
+        aguardar(() -> tarefaService.recuperar(id).getStatus() == status);
+
+        return tarefaService.recuperar(id);
+
+    }
+
+    private static void aguardar(Supplier<Boolean> condicao) {
+
+        long limite = System.currentTimeMillis() + 10_000;
+
+        while (!condicao.get()) {
+
+            if (System.currentTimeMillis() > limite) {
+                throw new AssertionError("Condição não atingida em 10 segundos");
+            }
+
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
+    static class TarefaTeste implements TarefaLote {
+
+        static final String NOME = "tarefa-teste";
+
+        final Map<Long, AtomicInteger> processados = new ConcurrentHashMap<>();
+
+        final Set<Long> comErro = ConcurrentHashMap.newKeySet();
+
+        volatile CountDownLatch bloqueio;
+
+        @Override
+        public String getNome() {
+            return NOME;
+        }
+
+        @Override
+        public String getDescricao() {
+            return "Tarefa de teste";
+        }
+
+        @Override
+        public Intervalo recuperarIntervalo() {
+            return new Intervalo(IDS.get(0), IDS.get(IDS.size() - 1), IDS.size());
+        }
+
+        @Override
+        public List<Long> listarIds(long depoisDe, long ate, int limite) {
+            return IDS.stream().filter(id -> id > depoisDe && id <= ate).limit(limite).toList();
+        }
+
+        @Override
+        public void processar(Long id) {
+
+            CountDownLatch latch = bloqueio;
+
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            processados.computeIfAbsent(id, i -> new AtomicInteger()).incrementAndGet();
+
+            if (comErro.contains(id)) {
+                throw new IllegalStateException("Erro no item " + id);
+            }
+
+        }
+
+    }
+
+    /** Processa os animais visíveis na clínica da partição, anotando a clínica gravada em cada um. */
+    static class TarefaAnimais implements TarefaLote {
+
+        static final String NOME = "tarefa-animais";
+
+        final Map<Long, Long> clinicas = new ConcurrentHashMap<>();
+
+        final AnimalRepository animalRepository;
+
+        final JdbcTemplate jdbcTemplate;
+
+        TarefaAnimais(AnimalRepository animalRepository, JdbcTemplate jdbcTemplate) {
+            this.animalRepository = animalRepository;
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public String getNome() {
+            return NOME;
+        }
+
+        @Override
+        public String getDescricao() {
+            return "Tarefa de teste sobre os animais";
+        }
+
+        @Override
+        public Intervalo recuperarIntervalo() {
+
+            Object[] intervalo = animalRepository.findIntervaloIds().get(0);
+
+            return intervalo[0] == null ? null : new Intervalo((Long) intervalo[0], (Long) intervalo[1], (Long) intervalo[2]);
+
+        }
+
+        @Override
+        public List<Long> listarIds(long depoisDe, long ate, int limite) {
+            return animalRepository.findIdsNoIntervalo(depoisDe, ate, Limit.of(limite));
+        }
+
+        @Override
+        public void processar(Long id) {
+            clinicas.put(id, jdbcTemplate.queryForObject("SELECT id_clinica FROM animal WHERE id = ?", Long.class, id));
+        }
+
+    }
+
+    @TestConfiguration
+    static class Configuracao {
+
+        @Bean
+        TarefaTeste tarefaTeste() {
+            return new TarefaTeste();
+        }
+
+        @Bean
+        TarefaAnimais tarefaAnimais(AnimalRepository animalRepository, JdbcTemplate jdbcTemplate) {
+            return new TarefaAnimais(animalRepository, jdbcTemplate);
+        }
+
+        @Bean
+        TravaTarefas travaTarefas(JdbcTemplate jdbcTemplate) {
+            return new TravaTarefas(jdbcTemplate, "instancia-teste");
+        }
+
+        @Bean(name = "executorTarefas")
+        ThreadPoolTaskExecutor executorTarefas() {
+
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(4);
+            executor.setMaxPoolSize(4);
+            executor.initialize();
+
+            return executor;
+
+        }
+
+    }
+
+}
@@ -0,0 +1,135 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.caiorodri.agendamentoveterinario.dto.EnderecoDTO;
+import br.com.caiorodri.agendamentoveterinario.dto.UsuarioAtualizacaoDTO;
+import br.com.caiorodri.agendamentoveterinario.model.Estado;
+import br.com.caiorodri.agendamentoveterinario.model.Perfil;
+import br.com.caiorodri.agendamentoveterinario.model.Usuario;
+import br.com.caiorodri.agendamentoveterinario.repository.EstadoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.PerfilRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.StatusRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
+
+/**
+ * O PATCH de usuário rejeita com erro de validação status, perfil e estado inexistentes, e só deixa
+ * administradores alterarem outros usuários ou o status e o perfil.
+ */
+class UsuarioServiceTest {
+
+    private static final Long ID = 7L;
+
+    private UsuarioService usuarioService;
+
+    private AtualizacaoParcialService atualizacaoParcialService;
+
+    @BeforeEach
+    void setUp() {
+
+        StatusRepository statusRepository = mock(StatusRepository.class);
+        PerfilRepository perfilRepository = mock(PerfilRepository.class);
+        EstadoRepository estadoRepository = mock(EstadoRepository.class);
+        atualizacaoParcialService = mock(AtualizacaoParcialService.class);
+
+        when(statusRepository.existsById(1)).thenReturn(true);
+        when(perfilRepository.existsById(2)).thenReturn(true);
+        when(estadoRepository.existsById("SP")).thenReturn(true);
+        when(atualizacaoParcialService.atualizar(eq(Usuario.class), eq(ID), anyInt(), anyMap())).thenReturn(1);
+        when(atualizacaoParcialService.resposta(eq(Usuario.class), eq(ID), anyInt(), anyMap())).thenReturn(Map.of("id", ID));
+
+        usuarioService = new UsuarioService();
+        ReflectionTestUtils.setField(usuarioService, "usuarioRepository", mock(UsuarioRepository.class));
+        ReflectionTestUtils.setField(usuarioService, "statusRepository", statusRepository);
+        ReflectionTestUtils.setField(usuarioService, "perfilRepository", perfilRepository);
+        ReflectionTestUtils.setField(usuarioService, "estadoRepository", estadoRepository);
+        ReflectionTestUtils.setField(usuarioService, "atualizacaoParcialService", atualizacaoParcialService);
+        ReflectionTestUtils.setField(usuarioService, "eventPublisher", mock(ApplicationEventPublisher.class));
+
+    }
+
+    @Test
+    void statusPerfilOuEstadoInexistenteEErroDeValidacao() {
+
+        Usuario administrador = usuario(1L, 4);
+
+        assertEquals("Status com id 9 não encontrado.", assertThrows(IllegalArgumentException.class,
+                () -> usuarioService.atualizarParcial(ID, atualizacao(dto -> dto.setIdStatus(9)), administrador)).getMessage());
+        assertEquals("Perfil com id 9 não encontrado.", assertThrows(IllegalArgumentException.class,
+                () -> usuarioService.atualizarParcial(ID, atualizacao(dto -> dto.setIdPerfil(9)), administrador)).getMessage());
+        assertEquals("Estado XX não encontrado.", assertThrows(IllegalArgumentException.class,
+                () -> usuarioService.atualizarParcial(ID, atualizacao(dto -> dto.setEndereco(endereco("XX"))), administrador)).getMessage());
+
+        verify(atualizacaoParcialService, never()).atualizar(any(), anyLong(), anyInt(), anyMap());
+
+        assertEquals(Map.of("id", ID), usuarioService.atualizarParcial(ID, atualizacao(dto -> {
+            dto.setIdStatus(1);
+            dto.setIdPerfil(2);
+            dto.setEndereco(endereco("SP"));
+        }), administrador));
+
+    }
+
+    @Test
+    void soAdministradorAlteraOutroUsuarioOuStatusEPerfil() {
+
+        Usuario recepcionista = usuario(2L, 2);
+        Usuario proprio = usuario(ID, 1);
+
+        assertThrows(SecurityException.class, () -> usuarioService.atualizarParcial(ID, atualizacao(dto -> dto.setNome("Outro")), recepcionista));
+        assertThrows(SecurityException.class, () -> usuarioService.atualizarParcial(ID, atualizacao(dto -> dto.setIdPerfil(2)), proprio));
+        assertThrows(SecurityException.class, () -> usuarioService.atualizarParcial(ID, atualizacao(dto -> dto.setIdStatus(1)), proprio));
+
+        verify(atualizacaoParcialService, never()).atualizar(any(), anyLong(), anyInt(), anyMap());
+
+        assertEquals(Map.of("id", ID), usuarioService.atualizarParcial(ID, atualizacao(dto -> dto.setNome("Novo nome")), proprio));
+
+    }
+
+    private static Usuario usuario(Long id, Integer idPerfil) {
+
+        Usuario usuario = new Usuario(id);
+        usuario.setPerfil(new Perfil(idPerfil));
+
+        return usuario;
+
+    }
+
+    private static EnderecoDTO endereco(String siglaEstado) {
+
+        EnderecoDTO endereco = new EnderecoDTO();
+        endereco.setEstado(new Estado(siglaEstado, null));
+
+        return endereco;
+
+    }
+
+    private static UsuarioAtualizacaoDTO atualizacao(Consumer<UsuarioAtualizacaoDTO> campos) {
+
+        UsuarioAtualizacaoDTO atualizacao = new UsuarioAtualizacaoDTO();
+        atualizacao.setVersao(0);
+        campos.accept(atualizacao);
+
+        return atualizacao;
+
+    }
+
+}
@@ -0,0 +1,156 @@
+package br.com.caiorodri.agendamentoveterinario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import br.com.caiorodri.agendamentoveterinario.repository.AgendamentoRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.AnimalRepository;
+import br.com.caiorodri.agendamentoveterinario.repository.UsuarioRepository;
+import br.com.caiorodri.agendamentoveterinario.security.ContextoClinica;
+
+/**
+ * O ETag só muda quando muda a versão das linhas envolvidas, a clínica ou os parâmetros, e o cliente
+ * que reenvia o ETag atual recebe 304 pelo checkNotModified usado nos controllers.
+ */
+class VersaoRecursoServiceTest {
+
+    private static final LocalDateTime ATUALIZACAO = LocalDateTime.of(2030, 3, 10, 9, 0);
+
+    private VersaoRecursoService versaoRecursoService;
+
+    private AgendamentoRepository agendamentoRepository;
+
+    private UsuarioRepository usuarioRepository;
+
+    private AnimalRepository animalRepository;
+
+    @BeforeEach
+    void setUp() {
+
+        agendamentoRepository = mock(AgendamentoRepository.class);
+        usuarioRepository = mock(UsuarioRepository.class);
+        animalRepository = mock(AnimalRepository.class);
+
+        when(agendamentoRepository.findVersao()).thenReturn(versao(10, ATUALIZACAO));
+        when(usuarioRepository.findVersao()).thenReturn(versao(5, ATUALIZACAO));
+        when(animalRepository.findVersao()).thenReturn(versao(7, ATUALIZACAO));
+
+        versaoRecursoService = new VersaoRecursoService();
+        ReflectionTestUtils.setField(versaoRecursoService, "agendamentoRepository", agendamentoRepository);
+        ReflectionTestUtils.setField(versaoRecursoService, "usuarioRepository", usuarioRepository);
+        ReflectionTestUtils.setField(versaoRecursoService, "animalRepository", animalRepository);
+
+        ContextoClinica.definir(1L);
+
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        ContextoClinica.limpar();
+
+    }
+
+    @Test
+    void etagDaColecaoMudaComVersaoClinicaOuParametros() {
+
+        String etag = versaoRecursoService.etagColecao("agendamentos", 0, 10, null);
+
+        assertTrue(etag.startsWith("W/\""));
+        assertEquals(etag, versaoRecursoService.etagColecao("agendamentos", 0, 10, null));
+        assertNotEquals(etag, versaoRecursoService.etagColecao("agendamentos", 1, 10, null));
+        assertNotEquals(etag, versaoRecursoService.etagColecao("clientes", 0, 10, null));
+
+        ContextoClinica.definir(2L);
+        assertNotEquals(etag, versaoRecursoService.etagColecao("agendamentos", 0, 10, null));
+        ContextoClinica.definir(1L);
+
+        // Animal alterado: a data_atualizacao máxima muda mesmo sem mudar a quantidade.
+        when(animalRepository.findVersao()).thenReturn(versao(7, ATUALIZACAO.plusNanos(1000)));
+        assertNotEquals(etag, versaoRecursoService.etagColecao("agendamentos", 0, 10, null));
+
+        // Animal excluído: a quantidade muda mesmo que a data máxima continue a mesma.
+        when(animalRepository.findVersao()).thenReturn(versao(6, ATUALIZACAO));
+        assertNotEquals(etag, versaoRecursoService.etagColecao("agendamentos", 0, 10, null));
+
+    }
+
+    @Test
+    void etagDoUsuarioIncluiAnimaisEAgendamentosENuloSeNaoExistir() {
+
+        when(usuarioRepository.findDataAtualizacaoById(1L)).thenReturn(List.of(ATUALIZACAO));
+        when(agendamentoRepository.findVersaoByCliente(1L)).thenReturn(versao(2, ATUALIZACAO));
+        when(animalRepository.findVersaoByDono(1L)).thenReturn(versao(1, ATUALIZACAO));
+
+        String etag = versaoRecursoService.etagUsuario(1L);
+
+        when(agendamentoRepository.findVersaoByCliente(1L)).thenReturn(versao(3, ATUALIZACAO));
+
+        assertNotEquals(etag, versaoRecursoService.etagUsuario(1L));
+        assertNull(versaoRecursoService.etagUsuario(2L));
+        assertNull(versaoRecursoService.etagAgendamento(2L));
+
+    }
+
+    @Test
+    void ifNoneMatchComEtagAtualResponde304EComEtagAntigoNao() {
+
+        when(agendamentoRepository.findVersaoById(5L)).thenReturn(versao(1, ATUALIZACAO));
+
+        String etag = versaoRecursoService.etagAgendamento(5L);
+
+        MockHttpServletResponse naoModificado = new MockHttpServletResponse();
+
+        assertTrue(new ServletWebRequest(requisicao(etag), naoModificado).checkNotModified(etag));
+        assertEquals(304, naoModificado.getStatus());
+        assertEquals(etag, naoModificado.getHeader(HttpHeaders.ETAG));
+
+        when(agendamentoRepository.findVersaoById(5L)).thenReturn(versao(1, ATUALIZACAO.plusSeconds(1)));
+
+        String etagNovo = versaoRecursoService.etagAgendamento(5L);
+        MockHttpServletResponse modificado = new MockHttpServletResponse();
+
+        assertFalse(new ServletWebRequest(requisicao(etag), modificado).checkNotModified(etagNovo));
+        assertEquals(200, modificado.getStatus());
+        assertEquals(etagNovo, modificado.getHeader(HttpHeaders.ETAG));
+
+    }
+
+    private static MockHttpServletRequest requisicao(String ifNoneMatch) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/agendamentos/5");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+
+        return request;
+
+    }
+
+    private static List<Object[]> versao(long quantidade, LocalDateTime dataAtualizacao) {
+
+        // List.of(Object[]) trataria o array como os próprios elementos da lista.
+        List<Object[]> linhas = new ArrayList<>();
+        linhas.add(new Object[] {quantidade, dataAtualizacao});
+
+        return linhas;
+
+    }
+
+}